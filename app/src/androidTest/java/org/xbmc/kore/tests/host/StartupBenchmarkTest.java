@@ -0,0 +1,260 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.tests.host;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.HostConnectionObserver;
+import org.xbmc.kore.host.HostInfo;
+import org.xbmc.kore.host.HostSnapshot;
+import org.xbmc.kore.host.actions.GetPlaylist;
+import org.xbmc.kore.jsonrpc.notification.Player.NotificationsData;
+import org.xbmc.kore.jsonrpc.type.ListType;
+import org.xbmc.kore.jsonrpc.type.PlayerType;
+import org.xbmc.kore.testutils.tcpserver.MockTcpServer;
+import org.xbmc.kore.testutils.tcpserver.handlers.ApplicationHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.JSONConnectionHandlerManager;
+import org.xbmc.kore.testutils.tcpserver.handlers.JSONRPCHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.PlayerHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.PlaylistHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.response.methods.Playlist;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+import static org.xbmc.kore.testutils.TestUtils.createMusicItem;
+
+/**
+ * Measures the time to first content when the app starts: the time from creating the connection observer
+ * of a host until its observers get the player state and the playlists. It's measured cold, with no snapshot
+ * of the host, and warm, with the snapshot saved by the previous start, and the distribution of each is logged.
+ * The mock server answers without latency, so the gain of the snapshot with a real host over a network is
+ * larger than the one measured here.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmarkTest {
+    private static final String TAG = StartupBenchmarkTest.class.getSimpleName();
+
+    private static final int HOST_ID = 1000;
+    private static final int RUNS = 20;
+    private static final int PLAYLIST_ITEMS = 50;
+    private static final long TIMEOUT_S = 10;
+
+    private static MockTcpServer server;
+    private static PlayerHandler playerHandler;
+    private static PlaylistHandler playlistHandler;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    @BeforeClass
+    public static void setupMockTCPServer() throws Throwable {
+        playerHandler = new PlayerHandler();
+        playlistHandler = new PlaylistHandler();
+        JSONConnectionHandlerManager manager = new JSONConnectionHandlerManager();
+        manager.addHandler(playerHandler);
+        manager.addHandler(new ApplicationHandler());
+        manager.addHandler(playlistHandler);
+        manager.addHandler(new JSONRPCHandler());
+        server = new MockTcpServer(manager);
+        server.start();
+
+        for (int i = 0; i < PLAYLIST_ITEMS; i++) {
+            playlistHandler.addItemToPlaylist(Playlist.playlistID.AUDIO, createMusicItem(i, i), false);
+        }
+        playerHandler.setPlaylists(playlistHandler.getPlaylists());
+        playerHandler.startPlay(Playlist.playlistID.AUDIO, 0);
+    }
+
+    @AfterClass
+    public static void cleanup() throws IOException {
+        server.shutdown();
+    }
+
+    @After
+    public void deleteSnapshots() {
+        deleteSnapshotsDirectory();
+    }
+
+    @Test
+    public void timeToFirstContent() throws Exception {
+        List<Long> coldPlayer = new ArrayList<>(), coldPlaylists = new ArrayList<>(),
+                warmPlayer = new ArrayList<>(), warmPlaylists = new ArrayList<>();
+
+        for (int run = 0; run < RUNS; run++) {
+            deleteSnapshotsDirectory();
+            HostSnapshot snapshot = measure(coldPlayer, coldPlaylists);
+            // Save what the cold start read, as it would be saved before the next start
+            snapshot.write();
+            measure(warmPlayer, warmPlaylists);
+        }
+
+        logDistribution("Cold start, player", coldPlayer);
+        logDistribution("Cold start, playlists", coldPlaylists);
+        logDistribution("Warm start, player", warmPlayer);
+        logDistribution("Warm start, playlists", warmPlaylists);
+    }
+
+    /**
+     * Starts observing the host, the way the app does when it starts, and adds the times until the player
+     * state and the playlists are shown
+     * @return Snapshot used
+     */
+    private HostSnapshot measure(List<Long> playerTimes, List<Long> playlistsTimes) throws Exception {
+        HostInfo hostInfo = new HostInfo(HOST_ID, "Benchmark", server.getHostName(), HostConnection.PROTOCOL_TCP,
+                                         HostInfo.DEFAULT_HTTP_PORT, server.getPort(), null, null, null,
+                                         HostInfo.DEFAULT_WOL_PORT, false, false, HostInfo.DEFAULT_EVENT_SERVER_PORT,
+                                         HostInfo.DEFAULT_KODI_VERSION_MAJOR, HostInfo.DEFAULT_KODI_VERSION_MINOR,
+                                         HostInfo.DEFAULT_KODI_VERSION_REVISION, HostInfo.DEFAULT_KODI_VERSION_TAG,
+                                         0, false);
+        HostConnection connection = new HostConnection(hostInfo);
+
+        final long start = SystemClock.elapsedRealtime();
+        final HostSnapshot snapshot = HostSnapshot.read(context, HOST_ID);
+        final HostConnectionObserver observer = new HostConnectionObserver(connection, snapshot);
+        final TimingObserver timingObserver = new TimingObserver(start);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            observer.registerPlayerObserver(timingObserver);
+            observer.registerPlaylistObserver(timingObserver);
+        });
+
+        assertTrue("Player state not shown", timingObserver.playerLatch.await(TIMEOUT_S, TimeUnit.SECONDS));
+        assertTrue("Playlists not shown", timingObserver.playlistsLatch.await(TIMEOUT_S, TimeUnit.SECONDS));
+        playerTimes.add(timingObserver.playerTime);
+        playlistsTimes.add(timingObserver.playlistsTime);
+
+        // Wait for the current state, so that it's in the snapshot when it's saved
+        long deadline = SystemClock.elapsedRealtime() + TimeUnit.SECONDS.toMillis(TIMEOUT_S);
+        while (snapshot.getPlaylists() == null ||
+               snapshot.getPlayerState() != HostConnectionObserver.PlayerEventsObserver.PLAYER_IS_PLAYING) {
+            assertTrue("Host state not read", SystemClock.elapsedRealtime() < deadline);
+            Thread.sleep(10);
+        }
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            observer.unregisterPlayerObserver(timingObserver);
+            observer.unregisterPlaylistObserver(timingObserver);
+            observer.stopObserving();
+        });
+        connection.disconnect();
+        return snapshot;
+    }
+
+    private void deleteSnapshotsDirectory() {
+        File directory = new File(context.getFilesDir(), "host_snapshots");
+        File[] files = directory.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    private void logDistribution(String title, List<Long> times) {
+        Collections.sort(times);
+        long total = 0;
+        for (long time : times) total += time;
+        Log.i(TAG, title + ": runs " + times.size() +
+                   ", mean " + (total / times.size()) + " ms" +
+                   ", p50 " + times.get(times.size() / 2) + " ms" +
+                   ", p90 " + times.get((int) (times.size() * 0.9)) + " ms" +
+                   ", max " + times.get(times.size() - 1) + " ms");
+    }
+
+    /**
+     * Records the time of the first player state and playlists it's notified of
+     */
+    private static class TimingObserver implements HostConnectionObserver.PlayerEventsObserver,
+            HostConnectionObserver.PlaylistEventsObserver {
+        final CountDownLatch playerLatch = new CountDownLatch(1),
+                playlistsLatch = new CountDownLatch(1);
+        private final long start;
+        long playerTime, playlistsTime;
+
+        TimingObserver(long start) {
+            this.start = start;
+        }
+
+        private void playerShown() {
+            if (playerLatch.getCount() == 0) return;
+            playerTime = SystemClock.elapsedRealtime() - start;
+            playerLatch.countDown();
+        }
+
+        @Override
+        public void onPlayerPlay(PlayerType.GetActivePlayersReturnType getActivePlayerResult,
+                                 PlayerType.PropertyValue getPropertiesResult, ListType.ItemsAll getItemResult) {
+            playerShown();
+        }
+
+        @Override
+        public void onPlayerPause(PlayerType.GetActivePlayersReturnType getActivePlayerResult,
+                                  PlayerType.PropertyValue getPropertiesResult, ListType.ItemsAll getItemResult) {
+            playerShown();
+        }
+
+        @Override
+        public void onPlayerStop() {
+            playerShown();
+        }
+
+        @Override
+        public void onPlaylistsAvailable(ArrayList<GetPlaylist.GetPlaylistResult> playlists) {
+            if (playlistsLatch.getCount() == 0) return;
+            playlistsTime = SystemClock.elapsedRealtime() - start;
+            playlistsLatch.countDown();
+        }
+
+        @Override
+        public void onPlayerPropertyChanged(NotificationsData notificationsData) {}
+
+        @Override
+        public void onPlayerConnectionError(int errorCode, String description) {}
+
+        @Override
+        public void onPlayerNoResultsYet() {}
+
+        @Override
+        public void onSystemQuit() {}
+
+        @Override
+        public void onInputRequested(String title, String type, String value) {}
+
+        @Override
+        public void onObserverStopObserving() {}
+
+        @Override
+        public void onPlaylistClear(int playlistId) {}
+
+        @Override
+        public void onPlaylistError(int errorCode, String description) {}
+    }
+}
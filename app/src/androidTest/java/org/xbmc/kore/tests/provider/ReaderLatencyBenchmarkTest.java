@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.tests.provider;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.provider.MediaDatabase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Measures how long list queries take while a library sync writes to the database, with and without
+ * write ahead logging. A writer thread inserts pages of songs the way a music sync does, while the test
+ * thread keeps reading windows of the songs list, as a scrolling list does. The distribution of the read
+ * latencies of each configuration is logged.
+ * Runs on a device, as the SQLite used by the local tests doesn't run connections concurrently.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ReaderLatencyBenchmarkTest {
+    private static final String TAG = ReaderLatencyBenchmarkTest.class.getSimpleName();
+    private static final String DB_NAME = "reader_latency_benchmark.sqlite";
+
+    private static final int HOST_ID = 1;
+    private static final int INITIAL_SONGS = 20000;
+    private static final int SYNC_PAGES = 100;
+    private static final int PAGE_SIZE = 500;
+    // Time between pages, as the sync waits for the next page from Kodi
+    private static final long PAGE_INTERVAL_MS = 20;
+    private static final int WINDOW_SIZE = 50;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private MediaDatabase mediaDatabase;
+
+    @After
+    public void deleteDatabase() {
+        if (mediaDatabase != null) mediaDatabase.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void readerLatencyDuringSync() throws Exception {
+        List<Long> withoutWal = measure(false);
+        List<Long> withWal = measure(true);
+
+        logDistribution("Without write ahead logging", withoutWal);
+        logDistribution("With write ahead logging", withWal);
+    }
+
+    private List<Long> measure(boolean writeAheadLogging) throws Exception {
+        context.deleteDatabase(DB_NAME);
+        mediaDatabase = new MediaDatabase(context, DB_NAME);
+        mediaDatabase.setWriteAheadLoggingEnabled(writeAheadLogging);
+        final SQLiteDatabase db = mediaDatabase.getWritableDatabase();
+
+        ContentValues host = new ContentValues();
+        host.put(MediaContract.Hosts._ID, HOST_ID);
+        host.put(MediaContract.Hosts.NAME, "Benchmark");
+        host.put(MediaContract.Hosts.UPDATED, System.currentTimeMillis());
+        db.insertOrThrow(MediaDatabase.Tables.HOSTS, null, host);
+        insertSongs(db, 0, INITIAL_SONGS);
+
+        Thread writer = new Thread(() -> {
+            for (int page = 0; page < SYNC_PAGES; page++) {
+                insertSongs(db, INITIAL_SONGS + page * PAGE_SIZE, PAGE_SIZE);
+                try {
+                    Thread.sleep(PAGE_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            if (writeAheadLogging) mediaDatabase.checkpoint();
+        });
+
+        ArrayList<Long> latencies = new ArrayList<>();
+        int offset = 0;
+        writer.start();
+        while (writer.isAlive()) {
+            long start = System.nanoTime();
+            try (Cursor cursor = db.query(MediaDatabase.Tables.SONGS, new String[] {MediaContract.Songs._ID, MediaContract.Songs.TITLE},
+                                          MediaContract.Songs.HOST_ID + "=" + HOST_ID, null, null, null,
+                                          MediaContract.Songs.TITLE + " COLLATE NOCASE ASC",
+                                          offset + "," + WINDOW_SIZE)) {
+                while (cursor.moveToNext()) {
+                    cursor.getString(1);
+                }
+            }
+            latencies.add(System.nanoTime() - start);
+            offset = (offset + WINDOW_SIZE) % INITIAL_SONGS;
+        }
+        writer.join();
+
+        mediaDatabase.close();
+        mediaDatabase = null;
+        assertFalse("No reads during the sync", latencies.isEmpty());
+        return latencies;
+    }
+
+    private static void insertSongs(SQLiteDatabase db, int first, int count) {
+        SQLiteStatement statement = db.compileStatement(
+                "INSERT INTO " + MediaDatabase.Tables.SONGS + "(" + MediaContract.Songs.UPDATED + "," + MediaContract.Songs.HOST_ID + "," +
+                MediaContract.Songs.ALBUMID + "," + MediaContract.Songs.SONGID + "," +
+                MediaContract.Songs.TITLE + "," + MediaContract.Songs.DISPLAYARTIST + "," +
+                MediaContract.Songs.FILE + ") VALUES (?,?,?,?,?,?,?)");
+        db.beginTransaction();
+        try {
+            for (int i = first; i < first + count; i++) {
+                statement.bindLong(1, System.currentTimeMillis());
+                statement.bindLong(2, HOST_ID);
+                statement.bindLong(3, i / 10);
+                statement.bindLong(4, i);
+                statement.bindString(5, "Song " + i);
+                statement.bindString(6, "Artist " + i / 100);
+                statement.bindString(7, "/music/" + i + ".flac");
+                statement.executeInsert();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            statement.close();
+        }
+    }
+
+    private static void logDistribution(String name, List<Long> latencies) {
+        Collections.sort(latencies);
+        Log.i(TAG, String.format("%s: %d reads, p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms",
+                                 name, latencies.size(),
+                                 percentile(latencies, 50), percentile(latencies, 90),
+                                 percentile(latencies, 99), latencies.get(latencies.size() - 1) / 1000000.0));
+    }
+
+    private static double percentile(List<Long> sortedLatencies, int percentile) {
+        int index = Math.min(sortedLatencies.size() - 1, sortedLatencies.size() * percentile / 100);
+        return sortedLatencies.get(index) / 1000000.0;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.testutils.tcpserver;
+
+import androidx.annotation.NonNull;
+
+import org.xbmc.kore.testutils.tcpserver.handlers.JSONConnectionHandlerManager;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.ErrorResponse;
+import org.xbmc.kore.utils.LogUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import fi.iki.elonen.NanoHTTPD;
+
+/**
+ * Mock of Kodi's JSON-RPC HTTP endpoint, answering POSTs to /jsonrpc with the same handlers as
+ * {@link MockTcpServer}. Single requests and batches are supported, and methods without a handler get a
+ * method not found error, as Kodi does.
+ * The {@link NetworkConditions} set are applied to the responses, with dropped connections answered with
+ * a server error.
+ */
+public class MockHttpServer extends NanoHTTPD {
+    public static final String TAG = LogUtils.makeLogTag(MockHttpServer.class);
+
+    private static final String JSONRPC_PATH = "/jsonrpc";
+    private static final String MIME_JSON = "application/json";
+    private static final int SOCKET_READ_TIMEOUT = 30000;
+
+    private final JSONConnectionHandlerManager connectionHandlerManager;
+    private NetworkConditions networkConditions = new NetworkConditions();
+
+    /**
+     * Constructor, for a server on localhost on a random free port
+     */
+    public MockHttpServer(JSONConnectionHandlerManager connectionHandlerManager) {
+        super("localhost", 0);
+        this.connectionHandlerManager = connectionHandlerManager;
+    }
+
+    /**
+     * Sets the network conditions applied to the responses
+     */
+    public void setNetworkConditions(@NonNull NetworkConditions networkConditions) {
+        this.networkConditions = networkConditions;
+    }
+
+    @Override
+    public void start() throws IOException {
+        start(SOCKET_READ_TIMEOUT, true);
+        LogUtils.LOGD(TAG, "start: server started on " + getHostname() + ":" + getListeningPort());
+    }
+
+    @Override
+    public Response serve(IHTTPSession session) {
+        if (session.getMethod() != Method.POST || !JSONRPC_PATH.equals(session.getUri())) {
+            return newFixedLengthResponse(Response.Status.NOT_FOUND, MIME_PLAINTEXT, "Not found");
+        }
+
+        String request;
+        try {
+            Map<String, String> body = new HashMap<>();
+            session.parseBody(body);
+            request = body.get("postData");
+        } catch (IOException | ResponseException e) {
+            LogUtils.LOGD(TAG, "serve: error reading request: " + e.getMessage());
+            return newFixedLengthResponse(Response.Status.BAD_REQUEST, MIME_PLAINTEXT, "Bad request");
+        }
+
+        NetworkConditions.Fault fault = networkConditions.nextFault();
+        networkConditions.delay();
+        if (fault == NetworkConditions.Fault.DROP) {
+            return newFixedLengthResponse(Response.Status.INTERNAL_ERROR, MIME_PLAINTEXT, "Server error");
+        }
+
+        String response = (request == null) ? null :
+                          (fault == NetworkConditions.Fault.ERROR) ?
+                          connectionHandlerManager.getErrorResponse(request) :
+                          connectionHandlerManager.processHttpRequest(request);
+        if (response == null) {
+            response = new ErrorResponse(ErrorResponse.PARSE_ERROR, "Parse error.").toJsonString();
+        }
+
+        byte[] data = response.getBytes(StandardCharsets.UTF_8);
+        return newChunkedResponse(Response.Status.OK, MIME_JSON, networkConditions.throttle(data));
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "MockHttpServer[" + getListeningPort() + "]";
+    }
+}
@@ -22,60 +22,87 @@ import okhttp3.internal.Util;
 
 import org.xbmc.kore.utils.LogUtils;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-
-import java.io.PrintWriter;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import javax.net.ServerSocketFactory;
 
+/**
+ * Mock of Kodi's JSON-RPC TCP server.
+ * Each client connection is read on its own thread, which answers each request as soon as it's processed,
+ * so that clients are served concurrently. Notifications are sent to all the clients connected.
+ * The {@link NetworkConditions} set are applied to the responses.
+ */
 public class MockTcpServer {
     public static final String TAG = LogUtils.makeLogTag(MockTcpServer.class);
 
+    // Connections waiting to be accepted, enough for hundreds of clients connecting at the same time
+    private static final int BACKLOG = 512;
+    private static final long NOTIFICATIONS_INTERVAL_MS = 100;
+
     private final ServerSocketFactory serverSocketFactory = ServerSocketFactory.getDefault();
     private ServerSocket serverSocket;
-    private boolean running;
+    private volatile boolean running;
     private ExecutorService executor;
+    private ScheduledExecutorService notificationsExecutor;
     private int port = -1;
     private InetSocketAddress inetSocketAddress;
+    private NetworkConditions networkConditions = new NetworkConditions();
 
-    private final Set<Socket> openClientSockets =
+    private final Set<Connection> openConnections =
             Collections.newSetFromMap(new ConcurrentHashMap<>());
 
     private final TcpServerConnectionHandler connectionHandler;
 
-    // TODO
-    // Enhance handler to handle multiple connections simultaneously. It can now handle one
-    // connection at a time, which makes the current setup of the MockTcpServer (with threading)
-    // overkill.
     public interface TcpServerConnectionHandler {
         /**
-         * Processes received input
+         * Processes a request received from a client, which can be a batch of requests
+         * @param request JSON request
+         * @return Response to send back to the client, or null if there's none
+         */
+        String processRequest(String request);
+
+        /**
+         * Returns the error response to send back instead of processing a request
+         * @param request JSON request
+         * @return Error response
          */
-        void processInput(Socket socket);
+        String getErrorResponse(String request);
 
         /**
-         * Gets the answer for this handler that should be returned to the server after input has been
-         * processed successfully
-         * @return answer or null if no answer is available
+         * Gets the notifications that should be sent to all the clients
+         * @return notifications or null if there are none
          */
-        String getResponse();
+        String getNotifications();
     }
 
     public MockTcpServer(TcpServerConnectionHandler handler) {
         connectionHandler = handler;
     }
 
+    /**
+     * Sets the network conditions applied to the responses
+     */
+    public void setNetworkConditions(@NonNull NetworkConditions networkConditions) {
+        this.networkConditions = networkConditions;
+    }
+
     /**
      * Starts the server on localhost on a random free port
      */
@@ -95,38 +122,30 @@ public class MockTcpServer {
         serverSocket = serverSocketFactory.createServerSocket();
         // Reuse port if not using a random port
         serverSocket.setReuseAddress(inetSocketAddress.getPort() != 0);
-        serverSocket.bind(inetSocketAddress, 50);
+        serverSocket.bind(inetSocketAddress, BACKLOG);
 
         executor = Executors.newCachedThreadPool(Util.threadFactory("MockTcpServer", false));
+        notificationsExecutor = Executors.newSingleThreadScheduledExecutor(
+                Util.threadFactory("MockTcpServer notifications", false));
 
         port = serverSocket.getLocalPort();
 
         LogUtils.LOGD(TAG, "start: server started on " + serverSocket.getInetAddress() + ":" + port);
 
-        executor.execute(new Runnable() {
-            @Override
-            public void run() {
-                while (running) {
-                    try {
-                        Socket socket = acceptConnection();
-                        serveConnection(socket);
-                    } catch(IOException e){
-                        //Socket closed
-                        LogUtils.LOGD(TAG, "acceptConnection: " + e.getMessage());
-                    }
-                }
-            }
-
-            private Socket acceptConnection() throws IOException {
-                Socket socket = serverSocket.accept();
-
-                synchronized (openClientSockets) {
-                    openClientSockets.add(socket);
+        executor.execute(() -> {
+            while (running) {
+                try {
+                    Connection connection = new Connection(serverSocket.accept());
+                    openConnections.add(connection);
+                    executor.execute(() -> serveConnection(connection));
+                } catch (IOException e) {
+                    //Socket closed
+                    LogUtils.LOGD(TAG, "acceptConnection: " + e.getMessage());
                 }
-
-                return socket;
             }
         });
+        notificationsExecutor.scheduleWithFixedDelay(this::sendNotifications, NOTIFICATIONS_INTERVAL_MS,
+                                                     NOTIFICATIONS_INTERVAL_MS, TimeUnit.MILLISECONDS);
     }
 
     public synchronized void shutdown() throws IOException {
@@ -137,13 +156,13 @@ public class MockTcpServer {
         running = false;
 
         // Release all sockets and all threads, even if any close fails.
-        for (Iterator<Socket> s = openClientSockets.iterator(); s.hasNext(); ) {
-            Socket socket = s.next();
-            Util.closeQuietly(socket);
-            s.remove();
+        for (Iterator<Connection> c = openConnections.iterator(); c.hasNext(); ) {
+            c.next().close();
+            c.remove();
         }
         Util.closeQuietly(serverSocket);
 
+        notificationsExecutor.shutdown();
         executor.shutdown();
 
         // Await shutdown.
@@ -171,49 +190,108 @@ public class MockTcpServer {
         return inetSocketAddress.getHostName();
     }
 
-    private void serveConnection(final Socket socket) {
-        executor.execute(() -> {
-            try {
-                LogUtils.LOGD(TAG, "serveConnection: handling client " + socket.getInetAddress()
-                                   + ":" + socket.getLocalPort());
-
-                connectionHandler.processInput(socket);
-                socket.close();
-
-                synchronized (openClientSockets) {
-                    openClientSockets.remove(socket);
-                }
-            } catch (IOException e) {
-                LogUtils.LOGW(TAG, "processing input from " + socket.getInetAddress() + " failed: " + e);
-            }
-        });
+    /**
+     * Returns the number of clients connected
+     */
+    public int getConnectionCount() {
+        return openConnections.size();
+    }
 
-        executor.execute(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    while ( ! (serverSocket.isClosed() || socket.isClosed()) ) {
-                        sendResponse();
-                        Thread.sleep(100);
+    /**
+     * Reads the requests of a client, and answers each one once it's read completely
+     */
+    private void serveConnection(final Connection connection) {
+        LogUtils.LOGD(TAG, "serveConnection: handling client " + connection.socket.getInetAddress()
+                           + ":" + connection.socket.getPort());
+        try {
+            Reader in = new BufferedReader(new InputStreamReader(connection.socket.getInputStream(),
+                                                                 StandardCharsets.UTF_8));
+            StringBuilder request = new StringBuilder();
+            int depth = 0;
+            boolean inString = false, escaped = false;
+            int i;
+            while (running && (i = in.read()) != -1) {
+                char c = (char) i;
+                // Skip anything between requests
+                if (depth == 0 && c != '{' && c != '[') continue;
+
+                request.append(c);
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
                     }
-                } catch (IOException e) {
-                    LogUtils.LOGW(TAG, " sending response from " + socket.getInetAddress() + " failed: " + e);
-                } catch (InterruptedException e) {
-                    LogUtils.LOGW(TAG, " wait interrupted" + e);
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if ((c == '}' || c == ']') && --depth == 0) {
+                    respond(connection, request.toString());
+                    request.setLength(0);
                 }
             }
+        } catch (IOException e) {
+            // Socket closed
+            LogUtils.LOGD(TAG, "serveConnection: " + e.getMessage());
+        } finally {
+            connection.close();
+            openConnections.remove(connection);
+        }
+    }
 
-            private void sendResponse() throws IOException {
-                PrintWriter out =
-                        new PrintWriter(socket.getOutputStream(), false);
-                String answer = connectionHandler.getResponse();
-                if (answer != null) {
-                    LogUtils.LOGD(TAG, "serveConnection: sendResponse: " +answer);
-                    out.print(answer);
-                    out.flush();
-                }
+    private void respond(Connection connection, String request) throws IOException {
+        NetworkConditions.Fault fault = networkConditions.nextFault();
+        if (fault == NetworkConditions.Fault.DROP) {
+            LogUtils.LOGD(TAG, "respond: dropping connection on request " + request);
+            connection.close();
+            return;
+        }
+
+        String response = (fault == NetworkConditions.Fault.ERROR) ?
+                          connectionHandler.getErrorResponse(request) :
+                          connectionHandler.processRequest(request);
+        if (response == null) return;
+
+        networkConditions.delay();
+        connection.write(response + "\n");
+    }
+
+    private void sendNotifications() {
+        String notifications = connectionHandler.getNotifications();
+        if (notifications == null) return;
+
+        for (Connection connection : openConnections) {
+            try {
+                connection.write(notifications);
+            } catch (IOException e) {
+                LogUtils.LOGW(TAG, "sending notifications to " + connection.socket.getInetAddress() +
+                                   " failed: " + e);
             }
-        });
+        }
+    }
+
+    /**
+     * Connection of a client. Responses and notifications are written to it from different threads
+     */
+    private class Connection {
+        final Socket socket;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        synchronized void write(String data) throws IOException {
+            LogUtils.LOGD(TAG, "write: " + data);
+            OutputStream out = socket.getOutputStream();
+            networkConditions.write(out, data.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void close() {
+            Util.closeQuietly(socket);
+        }
     }
 
     @NonNull
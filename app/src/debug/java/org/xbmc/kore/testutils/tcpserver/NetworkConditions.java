@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.testutils.tcpserver;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+/**
+ * Conditions of the network between the mock servers and their clients: latency added to each response,
+ * bandwidth cap, and faults injected at random.
+ * The same conditions can be shared by several servers. They can be changed while the servers run.
+ */
+public class NetworkConditions {
+    /**
+     * Faults that can be injected into a response
+     */
+    public enum Fault {
+        NONE,
+        /**
+         * Responds with a JSON-RPC error instead of the result
+         */
+        ERROR,
+        /**
+         * Closes the connection instead of responding. Over HTTP responds with a server error
+         */
+        DROP
+    }
+
+    // Bytes written at a time when the bandwidth is capped
+    private static final int THROTTLED_CHUNK_SIZE = 1024;
+
+    private final Random random;
+    private volatile long latencyMs = 0, jitterMs = 0;
+    private volatile long bytesPerSecond = 0;
+    private volatile double errorRate = 0, dropRate = 0;
+
+    public NetworkConditions() {
+        this(0);
+    }
+
+    /**
+     * @param seed Seed of the random faults and jitter, so that runs can be repeated
+     */
+    public NetworkConditions(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * Sets the latency added to each response
+     * @param latencyMs Latency in milliseconds
+     * @param jitterMs Maximum random latency added to latencyMs
+     */
+    public NetworkConditions setLatency(long latencyMs, long jitterMs) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        return this;
+    }
+
+    /**
+     * Caps the bandwidth of each connection
+     * @param bytesPerSecond Maximum bytes per second, or 0 for no cap
+     */
+    public NetworkConditions setBandwidth(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Sets the rates of the faults injected
+     * @param errorRate Fraction of the responses replaced by an error
+     * @param dropRate Fraction of the responses dropped
+     */
+    public NetworkConditions setFaults(double errorRate, double dropRate) {
+        this.errorRate = errorRate;
+        this.dropRate = dropRate;
+        return this;
+    }
+
+    /**
+     * Waits for the latency of a response
+     */
+    public void delay() {
+        long delayMs = latencyMs;
+        if (jitterMs > 0) {
+            synchronized (random) {
+                delayMs += (long) (random.nextDouble() * jitterMs);
+            }
+        }
+        if (delayMs <= 0) return;
+
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Decides the fault to inject into the next response
+     */
+    public Fault nextFault() {
+        if (errorRate <= 0 && dropRate <= 0) return Fault.NONE;
+
+        double value;
+        synchronized (random) {
+            value = random.nextDouble();
+        }
+        if (value < dropRate) return Fault.DROP;
+        if (value < dropRate + errorRate) return Fault.ERROR;
+        return Fault.NONE;
+    }
+
+    /**
+     * Writes to a stream, no faster than the bandwidth cap
+     */
+    public void write(OutputStream out, byte[] data) throws IOException {
+        long cap = bytesPerSecond;
+        if (cap <= 0) {
+            out.write(data);
+            out.flush();
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        for (int offset = 0; offset < data.length; offset += THROTTLED_CHUNK_SIZE) {
+            int length = Math.min(THROTTLED_CHUNK_SIZE, data.length - offset);
+            out.write(data, offset, length);
+            out.flush();
+            if (!pace(startTime, offset + length, cap)) return;
+        }
+    }
+
+    /**
+     * Returns a stream of data that can't be read faster than the bandwidth cap
+     */
+    public InputStream throttle(byte[] data) {
+        final long cap = bytesPerSecond;
+        if (cap <= 0) return new ByteArrayInputStream(data);
+
+        return new InputStream() {
+            private final long startTime = System.nanoTime();
+            private int position = 0;
+
+            @Override
+            public int read() {
+                byte[] b = new byte[1];
+                return (read(b, 0, 1) == -1) ? -1 : (b[0] & 0xff);
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (position >= data.length) return -1;
+                if (position > 0 && !pace(startTime, position, cap)) return -1;
+
+                int length = Math.min(len, Math.min(THROTTLED_CHUNK_SIZE, data.length - position));
+                System.arraycopy(data, position, b, off, length);
+                position += length;
+                return length;
+            }
+
+            @Override
+            public int available() {
+                return Math.min(THROTTLED_CHUNK_SIZE, data.length - position);
+            }
+        };
+    }
+
+    /**
+     * Waits until the time the bytes transferred take at the capped bandwidth
+     * @return false if interrupted
+     */
+    private static boolean pace(long startTime, long bytes, long cap) {
+        long dueNanos = bytes * 1000000000L / cap;
+        long waitMs = (dueNanos - (System.nanoTime() - startTime)) / 1000000;
+        if (waitMs <= 0) return true;
+        try {
+            Thread.sleep(waitMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
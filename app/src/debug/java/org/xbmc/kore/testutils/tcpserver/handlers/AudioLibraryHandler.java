@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.testutils.tcpserver.handlers;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.xbmc.kore.jsonrpc.method.AudioLibrary;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.ErrorResponse;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.JsonResponse;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.ResultResponse;
+import org.xbmc.kore.utils.LogUtils;
+
+import java.util.ArrayList;
+
+/**
+ * Simulates AudioLibrary JSON-RPC API, on a {@link SyntheticLibrary}
+ */
+public class AudioLibraryHandler extends ConnectionHandler {
+    private static final String TAG = LogUtils.makeLogTag(AudioLibraryHandler.class);
+
+    private static final String ID_NODE = "id";
+    private static final String PARAMS_NODE = "params";
+
+    private final SyntheticLibrary library;
+
+    public AudioLibraryHandler(SyntheticLibrary library) {
+        this.library = library;
+    }
+
+    @Override
+    public String[] getType() {
+        return new String[]{AudioLibrary.GetArtists.METHOD_NAME,
+                            AudioLibrary.GetAlbums.METHOD_NAME,
+                            AudioLibrary.GetSongs.METHOD_NAME,
+                            AudioLibrary.GetGenres.METHOD_NAME};
+    }
+
+    @Override
+    public ArrayList<JsonResponse> createResponse(String method, ObjectNode jsonRequest) {
+        ArrayList<JsonResponse> jsonResponses = new ArrayList<>();
+
+        int methodId = jsonRequest.get(ID_NODE).asInt(-1);
+        ObjectNode params = jsonRequest.has(PARAMS_NODE) ?
+                            (ObjectNode) jsonRequest.get(PARAMS_NODE) : jsonRequest.objectNode();
+
+        ObjectNode result;
+        switch (method) {
+            case AudioLibrary.GetArtists.METHOD_NAME:
+                result = library.getArtists(params);
+                break;
+            case AudioLibrary.GetAlbums.METHOD_NAME:
+                result = library.getAlbums(params);
+                break;
+            case AudioLibrary.GetSongs.METHOD_NAME:
+                result = library.getSongs(params);
+                break;
+            case AudioLibrary.GetGenres.METHOD_NAME:
+                result = library.getGenres(params);
+                break;
+            default:
+                LogUtils.LOGD(TAG, "method: " + method + ", not implemented");
+                return jsonResponses;
+        }
+
+        jsonResponses.add((result != null) ?
+                          new ResultResponse(methodId, result) :
+                          new ErrorResponse(methodId, ErrorResponse.INVALID_PARAMS, "Invalid params."));
+        return jsonResponses;
+    }
+}
@@ -24,14 +24,16 @@ import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.JsonResponse;
 import org.xbmc.kore.utils.LogUtils;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 
 abstract class ConnectionHandler {
     private static final String TAG = LogUtils.makeLogTag(ConnectionHandler.class);
 
-    private ArrayList<JsonResponse> notifications = new ArrayList<>();
-    private HashSet<String> methodsHandled = new HashSet<>();
+    private final ArrayList<JsonResponse> notifications = new ArrayList<>();
+    private final Set<String> methodsHandled = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
     /**
      * Used to determine which methods the handler implements
@@ -46,9 +48,11 @@ abstract class ConnectionHandler {
      * @return {@link JsonResponse} that should be sent to the client or null if there are no notifications
      */
     public ArrayList<JsonResponse> getNotifications() {
-        ArrayList<JsonResponse> list = new ArrayList<>(notifications);
-        notifications.clear();
-        return list;
+        synchronized (notifications) {
+            ArrayList<JsonResponse> list = new ArrayList<>(notifications);
+            notifications.clear();
+            return list;
+        }
     }
 
     /**
@@ -97,6 +101,8 @@ abstract class ConnectionHandler {
     }
 
     void addNotification(JsonResponse notification) {
-        notifications.add(notification);
+        synchronized (notifications) {
+            notifications.add(notification);
+        }
     }
 }
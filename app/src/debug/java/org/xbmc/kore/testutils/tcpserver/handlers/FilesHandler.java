@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.testutils.tcpserver.handlers;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.xbmc.kore.jsonrpc.method.Files;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.ErrorResponse;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.JsonResponse;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.ResultResponse;
+import org.xbmc.kore.utils.LogUtils;
+
+import java.util.ArrayList;
+
+/**
+ * Simulates Files JSON-RPC API, on a {@link SyntheticLibrary}
+ */
+public class FilesHandler extends ConnectionHandler {
+    private static final String TAG = LogUtils.makeLogTag(FilesHandler.class);
+
+    private static final String ID_NODE = "id";
+    private static final String PARAMS_NODE = "params";
+
+    private final SyntheticLibrary library;
+
+    public FilesHandler(SyntheticLibrary library) {
+        this.library = library;
+    }
+
+    @Override
+    public String[] getType() {
+        return new String[]{Files.GetSources.METHOD_NAME,
+                            Files.GetDirectory.METHOD_NAME,
+                            Files.PrepareDownload.METHOD_NAME};
+    }
+
+    @Override
+    public ArrayList<JsonResponse> createResponse(String method, ObjectNode jsonRequest) {
+        ArrayList<JsonResponse> jsonResponses = new ArrayList<>();
+
+        int methodId = jsonRequest.get(ID_NODE).asInt(-1);
+        ObjectNode params = jsonRequest.has(PARAMS_NODE) ?
+                            (ObjectNode) jsonRequest.get(PARAMS_NODE) : jsonRequest.objectNode();
+
+        ObjectNode result;
+        switch (method) {
+            case Files.GetSources.METHOD_NAME:
+                result = library.getSources(params.path("media").asText(Files.Media.FILES));
+                break;
+            case Files.GetDirectory.METHOD_NAME:
+                result = params.has("directory") ?
+                         library.getDirectory(params.get("directory").asText(), params) : null;
+                break;
+            case Files.PrepareDownload.METHOD_NAME:
+                result = params.has("path") ? library.prepareDownload(params.get("path").asText()) : null;
+                break;
+            default:
+                LogUtils.LOGD(TAG, "method: " + method + ", not implemented");
+                return jsonResponses;
+        }
+
+        jsonResponses.add((result != null) ?
+                          new ResultResponse(methodId, result) :
+                          new ErrorResponse(methodId, ErrorResponse.INVALID_PARAMS, "Invalid params."));
+        return jsonResponses;
+    }
+}
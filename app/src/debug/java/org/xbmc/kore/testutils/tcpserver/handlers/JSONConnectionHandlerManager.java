@@ -16,40 +16,41 @@
 
 package org.xbmc.kore.testutils.tcpserver.handlers;
 
-import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.xbmc.kore.testutils.tcpserver.MockTcpServer;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.ErrorResponse;
 import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.JsonResponse;
 import org.xbmc.kore.utils.LogUtils;
 
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.Socket;
-import java.net.SocketException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 
 import static org.xbmc.kore.jsonrpc.ApiMethod.ID_NODE;
 import static org.xbmc.kore.jsonrpc.ApiMethod.METHOD_NODE;
 
+/**
+ * Dispatches JSON-RPC requests to the {@link ConnectionHandler} that implements each method.
+ * Used both by {@link MockTcpServer} and {@link org.xbmc.kore.testutils.tcpserver.MockHttpServer}, and safe
+ * to call from the threads of several clients at the same time.
+ */
 public class JSONConnectionHandlerManager implements MockTcpServer.TcpServerConnectionHandler {
     public static final String TAG = LogUtils.makeLogTag(JSONConnectionHandlerManager.class);
 
     private final HashMap<String, ConnectionHandler> handlersByType = new HashMap<>();
-    private int amountOfOpenBrackets = 0;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    //HashMap used to prevent adding duplicate responses for the same methodId when invoking
-    //a handler multiple times.
-    private final HashMap<String, ArrayList<JsonResponse>> clientResponses = new HashMap<>();
-
-    private final HashMap<String, MethodPendingState> methodIdsHandled = new HashMap<>();
-    private final HashSet<String> notificationsHandled = new HashSet<>();
+    private final ConcurrentHashMap<String, MethodPendingState> methodIdsHandled = new ConcurrentHashMap<>();
+    private final Set<String> notificationsHandled = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
     public void addHandler(ConnectionHandler handler) {
         synchronized (handlersByType) {
@@ -59,121 +60,124 @@ public class JSONConnectionHandlerManager implements MockTcpServer.TcpServerConn
         }
     }
 
+    /**
+     * Processes a request, or batch of requests, as received through TCP.
+     * Methods without a handler get no response
+     */
     @Override
-    public void processInput(Socket socket) {
-        StringBuilder stringBuffer = new StringBuilder();
+    public String processRequest(String request) {
+        return process(request, false);
+    }
 
-        try {
-            InputStreamReader in = new InputStreamReader(socket.getInputStream());
-            int i;
-            while (!socket.isClosed() && (i = in.read()) != -1) {
-                stringBuffer.append((char) i);
-                if (isEndOfJSONStringReached((char) i)) {
-                    processJSONInput(stringBuffer.toString());
-                    stringBuffer = new StringBuilder();
-                }
-            }
-        } catch (SocketException e) {
-            // Socket closed
-        } catch (IOException e) {
-            LogUtils.LOGD(TAG, "processInput: error reading from socket: " + socket +
-                               ", buffer holds: " + stringBuffer);
-            LogUtils.LOGE(TAG, e.getMessage());
-        }
+    /**
+     * Processes a request, or batch of requests, as received through HTTP.
+     * Methods without a handler get a method not found error
+     * @return Response, or null if the request couldn't be parsed
+     */
+    public String processHttpRequest(String request) {
+        return process(request, true);
     }
 
     /**
-     * Processes JSON input on individual characters.
-     * Each iteration should start with an opening accolade { and
-     * end with a closing accolade to indicate a complete JSON string has been
-     * fully processed.
-     * @param c
-     * @return true if a JSON string was fully processed, false otherwise
+     * Returns an internal error for each request
      */
-    private boolean isEndOfJSONStringReached(char c) {
-        //We simply assume well formed JSON input so it should always start with
-        //a {. If we need to filter out other input we need to add an additional check
-        //to detect the first opening accolade.
-        if ( c == '{' ) {
-            amountOfOpenBrackets++;
-        } else if ( c == '}' ) {
-            amountOfOpenBrackets--;
+    @Override
+    public String getErrorResponse(String request) {
+        try {
+            JsonNode jsonRequest = objectMapper.readTree(request);
+            if (jsonRequest.isArray()) {
+                // Kodi answers a batch it can't handle with a single error
+                return new ErrorResponse(ErrorResponse.INTERNAL_ERROR, "Internal error.").toJsonString();
+            }
+            return new ErrorResponse(jsonRequest.path(ID_NODE).asInt(), ErrorResponse.INTERNAL_ERROR,
+                                     "Internal error.").toJsonString();
+        } catch (IOException e) {
+            return new ErrorResponse(ErrorResponse.PARSE_ERROR, "Parse error.").toJsonString();
         }
-
-        return amountOfOpenBrackets == 0;
     }
 
-    private void processJSONInput(String input) {
+    private String process(String request, boolean answerUnknownMethods) {
+        LogUtils.LOGD(TAG, "processRequest: " + request);
+        JsonNode jsonRequest;
         try {
-            synchronized (clientResponses) {
-                LogUtils.LOGD(TAG, "processJSONInput: " + input);
-                JsonParser parser = objectMapper.getFactory().createParser(input);
-                ObjectNode jsonRequest = objectMapper.readTree(parser);
+            jsonRequest = objectMapper.readTree(request);
+        } catch (IOException e) {
+            LogUtils.LOGD(TAG, "processRequest: error parsing: " + request);
+            LogUtils.LOGE(TAG, e.getMessage());
+            return null;
+        }
 
-                int methodId = jsonRequest.get(ID_NODE).asInt();
-                String method = jsonRequest.get(METHOD_NODE).asText();
+        if (jsonRequest.isArray()) {
+            ArrayNode responses = objectMapper.createArrayNode();
+            for (JsonNode batchRequest : jsonRequest) {
+                for (JsonResponse response : handle((ObjectNode) batchRequest, answerUnknownMethods)) {
+                    responses.add(response.getResponseNode());
+                }
+            }
+            return (responses.size() > 0) ? responses.toString() : null;
+        }
 
-                methodIdsHandled.put(String.valueOf(methodId), new MethodPendingState(method));
+        StringBuilder stringBuilder = new StringBuilder();
+        for (JsonResponse response : handle((ObjectNode) jsonRequest, answerUnknownMethods)) {
+            if (stringBuilder.length() > 0) stringBuilder.append("\n");
+            stringBuilder.append(response.toJsonString());
+        }
+        return (stringBuilder.length() > 0) ? stringBuilder.toString() : null;
+    }
 
-                if (clientResponses.get(String.valueOf(methodId)) != null)
-                    return;
+    private ArrayList<JsonResponse> handle(ObjectNode jsonRequest, boolean answerUnknownMethods) {
+        String methodId = jsonRequest.path(ID_NODE).asText();
+        String method = jsonRequest.path(METHOD_NODE).asText();
 
-                ConnectionHandler connectionHandler = handlersByType.get(method);
-                if (connectionHandler != null) {
-                    ArrayList<JsonResponse> responses = connectionHandler.getResponse(method, jsonRequest);
-                    if (responses != null) {
-                        clientResponses.put(String.valueOf(methodId), responses);
-                    }
-                }
+        MethodPendingState methodPending = new MethodPendingState(method);
+        methodIdsHandled.put(methodId, methodPending);
+
+        ConnectionHandler connectionHandler;
+        synchronized (handlersByType) {
+            connectionHandler = handlersByType.get(method);
+        }
 
-                parser.close();
+        ArrayList<JsonResponse> responses = null;
+        if (connectionHandler != null) {
+            // Handlers keep state, such as the player's, that isn't meant to be changed concurrently
+            synchronized (connectionHandler) {
+                responses = connectionHandler.getResponse(method, jsonRequest);
             }
-        } catch (IOException e) {
-            LogUtils.LOGD(TAG, "processJSONInput: error parsing: " + input);
-            LogUtils.LOGE(TAG, e.getMessage());
         }
+        if (responses == null) {
+            responses = new ArrayList<>();
+        }
+        if (responses.isEmpty() && answerUnknownMethods) {
+            responses.add(new ErrorResponse(jsonRequest.path(ID_NODE).asInt(), ErrorResponse.METHOD_NOT_FOUND,
+                                            "Method not found."));
+        }
+        methodPending.handled = !responses.isEmpty();
+        return responses;
     }
 
     @Override
-    public String getResponse() {
+    public String getNotifications() {
         StringBuilder stringBuilder = new StringBuilder();
 
-        //Handle client responses
-        synchronized (clientResponses) {
-            for(Map.Entry<String, ArrayList <JsonResponse>> clientResponse : clientResponses.entrySet()) {
-                for (JsonResponse jsonResponse : clientResponse.getValue()) {
-                    LogUtils.LOGD(TAG, "sending response: " + jsonResponse.toJsonString());
-                    try {
-                        MethodPendingState methodPending = methodIdsHandled.get(jsonResponse.getId());
-                        methodPending.handled = true;
-                        stringBuilder.append(jsonResponse.toJsonString()).append("\n");
-                    } catch (Exception e) {
-                        LogUtils.LOGD(TAG, "getResponse: Error handling response: " + jsonResponse.toJsonString());
-                        LogUtils.LOGW(TAG, "getResponse: " + e);
-                    }
-                }
-            }
-            clientResponses.clear();
-        }
-
+        HashSet<ConnectionHandler> uniqueHandlers;
         synchronized (handlersByType) {
             //Build a new set to make sure we only handle each handler once, even if it handles
             //multiple types.
-            HashSet<ConnectionHandler> uniqueHandlers = new HashSet<>(handlersByType.values());
+            uniqueHandlers = new HashSet<>(handlersByType.values());
+        }
 
-            //Handle notifications
-            for (ConnectionHandler handler : uniqueHandlers) {
-                ArrayList<JsonResponse> jsonNotifications = handler.getNotifications();
-                for (JsonResponse jsonResponse : jsonNotifications) {
-                    try {
-                        notificationsHandled.add(jsonResponse.getMethod());
-                        stringBuilder.append(jsonResponse.toJsonString()).append("\n");
-                    } catch (Exception e) {
-                        LogUtils.LOGD(TAG, "getResponse: Error handling notification: " + jsonResponse.toJsonString());
-                    }
+        for (ConnectionHandler handler : uniqueHandlers) {
+            ArrayList<JsonResponse> jsonNotifications = handler.getNotifications();
+            for (JsonResponse jsonResponse : jsonNotifications) {
+                try {
+                    notificationsHandled.add(jsonResponse.getMethod());
+                    stringBuilder.append(jsonResponse.toJsonString()).append("\n");
+                } catch (Exception e) {
+                    LogUtils.LOGD(TAG, "getNotifications: Error handling notification: " + jsonResponse.toJsonString());
                 }
             }
         }
+
         if (stringBuilder.length() > 0) {
             return stringBuilder.toString();
         } else {
@@ -182,11 +186,8 @@ public class JSONConnectionHandlerManager implements MockTcpServer.TcpServerConn
     }
 
     public void reset() {
-        synchronized (clientResponses) {
-            clearNotificationsHandled();
-            clearMethodsHandled();
-            clientResponses.clear();
-        }
+        clearNotificationsHandled();
+        clearMethodsHandled();
     }
 
     public void clearMethodsHandled() {
@@ -229,26 +230,18 @@ public class JSONConnectionHandlerManager implements MockTcpServer.TcpServerConn
             throw new TimeoutException();
     }
 
-    private void addResponse(int id, ArrayList<JsonResponse> jsonResponses) {
-
-    }
-
     private boolean isMethodHandled(String methodName) {
         for(MethodPendingState methodPending : methodIdsHandled.values()) {
-            if (methodName.contentEquals(methodPending.name)) {
-                return methodPending.handled;
+            if (methodPending.handled && methodName.contentEquals(methodPending.name)) {
+                return true;
             }
         }
         return false;
     }
 
-    private void setMethodHandled(String methodId) {
-
-    }
-
     private static class MethodPendingState {
-        boolean handled;
-        String name;
+        volatile boolean handled;
+        final String name;
 
         MethodPendingState(String name) {
             this.name = name;
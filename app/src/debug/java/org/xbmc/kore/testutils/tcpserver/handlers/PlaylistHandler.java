@@ -16,6 +16,7 @@
 
 package org.xbmc.kore.testutils.tcpserver.handlers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.JsonResponse;
@@ -37,6 +38,7 @@ public class PlaylistHandler extends ConnectionHandler {
     private static final String ID_NODE = "id";
     private static final String PARAMS_NODE = "params";
     private static final String PLAYLISTID_NODE = "playlistid";
+    private static final String LIMITS_NODE = "limits";
 
     private ArrayList<PlaylistHolder> playlists = new ArrayList<>();
 
@@ -59,8 +61,12 @@ public class PlaylistHandler extends ConnectionHandler {
 
         switch (method) {
             case Playlist.GetItems.METHOD_NAME:
-                int playlistId = jsonRequest.get(PARAMS_NODE).get(PLAYLISTID_NODE).asInt(-1);
-                jsonResponses.add(createPlaylist(methodId, playlistId));
+                JsonNode params = jsonRequest.get(PARAMS_NODE);
+                int playlistId = params.get(PLAYLISTID_NODE).asInt(-1);
+                JsonNode limits = params.path(LIMITS_NODE);
+                jsonResponses.add(createPlaylist(methodId, playlistId,
+                                                 limits.path("start").asInt(0),
+                                                 limits.path("end").asInt(Integer.MAX_VALUE)));
                 break;
             case Playlist.GetPlaylists.METHOD_NAME:
                 jsonResponses.add(new Playlist.GetPlaylists(methodId));
@@ -71,12 +77,14 @@ public class PlaylistHandler extends ConnectionHandler {
         return jsonResponses;
     }
 
-    private Playlist.GetItems createPlaylist(int methodId, int playlistId) {
+    private Playlist.GetItems createPlaylist(int methodId, int playlistId, int start, int end) {
         Playlist.GetItems playlistGetItems = new Playlist.GetItems(methodId);
 
-        if (playlists.size() > playlistId) {
-            for (Player.GetItem getItem : playlists.get(playlistId).getItems()) {
-                playlistGetItems.addItem(getItem);
+        if (playlists.size() > playlistId && playlists.get(playlistId) != null) {
+            List<Player.GetItem> items = playlists.get(playlistId).getItems();
+            playlistGetItems.setRange(start, items.size());
+            for (int i = start; i < Math.min(end, items.size()); i++) {
+                playlistGetItems.addItem(items.get(i));
             }
         }
 
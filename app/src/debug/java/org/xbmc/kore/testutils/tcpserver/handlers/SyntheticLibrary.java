@@ -0,0 +1,559 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.testutils.tcpserver.handlers;
+
+import android.content.Context;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.xbmc.kore.testutils.FileUtils;
+import org.xbmc.kore.utils.LogUtils;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.function.IntFunction;
+
+/**
+ * Media library of configurable size, to simulate hosts with large libraries.
+ * Items aren't stored, each one is generated when requested from one of the items in the test assets,
+ * with unique ids and titles, and consistent relations: songs belong to albums, albums to artists,
+ * episodes to seasons and seasons to tv shows.
+ * Ids start at 1 and are contiguous, so item n of a list has id n.
+ */
+public class SyntheticLibrary {
+    private static final String TAG = LogUtils.makeLogTag(SyntheticLibrary.class);
+
+    // Items read from each asset, used as templates
+    private static final int MAX_TEMPLATES = 50;
+
+    private final Context context;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HashMap<String, List<ObjectNode>> templates = new HashMap<>();
+    // Fields changed on items, by id field and item id
+    private final HashMap<String, ObjectNode> changes = new HashMap<>();
+
+    private volatile int movies = 300, tvShows = 10, seasonsPerShow = 2, episodesPerSeason = 10, musicVideos = 10,
+            artists = 200, albumsPerArtist = 2, songsPerAlbum = 10, genres = 20,
+            channelGroups = 2, channelsPerGroup = 20, broadcastsPerChannel = 24, recordings = 50,
+            directoryEntries = 100;
+
+    /**
+     * Constructor
+     * @param context Context used to read the item templates from the assets
+     */
+    public SyntheticLibrary(Context context) {
+        this.context = context;
+    }
+
+    public SyntheticLibrary setMovies(int movies) {
+        this.movies = movies;
+        return this;
+    }
+
+    public SyntheticLibrary setTVShows(int tvShows, int seasonsPerShow, int episodesPerSeason) {
+        this.tvShows = tvShows;
+        this.seasonsPerShow = seasonsPerShow;
+        this.episodesPerSeason = episodesPerSeason;
+        return this;
+    }
+
+    public SyntheticLibrary setMusicVideos(int musicVideos) {
+        this.musicVideos = musicVideos;
+        return this;
+    }
+
+    public SyntheticLibrary setMusic(int artists, int albumsPerArtist, int songsPerAlbum, int genres) {
+        this.artists = artists;
+        this.albumsPerArtist = albumsPerArtist;
+        this.songsPerAlbum = songsPerAlbum;
+        this.genres = Math.max(1, genres);
+        return this;
+    }
+
+    public SyntheticLibrary setPVR(int channelGroups, int channelsPerGroup, int broadcastsPerChannel, int recordings) {
+        this.channelGroups = channelGroups;
+        this.channelsPerGroup = channelsPerGroup;
+        this.broadcastsPerChannel = broadcastsPerChannel;
+        this.recordings = recordings;
+        return this;
+    }
+
+    public SyntheticLibrary setDirectoryEntries(int directoryEntries) {
+        this.directoryEntries = directoryEntries;
+        return this;
+    }
+
+    /**
+     * Changes a field of an item, as when it's played or its info is refreshed on Kodi
+     * @param idField Field identifying the items, like movieid
+     * @param id Item id
+     * @param field Field to change
+     * @param value New value
+     */
+    public SyntheticLibrary setItemField(String idField, int id, String field, int value) {
+        synchronized (changes) {
+            getChanges(idField, id).put(field, value);
+        }
+        return this;
+    }
+
+    public SyntheticLibrary setItemField(String idField, int id, String field, String value) {
+        synchronized (changes) {
+            getChanges(idField, id).put(field, value);
+        }
+        return this;
+    }
+
+    private ObjectNode getChanges(String idField, int id) {
+        String key = idField + ":" + id;
+        ObjectNode itemChanges = changes.get(key);
+        if (itemChanges == null) {
+            itemChanges = objectMapper.createObjectNode();
+            changes.put(key, itemChanges);
+        }
+        return itemChanges;
+    }
+
+    public int getMovieCount() {
+        return movies;
+    }
+
+    public int getTVShowCount() {
+        return tvShows;
+    }
+
+    public int getEpisodeCount() {
+        return tvShows * seasonsPerShow * episodesPerSeason;
+    }
+
+    public int getArtistCount() {
+        return artists;
+    }
+
+    public int getAlbumCount() {
+        return artists * albumsPerArtist;
+    }
+
+    public int getSongCount() {
+        return getAlbumCount() * songsPerAlbum;
+    }
+
+    /* Video library */
+
+    public ObjectNode getMovies(ObjectNode params) {
+        return list("movies", movies, params, "movieid", this::movie);
+    }
+
+    public ObjectNode getMovieDetails(int movieId, ObjectNode params) {
+        return details("moviedetails", (movieId >= 1 && movieId <= movies) ? movie(movieId - 1) : null,
+                       params, "movieid");
+    }
+
+    public ObjectNode getTVShows(ObjectNode params) {
+        return list("tvshows", tvShows, params, "tvshowid", this::tvShow);
+    }
+
+    public ObjectNode getTVShowDetails(int tvShowId, ObjectNode params) {
+        return details("tvshowdetails", (tvShowId >= 1 && tvShowId <= tvShows) ? tvShow(tvShowId - 1) : null,
+                       params, "tvshowid");
+    }
+
+    public ObjectNode getSeasons(int tvShowId, ObjectNode params) {
+        int total = (tvShowId >= 1 && tvShowId <= tvShows) ? seasonsPerShow : 0;
+        int firstSeason = (tvShowId - 1) * seasonsPerShow;
+        return list("seasons", total, params, "seasonid", i -> season(firstSeason + i));
+    }
+
+    /**
+     * @param season Season number, or -1 for all the episodes of the show
+     */
+    public ObjectNode getEpisodes(int tvShowId, int season, ObjectNode params) {
+        int total = 0, firstEpisode = 0;
+        if (tvShowId >= 1 && tvShowId <= tvShows) {
+            if (season < 0) {
+                total = seasonsPerShow * episodesPerSeason;
+                firstEpisode = (tvShowId - 1) * total;
+            } else if (season >= 1 && season <= seasonsPerShow) {
+                total = episodesPerSeason;
+                firstEpisode = ((tvShowId - 1) * seasonsPerShow + season - 1) * episodesPerSeason;
+            }
+        }
+        int first = firstEpisode;
+        return list("episodes", total, params, "episodeid", i -> episode(first + i));
+    }
+
+    public ObjectNode getMusicVideos(ObjectNode params) {
+        return list("musicvideos", musicVideos, params, "musicvideoid", this::musicVideo);
+    }
+
+    private ObjectNode movie(int index) {
+        ObjectNode movie = template("Video.Details.Movie.json", "movies", index);
+        int id = index + 1;
+        String title = "Movie " + id;
+        movie.put("movieid", id);
+        movie.put("label", title);
+        movie.put("title", title);
+        movie.put("sorttitle", title);
+        movie.put("file", "/media/movies/" + title + ".mkv");
+        return movie;
+    }
+
+    private ObjectNode tvShow(int index) {
+        ObjectNode tvShow = template("VideoLibrary.GetTVShows.json", "tvshows", index);
+        int id = index + 1;
+        String title = "TV Show " + id;
+        tvShow.put("tvshowid", id);
+        tvShow.put("label", title);
+        tvShow.put("title", title);
+        tvShow.put("sorttitle", title);
+        tvShow.put("season", seasonsPerShow);
+        tvShow.put("episode", seasonsPerShow * episodesPerSeason);
+        tvShow.put("file", "/media/tvshows/" + title + "/");
+        return tvShow;
+    }
+
+    private ObjectNode season(int index) {
+        ObjectNode season = template("VideoLibrary.GetSeasons.json", "seasons", index);
+        int tvShowId = index / seasonsPerShow + 1, number = index % seasonsPerShow + 1;
+        season.put("seasonid", index + 1);
+        season.put("tvshowid", tvShowId);
+        season.put("season", number);
+        season.put("label", "Season " + number);
+        season.put("showtitle", "TV Show " + tvShowId);
+        season.put("episode", episodesPerSeason);
+        return season;
+    }
+
+    private ObjectNode episode(int index) {
+        ObjectNode episode = template("VideoLibrary.GetEpisodes.json", "episodes", index);
+        int seasonIndex = index / episodesPerSeason, number = index % episodesPerSeason + 1;
+        int tvShowId = seasonIndex / seasonsPerShow + 1, season = seasonIndex % seasonsPerShow + 1;
+        String title = "Episode " + (index + 1);
+        episode.put("episodeid", index + 1);
+        episode.put("tvshowid", tvShowId);
+        episode.put("seasonid", seasonIndex + 1);
+        episode.put("season", season);
+        episode.put("episode", number);
+        episode.put("label", season + "x" + number + ". " + title);
+        episode.put("title", title);
+        episode.put("showtitle", "TV Show " + tvShowId);
+        episode.put("file", "/media/tvshows/TV Show " + tvShowId + "/" + title + ".mkv");
+        return episode;
+    }
+
+    private ObjectNode musicVideo(int index) {
+        ObjectNode musicVideo = template("VideoLibrary.GetMusicVideos.json", "musicvideos", index);
+        int id = index + 1;
+        String title = "Music Video " + id;
+        musicVideo.put("musicvideoid", id);
+        musicVideo.put("label", title);
+        musicVideo.put("title", title);
+        musicVideo.put("file", "/media/musicvideos/" + title + ".mkv");
+        return musicVideo;
+    }
+
+    /* Audio library */
+
+    public ObjectNode getArtists(ObjectNode params) {
+        return list("artists", artists, params, "artistid", this::artist);
+    }
+
+    public ObjectNode getAlbums(ObjectNode params) {
+        return list("albums", getAlbumCount(), params, "albumid", this::album);
+    }
+
+    public ObjectNode getSongs(ObjectNode params) {
+        return list("songs", getSongCount(), params, "songid", this::song);
+    }
+
+    public ObjectNode getGenres(ObjectNode params) {
+        return list("genres", genres, params, "genreid", this::genre);
+    }
+
+    private ObjectNode artist(int index) {
+        ObjectNode artist = template("AudioLibrary.GetArtists.json", "artists", index);
+        int id = index + 1;
+        artist.put("artistid", id);
+        artist.put("artist", artistName(id));
+        artist.put("label", artistName(id));
+        return artist;
+    }
+
+    private ObjectNode album(int index) {
+        ObjectNode album = template("AudioLibrary.GetAlbums.json", "albums", index);
+        int id = index + 1, artistId = index / albumsPerArtist + 1, genreId = index % genres + 1;
+        String title = "Album " + id;
+        album.put("albumid", id);
+        album.put("label", title);
+        album.put("title", title);
+        album.put("displayartist", artistName(artistId));
+        album.set("artist", objectMapper.createArrayNode().add(artistName(artistId)));
+        album.set("artistid", objectMapper.createArrayNode().add(artistId));
+        album.set("genre", objectMapper.createArrayNode().add(genreName(genreId)));
+        album.set("genreid", objectMapper.createArrayNode().add(genreId));
+        return album;
+    }
+
+    private ObjectNode song(int index) {
+        ObjectNode song = template("AudioLibrary.GetSongs.json", "songs", index);
+        int id = index + 1, albumIndex = index / songsPerAlbum;
+        int albumId = albumIndex + 1, artistId = albumIndex / albumsPerArtist + 1, genreId = albumIndex % genres + 1;
+        String title = "Song " + id;
+        song.put("songid", id);
+        song.put("label", title);
+        song.put("title", title);
+        song.put("track", index % songsPerAlbum + 1);
+        song.put("albumid", albumId);
+        song.put("album", "Album " + albumId);
+        song.put("displayartist", artistName(artistId));
+        song.set("artist", objectMapper.createArrayNode().add(artistName(artistId)));
+        song.set("artistid", objectMapper.createArrayNode().add(artistId));
+        song.set("albumartist", objectMapper.createArrayNode().add(artistName(artistId)));
+        song.set("albumartistid", objectMapper.createArrayNode().add(artistId));
+        song.set("genre", objectMapper.createArrayNode().add(genreName(genreId)));
+        song.set("genreid", objectMapper.createArrayNode().add(genreId));
+        song.put("file", "/media/music/" + artistName(artistId) + "/Album " + albumId + "/" + title + ".mp3");
+        return song;
+    }
+
+    private ObjectNode genre(int index) {
+        ObjectNode genre = template("AudioLibrary.GetGenres.json", "genres", index);
+        int id = index + 1;
+        genre.put("genreid", id);
+        genre.put("label", genreName(id));
+        genre.put("title", genreName(id));
+        return genre;
+    }
+
+    private static String artistName(int artistId) {
+        return "Artist " + artistId;
+    }
+
+    private static String genreName(int genreId) {
+        return "Genre " + genreId;
+    }
+
+    /* PVR */
+
+    public ObjectNode getChannelGroups(String channelType) {
+        return list("channelgroups", channelGroups, null, "channelgroupid", i -> {
+            ObjectNode channelGroup = objectMapper.createObjectNode();
+            channelGroup.put("channelgroupid", i + 1);
+            channelGroup.put("label", "Group " + (i + 1));
+            channelGroup.put("channeltype", channelType);
+            return channelGroup;
+        });
+    }
+
+    public ObjectNode getChannels(int channelGroupId, ObjectNode params) {
+        int total = (channelGroupId >= 1 && channelGroupId <= channelGroups) ? channelsPerGroup : 0;
+        int firstChannel = (channelGroupId - 1) * channelsPerGroup;
+        return list("channels", total, params, "channelid", i -> {
+            int id = firstChannel + i + 1;
+            ObjectNode channel = objectMapper.createObjectNode();
+            channel.put("channelid", id);
+            channel.put("label", "Channel " + id);
+            channel.put("channel", "Channel " + id);
+            channel.put("channeltype", "tv");
+            channel.put("hidden", false);
+            channel.put("locked", false);
+            channel.put("thumbnail", "");
+            return channel;
+        });
+    }
+
+    public ObjectNode getBroadcasts(int channelId, ObjectNode params) {
+        int total = (channelId >= 1 && channelId <= channelGroups * channelsPerGroup) ? broadcastsPerChannel : 0;
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        long hourMillis = 60 * 60 * 1000;
+        // Broadcasts start on the current hour, one after the other
+        long start = System.currentTimeMillis() / hourMillis * hourMillis;
+        return list("broadcasts", total, params, "broadcastid", i -> {
+            int id = (channelId - 1) * broadcastsPerChannel + i + 1;
+            ObjectNode broadcast = objectMapper.createObjectNode();
+            broadcast.put("broadcastid", id);
+            broadcast.put("label", "Broadcast " + id);
+            broadcast.put("title", "Broadcast " + id);
+            broadcast.put("plot", "Broadcast " + id + " on channel " + channelId);
+            broadcast.put("starttime", dateFormat.format(new Date(start + i * hourMillis)));
+            broadcast.put("endtime", dateFormat.format(new Date(start + (i + 1) * hourMillis)));
+            broadcast.put("runtime", 60);
+            broadcast.put("isactive", i == 0);
+            return broadcast;
+        });
+    }
+
+    public ObjectNode getRecordings(ObjectNode params) {
+        return list("recordings", recordings, params, "recordingid", i -> {
+            int id = i + 1;
+            ObjectNode recording = objectMapper.createObjectNode();
+            recording.put("recordingid", id);
+            recording.put("label", "Recording " + id);
+            recording.put("title", "Recording " + id);
+            recording.put("channel", "Channel " + (i % Math.max(1, channelsPerGroup) + 1));
+            recording.put("runtime", 3600);
+            recording.put("starttime", "2020-01-01 20:00:00");
+            recording.put("endtime", "2020-01-01 21:00:00");
+            return recording;
+        });
+    }
+
+    /* Files */
+
+    public ObjectNode getSources(String media) {
+        return list("sources", 3, null, "file", i -> {
+            ObjectNode source = objectMapper.createObjectNode();
+            source.put("file", "/media/" + media + "/Source " + (i + 1) + "/");
+            source.put("label", "Source " + (i + 1));
+            return source;
+        });
+    }
+
+    /**
+     * Returns the entries of a directory, the first fifth of which are directories
+     */
+    public ObjectNode getDirectory(String directory, ObjectNode params) {
+        String path = directory.endsWith("/") ? directory : directory + "/";
+        int directories = directoryEntries / 5;
+        return list("files", directoryEntries, params, "file", i -> {
+            boolean isDirectory = i < directories;
+            String label = isDirectory ? "Folder " + (i + 1) : "File " + (i + 1) + ".mkv";
+            ObjectNode file = objectMapper.createObjectNode();
+            file.put("file", path + label + (isDirectory ? "/" : ""));
+            file.put("label", label);
+            file.put("filetype", isDirectory ? "directory" : "file");
+            file.put("type", "unknown");
+            return file;
+        });
+    }
+
+    public ObjectNode prepareDownload(String path) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.putObject("details").put("path", "vfs/" + path);
+        result.put("mode", "redirect");
+        result.put("protocol", "http");
+        return result;
+    }
+
+    /**
+     * Builds a list result with the items in the limits requested
+     * @param listNode Name of the node holding the items
+     * @param total Number of items in the list
+     * @param params Request parameters, with the limits and properties requested
+     * @param idField Field identifying the items, always returned
+     * @param itemAt Generates the item at an index of the list
+     */
+    private ObjectNode list(String listNode, int total, ObjectNode params, String idField,
+                            IntFunction<ObjectNode> itemAt) {
+        int start = 0, end = total;
+        JsonNode limits = (params == null) ? null : params.get("limits");
+        if (limits != null) {
+            start = Math.max(0, Math.min(limits.path("start").asInt(0), total));
+            if (limits.has("end") && limits.get("end").asInt() >= 0) {
+                end = Math.max(start, Math.min(limits.get("end").asInt(), total));
+            }
+        }
+
+        HashSet<String> properties = getProperties(params);
+        ObjectNode result = objectMapper.createObjectNode();
+        ArrayNode items = result.putArray(listNode);
+        for (int i = start; i < end; i++) {
+            items.add(filter(applyChanges(itemAt.apply(i), idField), properties, idField));
+        }
+        ObjectNode resultLimits = result.putObject("limits");
+        resultLimits.put("start", start);
+        resultLimits.put("end", end);
+        resultLimits.put("total", total);
+        return result;
+    }
+
+    private ObjectNode details(String detailsNode, ObjectNode item, ObjectNode params, String idField) {
+        if (item == null) return null;
+        ObjectNode result = objectMapper.createObjectNode();
+        result.set(detailsNode, filter(applyChanges(item, idField), getProperties(params), idField));
+        return result;
+    }
+
+    private ObjectNode applyChanges(ObjectNode item, String idField) {
+        synchronized (changes) {
+            ObjectNode itemChanges = changes.get(idField + ":" + item.path(idField).asInt());
+            if (itemChanges != null) item.setAll(itemChanges);
+        }
+        return item;
+    }
+
+    private static HashSet<String> getProperties(ObjectNode params) {
+        JsonNode properties = (params == null) ? null : params.get("properties");
+        if (properties == null || !properties.isArray()) return null;
+        HashSet<String> result = new HashSet<>();
+        for (JsonNode property : properties) {
+            result.add(property.asText());
+        }
+        return result;
+    }
+
+    /**
+     * Keeps only the properties requested of an item, as Kodi does. The id and label are always kept
+     */
+    private static ObjectNode filter(ObjectNode item, HashSet<String> properties, String idField) {
+        if (properties == null) return item;
+        HashSet<String> fields = new HashSet<>(properties);
+        fields.add(idField);
+        fields.add("label");
+        item.retain(fields);
+        return item;
+    }
+
+    /**
+     * Returns a copy of a template item of an asset
+     */
+    private ObjectNode template(String asset, String listNode, int index) {
+        List<ObjectNode> items;
+        synchronized (templates) {
+            items = templates.get(asset);
+            if (items == null) {
+                items = readTemplates(asset, listNode);
+                templates.put(asset, items);
+            }
+        }
+        return items.isEmpty() ? objectMapper.createObjectNode() : items.get(index % items.size()).deepCopy();
+    }
+
+    private List<ObjectNode> readTemplates(String asset, String listNode) {
+        ArrayList<ObjectNode> items = new ArrayList<>();
+        try {
+            JsonNode list = objectMapper.readTree(FileUtils.readFile(context, asset)).path("result").path(listNode);
+            for (int i = 0; i < list.size() && i < MAX_TEMPLATES; i++) {
+                items.add((ObjectNode) list.get(i));
+            }
+        } catch (IOException e) {
+            LogUtils.LOGW(TAG, "Error reading templates from " + asset + ": " + e.getMessage());
+        }
+        return items;
+    }
+}
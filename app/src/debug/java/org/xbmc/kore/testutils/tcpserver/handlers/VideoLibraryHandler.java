@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.testutils.tcpserver.handlers;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.xbmc.kore.jsonrpc.method.VideoLibrary;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.ErrorResponse;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.JsonResponse;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.ResultResponse;
+import org.xbmc.kore.utils.LogUtils;
+
+import java.util.ArrayList;
+
+/**
+ * Simulates VideoLibrary JSON-RPC API, on a {@link SyntheticLibrary}
+ */
+public class VideoLibraryHandler extends ConnectionHandler {
+    private static final String TAG = LogUtils.makeLogTag(VideoLibraryHandler.class);
+
+    private static final String ID_NODE = "id";
+    private static final String PARAMS_NODE = "params";
+
+    private final SyntheticLibrary library;
+
+    public VideoLibraryHandler(SyntheticLibrary library) {
+        this.library = library;
+    }
+
+    @Override
+    public String[] getType() {
+        return new String[]{VideoLibrary.GetMovies.METHOD_NAME,
+                            VideoLibrary.GetMovieDetails.METHOD_NAME,
+                            VideoLibrary.GetTVShows.METHOD_NAME,
+                            VideoLibrary.GetTVShowDetails.METHOD_NAME,
+                            VideoLibrary.GetSeasons.METHOD_NAME,
+                            VideoLibrary.GetEpisodes.METHOD_NAME,
+                            VideoLibrary.GetMusicVideos.METHOD_NAME};
+    }
+
+    @Override
+    public ArrayList<JsonResponse> createResponse(String method, ObjectNode jsonRequest) {
+        ArrayList<JsonResponse> jsonResponses = new ArrayList<>();
+
+        int methodId = jsonRequest.get(ID_NODE).asInt(-1);
+        ObjectNode params = jsonRequest.has(PARAMS_NODE) ?
+                            (ObjectNode) jsonRequest.get(PARAMS_NODE) : jsonRequest.objectNode();
+
+        ObjectNode result;
+        switch (method) {
+            case VideoLibrary.GetMovies.METHOD_NAME:
+                result = library.getMovies(params);
+                break;
+            case VideoLibrary.GetMovieDetails.METHOD_NAME:
+                result = library.getMovieDetails(params.path("movieid").asInt(), params);
+                break;
+            case VideoLibrary.GetTVShows.METHOD_NAME:
+                result = library.getTVShows(params);
+                break;
+            case VideoLibrary.GetTVShowDetails.METHOD_NAME:
+                result = library.getTVShowDetails(params.path("tvshowid").asInt(), params);
+                break;
+            case VideoLibrary.GetSeasons.METHOD_NAME:
+                result = library.getSeasons(params.path("tvshowid").asInt(), params);
+                break;
+            case VideoLibrary.GetEpisodes.METHOD_NAME:
+                result = library.getEpisodes(params.path("tvshowid").asInt(), params.path("season").asInt(-1), params);
+                break;
+            case VideoLibrary.GetMusicVideos.METHOD_NAME:
+                result = library.getMusicVideos(params);
+                break;
+            default:
+                LogUtils.LOGD(TAG, "method: " + method + ", not implemented");
+                return jsonResponses;
+        }
+
+        jsonResponses.add((result != null) ?
+                          new ResultResponse(methodId, result) :
+                          new ErrorResponse(methodId, ErrorResponse.INVALID_PARAMS, "Invalid params."));
+        return jsonResponses;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc;
+
+/**
+ * Serverside JSON RPC error response
+ */
+public class ErrorResponse extends JsonResponse {
+    public static final int PARSE_ERROR = -32700;
+    public static final int INVALID_PARAMS = -32602;
+    public static final int METHOD_NOT_FOUND = -32601;
+    public static final int INTERNAL_ERROR = -32603;
+
+    /**
+     * Error response to a request that couldn't be identified, with a null id
+     */
+    public ErrorResponse(int code, String message) {
+        super();
+        getResponseNode().putNull(ID_NODE);
+        setErrorToResponse(code, message);
+    }
+
+    public ErrorResponse(int id, int code, String message) {
+        super(id);
+        setErrorToResponse(code, message);
+    }
+}
@@ -33,6 +33,7 @@ public abstract class JsonResponse {
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
     private static final String RESULT_NODE = "result";
+    private static final String ERROR_NODE = "error";
     private static final String PARAMS_NODE = "params";
     private static final String METHOD_NODE = "method";
     private static final String DATA_NODE = "data";
@@ -149,6 +150,13 @@ public abstract class JsonResponse {
         jsonResponse.put(RESULT_NODE, value);
     }
 
+    protected void setErrorToResponse(int code, String message) {
+        ObjectNode error = createObjectNode();
+        error.put("code", code);
+        error.put("message", message);
+        jsonResponse.set(ERROR_NODE, error);
+    }
+
     protected void setLimits(int start, int end, int total) {
         ObjectNode limits = createObjectNode();
         limits.put("start", start);
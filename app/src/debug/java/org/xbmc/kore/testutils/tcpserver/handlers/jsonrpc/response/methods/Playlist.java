@@ -68,15 +68,29 @@ public class Playlist {
     public static class GetItems extends JsonResponse {
         public final static String METHOD_NAME = "Playlist.GetItems";
 
+        int limitsStart;
         int limitsEnd;
+        int total = -1;
 
         public GetItems(int id) {
             super(id);
         }
 
+        /**
+         * Sets the position of the first item added and the size of the playlist, for responses
+         * to requests with limits. By default the items added are the whole playlist
+         * @param start Position in the playlist of the first item added
+         * @param total Number of items in the playlist
+         */
+        public void setRange(int start, int total) {
+            this.limitsStart = start;
+            this.limitsEnd = start;
+            this.total = total;
+        }
+
         @Override
         public String toJsonString() {
-            setLimits(0, limitsEnd, limitsEnd);
+            setLimits(limitsStart, limitsEnd, (total < 0) ? limitsEnd : total);
             return super.toJsonString();
         }
 
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.host;
+
+import android.os.SystemClock;
+
+import org.xbmc.kore.jsonrpc.type.PlayerType;
+
+import java.util.Random;
+
+/**
+ * {@link PollingScheduler} that adapts the check interval to the player state:
+ * - Checks often while playing and the app is visible, slower when paused, stopped or in the
+ * background;
+ * - Backs off exponentially, with jitter, after consecutive errors;
+ * - While playing, checks right after the current item is predicted to end, to quickly pick up the
+ * next one, instead of checking often just to keep the progress updated.
+ */
+public class AdaptivePollingScheduler implements PollingScheduler {
+
+    private static final int PLAYING_INTERVAL = 2000,
+            IDLE_INTERVAL = 5000,
+            BACKGROUND_PLAYING_INTERVAL = 10000,
+            BACKGROUND_IDLE_INTERVAL = 30000,
+            TCP_PING_INTERVAL = 5000,
+            BACKGROUND_TCP_PING_INTERVAL = 30000;
+
+    private static final int ERROR_BASE_INTERVAL = 2000,
+            ERROR_MAX_INTERVAL = 60000;
+    private static final double JITTER = 0.2;
+
+    // Margin after the predicted end of an item before checking again
+    private static final int ITEM_END_MARGIN = 500;
+
+    private final Random random = new Random();
+
+    private boolean foreground = true;
+    private int consecutiveErrors = 0;
+    private int playerState = HostConnectionObserver.PlayerEventsObserver.PLAYER_NO_RESULT;
+
+    /**
+     * Last player progress reported, and when it was reported
+     */
+    private static class Progress {
+        final int speed;
+        final long time, totalTime;
+        final long reportedAt;
+
+        Progress(int speed, long time, long totalTime, long reportedAt) {
+            this.speed = speed;
+            this.time = time;
+            this.totalTime = totalTime;
+            this.reportedAt = reportedAt;
+        }
+
+        long predictTime() {
+            long predicted = time + (SystemClock.elapsedRealtime() - reportedAt) * speed;
+            if (totalTime > 0) predicted = Math.min(predicted, totalTime);
+            return Math.max(predicted, 0);
+        }
+    }
+
+    // Null if nothing is playing
+    private Progress progress = null;
+
+    @Override
+    public void onPlayerState(int playerState, PlayerType.PropertyValue getPropertiesResult) {
+        this.playerState = playerState;
+        consecutiveErrors = 0;
+        if (getPropertiesResult != null && getPropertiesResult.time != null) {
+            progress = new Progress(getPropertiesResult.speed,
+                                    getPropertiesResult.time.toMiliseconds(),
+                                    (getPropertiesResult.totaltime != null) ? getPropertiesResult.totaltime.toMiliseconds() : -1,
+                                    SystemClock.elapsedRealtime());
+        } else {
+            progress = null;
+        }
+    }
+
+    @Override
+    public void onCheckSuccess() {
+        consecutiveErrors = 0;
+    }
+
+    @Override
+    public void onCheckError() {
+        consecutiveErrors++;
+        progress = null;
+    }
+
+    @Override
+    public void setForeground(boolean foreground) {
+        this.foreground = foreground;
+    }
+
+    @Override
+    public long getNextCheckDelay(int protocol) {
+        if (consecutiveErrors > 0) {
+            long backoff = Math.min((long) ERROR_BASE_INTERVAL << Math.min(consecutiveErrors - 1, 16),
+                                    ERROR_MAX_INTERVAL);
+            return withJitter(backoff);
+        }
+
+        if (protocol == HostConnection.PROTOCOL_TCP) {
+            return foreground ? TCP_PING_INTERVAL : BACKGROUND_TCP_PING_INTERVAL;
+        }
+
+        boolean isPlaying = (playerState == HostConnectionObserver.PlayerEventsObserver.PLAYER_IS_PLAYING);
+        long interval;
+        if (foreground) {
+            interval = isPlaying ? PLAYING_INTERVAL : IDLE_INTERVAL;
+        } else {
+            interval = isPlaying ? BACKGROUND_PLAYING_INTERVAL : BACKGROUND_IDLE_INTERVAL;
+        }
+
+        // Check right after the current item is predicted to end
+        if (isPlaying && (progress != null) && (progress.speed > 0) && (progress.totalTime > 0)) {
+            long untilEnd = (progress.totalTime - progress.predictTime()) / progress.speed + ITEM_END_MARGIN;
+            if (untilEnd > 0 && untilEnd < interval) {
+                return untilEnd;
+            }
+        }
+        return withJitter(interval);
+    }
+
+    private long withJitter(long interval) {
+        return (long) (interval * (1 + JITTER * (2 * random.nextDouble() - 1)));
+    }
+}
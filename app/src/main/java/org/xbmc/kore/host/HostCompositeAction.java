@@ -23,7 +23,7 @@ import java.util.concurrent.Future;
  * logic that is meant to be executed, knowing that it will be executed in a background thread, thereby allowing
  * the use of {@link HostConnection#execute(ApiMethod)} and awaiting on the resulting {@link Future#get()}.
  *
- * Clients should call {@link HostCompositeAction#execute(HostConnection, ApiCallback, Handler)}, which creates a
+ * Clients should call {@link HostCompositeAction#execute(HostConnection, ApiCallback, Handler)}, which runs it on a
  * background thread, calls runInBackground and sends the result to the given callback.
  */
 public abstract class HostCompositeAction<T> {
@@ -49,7 +49,7 @@ public abstract class HostCompositeAction<T> {
         // Just a protection
         if (hostConnection == null) return;
 
-        hostConnection.getExecutorService().execute(() -> {
+        hostConnection.getActionScheduler().execute(() -> {
             try {
                 T result = execInBackground();
                 handler.post(() -> callback.onSuccess(result));
@@ -58,7 +58,16 @@ public abstract class HostCompositeAction<T> {
             } catch (InterruptedException e) {
                 handler.post(() -> callback.onError(ApiException.API_WAITING_ON_RESULT_INTERRUPTED, e.getMessage()));
             }
-        });
+        }, getLane());
+    }
 
+    /**
+     * Returns the priority of this action. By default actions get what's shown, subclasses that
+     * change something the user is waiting on should return {@link RequestScheduler#LANE_INTERACTIVE}
+     *
+     * @return Priority lane, one of the lanes of {@link RequestScheduler}
+     */
+    protected int getLane() {
+        return RequestScheduler.LANE_FOREGROUND;
     }
 }
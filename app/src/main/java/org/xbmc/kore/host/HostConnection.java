@@ -19,11 +19,16 @@ import android.os.Handler;
 import android.os.Process;
 import android.text.TextUtils;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import org.xbmc.kore.jsonrpc.ApiBatch;
 import org.xbmc.kore.jsonrpc.ApiCallback;
 import org.xbmc.kore.jsonrpc.ApiException;
 import org.xbmc.kore.jsonrpc.ApiFuture;
@@ -39,16 +44,22 @@ import org.xbmc.kore.utils.LogUtils;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.ConnectException;
 import java.net.InetSocketAddress;
 import java.net.ProtocolException;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import okhttp3.Authenticator;
 import okhttp3.Credentials;
@@ -134,9 +145,10 @@ public class HostConnection {
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
-     * Socket used to communicate through TCP
+     * Socket used to communicate through TCP. Only set by the writer thread that opened it, and
+     * cleared when the connection is closed, both while synchronized on this object
      */
-    private Socket socket = null;
+    private volatile Socket socket = null;
 
     /**
      * Listener thread that will be listening on the TCP socket
@@ -144,10 +156,32 @@ public class HostConnection {
     private Thread tcpListenerThread = null;
 
     /**
-     * {@link HashMap} that will hold the {@link MethodCallInfo} with the information
-     * necessary to respond to clients (TCP only)
+     * Writer thread that sends the requests queued on {@link #tcpRequestQueue} through the TCP socket.
+     * This is the only thread that opens the socket and writes to it
      */
-    private final HashMap<String, MethodCallInfo<?>> clientCallbacks = new HashMap<>();
+    private Thread tcpWriterThread = null;
+
+    /**
+     * Requests waiting to be sent through TCP. Each writer thread has its own queue, which is replaced
+     * when the connection is closed, so that a writer thread being stopped doesn't take requests
+     * queued for the next connection
+     */
+    private LinkedBlockingQueue<ApiMethod<?>> tcpRequestQueue = new LinkedBlockingQueue<>();
+
+    /**
+     * Table that holds the {@link MethodCallInfo} with the information necessary to respond to
+     * clients (TCP only), indexed by method id. Method ids are always in [0, {@link ApiMethod#MAX_ID}[,
+     * so each id maps directly to a slot, and the slots are claimed and released atomically,
+     * without locking
+     */
+    private final AtomicReferenceArray<MethodCallInfo<?>> clientCallbacks =
+            new AtomicReferenceArray<>(ApiMethod.MAX_ID);
+
+    /**
+     * Ids of the slots of {@link #clientCallbacks} in use, so that the pending calls can be found
+     * without going through the whole table
+     */
+    private final Set<Integer> pendingCallIds = ConcurrentHashMap.newKeySet();
 
     /**
      * The observers that will be notified of player notifications
@@ -174,7 +208,34 @@ public class HostConnection {
      */
     private final HashMap<PlaylistNotificationsObserver, Handler> playlistNotificationsObservers = new HashMap<>();
 
-    private final ExecutorService executorService;
+    /**
+     * Sends the HTTP requests, a few at a time, by priority
+     */
+    private final RequestScheduler requestScheduler = new RequestScheduler("HostConnection-request", MAX_REQUEST_THREADS);
+
+    /**
+     * Runs the {@link HostCompositeAction}s. These wait on the requests they send, so they don't run
+     * on the {@link #requestScheduler}, which would block if all its threads were waiting
+     */
+    private final RequestScheduler actionScheduler = new RequestScheduler("HostConnection-action", MAX_ACTION_THREADS);
+
+    private static final int MAX_REQUEST_THREADS = 4;
+    private static final int MAX_ACTION_THREADS = 2;
+
+    /**
+     * Counters of the requests sent through this connection
+     */
+    private final RequestStats requestStats = new RequestStats();
+
+    /**
+     * Cache of the metadata got from the host through this connection
+     */
+    private final HostMetadataCache metadataCache = new HostMetadataCache(this);
+
+    /**
+     * Shares the responses of identical read-only calls made at about the same time
+     */
+    private final RequestCoalescer requestCoalescer = RequestCoalescer.createDefault();
 
     private final int connectTimeout;
 
@@ -184,6 +245,18 @@ public class HostConnection {
 
     private static final int CALLABLE_TIMEOUT = 30000; // ms
 
+    /**
+     * Time to wait for a response to a TCP request before failing it
+     */
+    public static final int TCP_CALL_TIMEOUT = 30000; // ms
+
+    private int tcpCallTimeout = TCP_CALL_TIMEOUT;
+
+    /**
+     * Interval between checks for TCP requests that timed out
+     */
+    private static final int TCP_CALL_TIMEOUT_CHECK_INTERVAL = 1000; // ms
+
     /**
      * OkHttpClient. Make sure it is initialized, by calling {@link #getOkHttpClient()}
      */
@@ -218,8 +291,6 @@ public class HostConnection {
         this.hostInfo = hostInfo;
         // Start with the default host protocol
         this.protocol = hostInfo.getProtocol();
-        // Create a single threaded executor
-        this.executorService = Executors.newCachedThreadPool();
         // Set timeout
         this.connectTimeout = connectTimeout;
     }
@@ -268,11 +339,42 @@ public class HostConnection {
     }
 
     /**
-     * Returns the {@link ExecutorService} that is being used to send remote method calls
+     * Returns the {@link RequestScheduler} that sends the HTTP requests, to check how long they wait
+     *
+     * @return The {@link RequestScheduler} of the requests
+     */
+    public RequestScheduler getRequestScheduler() { return requestScheduler; }
+
+    /**
+     * Returns the {@link RequestScheduler} that runs the {@link HostCompositeAction}s
      *
-     * @return The {@link ExecutorService} in use
+     * @return The {@link RequestScheduler} of the composite actions
      */
-    public ExecutorService getExecutorService() { return executorService; }
+    public RequestScheduler getActionScheduler() { return actionScheduler; }
+
+    /**
+     * Returns the counters of requests sent through this connection, to measure the number of round
+     * trips to Kodi and their latency
+     *
+     * @return Request counters of this connection
+     */
+    public RequestStats getRequestStats() { return requestStats; }
+
+    /**
+     * Returns the cache of metadata got from the host through this connection. As there's a connection
+     * for each host, the cache never returns results of another host
+     *
+     * @return Metadata cache of this connection
+     */
+    public HostMetadataCache getMetadataCache() { return metadataCache; }
+
+    /**
+     * Returns the {@link RequestCoalescer} that shares the responses of identical calls made through
+     * this connection, which can be used to share other methods
+     *
+     * @return Request coalescer of this connection
+     */
+    public RequestCoalescer getRequestCoalescer() { return requestCoalescer; }
 
     /**
      * Registers an observer for player notifications
@@ -370,6 +472,8 @@ public class HostConnection {
      * {@link android.os.Handler}. If the results aren't needed, null can be passed for both parameters to ignore them
      * If the connection is through TCP and there's a need to update the callback and handler (e.g. due to a device
      * configuration change) use {@link #updateClientCallback(int, ApiCallback, Handler)}
+     * Identical calls of the methods shared by the {@link RequestCoalescer} get the same result object, so
+     * results must not be modified
      *
      * @param method   Method object that represents the method call
      * @param callback {@link ApiCallback} to post the response to
@@ -381,20 +485,29 @@ public class HostConnection {
     public <T> void execute(final ApiMethod<T> method, final ApiCallback<T> callback, final Handler handler) {
 //		LogUtils.LOGD(TAG, "Starting method execute. Method: " + method.getMethodName() + " on : " + hostInfo.getJsonRpcHttpEndpoint());
 
-        // Launch background thread
-        Runnable command = () -> {
-            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        if (requestCoalescer.isShared(method.getMethodName())) {
+            // Identical calls share the response, which the coalescer posts to each caller's handler
+            ApiCallback<T> sharedCallback = requestCoalescer.start(method, callback, handler);
+            if (sharedCallback != null) send(method, sharedCallback, null);
+        } else {
+            requestCoalescer.onCall(method.getMethodName());
+            send(method, callback, handler);
+        }
+    }
 
-            if (protocol == PROTOCOL_HTTP) {
+    private <T> void send(final ApiMethod<T> method, final ApiCallback<T> callback, final Handler handler) {
+        if (protocol == PROTOCOL_HTTP) {
+            // Launch background thread
+            requestScheduler.execute(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
                 executeThroughOkHttp(method, callback, handler);
-            } else {
-                // Save this method/callback for any later response
-                addClientCallback(method, callback, handler);
+            }, method.getLane());
+        } else {
+            // Save this method/callback for any later response and queue it on the writer thread
+            if (addClientCallback(method, callback, handler)) {
                 executeThroughTcp(method);
             }
-        };
-
-        executorService.execute(command);
+        }
     }
 
     /**
@@ -428,6 +541,94 @@ public class HostConnection {
         return future;
     }
 
+    /**
+     * Calls several remote methods on the Kodi host asynchronously, in a single JSON RPC batch request.
+     * The result of each method will be posted on its {@link ApiCallback callback}, on the specified
+     * {@link android.os.Handler}.
+     * Through HTTP this is a single round trip, and the callbacks are called in the order the methods
+     * were added to the batch. Through TCP each method is sent individually, as requests are already
+     * pipelined on the connection.
+     * As with single calls, the methods shared by the {@link RequestCoalescer} are answered with a kept or
+     * pending response when possible, and only sent in the batch otherwise.
+     *
+     * @param batch   Batch of methods to call
+     * @param handler {@link Handler} to invoke callbacks on.
+     *                Note that, if this is null, the callbacks are invoked on the same background
+     *                thread as the request, which isn't appropriate for UI manipulations
+     */
+    public void execute(final ApiBatch batch, final Handler handler) {
+        if (batch.isEmpty())
+            return;
+
+        if (protocol == PROTOCOL_HTTP) {
+            // Only send the calls the coalescer doesn't answer. Their callbacks post to the handler
+            // themselves, as the shared ones post to the handler of each caller
+            final ApiBatch toSend = new ApiBatch()
+                    .setLane(batch.getLane())
+                    .setCancelable(batch.isCancelable());
+            for (ApiBatch.Call<?> call : batch.getCalls()) {
+                addBatchCall(toSend, call, handler);
+            }
+            if (toSend.isEmpty())
+                return;
+
+            Runnable onCancel = null;
+            if (toSend.isCancelable()) {
+                onCancel = () -> {
+                    ApiException error = new ApiException(ApiException.API_REQUEST_CANCELLED,
+                                                          "Request cancelled as it was outdated");
+                    for (ApiBatch.Call<?> call : toSend.getCalls()) {
+                        postBatchError(call, error, null);
+                    }
+                };
+            }
+            requestScheduler.execute(() -> {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                executeBatchThroughOkHttp(toSend, null);
+            }, toSend.getLane(), onCancel);
+        } else {
+            for (ApiBatch.Call<?> call : batch.getCalls()) {
+                executeBatchCall(call, handler);
+            }
+        }
+    }
+
+    private <T> void executeBatchCall(ApiBatch.Call<T> call, Handler handler) {
+        execute(call.method, call.callback, handler);
+    }
+
+    /**
+     * Adds a call to the batch sent through HTTP, unless it's answered by the {@link RequestCoalescer}, or
+     * joins an identical call waiting for its response
+     *
+     * @param toSend Batch to send
+     * @param call Call of the batch executed
+     * @param handler Handler to post the callback of the call to
+     */
+    private <T> void addBatchCall(ApiBatch toSend, final ApiBatch.Call<T> call, final Handler handler) {
+        if (requestCoalescer.isShared(call.method.getMethodName())) {
+            ApiCallback<T> sharedCallback = requestCoalescer.start(call.method, call.callback, handler);
+            if (sharedCallback != null) toSend.add(call.method, sharedCallback);
+        } else {
+            requestCoalescer.onCall(call.method.getMethodName());
+            if (call.callback == null) {
+                toSend.add(call.method, null);
+                return;
+            }
+            toSend.add(call.method, new ApiCallback<T>() {
+                @Override
+                public void onSuccess(T result) {
+                    postOrRunNow(handler, () -> call.callback.onSuccess(result));
+                }
+
+                @Override
+                public void onError(int errorCode, String description) {
+                    postOrRunNow(handler, () -> call.callback.onError(errorCode, description));
+                }
+            });
+        }
+    }
+
     /**
      * Updates the client callback for the given {@link ApiMethod} if it is still pending.
      * This can be used when the activity or fragment has been destroyed and recreated and
@@ -444,15 +645,19 @@ public class HostConnection {
         if (getProtocol() == PROTOCOL_HTTP)
             return false;
 
-        synchronized (clientCallbacks) {
-            String id = String.valueOf(methodId);
-            MethodCallInfo<?> methodCallInfo = clientCallbacks.get(id);
-            if (methodCallInfo != null) {
-                clientCallbacks.put(id, new MethodCallInfo<>((ApiMethod<T>) methodCallInfo.method, callback, handler));
-                return true;
-            }
+        if (!isValidMethodId(methodId))
             return false;
-        }
+
+        MethodCallInfo<?> methodCallInfo;
+        do {
+            methodCallInfo = clientCallbacks.get(methodId);
+            if (methodCallInfo == null) {
+                return false;
+            }
+        } while (!clientCallbacks.compareAndSet(methodId, methodCallInfo,
+                new MethodCallInfo<>((ApiMethod<T>) methodCallInfo.method, callback, handler,
+                                     methodCallInfo.startTime)));
+        return true;
     }
 
     /**
@@ -463,22 +668,52 @@ public class HostConnection {
      * @param callback Callback
      * @param handler  Handler
      * @param <T>      Method/Callback type
+     * @return Whether the method was added and should be sent
      */
-    private <T> void addClientCallback(final ApiMethod<T> method, final ApiCallback<T> callback, final Handler handler) {
-        if (getProtocol() == PROTOCOL_HTTP)
-            return;
+    private <T> boolean addClientCallback(final ApiMethod<T> method, final ApiCallback<T> callback, final Handler handler) {
+        int methodId = method.getId();
+        if (!isValidMethodId(methodId)) {
+            // Methods without id don't get a response, nothing to keep
+            return true;
+        }
 
-        synchronized (clientCallbacks) {
-            String methodId = String.valueOf(method.getId());
-            if (clientCallbacks.containsKey(methodId)) {
-                if ((handler != null) && (callback != null)) {
-                    handler.post(() -> callback.onError(ApiException.API_METHOD_WITH_SAME_ID_ALREADY_EXECUTING,
-                            "A method with the same Id is already executing"));
-                }
-                return;
+        if (!clientCallbacks.compareAndSet(methodId, null, new MethodCallInfo<>(method, callback, handler,
+                                                                                java.lang.System.nanoTime()))) {
+            if (callback != null) {
+                postOrRunNow(handler, () -> callback.onError(ApiException.API_METHOD_WITH_SAME_ID_ALREADY_EXECUTING,
+                        "A method with the same Id is already executing"));
             }
-            clientCallbacks.put(methodId, new MethodCallInfo<>(method, callback, handler));
+            return false;
         }
+        pendingCallIds.add(methodId);
+        return true;
+    }
+
+    /**
+     * Atomically removes and returns the pending call with the given id
+     *
+     * @param methodId Method id
+     * @return The pending call or null if there's no call pending with this id
+     */
+    private MethodCallInfo<?> removeClientCallback(int methodId) {
+        if (!isValidMethodId(methodId))
+            return null;
+        MethodCallInfo<?> methodCallInfo = clientCallbacks.getAndSet(methodId, null);
+        if (methodCallInfo != null) releaseCallId(methodId);
+        return methodCallInfo;
+    }
+
+    /**
+     * Removes an id from the ids in use, after its slot is cleared. If the slot was claimed again in the
+     * meantime, the id is kept, as the new call might have added it before it was removed here
+     */
+    private void releaseCallId(int methodId) {
+        pendingCallIds.remove(methodId);
+        if (clientCallbacks.get(methodId) != null) pendingCallIds.add(methodId);
+    }
+
+    private static boolean isValidMethodId(int methodId) {
+        return (methodId >= 0) && (methodId < ApiMethod.MAX_ID);
     }
 
     /**
@@ -490,13 +725,15 @@ public class HostConnection {
 
         if (LOG_REQUESTS) LogUtils.LOGD(TAG, "HTTP request: " + jsonRequest);
 
+        long startTime = java.lang.System.nanoTime();
         try {
             Request request = new Request.Builder()
                     .url(hostInfo.getJsonRpcHttpEndpoint())
                     .post(RequestBody.create(jsonRequest, MEDIA_TYPE_JSON))
                     .build();
             Response response = sendOkHttpRequest(client, request);
-            final T result = method.resultFromJson(parseJsonResponse(handleOkHttpResponse(response)));
+            final T result = parseJsonResponse(method, handleOkHttpResponse(response));
+            requestStats.record(1, java.lang.System.nanoTime() - startTime);
 
             if (callback != null) {
                 postOrRunNow(handler, () -> callback.onSuccess(result));
@@ -517,6 +754,96 @@ public class HostConnection {
         }
     }
 
+    /**
+     * Sends a JSON RPC batch request through HTTP (using OkHttp library), and dispatches each response
+     * in the batch to its callback
+     */
+    private void executeBatchThroughOkHttp(final ApiBatch batch, final Handler handler) {
+        OkHttpClient client = getOkHttpClient();
+        String jsonRequest = batch.toJsonString();
+
+        if (LOG_REQUESTS) LogUtils.LOGD(TAG, "HTTP batch request: " + jsonRequest);
+
+        long startTime = java.lang.System.nanoTime();
+        HashMap<Integer, ObjectNode> responsesById = new HashMap<>();
+        try {
+            Request request = new Request.Builder()
+                    .url(hostInfo.getJsonRpcHttpEndpoint())
+                    .post(RequestBody.create(jsonRequest, MEDIA_TYPE_JSON))
+                    .build();
+            Response response = sendOkHttpRequest(client, request);
+            JsonNode jsonResponse;
+            try (ResponseBody body = handleOkHttpResponse(response)) {
+                jsonResponse = objectMapper.readTree(body.byteStream());
+            } catch (IOException e) {
+                LogUtils.LOGW(TAG, "Failed to read OkHTTP batch response.", e);
+                throw new ApiException(ApiException.IO_EXCEPTION_WHILE_READING_RESPONSE, e);
+            }
+            if (LOG_REQUESTS) LogUtils.LOGD(TAG, "HTTP batch response: " + jsonResponse);
+            requestStats.record(batch.size(), java.lang.System.nanoTime() - startTime);
+
+            if (jsonResponse.isObject() && jsonResponse.has(ApiMethod.ERROR_NODE)) {
+                // The whole batch failed
+                throw new ApiException(ApiException.API_ERROR, (ObjectNode) jsonResponse);
+            } else if (!jsonResponse.isArray()) {
+                throw new ApiException(ApiException.INVALID_JSON_RESPONSE_FROM_HOST,
+                                       "Batch response isn't a json array.");
+            }
+            for (JsonNode methodResponse : jsonResponse) {
+                if (methodResponse.isObject() && methodResponse.has(ApiMethod.ID_NODE)) {
+                    responsesById.put(methodResponse.get(ApiMethod.ID_NODE).asInt(), (ObjectNode) methodResponse);
+                }
+            }
+        } catch (final ApiException e) {
+            for (ApiBatch.Call<?> call : batch.getCalls()) {
+                postBatchError(call, e, handler);
+            }
+            return;
+        } catch (final IllegalArgumentException e) {
+            LogUtils.LOGD(TAG, "Illegal argument exception on sending HTTP request: " + e);
+            ApiException error = new ApiException(ApiException.HTTP_HOST_URL_INVALID,
+                    "Illegal argument exception on sending HTTP request.\n" +
+                    "Please check the media center address on the configuration screen.");
+            for (ApiBatch.Call<?> call : batch.getCalls()) {
+                postBatchError(call, error, handler);
+            }
+            return;
+        }
+
+        // Reply in the order the methods were added
+        for (ApiBatch.Call<?> call : batch.getCalls()) {
+            if (call.method.getId() < 0)
+                continue;
+            ObjectNode methodResponse = responsesById.get(call.method.getId());
+            if (methodResponse == null) {
+                postBatchError(call, new ApiException(ApiException.INVALID_JSON_RESPONSE_FROM_HOST,
+                                                      "Batch response doesn't contain a response for this method."), handler);
+            } else {
+                postBatchResponse(call, methodResponse, handler);
+            }
+        }
+    }
+
+    private <T> void postBatchResponse(final ApiBatch.Call<T> call, final ObjectNode jsonResponse, final Handler handler) {
+        try {
+            if (jsonResponse.has(ApiMethod.ERROR_NODE)) {
+                throw new ApiException(ApiException.API_ERROR, jsonResponse);
+            }
+            final T result = call.method.resultFromJson(jsonResponse);
+            if (call.callback != null) {
+                postOrRunNow(handler, () -> call.callback.onSuccess(result));
+            }
+        } catch (ApiException e) {
+            postBatchError(call, e, handler);
+        }
+    }
+
+    private <T> void postBatchError(final ApiBatch.Call<T> call, final ApiException error, final Handler handler) {
+        if (call.callback != null) {
+            postOrRunNow(handler, () -> call.callback.onError(error.getCode(), error.getMessage()));
+        }
+    }
+
     /**
      * Initializes this class OkHttpClient
      */
@@ -582,42 +909,68 @@ public class HostConnection {
     }
 
     /**
-     * Reads the response from the server
+     * Checks the response from the server and returns its body
      *
      * @param response Response from OkHttp
-     * @return Response body string
+     * @return Response body, which must be closed by the caller
      * @throws ApiException {@link ApiException} if response can't be read/processed
      */
-    private String handleOkHttpResponse(Response response) throws ApiException {
-        try {
-            int responseCode = response.code();
-
-            switch (responseCode) {
-                case 200:
-                    ResponseBody body = response.body();
-                    if (body != null) {
-                        // All ok, read response
-                        String res = body.string();
-                        body.close();
-                        if (LOG_REQUESTS) LogUtils.LOGD(TAG, "HTTP response: " + res);
-                        return res;
-                    } else {
-                        LogUtils.LOGD(TAG, "OkHTTP response body is null: " + response);
-                        throw new ApiException(ApiException.HTTP_RESPONSE_CODE_UNKNOWN,
-                                "Server returned response code: " + response);
-                    }
-                case 401:
-                    LogUtils.LOGD(TAG, "OkHTTP response read error. Got a 401: " + response);
-                    throw new ApiException(ApiException.HTTP_RESPONSE_CODE_UNAUTHORIZED,
-                            "Server returned response code: " + response);
-                case 404:
-                    LogUtils.LOGD(TAG, "OkHTTP response read error. Got a 404: " + response);
-                    throw new ApiException(ApiException.HTTP_RESPONSE_CODE_NOT_FOUND,
-                            "Server returned response code: " + response);
-                default:
-                    LogUtils.LOGD(TAG, "OkHTTP response read error. Got: " + response);
+    private ResponseBody handleOkHttpResponse(Response response) throws ApiException {
+        int responseCode = response.code();
+
+        switch (responseCode) {
+            case 200:
+                ResponseBody body = response.body();
+                if (body != null) {
+                    // All ok
+                    return body;
+                } else {
+                    LogUtils.LOGD(TAG, "OkHTTP response body is null: " + response);
                     throw new ApiException(ApiException.HTTP_RESPONSE_CODE_UNKNOWN,
                             "Server returned response code: " + response);
+                }
+            case 401:
+                LogUtils.LOGD(TAG, "OkHTTP response read error. Got a 401: " + response);
+                response.close();
+                throw new ApiException(ApiException.HTTP_RESPONSE_CODE_UNAUTHORIZED,
+                        "Server returned response code: " + response);
+            case 404:
+                LogUtils.LOGD(TAG, "OkHTTP response read error. Got a 404: " + response);
+                response.close();
+                throw new ApiException(ApiException.HTTP_RESPONSE_CODE_NOT_FOUND,
+                        "Server returned response code: " + response);
+            default:
+                LogUtils.LOGD(TAG, "OkHTTP response read error. Got: " + response);
+                response.close();
+                throw new ApiException(ApiException.HTTP_RESPONSE_CODE_UNKNOWN,
+                        "Server returned response code: " + response);
+        }
+    }
+
+    /**
+     * Parses the JSON response from the server, streaming it directly from the response body into
+     * the method's result object, through {@link ApiMethod#resultFromJson(JsonParser)}.
+     * If it is an error (contains the error tag), throws an {@link ApiException} with the info.
+     *
+     * @param method Method whose response is being parsed
+     * @param body Response body. It is closed after being read
+     * @return Result of the method call
+     * @throws ApiException Exception thrown if we can't read or parse the response
+     */
+    private <T> T parseJsonResponse(ApiMethod<T> method, ResponseBody body) throws ApiException {
+        try (ResponseBody responseBody = body) {
+            JsonParser jsonParser;
+            if (LOG_REQUESTS) {
+                String res = responseBody.string();
+                LogUtils.LOGD(TAG, "HTTP response: " + res);
+                jsonParser = objectMapper.getFactory().createParser(res);
+            } else {
+                jsonParser = objectMapper.getFactory().createParser(responseBody.byteStream());
+            }
+            try {
+                return method.resultFromJson(jsonParser);
+            } finally {
+                jsonParser.close();
             }
         } catch (IOException e) {
             LogUtils.LOGW(TAG, "Failed to read OkHTTP response.", e);
@@ -626,55 +979,117 @@ public class HostConnection {
     }
 
     /**
-     * Parses the JSON response from the server.
-     * If it is a valid result returns the JSON {@link com.fasterxml.jackson.databind.node.ObjectNode} that represents it.
-     * If it is an error (contains the error tag), returns an {@link ApiException} with the info.
-     *
-     * @param response JSON response
-     * @return {@link com.fasterxml.jackson.databind.node.ObjectNode} constructed
-     * @throws ApiException Exception trown if we can't parse the response
+     * Sends the JSON RPC request through TCP
+     * The request is queued and written by the writer thread, which keeps the socket open, and a
+     * background thread running, listening on it
      */
-    private ObjectNode parseJsonResponse(String response) throws ApiException {
-//		LogUtils.LOGD(TAG, "Parsing JSON response");
-        try {
-            ObjectNode jsonResponse = (ObjectNode) objectMapper.readTree(response);
+    private synchronized <T> void executeThroughTcp(final ApiMethod<T> method) {
+        tcpRequestQueue.offer(method);
+        startWriterThread();
+    }
 
-            if (jsonResponse.has(ApiMethod.ERROR_NODE)) {
-                throw new ApiException(ApiException.API_ERROR, jsonResponse);
-            }
+    /**
+     * Starts the TCP writer thread, if it isn't running
+     */
+    private synchronized void startWriterThread() {
+        if (tcpWriterThread != null)
+            return;
 
-            if (!jsonResponse.has(ApiMethod.RESULT_NODE)) {
-                // Something strange is going on
-                throw new ApiException(ApiException.INVALID_JSON_RESPONSE_FROM_HOST,
-                        "Result doesn't contain a result node.");
+        final LinkedBlockingQueue<ApiMethod<?>> requestQueue = tcpRequestQueue;
+        tcpWriterThread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            LogUtils.LOGD(TAG, "Starting TCP writer thread");
+            Socket writerSocket = null;
+            Writer writer = null;
+            long nextTimeoutCheck = java.lang.System.nanoTime();
+
+            while (!Thread.currentThread().isInterrupted()) {
+                ApiMethod<?> request;
+                try {
+                    request = requestQueue.poll(TCP_CALL_TIMEOUT_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+
+                if (request != null) {
+                    try {
+                        if (writerSocket == null) {
+                            // Open connection to the server and setup reader thread
+                            Socket newSocket = openTcpConnection(hostInfo);
+                            if (!setSocket(newSocket)) {
+                                // The connection was closed while connecting, and its calls failed
+                                closeSocket(newSocket);
+                                break;
+                            }
+                            writerSocket = newSocket;
+                            writer = new BufferedWriter(new OutputStreamWriter(writerSocket.getOutputStream(),
+                                                                               StandardCharsets.UTF_8));
+                        }
+
+                        // Write request, only flushing when there are no more requests queued
+                        sendTcpRequest(writer, request.toJsonString(), requestQueue.isEmpty());
+                    } catch (final IOException e) {
+                        LogUtils.LOGW(TAG, "Failed to send TCP request", e);
+                        // Fails this request and the pending ones, unless the connection was already closed
+                        closeTcpConnection(writerSocket,
+                                           new ApiException(ApiException.IO_EXCEPTION_WHILE_SENDING_REQUEST, e));
+                        break;
+                    } catch (final ApiException e) {
+                        callErrorCallback(request.getId(), e);
+                    }
+                }
+
+                long now = java.lang.System.nanoTime();
+                if (now - nextTimeoutCheck >= 0) {
+                    failTimedOutCalls(now);
+                    nextTimeoutCheck = now + TimeUnit.MILLISECONDS.toNanos(TCP_CALL_TIMEOUT_CHECK_INTERVAL);
+                }
             }
+            LogUtils.LOGD(TAG, "Stopping TCP writer thread");
+        }, "HostConnection TCP writer");
+        tcpWriterThread.start();
+    }
 
-            return jsonResponse;
-        } catch (IOException e) {
-            LogUtils.LOGW(TAG, "Got an exception while parsing JSON response.", e);
-            throw new ApiException(ApiException.INVALID_JSON_RESPONSE_FROM_HOST, e);
+    /**
+     * Stops the TCP writer thread
+     */
+    private synchronized void stopWriterThread() {
+        if (tcpWriterThread != null) {
+            tcpWriterThread.interrupt();
+            tcpWriterThread = null;
         }
     }
 
     /**
-     * Sends the JSON RPC request through TCP
-     * Keeps a background thread running, listening on a socket
+     * Sets the socket opened by a writer thread, and starts listening on it, if the writer thread
+     * wasn't stopped while connecting
+     *
+     * @return Whether the socket was set
      */
-    private <T> void executeThroughTcp(final ApiMethod<T> method) {
-        String methodId = String.valueOf(method.getId());
-        try {
-            synchronized (this) {
-                if (socket == null) {
-                    // Open connection to the server and setup reader thread
-                    socket = openTcpConnection(hostInfo);
-                    startListenerThread(socket);
-                }
+    private synchronized boolean setSocket(Socket newSocket) {
+        if (tcpWriterThread != Thread.currentThread())
+            return false;
+        socket = newSocket;
+        startListenerThread(newSocket);
+        return true;
+    }
 
-                // Write request
-                sendTcpRequest(socket, method.toJsonString());
+    /**
+     * Fails the pending TCP calls whose deadline has passed, so that they don't stay pending forever
+     *
+     * @param now Current time, from {@link java.lang.System#nanoTime()}
+     */
+    private void failTimedOutCalls(long now) {
+        long timeout = TimeUnit.MILLISECONDS.toNanos(tcpCallTimeout);
+        for (int methodId : pendingCallIds) {
+            MethodCallInfo<?> methodCallInfo = clientCallbacks.get(methodId);
+            if ((methodCallInfo != null) && (now - methodCallInfo.startTime >= timeout) &&
+                clientCallbacks.compareAndSet(methodId, methodCallInfo, null)) {
+                releaseCallId(methodId);
+                LogUtils.LOGD(TAG, "Timed out waiting for response to method " + methodCallInfo.method.getMethodName());
+                postError(methodCallInfo, new ApiException(ApiException.API_WAITING_ON_RESULT_TIMEDOUT,
+                                                           "Timed out waiting for a response from Kodi"));
             }
-        } catch (final ApiException e) {
-            callErrorCallback(methodId, e);
         }
     }
 
@@ -706,21 +1121,15 @@ public class HostConnection {
     /**
      * Send a TCP request
      *
-     * @param socket  Socket to write to
+     * @param writer  Writer of the socket
      * @param request Request to send
-     * @throws ApiException Exception if can't send
+     * @param flush   Whether to flush the writer after writing this request
+     * @throws IOException Exception if can't send
      */
-    private void sendTcpRequest(Socket socket, String request) throws ApiException {
-        try {
-            if (LOG_REQUESTS) LogUtils.LOGD(TAG, "TCP request: " + request);
-            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
-            writer.write(request);
-            writer.flush();
-        } catch (Exception e) {
-            LogUtils.LOGW(TAG, "Failed to send TCP request: " + request, e);
-            disconnect();
-            throw new ApiException(ApiException.IO_EXCEPTION_WHILE_SENDING_REQUEST, e);
-        }
+    private void sendTcpRequest(Writer writer, String request, boolean flush) throws IOException {
+        if (LOG_REQUESTS) LogUtils.LOGD(TAG, "TCP request: " + request);
+        writer.write(request);
+        if (flush) writer.flush();
     }
 
     private void startListenerThread(final Socket socket) {
@@ -739,14 +1148,15 @@ public class HostConnection {
 //                        LogUtils.LOGD_FULL(TAG, "Read from socket: " + jsonResponse.toString());
                     handleTcpResponse(jsonResponse);
                 }
+                closeTcpConnection(socket, new ApiException(ApiException.IO_EXCEPTION_WHILE_READING_RESPONSE,
+                                                            "Connection closed by Kodi"));
             } catch (JsonProcessingException e) {
                 LogUtils.LOGW(TAG, "Got an exception while parsing JSON response.", e);
-                callErrorCallback(null, new ApiException(ApiException.INVALID_JSON_RESPONSE_FROM_HOST, e));
+                closeTcpConnection(socket, new ApiException(ApiException.INVALID_JSON_RESPONSE_FROM_HOST, e));
             } catch (IOException e) {
-                LogUtils.LOGW(TAG, "Error reading from socket.", e);
-                callErrorCallback(null, new ApiException(ApiException.IO_EXCEPTION_WHILE_READING_RESPONSE, e));
-            } finally {
-                disconnect();
+                // Expected when the socket is closed by disconnect(), in which case this does nothing
+                LogUtils.LOGD(TAG, "Error reading from socket: " + e.getMessage());
+                closeTcpConnection(socket, new ApiException(ApiException.IO_EXCEPTION_WHILE_READING_RESPONSE, e));
             }
         });
         tcpListenerThread.start();
@@ -770,6 +1180,7 @@ public class HostConnection {
             // It's a notification, notify observers
             String notificationName = jsonResponse.get(ApiNotification.METHOD_NODE).asText();
             ObjectNode params = (ObjectNode) jsonResponse.get(ApiNotification.PARAMS_NODE);
+            requestCoalescer.onNotification(notificationName);
 
             switch (notificationName) {
                 case Player.OnPause.NOTIFICATION_NAME: {
@@ -917,16 +1328,17 @@ public class HostConnection {
             }
             LogUtils.LOGD(TAG, "Got a notification: " + jsonResponse.get("method").textValue());
         } else {
-            String methodId = jsonResponse.get(ApiMethod.ID_NODE).asText();
+            int methodId = jsonResponse.get(ApiMethod.ID_NODE).asInt(-1);
 
             if (jsonResponse.has(ApiMethod.ERROR_NODE)) {
                 // Error response
                 callErrorCallback(methodId, new ApiException(ApiException.API_ERROR, jsonResponse));
             } else {
-                // Success response
-                final MethodCallInfo<?> methodCallInfo = clientCallbacks.get(methodId);
+                // Success response. Claiming the pending call also removes it from the table
+                final MethodCallInfo<?> methodCallInfo = removeClientCallback(methodId);
 
                 if (methodCallInfo != null) {
+                    requestStats.record(1, java.lang.System.nanoTime() - methodCallInfo.startTime);
                     try {
                         @SuppressWarnings("unchecked") final T result = (T) methodCallInfo.method.resultFromJson(jsonResponse);
                         @SuppressWarnings("unchecked") final ApiCallback<T> callback = (ApiCallback<T>) methodCallInfo.callback;
@@ -934,75 +1346,107 @@ public class HostConnection {
                         if (callback != null) {
                             postOrRunNow(methodCallInfo.handler, () -> callback.onSuccess(result));
                         }
-
-                        // We've replied, remove the client from the list
-                        synchronized (clientCallbacks) {
-                            clientCallbacks.remove(methodId);
-                        }
                     } catch (ApiException e) {
-                        callErrorCallback(methodId, e);
+                        postError(methodCallInfo, e);
                     }
                 }
             }
         }
     }
 
-    private <T> void callErrorCallback(String methodId, final ApiException error) {
-        synchronized (clientCallbacks) {
-            if (methodId != null) {
-                // Send error back to client
-                final MethodCallInfo<?> methodCallInfo = clientCallbacks.get(methodId);
-                if (methodCallInfo != null) {
-                    @SuppressWarnings("unchecked") final ApiCallback<T> callback = (ApiCallback<T>) methodCallInfo.callback;
+    /**
+     * Sends an error to the client waiting on the given method, and removes it from the pending calls
+     *
+     * @param methodId Method id
+     * @param error Error to send
+     */
+    private void callErrorCallback(int methodId, final ApiException error) {
+        final MethodCallInfo<?> methodCallInfo = removeClientCallback(methodId);
+        if (methodCallInfo != null) {
+            postError(methodCallInfo, error);
+        }
+    }
 
-                    if (callback != null) {
-                        postOrRunNow(methodCallInfo.handler, () -> callback.onError(error.getCode(), error.getMessage()));
-                    }
-                }
-                clientCallbacks.remove(methodId);
-            } else {
-                // Notify all pending clients, it might be an error for them
-                for (String id : clientCallbacks.keySet()) {
-                    final MethodCallInfo<?> methodCallInfo = clientCallbacks.get(id);
-                    if (methodCallInfo == null) continue;
-                    @SuppressWarnings("unchecked") final ApiCallback<T> callback = (ApiCallback<T>) methodCallInfo.callback;
-
-                    if (callback != null) {
-                        postOrRunNow(methodCallInfo.handler, () -> callback.onError(error.getCode(), error.getMessage()));
-                    }
-                }
+    /**
+     * Sends an error to all the pending clients, as it might be an error for them, and removes them
+     *
+     * @param error Error to send
+     */
+    private void callErrorCallbacks(final ApiException error) {
+        for (int methodId : pendingCallIds) {
+            callErrorCallback(methodId, error);
+        }
+    }
 
-                clientCallbacks.clear();
-            }
+    private <T> void postError(MethodCallInfo<?> methodCallInfo, final ApiException error) {
+        @SuppressWarnings("unchecked") final ApiCallback<T> callback = (ApiCallback<T>) methodCallInfo.callback;
+
+        if (callback != null) {
+            postOrRunNow(methodCallInfo.handler, () -> callback.onError(error.getCode(), error.getMessage()));
         }
     }
 
     /**
      * Cleans up used resources.
-     * This method should always be called if the protocol used is TCP, so we can shutdown gracefully
+     * This method should always be called if the protocol used is TCP, so we can shutdown gracefully.
+     * The TCP calls queued or waiting for a response are failed with {@link ApiException#API_REQUEST_CANCELLED}
+     * before returning, and calls made afterwards open a new connection
      */
     public void disconnect() {
         if (protocol == PROTOCOL_HTTP)
             return;
 
-        Socket oldSocket = socket;
+        closeTcpConnection(new ApiException(ApiException.API_REQUEST_CANCELLED, "Disconnected from Kodi"));
+    }
+
+    /**
+     * Closes the TCP connection if it's still using the given socket, which had an error
+     *
+     * @param closedSocket Socket of the connection to close
+     * @param error Error to send to the pending calls
+     */
+    private synchronized void closeTcpConnection(Socket closedSocket, ApiException error) {
+        if ((closedSocket != null) && (closedSocket == socket)) {
+            closeTcpConnection(error);
+        }
+    }
+
+    /**
+     * Stops the writer thread, fails the calls that are queued or waiting for a response and closes the socket
+     *
+     * @param error Error to send to the pending calls
+     */
+    private synchronized void closeTcpConnection(ApiException error) {
+        stopWriterThread();
+        tcpRequestQueue = new LinkedBlockingQueue<>();
+        callErrorCallbacks(error);
+
+        final Socket oldSocket = socket;
         socket = null;
-        // Close socket asynchronously, in a synchronized block
-        executorService.execute(() -> {
-            synchronized (this) {
-                try {
-                    if (oldSocket != null) {
-                        // Remove pending calls
-                        clientCallbacks.clear();
-                        if (!oldSocket.isClosed()) {
-                            oldSocket.close();
-                        }
-                    }
-                } catch (IOException e) {
-                    LogUtils.LOGE(TAG, "Error while closing socket", e);
-                }
+        if (oldSocket != null) {
+            // Close the socket asynchronously, as this may be called on the main thread
+            requestScheduler.execute(() -> closeSocket(oldSocket), RequestScheduler.LANE_BACKGROUND);
+        }
+    }
+
+    private static void closeSocket(Socket socket) {
+        try {
+            if (!socket.isClosed()) {
+                socket.close();
             }
-        });
+        } catch (IOException e) {
+            LogUtils.LOGE(TAG, "Error while closing socket", e);
+        }
+    }
+
+    /**
+     * Sets the time to wait for a response to a TCP request before failing it, {@link #TCP_CALL_TIMEOUT} by default
+     *
+     * @param tcpCallTimeout Timeout in ms
+     */
+    @VisibleForTesting
+    void setTcpCallTimeout(int tcpCallTimeout) {
+        this.tcpCallTimeout = tcpCallTimeout;
     }
 
     private static void postOrRunNow(Handler handler, Runnable r) {
@@ -1022,11 +1466,69 @@ public class HostConnection {
         public final ApiMethod<T> method;
         public final ApiCallback<T> callback;
         public final Handler handler;
+        /**
+         * Time, from {@link java.lang.System#nanoTime()}, at which the call was made. The call is
+         * failed with a timeout if there's no response after {@link #TCP_CALL_TIMEOUT}
+         */
+        public final long startTime;
 
-        public MethodCallInfo(ApiMethod<T> method, ApiCallback<T> callback, Handler handler) {
+        public MethodCallInfo(ApiMethod<T> method, ApiCallback<T> callback, Handler handler, long startTime) {
             this.method = method;
             this.callback = callback;
             this.handler = handler;
+            this.startTime = startTime;
+        }
+    }
+
+    /**
+     * Counters of the requests sent to Kodi, used to measure how many round trips are being done and
+     * their latency. A batch request counts as one request with several method calls
+     */
+    public static class RequestStats {
+        private final AtomicLong requestCount = new AtomicLong(0);
+        private final AtomicLong methodCallCount = new AtomicLong(0);
+        private final AtomicLong totalLatency = new AtomicLong(0);
+
+        void record(int methodCalls, long latencyNanos) {
+            requestCount.incrementAndGet();
+            methodCallCount.addAndGet(methodCalls);
+            totalLatency.addAndGet(latencyNanos);
+        }
+
+        /**
+         * @return Number of requests (round trips) made
+         */
+        public long getRequestCount() {
+            return requestCount.get();
+        }
+
+        /**
+         * @return Number of methods called, which is higher than the number of requests when using batches
+         */
+        public long getMethodCallCount() {
+            return methodCallCount.get();
+        }
+
+        /**
+         * @return Average time between sending a request and getting its response, in ms
+         */
+        public double getAverageLatency() {
+            long requests = requestCount.get();
+            return (requests == 0) ? 0 : totalLatency.get() / (requests * 1000000.0);
+        }
+
+        public void reset() {
+            requestCount.set(0);
+            methodCallCount.set(0);
+            totalLatency.set(0);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Requests: " + getRequestCount() +
+                   ", method calls: " + getMethodCallCount() +
+                   ", average latency: " + String.format(Locale.US, "%.1f", getAverageLatency()) + " ms";
         }
     }
 }
@@ -16,10 +16,13 @@
 package org.xbmc.kore.host;
 
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.Looper;
 
 import org.xbmc.kore.host.actions.GetPlaylist;
+import org.xbmc.kore.jsonrpc.ApiBatch;
 import org.xbmc.kore.jsonrpc.ApiCallback;
+import org.xbmc.kore.jsonrpc.ApiException;
 import org.xbmc.kore.jsonrpc.method.JSONRPC;
 import org.xbmc.kore.jsonrpc.method.Player;
 import org.xbmc.kore.jsonrpc.notification.Application;
@@ -34,6 +37,8 @@ import org.xbmc.kore.utils.LogUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Object that listens to a connection and notifies observers about changes in its state
@@ -44,7 +49,13 @@ import java.util.List;
  * or, if through HTTP, starts a periodic polling of Kodi, and tries to discern when a change in
  * the player has occurred, notifying the listeners
  *
- * NOTE: An object of this class should always be called from the same thread.
+ * Polling Kodi and comparing the results with the previous ones is done on a background thread, and
+ * only the changes are posted to the observers, always on the UI thread.
+ *
+ * If given a {@link HostSnapshot}, observers that register before the first results are in are replied
+ * with the player state and playlists saved in it, and the snapshot is updated as results come in.
+ *
+ * NOTE: The public methods of this class should always be called from the UI thread.
  */
 public class HostConnectionObserver
         implements HostConnection.PlayerNotificationsObserver,
@@ -67,6 +78,18 @@ public class HostConnectionObserver
          */
         void onPlaylistsAvailable(ArrayList<GetPlaylist.GetPlaylistResult> playlists);
 
+        /**
+         * Notifies that some items of an available playlist changed. By default the playlist is
+         * notified as available
+         * @param playlist Playlist, with the items after the change
+         * @param change Range of items that changed since the playlist was last notified
+         */
+        default void onPlaylistItemsChanged(GetPlaylist.GetPlaylistResult playlist, PlaylistMirror.Change change) {
+            ArrayList<GetPlaylist.GetPlaylistResult> playlists = new ArrayList<>(1);
+            playlists.add(playlist);
+            onPlaylistsAvailable(playlists);
+        }
+
         /**
          * Notifies that an error occured when fetching playlists
          * @param errorCode Error code
@@ -191,35 +214,74 @@ public class HostConnectionObserver
     private final HostConnection connection;
 
     /**
-     * The list of observers
+     * The list of observers. Changed on the UI thread, and read on the checker thread
      */
-    private final List<PlayerEventsObserver> playerEventsObservers = new ArrayList<>();
-    private final List<ApplicationEventsObserver> applicationEventsObservers = new ArrayList<>();
-    private final List<PlaylistEventsObserver> playlistEventsObservers = new ArrayList<>();
-    private final List<ConnectionStatusObserver> connectionStatusObservers = new ArrayList<>();
+    private final List<PlayerEventsObserver> playerEventsObservers = new CopyOnWriteArrayList<>();
+    private final List<ApplicationEventsObserver> applicationEventsObservers = new CopyOnWriteArrayList<>();
+    private final List<PlaylistEventsObserver> playlistEventsObservers = new CopyOnWriteArrayList<>();
+    private final List<ConnectionStatusObserver> connectionStatusObservers = new CopyOnWriteArrayList<>();
 
     // This controls the frequency with wich the playlist is checked.
     // It's checked everytime it reaches 0, being reset afterwards
     private int checkPlaylistFrequencyCounter = 0;
 
-    // Associate the Handler with the UI thread
-    private final Handler checkerHandler = new Handler(Looper.getMainLooper());
+    /**
+     * Decides the interval between checks, depending on the player state and errors
+     */
+    private volatile PollingScheduler pollingScheduler = new AdaptivePollingScheduler();
+
+    // Whether an error was already reported to the polling scheduler on the current check
+    private boolean checkErrorReported = false;
+
+    // The checks and all the state below are handled on the checker thread, and observers are
+    // called on the UI thread
+    private final HandlerThread checkerThread;
+    private final Handler checkerHandler;
+    private final Handler uiHandler = new Handler(Looper.getMainLooper());
+
+    // Whether the checker runnable is running, and whether its next run is scheduled
+    private boolean isCheckerRunning = false;
+    private boolean isCheckScheduled = false;
+
     private final Runnable httpCheckerRunnable = new Runnable() {
         @Override
         public void run() {
-            final int HTTP_NOTIFICATION_CHECK_INTERVAL = 2000;
+            isCheckScheduled = false;
             // If no one is listening to this, just exit
             if (playerEventsObservers.isEmpty() &&
                 applicationEventsObservers.isEmpty() &&
                 playlistEventsObservers.isEmpty() &&
-                connectionStatusObservers.isEmpty())
+                connectionStatusObservers.isEmpty()) {
+                isCheckerRunning = false;
                 return;
+            }
 
-            if (!playerEventsObservers.isEmpty())
-                checkWhatsPlaying();
+            // Check what's playing, the volume and the connection status in a single request. It's
+            // dropped if the user does something meanwhile, as the next check gets the changes
+            checkErrorReported = false;
+            ApiBatch batch = new ApiBatch()
+                    .setLane(RequestScheduler.LANE_BACKGROUND)
+                    .setCancelable(true);
+            if (!playerEventsObservers.isEmpty()) {
+                if (checkingWhatsPlaying) {
+                    LogUtils.LOGD(TAG, "Already checking what's playing, skipping");
+                } else {
+                    checkingWhatsPlaying = true;
+                    batch.add(new Player.GetActivePlayers(), getActivePlayersCallback);
+                }
+            }
 
             if (!applicationEventsObservers.isEmpty())
-                getApplicationProperties();
+                batch.add(createGetApplicationProperties(), getApplicationPropertiesCallback);
+
+            if (!connectionStatusObservers.isEmpty())
+                batch.add(new JSONRPC.Ping(), checkConnectionStatusCallback);
+
+            connection.execute(batch, checkerHandler);
+            if (HostConnection.LOG_REQUESTS) {
+                LogUtils.LOGD(TAG, connection.getRequestStats().toString());
+                LogUtils.LOGD(TAG, connection.getRequestScheduler().getStats().toString());
+            }
 
             if (!playlistEventsObservers.isEmpty()) {
                 if (checkPlaylistFrequencyCounter <= 0) {
@@ -231,26 +293,24 @@ public class HostConnectionObserver
                 }
             }
 
-            if (!connectionStatusObservers.isEmpty()) {
-                checkConnectionStatus();
-            }
-
-            checkerHandler.postDelayed(this, HTTP_NOTIFICATION_CHECK_INTERVAL);
+            scheduleCheck(this, pollingScheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
         }
     };
 
     private final Runnable tcpCheckerRunnable = new Runnable() {
         @Override
         public void run() {
+            isCheckScheduled = false;
             // If no one is listening to this, just exit
             if (playerEventsObservers.isEmpty() &&
                 applicationEventsObservers.isEmpty() &&
                 playlistEventsObservers.isEmpty() &&
-                connectionStatusObservers.isEmpty())
+                connectionStatusObservers.isEmpty()) {
+                isCheckerRunning = false;
                 return;
+            }
 
-            final int PING_AFTER_ERROR_CHECK_INTERVAL = 2000,
-                    PING_AFTER_SUCCESS_CHECK_INTERVAL = 5000;
+            checkErrorReported = false;
             JSONRPC.Ping ping = new JSONRPC.Ping();
             ping.execute(connection, new ApiCallback<String>() {
                 @Override
@@ -273,7 +333,8 @@ public class HostConnectionObserver
                         notifyConnectionStatusSucess(connectionStatusObservers);
                     }
 
-                    checkerHandler.postDelayed(tcpCheckerRunnable, PING_AFTER_SUCCESS_CHECK_INTERVAL);
+                    pollingScheduler.onCheckSuccess();
+                    scheduleCheck(tcpCheckerRunnable, pollingScheduler.getNextCheckDelay(HostConnection.PROTOCOL_TCP));
                 }
 
                 @Override
@@ -281,7 +342,8 @@ public class HostConnectionObserver
                     // Notify a connection error
                     notifyConnectionError(errorCode, description, playerEventsObservers);
                     notifyConnectionStatusError(errorCode, description, connectionStatusObservers);
-                    checkerHandler.postDelayed(tcpCheckerRunnable, PING_AFTER_ERROR_CHECK_INTERVAL);
+                    reportCheckError();
+                    scheduleCheck(tcpCheckerRunnable, pollingScheduler.getNextCheckDelay(HostConnection.PROTOCOL_TCP));
                 }
             }, checkerHandler);
         }
@@ -303,9 +365,65 @@ public class HostConnectionObserver
     }
     private HostState hostState;
 
+    /**
+     * Snapshot of the host, used to reply to observers until the first results are in, and kept up to date
+     * with the results. Can be null
+     */
+    private final HostSnapshot snapshot;
+
+    /**
+     * Mirror of the playlists, which is checked instead of getting all the playlists again
+     */
+    private final PlaylistMirror playlistMirror;
+
     public HostConnectionObserver(HostConnection connection) {
+        this(connection, null);
+    }
+
+    /**
+     * Constructor
+     * @param connection Connection to observe
+     * @param snapshot Snapshot of the host, or null to not use one
+     */
+    public HostConnectionObserver(HostConnection connection, HostSnapshot snapshot) {
         this.hostState = new HostState();
         this.connection = connection;
+        this.snapshot = snapshot;
+
+        checkerThread = new HandlerThread("HostConnectionObserver");
+        checkerThread.start();
+        checkerHandler = new Handler(checkerThread.getLooper());
+        playlistMirror = new PlaylistMirror(connection, checkerHandler, playlistMirrorListener);
+    }
+
+    /**
+     * Replaces the {@link PollingScheduler} that decides the interval between checks.
+     * By default an {@link AdaptivePollingScheduler} is used
+     * @param pollingScheduler Scheduler to use
+     */
+    public void setPollingScheduler(final PollingScheduler pollingScheduler) {
+        if (pollingScheduler == null) return;
+        checkerHandler.post(() -> this.pollingScheduler = pollingScheduler);
+    }
+
+    /**
+     * Sets whether the app is visible, so that checks are done less often in the background
+     * When coming to the foreground, checks immediately
+     * @param foreground Whether the app is in the foreground
+     */
+    public void setForeground(final boolean foreground) {
+        checkerHandler.post(() -> {
+            pollingScheduler.setForeground(foreground);
+
+            // Only if waiting for the next check, otherwise a check is already on its way
+            if (foreground && isCheckScheduled) {
+                Runnable checkerRunnable = (connection.getProtocol() == HostConnection.PROTOCOL_TCP) ?
+                                           tcpCheckerRunnable : httpCheckerRunnable;
+                checkerHandler.removeCallbacks(checkerRunnable);
+                isCheckScheduled = false;
+                checkerHandler.post(checkerRunnable);
+            }
+        });
     }
 
     /**
@@ -322,7 +440,7 @@ public class HostConnectionObserver
                             ". Got " + playerEventsObservers.size() + " observers.");
 
         // Reply immediatelly
-        replyWithLastResult(observer);
+        checkerHandler.post(() -> replyWithLastResult(observer));
 
         if (playerEventsObservers.size() == 1) {
             // If this is the first observer, start checking through HTTP or register us
@@ -357,7 +475,7 @@ public class HostConnectionObserver
                 connection.unregisterSystemNotificationsObserver(this);
                 connection.unregisterInputNotificationsObserver(this);
             }
-            hostState.lastPlayerEventsResult = PlayerEventsObserver.PLAYER_NO_RESULT;
+            checkerHandler.post(() -> hostState.lastPlayerEventsResult = PlayerEventsObserver.PLAYER_NO_RESULT);
         }
     }
 
@@ -375,7 +493,7 @@ public class HostConnectionObserver
                            ". Got " + applicationEventsObservers.size() + " observers.");
 
         // Reply immediatelly
-        replyWithLastResult(observer);
+        checkerHandler.post(() -> replyWithLastResult(observer));
 
         if (applicationEventsObservers.size() == 1) {
             // If this is the first observer, start checking through HTTP or register us
@@ -424,7 +542,7 @@ public class HostConnectionObserver
                            ". Got " + playlistEventsObservers.size() + " observers.");
 
         // Reply immediatelly
-        replyWithLastResult(observer);
+        checkerHandler.post(() -> replyWithLastResult(observer));
 
         if (playlistEventsObservers.size() == 1) {
             if (connection.getProtocol() == HostConnection.PROTOCOL_TCP) {
@@ -449,10 +567,35 @@ public class HostConnectionObserver
             if (connection.getProtocol() == HostConnection.PROTOCOL_TCP) {
                 connection.unregisterPlaylistNotificationsObserver(this);
             }
-            hostState.lastGetPlaylistResults = null;
+            checkerHandler.post(() -> {
+                hostState.lastGetPlaylistResults = null;
+                playlistMirror.reset();
+            });
         }
     }
 
+    /**
+     * Sets the positions of a playlist that are shown. Only the items around them are got, and the
+     * ones far from them are dropped, which is notified through {@link PlaylistEventsObserver#onPlaylistItemsChanged}
+     * @param playlistId Id of the playlist
+     * @param first First position shown
+     * @param last Last position shown
+     */
+    public void setPlaylistViewport(final int playlistId, final int first, final int last) {
+        checkerHandler.post(() -> playlistMirror.setViewport(playlistId, first, last));
+    }
+
+    /**
+     * Gets the playlists again, for changes Kodi doesn't notify, like a playlist being shuffled
+     */
+    public void refreshPlaylists() {
+        LogUtils.LOGD(TAG, "Forcing a refresh of playlists");
+        checkerHandler.post(() -> {
+            playlistMirror.reset();
+            checkPlaylist();
+        });
+    }
+
     /**
      * Registers a new observer that will be notified about connection status
      * @param observer Observer
@@ -467,7 +610,7 @@ public class HostConnectionObserver
                            ". Got " + connectionStatusObservers.size() + " observers.");
 
         // Reply immediatelly
-        replyWithLastResult(observer);
+        checkerHandler.post(() -> replyWithLastResult(observer));
         startCheckerHandler();
     }
 
@@ -487,7 +630,7 @@ public class HostConnectionObserver
     }
 
     /**
-     * Unregisters all observers
+     * Unregisters all observers and stops the checker thread. This object can't be used afterwards
      */
     public void stopObserving() {
         for (final PlayerEventsObserver observer : playerEventsObservers)
@@ -504,17 +647,15 @@ public class HostConnectionObserver
             connection.unregisterInputNotificationsObserver(this);
             connection.unregisterApplicationNotificationsObserver(this);
             connection.unregisterPlaylistNotificationsObserver(this);
-            checkerHandler.removeCallbacks(tcpCheckerRunnable);
         }
-        hostState = new HostState();
+        checkerHandler.removeCallbacks(tcpCheckerRunnable);
+        checkerHandler.removeCallbacks(httpCheckerRunnable);
+        checkerThread.quitSafely();
     }
 
     @Override
     public void onPropertyChanged(org.xbmc.kore.jsonrpc.notification.Player.OnPropertyChanged notification) {
-        List<PlayerEventsObserver> allObservers = new ArrayList<>(playerEventsObservers);
-        for (final PlayerEventsObserver observer : allObservers) {
-            observer.onPlayerPropertyChanged(notification.data);
-        }
+        notifyObservers(playerEventsObservers, observer -> observer.onPlayerPropertyChanged(notification.data));
     }
 
     /**
@@ -569,35 +710,23 @@ public class HostConnectionObserver
      * The {@link HostConnection.SystemNotificationsObserver} interface methods
      */
     public void onQuit(System.OnQuit notification) {
-        // Copy list to prevent ConcurrentModificationExceptions
-        List<PlayerEventsObserver> allObservers = new ArrayList<>(playerEventsObservers);
-        for (final PlayerEventsObserver observer : allObservers) {
-            observer.onSystemQuit();
-        }
+        // Kodi might come back with other addons or version
+        connection.getMetadataCache().invalidateAll();
+        notifyObservers(playerEventsObservers, PlayerEventsObserver::onSystemQuit);
     }
 
     public void onRestart(System.OnRestart notification) {
-        // Copy list to prevent ConcurrentModificationExceptions
-        List<PlayerEventsObserver> allObservers = new ArrayList<>(playerEventsObservers);
-        for (final PlayerEventsObserver observer : allObservers) {
-            observer.onSystemQuit();
-        }
+        connection.getMetadataCache().invalidateAll();
+        notifyObservers(playerEventsObservers, PlayerEventsObserver::onSystemQuit);
     }
 
     public void onSleep(System.OnSleep notification) {
-        // Copy list to prevent ConcurrentModificationExceptions
-        List<PlayerEventsObserver> allObservers = new ArrayList<>(playerEventsObservers);
-        for (final PlayerEventsObserver observer : allObservers) {
-            observer.onSystemQuit();
-        }
+        notifyObservers(playerEventsObservers, PlayerEventsObserver::onSystemQuit);
     }
 
     public void onInputRequested(Input.OnInputRequested notification) {
-        // Copy list to prevent ConcurrentModificationExceptions
-        List<PlayerEventsObserver> allObservers = new ArrayList<>(playerEventsObservers);
-        for (final PlayerEventsObserver observer : allObservers) {
-            observer.onInputRequested(notification.title, notification.type, notification.value);
-        }
+        notifyObservers(playerEventsObservers,
+                        observer -> observer.onInputRequested(notification.title, notification.type, notification.value));
     }
 
     @Override
@@ -605,156 +734,225 @@ public class HostConnectionObserver
         hostState.volumeMuted = notification.muted;
         hostState.volumeLevel = notification.volume;
 
-        for (ApplicationEventsObserver observer : applicationEventsObservers) {
-            observer.onApplicationVolumeChanged(notification.volume, notification.muted);
-        }
+        notifyObservers(applicationEventsObservers,
+                        observer -> observer.onApplicationVolumeChanged(notification.volume, notification.muted));
     }
 
     @Override
     public void onPlaylistCleared(Playlist.OnClear notification) {
-        if (hostState.lastGetPlaylistResults != null)
-            hostState.lastGetPlaylistResults.clear();
-        else
-            hostState.lastGetPlaylistResults = new ArrayList<>();
-
-        for (PlaylistEventsObserver observer : playlistEventsObservers) {
-            observer.onPlaylistClear(notification.playlistId);
-        }
+        playlistMirror.onCleared(notification.playlistId);
     }
 
     @Override
     public void onPlaylistItemAdded(Playlist.OnAdd notification) {
-        checkPlaylist();
+        playlistMirror.onItemAdded(notification.playlistId, notification.position);
     }
 
     @Override
     public void onPlaylistItemRemoved(Playlist.OnRemove notification) {
-        checkPlaylist();
+        playlistMirror.onItemRemoved(notification.playlistId, notification.position);
     }
 
     private void startCheckerHandler() {
-        // Check if checkerHandler is already running, to prevent multiple runnables to be posted
-        // when multiple observers are registered.
-        if (checkerHandler.hasMessages(0))
-            return;
+        checkerHandler.post(() -> {
+            // Check if the checker is already running, to prevent multiple runnables to be posted
+            // when multiple observers are registered.
+            if (isCheckerRunning)
+                return;
+            isCheckerRunning = true;
 
-        if (connection.getProtocol() == HostConnection.PROTOCOL_TCP) {
-            checkerHandler.post(tcpCheckerRunnable);
-        } else {
-            checkerHandler.post(httpCheckerRunnable);
-        }
+            if (connection.getProtocol() == HostConnection.PROTOCOL_TCP) {
+                checkerHandler.post(tcpCheckerRunnable);
+            } else {
+                checkerHandler.post(httpCheckerRunnable);
+            }
+        });
     }
 
-    private void getApplicationProperties() {
-        org.xbmc.kore.jsonrpc.method.Application.GetProperties getProperties =
-                new org.xbmc.kore.jsonrpc.method.Application.GetProperties(org.xbmc.kore.jsonrpc.method.Application.GetProperties.VOLUME,
-                                                                           org.xbmc.kore.jsonrpc.method.Application.GetProperties.MUTED);
-        getProperties.execute(connection, new ApiCallback<ApplicationType.PropertyValue>() {
-            @Override
-            public void onSuccess(ApplicationType.PropertyValue result) {
-                hostState.volumeMuted = result.muted;
-                hostState.volumeLevel = result.volume;
-
-                for (ApplicationEventsObserver observer : applicationEventsObservers) {
-                    observer.onApplicationVolumeChanged(result.volume, result.muted);
-                }
-            }
+    /**
+     * Schedules the next run of the checker runnable
+     * @param checkerRunnable Runnable to schedule
+     * @param delay Delay in ms
+     */
+    private void scheduleCheck(Runnable checkerRunnable, long delay) {
+        isCheckScheduled = true;
+        checkerHandler.postDelayed(checkerRunnable, delay);
+    }
 
-            @Override
-            public void onError(int errorCode, String description) {
-                LogUtils.LOGD(TAG, "Could not get application properties");
-                notifyConnectionError(errorCode, description, playerEventsObservers);
+    /**
+     * Calls the observers on the UI thread. Observers unregistered in the meantime aren't called
+     * @param observers List of observers
+     * @param notification Call to make on each observer
+     */
+    private <O> void notifyObservers(final List<O> observers, final Consumer<O> notification) {
+        uiHandler.post(() -> {
+            for (O observer : observers) {
+                notification.accept(observer);
             }
-        }, checkerHandler);
+        });
     }
 
-    private boolean isCheckingPlaylist = false;
-    private void checkPlaylist() {
-        if (isCheckingPlaylist)
-            return;
+    /**
+     * Calls a specific observer on the UI thread, if it is still registered
+     * @param observers List of observers the observer is registered on
+     * @param observer Observer
+     * @param notification Call to make on the observer
+     */
+    private <O> void notifyObserver(final List<O> observers, final O observer, final Consumer<O> notification) {
+        uiHandler.post(() -> {
+            if (observers.contains(observer)) notification.accept(observer);
+        });
+    }
 
-        if (HostConnection.LOG_REQUESTS) LogUtils.LOGD(TAG, "Checking playlists");
-        isCheckingPlaylist = true;
+    private void getApplicationProperties() {
+        createGetApplicationProperties().execute(connection, getApplicationPropertiesCallback, checkerHandler);
+    }
 
-        new GetPlaylist().execute(connection, new ApiCallback<ArrayList<GetPlaylist.GetPlaylistResult>>() {
-            @Override
-            public void onSuccess(ArrayList<GetPlaylist.GetPlaylistResult> result) {
-                isCheckingPlaylist = false;
+    private org.xbmc.kore.jsonrpc.method.Application.GetProperties createGetApplicationProperties() {
+        return new org.xbmc.kore.jsonrpc.method.Application.GetProperties(org.xbmc.kore.jsonrpc.method.Application.GetProperties.VOLUME,
+                                                                          org.xbmc.kore.jsonrpc.method.Application.GetProperties.MUTED);
+    }
 
-                if (result.isEmpty()) {
-                    callPlaylistsOnClear(hostState.lastGetPlaylistResults);
-                    hostState.lastGetPlaylistResults = result;
-                    return;
-                }
+    private final ApiCallback<ApplicationType.PropertyValue> getApplicationPropertiesCallback =
+            new ApiCallback<ApplicationType.PropertyValue>() {
+        @Override
+        public void onSuccess(ApplicationType.PropertyValue result) {
+            hostState.volumeMuted = result.muted;
+            hostState.volumeLevel = result.volume;
 
-                if (!(hostState.lastGetPlaylistResults != null &&
-                    hostState.lastGetPlaylistResults.equals(result))) {
-                    for (PlaylistEventsObserver observer : playlistEventsObservers) {
-                        observer.onPlaylistsAvailable(result);
-                    }
-                }
+            notifyObservers(applicationEventsObservers,
+                            observer -> observer.onApplicationVolumeChanged(result.volume, result.muted));
+        }
 
-                // Handle cleared playlists
-                if (hostState.lastGetPlaylistResults != null) {
-                    for (GetPlaylist.GetPlaylistResult getPlaylistResult : result) {
-                        for (int i = 0; i < hostState.lastGetPlaylistResults.size(); i++) {
-                            if (getPlaylistResult.id == hostState.lastGetPlaylistResults.get(i).id) {
-                                hostState.lastGetPlaylistResults.remove(i);
-                                break;
-                            }
-                        }
-                    }
-                    callPlaylistsOnClear(hostState.lastGetPlaylistResults);
-                }
+        @Override
+        public void onError(int errorCode, String description) {
+            LogUtils.LOGD(TAG, "Could not get application properties");
+            notifyConnectionError(errorCode, description, playerEventsObservers);
+        }
+    };
+
+    private void checkPlaylist() {
+        if (HostConnection.LOG_REQUESTS) LogUtils.LOGD(TAG, "Checking playlists");
+        playlistMirror.check();
+    }
+
+    /**
+     * Keeps the last playlists results and the snapshot up to date with the playlists mirror, and
+     * notifies the observers
+     */
+    private final PlaylistMirror.Listener playlistMirrorListener = new PlaylistMirror.Listener() {
+        @Override
+        public void onPlaylistsSynced(ArrayList<GetPlaylist.GetPlaylistResult> result) {
+            if (snapshot != null) snapshot.setPlaylists(result);
+
+            if (result.isEmpty()) {
+                callPlaylistsOnClear(hostState.lastGetPlaylistResults);
                 hostState.lastGetPlaylistResults = result;
+                return;
             }
 
-            @Override
-            public void onError(int errorCode, String description) {
-                isCheckingPlaylist = false;
+            if (!(hostState.lastGetPlaylistResults != null &&
+                  hostState.lastGetPlaylistResults.equals(result))) {
+                notifyObservers(playlistEventsObservers, observer -> observer.onPlaylistsAvailable(result));
+            }
 
-                for (PlaylistEventsObserver observer : playlistEventsObservers) {
-                    observer.onPlaylistError(errorCode, description);
+            // Handle cleared playlists
+            if (hostState.lastGetPlaylistResults != null) {
+                for (GetPlaylist.GetPlaylistResult getPlaylistResult : result) {
+                    int index = indexOfPlaylist(hostState.lastGetPlaylistResults, getPlaylistResult.id);
+                    if (index >= 0) hostState.lastGetPlaylistResults.remove(index);
                 }
+                callPlaylistsOnClear(hostState.lastGetPlaylistResults);
             }
-        }, checkerHandler);
+            // Keep a copy, as the result is handed to the observers and the last results are changed here
+            hostState.lastGetPlaylistResults = new ArrayList<>(result);
+        }
+
+        @Override
+        public void onPlaylistChanged(GetPlaylist.GetPlaylistResult playlist, PlaylistMirror.Change change) {
+            if (hostState.lastGetPlaylistResults == null)
+                hostState.lastGetPlaylistResults = new ArrayList<>();
+
+            int index = indexOfPlaylist(hostState.lastGetPlaylistResults, playlist.id);
+            if (index < 0) {
+                hostState.lastGetPlaylistResults.add(playlist);
+                final ArrayList<GetPlaylist.GetPlaylistResult> playlists = new ArrayList<>(hostState.lastGetPlaylistResults);
+                notifyObservers(playlistEventsObservers, observer -> observer.onPlaylistsAvailable(playlists));
+            } else {
+                hostState.lastGetPlaylistResults.set(index, playlist);
+                notifyObservers(playlistEventsObservers, observer -> observer.onPlaylistItemsChanged(playlist, change));
+            }
+
+            if (snapshot != null) snapshot.setPlaylists(hostState.lastGetPlaylistResults);
+        }
+
+        @Override
+        public void onPlaylistCleared(int playlistId) {
+            if (hostState.lastGetPlaylistResults == null) {
+                hostState.lastGetPlaylistResults = new ArrayList<>();
+            } else {
+                int index = indexOfPlaylist(hostState.lastGetPlaylistResults, playlistId);
+                if (index >= 0) hostState.lastGetPlaylistResults.remove(index);
+            }
+
+            if (snapshot != null) snapshot.setPlaylists(hostState.lastGetPlaylistResults);
+            notifyObservers(playlistEventsObservers, observer -> observer.onPlaylistClear(playlistId));
+        }
+
+        @Override
+        public void onError(int errorCode, String description) {
+            notifyObservers(playlistEventsObservers, observer -> observer.onPlaylistError(errorCode, description));
+        }
+    };
+
+    private static int indexOfPlaylist(List<GetPlaylist.GetPlaylistResult> playlists, int playlistId) {
+        for (int i = 0; i < playlists.size(); i++) {
+            if (playlists.get(i).id == playlistId) return i;
+        }
+        return -1;
     }
 
     private void callPlaylistsOnClear(ArrayList<GetPlaylist.GetPlaylistResult> clearedPlaylists) {
         if (clearedPlaylists == null) return;
         for (GetPlaylist.GetPlaylistResult getPlaylistResult : clearedPlaylists) {
-            for (PlaylistEventsObserver observer : playlistEventsObservers) {
-                observer.onPlaylistClear(getPlaylistResult.id);
-            }
+            final int playlistId = getPlaylistResult.id;
+            notifyObservers(playlistEventsObservers, observer -> observer.onPlaylistClear(playlistId));
         }
     }
 
     /**
      * Checks the connection status and notifies observers
      */
-    private void checkConnectionStatus() {
-        if (HostConnection.LOG_REQUESTS) LogUtils.LOGD(TAG, "Checking connection status");
-        JSONRPC.Ping ping = new JSONRPC.Ping();
-        ping.execute(connection, new ApiCallback<String>() {
-            @Override
-            public void onSuccess(String result) {
-                notifyConnectionStatusSucess(connectionStatusObservers);
-            }
+    private final ApiCallback<String> checkConnectionStatusCallback = new ApiCallback<String>() {
+        @Override
+        public void onSuccess(String result) {
+            if (!checkErrorReported) pollingScheduler.onCheckSuccess();
+            notifyConnectionStatusSucess(connectionStatusObservers);
+        }
 
-            @Override
-            public void onError(int errorCode, String description) {
-                notifyConnectionStatusError(errorCode, description, connectionStatusObservers);
-            }
-        }, checkerHandler);
+        @Override
+        public void onError(int errorCode, String description) {
+            if (errorCode == ApiException.API_REQUEST_CANCELLED) return;
+            reportCheckError();
+            notifyConnectionStatusError(errorCode, description, connectionStatusObservers);
+        }
+    };
+
+    /**
+     * Reports an error to the polling scheduler, only once per check, so that several failed calls
+     * in the same check don't increase the backoff more than once
+     */
+    private void reportCheckError() {
+        if (checkErrorReported) return;
+        checkErrorReported = true;
+        pollingScheduler.onCheckError();
     }
 
     private void notifyConnectionStatusSucess(List<ConnectionStatusObserver> observers) {
         // Reply if different from last result
         if (hostState.lastConnectionStatusResult != ConnectionStatusObserver.CONNECTION_SUCCESS) {
             hostState.lastConnectionStatusResult = ConnectionStatusObserver.CONNECTION_SUCCESS;
-            for (final ConnectionStatusObserver observer : observers) {
-                observer.onConnectionStatusSuccess();
-            }
+            notifyObservers(observers, ConnectionStatusObserver::onConnectionStatusSuccess);
         }
     }
 
@@ -765,9 +963,7 @@ public class HostConnectionObserver
             hostState.lastConnectionStatusResult = ConnectionStatusObserver.CONNECTION_ERROR;
             hostState.lastConnectionStatusErrorCode = errorCode;
             hostState.lastConnectionStatusErrorDescription = description;
-            for (final ConnectionStatusObserver observer : observers) {
-                observer.onConnectionStatusError(errorCode, description);
-            }
+            notifyObservers(observers, observer -> observer.onConnectionStatusError(errorCode, description));
         }
     }
 
@@ -796,34 +992,37 @@ public class HostConnectionObserver
 
     /**
      * Calls Player.GetActivePlayers
-     * On success chains execution to chainCallGetPlayerProperties
+     * On success chains execution to chainCallGetPropertiesAndItem
      */
     private void chainCallGetActivePlayers() {
         Player.GetActivePlayers getActivePlayers = new Player.GetActivePlayers();
-        getActivePlayers.execute(connection, new ApiCallback<ArrayList<PlayerType.GetActivePlayersReturnType>>() {
-            @Override
-            public void onSuccess(ArrayList<PlayerType.GetActivePlayersReturnType> result) {
-                if (result.isEmpty()) {
-                    if (HostConnection.LOG_REQUESTS) LogUtils.LOGD(TAG, "Nothing is playing");
-                    notifyNothingIsPlaying(playerEventsObservers);
-                    return;
-                }
-                chainCallGetPlayerProperties(result.get(0));
-            }
+        getActivePlayers.execute(connection, getActivePlayersCallback, checkerHandler);
+    }
 
-            @Override
-            public void onError(int errorCode, String description) {
-                LogUtils.LOGD(TAG, "Notifying error");
-                notifyConnectionError(errorCode, description, playerEventsObservers);
+    private final ApiCallback<ArrayList<PlayerType.GetActivePlayersReturnType>> getActivePlayersCallback =
+            new ApiCallback<ArrayList<PlayerType.GetActivePlayersReturnType>>() {
+        @Override
+        public void onSuccess(ArrayList<PlayerType.GetActivePlayersReturnType> result) {
+            if (result.isEmpty()) {
+                if (HostConnection.LOG_REQUESTS) LogUtils.LOGD(TAG, "Nothing is playing");
+                notifyNothingIsPlaying(playerEventsObservers);
+                return;
             }
-        }, checkerHandler);
-    }
+            chainCallGetPropertiesAndItem(result.get(0));
+        }
+
+        @Override
+        public void onError(int errorCode, String description) {
+            LogUtils.LOGD(TAG, "Notifying error");
+            notifyConnectionError(errorCode, description, playerEventsObservers);
+        }
+    };
 
     /**
-     * Calls Player.GetProperties
-     * On success chains execution to chainCallGetItem
+     * Calls Player.GetProperties and Player.GetItem in a single batch
+     * When both results are in notifies observers
      */
-    private void chainCallGetPlayerProperties(final PlayerType.GetActivePlayersReturnType getActivePlayersResult) {
+    private void chainCallGetPropertiesAndItem(final PlayerType.GetActivePlayersReturnType getActivePlayersResult) {
         String[] propertiesToGet = new String[] {
                 // Check is something more is needed
                 PlayerType.PropertyName.SPEED,
@@ -843,82 +1042,112 @@ public class HostConnectionObserver
                 };
 
         Player.GetProperties getProperties = new Player.GetProperties(getActivePlayersResult.playerid, propertiesToGet);
-        getProperties.execute(connection, new ApiCallback<PlayerType.PropertyValue>() {
-            @Override
-            public void onSuccess(PlayerType.PropertyValue result) {
-                chainCallGetItem(getActivePlayersResult, result);
-            }
+        Player.GetItem getItem = new Player.GetItem(getActivePlayersResult.playerid, GET_ITEM_PROPERTIES);
+
+        // The callbacks can be called in any order, so wait for both before notifying
+        final PlayerResultsCombiner combiner = new PlayerResultsCombiner(getActivePlayersResult);
+        ApiBatch batch = new ApiBatch()
+                .setLane(RequestScheduler.LANE_BACKGROUND)
+                .setCancelable(true)
+                .add(getProperties, new ApiCallback<PlayerType.PropertyValue>() {
+                    @Override
+                    public void onSuccess(PlayerType.PropertyValue result) {
+                        combiner.getPropertiesResult = result;
+                        combiner.onResult();
+                    }
 
-            @Override
-            public void onError(int errorCode, String description) {
-                notifyConnectionError(errorCode, description, playerEventsObservers);
-            }
-        }, checkerHandler);
+                    @Override
+                    public void onError(int errorCode, String description) {
+                        combiner.onError(errorCode, description);
+                    }
+                })
+                .add(getItem, new ApiCallback<ListType.ItemsAll>() {
+                    @Override
+                    public void onSuccess(ListType.ItemsAll result) {
+                        combiner.getItemResult = result;
+                        combiner.onResult();
+                    }
+
+                    @Override
+                    public void onError(int errorCode, String description) {
+                        combiner.onError(errorCode, description);
+                    }
+                });
+        connection.execute(batch, checkerHandler);
     }
 
     /**
-     * Calls Player.GetItem
-     * On success notifies observers
+     * Gathers the results of Player.GetProperties and Player.GetItem, notifying the observers when
+     * both are available, or of the first error
      */
-    private void chainCallGetItem(final PlayerType.GetActivePlayersReturnType getActivePlayersResult,
-                                  final PlayerType.PropertyValue getPropertiesResult) {
-//        COMMENT, LYRICS, MUSICBRAINZTRACKID, MUSICBRAINZARTISTID, MUSICBRAINZALBUMID,
-//        MUSICBRAINZALBUMARTISTID, TRAILER, ORIGINALTITLE, LASTPLAYED, MPAA, COUNTRY,
-//        PRODUCTIONCODE, SET, SHOWLINK, FILE,
-//        ARTISTID, ALBUMID, TVSHOW_ID, SETID, WATCHEDEPISODES, DISC, TAG, GENREID,
-//        ALBUMARTISTID, DESCRIPTION, THEME, MOOD, STYLE, ALBUMLABEL, SORTTITLE, UNIQUEID,
-//        DATEADDED, CHANNEL, CHANNELTYPE, HIDDEN, LOCKED, CHANNELNUMBER, STARTTIME, ENDTIME,
-//        EPISODEGUIDE, ORIGINALTITLE, PLAYCOUNT, PLOTOUTLINE, SET,
-        String[] propertiesToGet = new String[] {
-                ListType.FieldsAll.ART,
-                ListType.FieldsAll.ARTIST,
-                ListType.FieldsAll.ALBUMARTIST,
-                ListType.FieldsAll.ALBUM,
-                ListType.FieldsAll.CAST,
-                ListType.FieldsAll.DIRECTOR,
-                ListType.FieldsAll.DISPLAYARTIST,
-                ListType.FieldsAll.DURATION,
-                ListType.FieldsAll.EPISODE,
-                ListType.FieldsAll.FANART,
-                ListType.FieldsAll.FILE,
-                ListType.FieldsAll.FIRSTAIRED,
-                ListType.FieldsAll.GENRE,
-                ListType.FieldsAll.IMDBNUMBER,
-                ListType.FieldsAll.PLOT,
-                ListType.FieldsAll.PREMIERED,
-                ListType.FieldsAll.RATING,
-                ListType.FieldsAll.RESUME,
-                ListType.FieldsAll.RUNTIME,
-                ListType.FieldsAll.SEASON,
-                ListType.FieldsAll.SHOWTITLE,
-                ListType.FieldsAll.STREAMDETAILS,
-                ListType.FieldsAll.STUDIO,
-                ListType.FieldsAll.TAGLINE,
-                ListType.FieldsAll.THUMBNAIL,
-                ListType.FieldsAll.TITLE,
-                ListType.FieldsAll.TOP250,
-                ListType.FieldsAll.TRACK,
-                ListType.FieldsAll.VOTES,
-                ListType.FieldsAll.WRITER,
-                ListType.FieldsAll.YEAR,
-                ListType.FieldsAll.DESCRIPTION,
-                };
-//        propertiesToGet = ListType.FieldsAll.allValues;
-        Player.GetItem getItem = new Player.GetItem(getActivePlayersResult.playerid, propertiesToGet);
-        getItem.execute(connection, new ApiCallback<ListType.ItemsAll>() {
-            @Override
-            public void onSuccess(ListType.ItemsAll result) {
-                // Ok, now we got a result
-                notifySomethingIsPlaying(getActivePlayersResult, getPropertiesResult, result, playerEventsObservers);
-            }
+    private class PlayerResultsCombiner {
+        final PlayerType.GetActivePlayersReturnType getActivePlayersResult;
+        PlayerType.PropertyValue getPropertiesResult;
+        ListType.ItemsAll getItemResult;
+        boolean failed = false;
+
+        PlayerResultsCombiner(PlayerType.GetActivePlayersReturnType getActivePlayersResult) {
+            this.getActivePlayersResult = getActivePlayersResult;
+        }
 
-            @Override
-            public void onError(int errorCode, String description) {
-                notifyConnectionError(errorCode, description, playerEventsObservers);
+        void onResult() {
+            if (!failed && (getPropertiesResult != null) && (getItemResult != null)) {
+                notifySomethingIsPlaying(getActivePlayersResult, getPropertiesResult, getItemResult, playerEventsObservers);
             }
-        }, checkerHandler);
+        }
+
+        void onError(int errorCode, String description) {
+            if (failed) return;
+            failed = true;
+            notifyConnectionError(errorCode, description, playerEventsObservers);
+        }
     }
 
+    /**
+     * Properties to get for the item being played. Other properties available but not used:
+     * COMMENT, LYRICS, MUSICBRAINZTRACKID, MUSICBRAINZARTISTID, MUSICBRAINZALBUMID,
+     * MUSICBRAINZALBUMARTISTID, TRAILER, ORIGINALTITLE, LASTPLAYED, MPAA, COUNTRY,
+     * PRODUCTIONCODE, SET, SHOWLINK, FILE,
+     * ARTISTID, ALBUMID, TVSHOW_ID, SETID, WATCHEDEPISODES, DISC, TAG, GENREID,
+     * ALBUMARTISTID, DESCRIPTION, THEME, MOOD, STYLE, ALBUMLABEL, SORTTITLE, UNIQUEID,
+     * DATEADDED, CHANNEL, CHANNELTYPE, HIDDEN, LOCKED, CHANNELNUMBER, STARTTIME, ENDTIME,
+     * EPISODEGUIDE, ORIGINALTITLE, PLAYCOUNT, PLOTOUTLINE, SET
+     */
+    private static final String[] GET_ITEM_PROPERTIES = new String[] {
+            ListType.FieldsAll.ART,
+            ListType.FieldsAll.ARTIST,
+            ListType.FieldsAll.ALBUMARTIST,
+            ListType.FieldsAll.ALBUM,
+            ListType.FieldsAll.CAST,
+            ListType.FieldsAll.DIRECTOR,
+            ListType.FieldsAll.DISPLAYARTIST,
+            ListType.FieldsAll.DURATION,
+            ListType.FieldsAll.EPISODE,
+            ListType.FieldsAll.FANART,
+            ListType.FieldsAll.FILE,
+            ListType.FieldsAll.FIRSTAIRED,
+            ListType.FieldsAll.GENRE,
+            ListType.FieldsAll.IMDBNUMBER,
+            ListType.FieldsAll.PLOT,
+            ListType.FieldsAll.PREMIERED,
+            ListType.FieldsAll.RATING,
+            ListType.FieldsAll.RESUME,
+            ListType.FieldsAll.RUNTIME,
+            ListType.FieldsAll.SEASON,
+            ListType.FieldsAll.SHOWTITLE,
+            ListType.FieldsAll.STREAMDETAILS,
+            ListType.FieldsAll.STUDIO,
+            ListType.FieldsAll.TAGLINE,
+            ListType.FieldsAll.THUMBNAIL,
+            ListType.FieldsAll.TITLE,
+            ListType.FieldsAll.TOP250,
+            ListType.FieldsAll.TRACK,
+            ListType.FieldsAll.VOTES,
+            ListType.FieldsAll.WRITER,
+            ListType.FieldsAll.YEAR,
+            ListType.FieldsAll.DESCRIPTION,
+    };
+
     // Whether to force a reply or if the results are equal to the last one, don't reply
     private boolean forceReply = false;
 
@@ -931,6 +1160,9 @@ public class HostConnectionObserver
      */
     private void notifyConnectionError(final int errorCode, final String description, List<PlayerEventsObserver> observers) {
         checkingWhatsPlaying = false;
+        // The check was dropped as outdated, not failed. The next one gets the changes
+        if (errorCode == ApiException.API_REQUEST_CANCELLED) return;
+        reportCheckError();
         // Reply if different from last result
         if (forceReply ||
             (hostState.lastPlayerEventsResult != PlayerEventsObserver.PLAYER_CONNECTION_ERROR) ||
@@ -939,11 +1171,7 @@ public class HostConnectionObserver
             hostState.lastPlayerEventsErrorCode = errorCode;
             hostState.lastPlayerEventsErrorDescription = description;
             forceReply = false;
-            // Copy list to prevent ConcurrentModificationExceptions
-            List<PlayerEventsObserver> allObservers = new ArrayList<>(observers);
-            for (final PlayerEventsObserver observer : allObservers) {
-                notifyConnectionError(errorCode, description, observer);
-            }
+            notifyObservers(observers, observer -> notifyConnectionError(errorCode, description, observer));
         }
     }
 
@@ -965,16 +1193,14 @@ public class HostConnectionObserver
      */
     private void notifyNothingIsPlaying(List<PlayerEventsObserver> observers) {
         checkingWhatsPlaying = false;
+        pollingScheduler.onPlayerState(PlayerEventsObserver.PLAYER_IS_STOPPED, null);
         // Reply if forced or different from last result
         if (forceReply ||
             (hostState.lastPlayerEventsResult != PlayerEventsObserver.PLAYER_IS_STOPPED)) {
             hostState.lastPlayerEventsResult = PlayerEventsObserver.PLAYER_IS_STOPPED;
             forceReply = false;
-            // Copy list to prevent ConcurrentModificationExceptions
-            List<PlayerEventsObserver> allObservers = new ArrayList<>(observers);
-            for (final PlayerEventsObserver observer : allObservers) {
-                notifyNothingIsPlaying(observer);
-            }
+            if (snapshot != null) snapshot.setPlayerStopped();
+            notifyObservers(observers, this::notifyNothingIsPlaying);
         }
     }
 
@@ -1016,6 +1242,7 @@ public class HostConnectionObserver
         checkingWhatsPlaying = false;
         int currentCallResult = (getPropertiesResult.speed == 0) ?
                                 PlayerEventsObserver.PLAYER_IS_PAUSED : PlayerEventsObserver.PLAYER_IS_PLAYING;
+        pollingScheduler.onPlayerState(currentCallResult, getPropertiesResult);
 
         if (forceReply ||
             (hostState.lastPlayerEventsResult != currentCallResult) ||
@@ -1026,12 +1253,11 @@ public class HostConnectionObserver
             hostState.lastGetPropertiesResult = getPropertiesResult;
             hostState.lastGetItemResult = getItemResult;
             forceReply = false;
-            // Copy list to prevent ConcurrentModificationExceptions
-            List<PlayerEventsObserver> allObservers = new ArrayList<>(observers);
-
-            for (final PlayerEventsObserver observer : allObservers) {
-                notifySomethingIsPlaying(getActivePlayersResult, getPropertiesResult, getItemResult, observer);
+            if (snapshot != null) {
+                snapshot.setPlayerPlaying(currentCallResult, getActivePlayersResult, getPropertiesResult, getItemResult);
             }
+            notifyObservers(observers,
+                            observer -> notifySomethingIsPlaying(getActivePlayersResult, getPropertiesResult, getItemResult, observer));
         }
 
         // Workaround for when playing has started but time info isn't updated yet.
@@ -1078,18 +1304,55 @@ public class HostConnectionObserver
      */
     private void replyWithLastResult(PlayerEventsObserver observer) {
         switch (hostState.lastPlayerEventsResult) {
-            case PlayerEventsObserver.PLAYER_CONNECTION_ERROR:
-                notifyConnectionError(hostState.lastPlayerEventsErrorCode, hostState.lastPlayerEventsErrorDescription, observer);
+            case PlayerEventsObserver.PLAYER_CONNECTION_ERROR: {
+                final int errorCode = hostState.lastPlayerEventsErrorCode;
+                final String description = hostState.lastPlayerEventsErrorDescription;
+                notifyObserver(playerEventsObservers, observer, o -> notifyConnectionError(errorCode, description, o));
                 break;
+            }
             case PlayerEventsObserver.PLAYER_IS_STOPPED:
-                notifyNothingIsPlaying(observer);
+                notifyObserver(playerEventsObservers, observer, this::notifyNothingIsPlaying);
                 break;
             case PlayerEventsObserver.PLAYER_IS_PAUSED:
-            case PlayerEventsObserver.PLAYER_IS_PLAYING:
-                notifySomethingIsPlaying(hostState.lastGetActivePlayerResult, hostState.lastGetPropertiesResult, hostState.lastGetItemResult, observer);
+            case PlayerEventsObserver.PLAYER_IS_PLAYING: {
+                final PlayerType.GetActivePlayersReturnType getActivePlayersResult = hostState.lastGetActivePlayerResult;
+                final PlayerType.PropertyValue getPropertiesResult = hostState.lastGetPropertiesResult;
+                final ListType.ItemsAll getItemResult = hostState.lastGetItemResult;
+                notifyObserver(playerEventsObservers, observer,
+                               o -> notifySomethingIsPlaying(getActivePlayersResult, getPropertiesResult, getItemResult, o));
                 break;
+            }
             case PlayerEventsObserver.PLAYER_NO_RESULT:
-                observer.onPlayerNoResultsYet();
+                replyWithSnapshot(observer);
+                break;
+        }
+    }
+
+    /**
+     * Replies to the player observer with the player state in the snapshot, while there's no result yet.
+     * The first result is always notified, so it replaces the snapshot's state
+     * @param observer Player observer to call
+     */
+    private void replyWithSnapshot(PlayerEventsObserver observer) {
+        int snapshotPlayerState = (snapshot != null) ? snapshot.getPlayerState() : PlayerEventsObserver.PLAYER_NO_RESULT;
+        switch (snapshotPlayerState) {
+            case PlayerEventsObserver.PLAYER_IS_STOPPED:
+                notifyObserver(playerEventsObservers, observer, this::notifyNothingIsPlaying);
+                break;
+            case PlayerEventsObserver.PLAYER_IS_PAUSED:
+            case PlayerEventsObserver.PLAYER_IS_PLAYING: {
+                final PlayerType.GetActivePlayersReturnType getActivePlayersResult = snapshot.getActivePlayer();
+                final PlayerType.PropertyValue getPropertiesResult = snapshot.getPlayerProperties();
+                final ListType.ItemsAll getItemResult = snapshot.getPlayerItem();
+                if (getActivePlayersResult != null && getPropertiesResult != null && getItemResult != null) {
+                    notifyObserver(playerEventsObservers, observer,
+                                   o -> notifySomethingIsPlaying(getActivePlayersResult, getPropertiesResult, getItemResult, o));
+                    break;
+                }
+                // Fall through when the snapshot is incomplete
+            }
+            default:
+                notifyObserver(playerEventsObservers, observer, PlayerEventsObserver::onPlayerNoResultsYet);
                 break;
         }
     }
@@ -1103,7 +1366,10 @@ public class HostConnectionObserver
         if (hostState.volumeLevel == -1) {
             getApplicationProperties();
         } else {
-            observer.onApplicationVolumeChanged(hostState.volumeLevel, hostState.volumeMuted);
+            final int volumeLevel = hostState.volumeLevel;
+            final boolean volumeMuted = hostState.volumeMuted;
+            notifyObserver(applicationEventsObservers, observer,
+                           o -> o.onApplicationVolumeChanged(volumeLevel, volumeMuted));
         }
     }
 
@@ -1113,10 +1379,21 @@ public class HostConnectionObserver
      * @param observer Playlist observer to call with last result
      */
     private void replyWithLastResult(PlaylistEventsObserver observer) {
-        if (hostState.lastGetPlaylistResults != null && !hostState.lastGetPlaylistResults.isEmpty())
-            observer.onPlaylistsAvailable(hostState.lastGetPlaylistResults);
-        else
+        if (hostState.lastGetPlaylistResults != null && !hostState.lastGetPlaylistResults.isEmpty()) {
+            final ArrayList<GetPlaylist.GetPlaylistResult> playlists = new ArrayList<>(hostState.lastGetPlaylistResults);
+            notifyObserver(playlistEventsObservers, observer, o -> o.onPlaylistsAvailable(playlists));
+        } else {
+            ArrayList<GetPlaylist.GetPlaylistResult> snapshotPlaylists =
+                    (hostState.lastGetPlaylistResults == null && snapshot != null) ? snapshot.getPlaylists() : null;
+            if (snapshotPlaylists != null && !snapshotPlaylists.isEmpty()) {
+                // Until they're checked, the snapshot's playlists are taken as the last results, so that the
+                // check notifies what changed since
+                hostState.lastGetPlaylistResults = snapshotPlaylists;
+                final ArrayList<GetPlaylist.GetPlaylistResult> playlists = new ArrayList<>(snapshotPlaylists);
+                notifyObserver(playlistEventsObservers, observer, o -> o.onPlaylistsAvailable(playlists));
+            }
             checkPlaylist();
+        }
     }
 
     /**
@@ -1125,14 +1402,17 @@ public class HostConnectionObserver
      */
     private void replyWithLastResult(ConnectionStatusObserver observer) {
         switch (hostState.lastConnectionStatusResult) {
-            case ConnectionStatusObserver.CONNECTION_ERROR:
-                observer.onConnectionStatusError(hostState.lastConnectionStatusErrorCode, hostState.lastConnectionStatusErrorDescription);
+            case ConnectionStatusObserver.CONNECTION_ERROR: {
+                final int errorCode = hostState.lastConnectionStatusErrorCode;
+                final String description = hostState.lastConnectionStatusErrorDescription;
+                notifyObserver(connectionStatusObservers, observer, o -> o.onConnectionStatusError(errorCode, description));
                 break;
+            }
             case ConnectionStatusObserver.CONNECTION_SUCCESS:
-                observer.onConnectionStatusSuccess();
+                notifyObserver(connectionStatusObservers, observer, ConnectionStatusObserver::onConnectionStatusSuccess);
                 break;
             case PlayerEventsObserver.PLAYER_NO_RESULT:
-                observer.onConnectionStatusNoResultsYet();
+                notifyObserver(connectionStatusObservers, observer, ConnectionStatusObserver::onConnectionStatusNoResultsYet);
                 break;
         }
     }
@@ -1142,12 +1422,9 @@ public class HostConnectionObserver
      */
     public void refreshWhatsPlaying() {
         LogUtils.LOGD(TAG, "Forcing a refresh of what's playing");
-        forceReply = true;
-        checkWhatsPlaying();
-    }
-
-    public void refreshPlaylists() {
-        LogUtils.LOGD(TAG, "Forcing a refresh of playlists");
-        checkPlaylist();
+        checkerHandler.post(() -> {
+            forceReply = true;
+            checkWhatsPlaying();
+        });
     }
 }
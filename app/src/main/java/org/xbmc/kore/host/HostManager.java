@@ -90,6 +90,16 @@ public class HostManager {
      */
     private HostConnectionObserver currentHostConnectionObserver = null;
 
+    /**
+     * Snapshot of the current host
+     */
+    private HostSnapshot currentHostSnapshot = null;
+
+    /**
+     * Number of activities currently started, to know if the app is visible
+     */
+    private int startedActivitiesCount = 0;
+
     /**
      * Singleton constructor
      * @param context Context (can pass Activity context, will get App Context)
@@ -265,12 +275,45 @@ public class HostManager {
         if (currentHostConnectionObserver == null) {
             currentHostConnection = getConnection();
             if (currentHostConnection != null) {
-                currentHostConnectionObserver = new HostConnectionObserver(currentHostConnection);
+                currentHostConnectionObserver = new HostConnectionObserver(currentHostConnection, getHostSnapshot());
+                currentHostConnectionObserver.setForeground(startedActivitiesCount > 0);
             }
         }
         return currentHostConnectionObserver;
     }
 
+    /**
+     * Returns the {@link HostSnapshot} of the current host, read from disk in the background the first time
+     * @return Snapshot of the current host, or null if there's no current host
+     */
+    public HostSnapshot getHostSnapshot() {
+        if (currentHostSnapshot == null) {
+            HostInfo hostInfo = getHostInfo();
+            if (hostInfo != null) {
+                currentHostSnapshot = HostSnapshot.read(context, hostInfo.getId());
+            }
+        }
+        return currentHostSnapshot;
+    }
+
+    /**
+     * Should be called when an activity is started, to keep track of the app visibility
+     */
+    public void onActivityStarted() {
+        startedActivitiesCount++;
+        if ((startedActivitiesCount == 1) && (currentHostConnectionObserver != null))
+            currentHostConnectionObserver.setForeground(true);
+    }
+
+    /**
+     * Should be called when an activity is stopped, to keep track of the app visibility
+     */
+    public void onActivityStopped() {
+        if (startedActivitiesCount > 0) startedActivitiesCount--;
+        if ((startedActivitiesCount == 0) && (currentHostConnectionObserver != null))
+            currentHostConnectionObserver.setForeground(false);
+    }
+
     /**
 	 * Sets the current host.
 	 * @param hostInfo Host info
@@ -437,6 +480,7 @@ public class HostManager {
         // Async call delete. The triggers to delete all host information can take some time
         new Thread(() -> context.getContentResolver()
                         .delete(MediaContract.Hosts.buildHostUri(hostId), null, null)).start();
+        HostSnapshot.delete(context, hostId);
 
         // Refresh information
         int index = -1;
@@ -466,10 +510,13 @@ public class HostManager {
         }
 
         if (currentHostConnection != null) {
+            currentHostConnection.getMetadataCache().invalidateAll();
             currentHostConnection.disconnect();
             currentHostConnection = null;
         }
 
+        currentHostSnapshot = null;
+
         if (currentPicasso != null) {
             // Calling shutdown here causes a picasso error:
             // Handler (com.squareup.picasso.Stats$StatsHandler) {41b13d40} sending message to a Handler on a dead thread
@@ -498,7 +545,7 @@ public class HostManager {
             LogUtils.LOGD(TAG, "Checking Kodi version...");
             final int checkHostId = currentHostInfo.getId();
             final Application.GetProperties getProperties = new Application.GetProperties(Application.GetProperties.VERSION);
-            getProperties.execute(getConnection(), new ApiCallback<ApplicationType.PropertyValue>() {
+            getConnection().getMetadataCache().execute(getProperties, new ApiCallback<ApplicationType.PropertyValue>() {
                 @Override
                 public void onSuccess(ApplicationType.PropertyValue result) {
                     // Simple check to see if we didn't switched host in the meantime.
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.host;
+
+import android.os.Handler;
+import android.os.SystemClock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import org.xbmc.kore.jsonrpc.ApiCallback;
+import org.xbmc.kore.jsonrpc.ApiMethod;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache of the results of methods that get metadata that rarely changes on a host, like the
+ * playlists ids and types, the Kodi version or the addons installed, so that they aren't asked
+ * again every time they're needed.
+ * There's a cache for each {@link HostConnection}, so results of a host are never returned for
+ * another one. Results expire after a time to live and are invalidated when the host restarts or
+ * quits, or when the connection is released.
+ *
+ * Results are cached by method name and parameters, and are shared by all callers, so they must
+ * not be modified.
+ */
+public class HostMetadataCache {
+
+    /**
+     * Default time results are kept
+     */
+    public static final long DEFAULT_TTL = 30 * 60 * 1000; // ms
+
+    private static class Entry {
+        final Object value;
+        final long expiresAt;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final HostConnection connection;
+    private final long ttl;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on each invalidation, so that results of calls made before it aren't cached
+     */
+    private final AtomicInteger generation = new AtomicInteger(0);
+
+    /**
+     * Constructor
+     * @param connection Connection to get the results through
+     */
+    public HostMetadataCache(HostConnection connection) {
+        this(connection, DEFAULT_TTL);
+    }
+
+    /**
+     * Constructor
+     * @param connection Connection to get the results through
+     * @param ttl Time results are kept, in ms
+     */
+    public HostMetadataCache(HostConnection connection, long ttl) {
+        this.connection = connection;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Returns the cached result of a method, calling it and waiting for the result if it isn't
+     * cached. Must not be called on the UI thread
+     *
+     * @param method Method to get the result of
+     * @param <T> Method return type
+     * @return Result of the method
+     * @throws ExecutionException If the method call fails
+     * @throws InterruptedException If interrupted while waiting for the result
+     */
+    public <T> T execute(ApiMethod<T> method) throws ExecutionException, InterruptedException {
+        T result = get(method);
+        if (result != null) return result;
+
+        int callGeneration = generation.get();
+        result = connection.execute(method).get();
+        put(method, result, callGeneration);
+        return result;
+    }
+
+    /**
+     * Posts the cached result of a method to the callback, calling the method if it isn't cached,
+     * like {@link HostConnection#execute(ApiMethod, ApiCallback, Handler)}
+     *
+     * @param method Method to get the result of
+     * @param callback Callback to post the result to
+     * @param handler Handler to invoke the callback on. If null, a cached result is passed to the
+     *                callback on the calling thread
+     * @param <T> Method return type
+     */
+    public <T> void execute(final ApiMethod<T> method, final ApiCallback<T> callback, Handler handler) {
+        final T cached = get(method);
+        if (cached != null) {
+            if (handler != null) {
+                handler.post(() -> callback.onSuccess(cached));
+            } else {
+                callback.onSuccess(cached);
+            }
+            return;
+        }
+
+        final int callGeneration = generation.get();
+        connection.execute(method, new ApiCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                put(method, result, callGeneration);
+                callback.onSuccess(result);
+            }
+
+            @Override
+            public void onError(int errorCode, String description) {
+                callback.onError(errorCode, description);
+            }
+        }, handler);
+    }
+
+    /**
+     * Returns the cached result of a method, without calling it
+     *
+     * @param method Method to get the result of
+     * @param <T> Method return type
+     * @return Cached result, or null if it isn't cached or has expired
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ApiMethod<T> method) {
+        String key = getKey(method);
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        if (SystemClock.elapsedRealtime() >= entry.expiresAt) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return (T) entry.value;
+    }
+
+    /**
+     * Invalidates the results of all the calls to a method, regardless of their parameters
+     *
+     * @param methodName Name of the method, e.g. {@link org.xbmc.kore.jsonrpc.method.Addons.GetAddons#METHOD_NAME}
+     */
+    public void invalidate(String methodName) {
+        generation.incrementAndGet();
+        String prefix = methodName + ":";
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) entries.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Invalidates all the results cached, for instance because the host restarted
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private <T> void put(ApiMethod<T> method, T result, int callGeneration) {
+        if (result == null || generation.get() != callGeneration) return;
+        entries.put(getKey(method), new Entry(result, SystemClock.elapsedRealtime() + ttl));
+    }
+
+    static String getKey(ApiMethod<?> method) {
+        JsonNode params = method.toJsonObject().get(ApiMethod.PARAMS_NODE);
+        return method.getMethodName() + ":" + ((params != null) ? params.toString() : "");
+    }
+}
@@ -0,0 +1,479 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.host;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AtomicFile;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.xbmc.kore.host.HostConnectionObserver.PlayerEventsObserver;
+import org.xbmc.kore.host.actions.GetPlaylist;
+import org.xbmc.kore.jsonrpc.type.ListType;
+import org.xbmc.kore.jsonrpc.type.PlayerType;
+import org.xbmc.kore.utils.LogUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of the home state of a host, kept on disk so that it can be shown as soon as the app starts or
+ * switches to the host, while the current state is read in the background.
+ * It holds the last player state and item, the playlists, and the first rows of the last library lists shown.
+ * It's read from disk in the background, see {@link #runWhenRead}. Changes are written to disk in the
+ * background too, {@link #WRITE_DELAY_MS} after the first one, so that changes in quick succession are
+ * written once.
+ * This class is thread safe.
+ */
+public class HostSnapshot {
+    private static final String TAG = LogUtils.makeLogTag(HostSnapshot.class);
+
+    private static final String DIRECTORY = "host_snapshots";
+    private static final int VERSION = 1;
+
+    /**
+     * Rows kept of each list, enough to fill the first screen
+     */
+    public static final int MAX_LIST_ROWS = 50;
+    /**
+     * Lists kept, the least recently saved ones are dropped first
+     */
+    public static final int MAX_LISTS = 20;
+    /**
+     * Items kept of each playlist
+     */
+    public static final int MAX_PLAYLIST_ITEMS = 100;
+    static final long WRITE_DELAY_MS = 2000;
+
+    private static final String KEY_VERSION = "version",
+            KEY_PLAYER_STATE = "player_state",
+            KEY_ACTIVE_PLAYER = "active_player",
+            KEY_PLAYER_PROPERTIES = "player_properties",
+            KEY_PLAYER_ITEM = "player_item",
+            KEY_PLAYLISTS = "playlists",
+            KEY_PLAYLIST_ID = "id",
+            KEY_PLAYLIST_TYPE = "type",
+            KEY_PLAYLIST_ITEMS = "items",
+            KEY_LISTS = "lists",
+            KEY_LIST_COLUMNS = "columns",
+            KEY_LIST_ROWS = "rows";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Reads, writes and deletes snapshots, in the order they're requested
+     */
+    private static final ScheduledExecutorService writeExecutor = Executors.newSingleThreadScheduledExecutor();
+    /**
+     * Times the snapshot in each file was deleted, so that the snapshots read before aren't written anymore
+     */
+    private static final ConcurrentHashMap<String, Integer> deleteCounts = new ConcurrentHashMap<>();
+
+    private final AtomicFile file;
+    private final int deleteCount;
+    private final ObjectNode root;
+    private boolean isWriteScheduled = false;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final CountDownLatch readLatch = new CountDownLatch(1);
+    private boolean isRead = false;
+    private final List<Runnable> readCallbacks = new ArrayList<>();
+
+    private HostSnapshot(AtomicFile file, int deleteCount) {
+        this.file = file;
+        this.deleteCount = deleteCount;
+        root = objectMapper.createObjectNode();
+        root.put(KEY_VERSION, VERSION);
+    }
+
+    private static File getFile(Context context, int hostId) {
+        return new File(new File(context.getFilesDir(), DIRECTORY), "host_" + hostId + ".json");
+    }
+
+    private static int getDeleteCount(File file) {
+        Integer count = deleteCounts.get(file.getPath());
+        return (count != null) ? count : 0;
+    }
+
+    /**
+     * Reads the snapshot of a host in the background. It's empty until it's read, and stays empty if there's
+     * none or it can't be read
+     * @param hostId Host id
+     * @return Snapshot of the host
+     */
+    public static HostSnapshot read(Context context, int hostId) {
+        File baseFile = getFile(context, hostId);
+        HostSnapshot snapshot = new HostSnapshot(new AtomicFile(baseFile), getDeleteCount(baseFile));
+        writeExecutor.execute(() -> snapshot.readFile(hostId));
+        return snapshot;
+    }
+
+    private void readFile(int hostId) {
+        ObjectNode savedRoot = null;
+        if (file.getBaseFile().exists()) {
+            try {
+                JsonNode node = objectMapper.readTree(file.readFully());
+                if (node instanceof ObjectNode && node.path(KEY_VERSION).asInt() == VERSION) {
+                    savedRoot = (ObjectNode) node;
+                }
+            } catch (IOException e) {
+                LogUtils.LOGW(TAG, "Couldn't read the snapshot of host " + hostId, e);
+            }
+        }
+
+        List<Runnable> callbacks;
+        synchronized (this) {
+            if (savedRoot != null) merge(savedRoot);
+            isRead = true;
+            callbacks = new ArrayList<>(readCallbacks);
+            readCallbacks.clear();
+        }
+        readLatch.countDown();
+        for (Runnable callback : callbacks) {
+            mainHandler.post(callback);
+        }
+    }
+
+    /**
+     * Adds the saved state to the changes made while it was being read, which are newer
+     */
+    private void merge(ObjectNode savedRoot) {
+        boolean hasPlayerState = root.has(KEY_PLAYER_STATE);
+        Iterator<Map.Entry<String, JsonNode>> fields = savedRoot.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String key = field.getKey();
+            boolean isPlayerField = key.equals(KEY_PLAYER_STATE) || key.equals(KEY_ACTIVE_PLAYER) ||
+                                    key.equals(KEY_PLAYER_PROPERTIES) || key.equals(KEY_PLAYER_ITEM);
+            if (key.equals(KEY_LISTS) && root.has(KEY_LISTS)) {
+                ObjectNode listsNode = (ObjectNode) field.getValue();
+                Iterator<Map.Entry<String, JsonNode>> lists = root.get(KEY_LISTS).fields();
+                while (lists.hasNext()) {
+                    Map.Entry<String, JsonNode> list = lists.next();
+                    listsNode.remove(list.getKey());
+                    listsNode.set(list.getKey(), list.getValue());
+                }
+                trimLists(listsNode);
+                root.set(KEY_LISTS, listsNode);
+            } else if (!root.has(key) && !(isPlayerField && hasPlayerState)) {
+                root.set(key, field.getValue());
+            }
+        }
+    }
+
+    /**
+     * Runs a callback once the snapshot has been read from disk, right away if it already was, otherwise on
+     * the main thread when it is
+     */
+    public void runWhenRead(Runnable callback) {
+        synchronized (this) {
+            if (!isRead) {
+                readCallbacks.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    /**
+     * Waits until the snapshot has been read from disk
+     */
+    @VisibleForTesting
+    void awaitRead() throws InterruptedException {
+        readLatch.await();
+    }
+
+    /**
+     * Deletes the snapshot of a host, after any read or write of it that was requested before. The snapshots
+     * of the host read before aren't written anymore
+     * @param hostId Host id
+     */
+    public static void delete(Context context, int hostId) {
+        final File baseFile = getFile(context, hostId);
+        deleteCounts.merge(baseFile.getPath(), 1, Integer::sum);
+        writeExecutor.execute(() -> new AtomicFile(baseFile).delete());
+    }
+
+    /**
+     * Returns the last player state, one of the {@link PlayerEventsObserver} constants
+     */
+    public synchronized int getPlayerState() {
+        return root.path(KEY_PLAYER_STATE).asInt(PlayerEventsObserver.PLAYER_NO_RESULT);
+    }
+
+    public synchronized PlayerType.GetActivePlayersReturnType getActivePlayer() {
+        JsonNode node = root.get(KEY_ACTIVE_PLAYER);
+        return (node == null) ? null : new PlayerType.GetActivePlayersReturnType(node);
+    }
+
+    public synchronized PlayerType.PropertyValue getPlayerProperties() {
+        JsonNode node = root.get(KEY_PLAYER_PROPERTIES);
+        return (node == null) ? null : new PlayerType.PropertyValue(node);
+    }
+
+    public synchronized ListType.ItemsAll getPlayerItem() {
+        JsonNode node = root.get(KEY_PLAYER_ITEM);
+        return (node == null) ? null : new ListType.ItemsAll(node);
+    }
+
+    /**
+     * Saves that something is playing or paused
+     * @param playerState {@link PlayerEventsObserver#PLAYER_IS_PLAYING} or {@link PlayerEventsObserver#PLAYER_IS_PAUSED}
+     */
+    public synchronized void setPlayerPlaying(int playerState,
+                                              PlayerType.GetActivePlayersReturnType getActivePlayerResult,
+                                              PlayerType.PropertyValue getPropertiesResult,
+                                              ListType.ItemsAll getItemResult) {
+        root.put(KEY_PLAYER_STATE, playerState);
+        root.set(KEY_ACTIVE_PLAYER, getActivePlayerResult.toJsonNode());
+        root.set(KEY_PLAYER_PROPERTIES, getPropertiesResult.toJsonNode());
+        root.set(KEY_PLAYER_ITEM, getItemResult.toJsonNode());
+        scheduleWrite();
+    }
+
+    /**
+     * Saves that nothing is playing
+     */
+    public synchronized void setPlayerStopped() {
+        if (getPlayerState() == PlayerEventsObserver.PLAYER_IS_STOPPED) return;
+
+        root.put(KEY_PLAYER_STATE, PlayerEventsObserver.PLAYER_IS_STOPPED);
+        root.remove(KEY_ACTIVE_PLAYER);
+        root.remove(KEY_PLAYER_PROPERTIES);
+        root.remove(KEY_PLAYER_ITEM);
+        scheduleWrite();
+    }
+
+    /**
+     * Returns the last playlists, with up to {@link #MAX_PLAYLIST_ITEMS} items each
+     * @return Playlists, or null if there are none saved
+     */
+    public synchronized ArrayList<GetPlaylist.GetPlaylistResult> getPlaylists() {
+        JsonNode playlistsNode = root.get(KEY_PLAYLISTS);
+        if (playlistsNode == null) return null;
+
+        ArrayList<GetPlaylist.GetPlaylistResult> playlists = new ArrayList<>(playlistsNode.size());
+        for (JsonNode playlistNode : playlistsNode) {
+            ArrayList<ListType.ItemsAll> items = new ArrayList<>(playlistNode.path(KEY_PLAYLIST_ITEMS).size());
+            for (JsonNode itemNode : playlistNode.path(KEY_PLAYLIST_ITEMS)) {
+                items.add(new ListType.ItemsAll(itemNode));
+            }
+            playlists.add(new GetPlaylist.GetPlaylistResult(playlistNode.path(KEY_PLAYLIST_ID).asInt(-1),
+                                                            playlistNode.path(KEY_PLAYLIST_TYPE).textValue(),
+                                                            items));
+        }
+        return playlists;
+    }
+
+    public synchronized void setPlaylists(List<GetPlaylist.GetPlaylistResult> playlists) {
+        ArrayNode playlistsNode = objectMapper.createArrayNode();
+        for (GetPlaylist.GetPlaylistResult playlist : playlists) {
+            ObjectNode playlistNode = playlistsNode.addObject();
+            playlistNode.put(KEY_PLAYLIST_ID, playlist.id);
+            playlistNode.put(KEY_PLAYLIST_TYPE, playlist.type);
+            ArrayNode itemsNode = playlistNode.putArray(KEY_PLAYLIST_ITEMS);
+            // Only the first items got are kept, as the ones not got are null
+            for (int i = 0; i < Math.min(playlist.items.size(), MAX_PLAYLIST_ITEMS); i++) {
+                if (playlist.items.get(i) == null) break;
+                itemsNode.add(playlist.items.get(i).toJsonNode());
+            }
+        }
+        if (playlistsNode.equals(root.get(KEY_PLAYLISTS))) return;
+
+        root.set(KEY_PLAYLISTS, playlistsNode);
+        scheduleWrite();
+    }
+
+    /**
+     * Returns the first rows of a list
+     * @param key Key the list was saved with
+     * @return Cursor with the rows saved, or null if the list wasn't saved
+     */
+    public synchronized Cursor getList(String key) {
+        JsonNode listNode = root.path(KEY_LISTS).get(key);
+        if (listNode == null) return null;
+
+        JsonNode columnsNode = listNode.path(KEY_LIST_COLUMNS), rowsNode = listNode.path(KEY_LIST_ROWS);
+        String[] columns = new String[columnsNode.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = columnsNode.get(i).textValue();
+        }
+        MatrixCursor cursor = new MatrixCursor(columns, rowsNode.size());
+        for (JsonNode rowNode : rowsNode) {
+            Object[] row = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                JsonNode value = rowNode.get(i);
+                if (value == null || value.isNull()) {
+                    row[i] = null;
+                } else if (value.isIntegralNumber()) {
+                    row[i] = value.longValue();
+                } else if (value.isNumber()) {
+                    row[i] = value.doubleValue();
+                } else {
+                    row[i] = value.textValue();
+                }
+            }
+            cursor.addRow(row);
+        }
+        return cursor;
+    }
+
+    /**
+     * Saves the first {@link #MAX_LIST_ROWS} rows of a list. Only the rows are copied from the cursor, the rest
+     * is done in the background. The cursor is left at the position it was in
+     * @param key Key that identifies the list, and the query that read it
+     * @param cursor Cursor with the list
+     */
+    public void putList(String key, Cursor cursor) {
+        final String[] columns = cursor.getColumnNames();
+        final List<Object[]> rows = new ArrayList<>();
+        int position = cursor.getPosition();
+        for (int i = 0; i < MAX_LIST_ROWS && cursor.moveToPosition(i); i++) {
+            Object[] row = new Object[columns.length];
+            for (int column = 0; column < columns.length; column++) {
+                switch (cursor.getType(column)) {
+                    case Cursor.FIELD_TYPE_INTEGER:
+                        row[column] = cursor.getLong(column);
+                        break;
+                    case Cursor.FIELD_TYPE_FLOAT:
+                        row[column] = cursor.getDouble(column);
+                        break;
+                    case Cursor.FIELD_TYPE_STRING:
+                        row[column] = cursor.getString(column);
+                        break;
+                    default:
+                        row[column] = null;
+                }
+            }
+            rows.add(row);
+        }
+        cursor.moveToPosition(position);
+
+        writeExecutor.execute(() -> putRows(key, columns, rows));
+    }
+
+    private void putRows(String key, String[] columns, List<Object[]> rows) {
+        ObjectNode listNode = objectMapper.createObjectNode();
+        ArrayNode columnsNode = listNode.putArray(KEY_LIST_COLUMNS);
+        for (String column : columns) {
+            columnsNode.add(column);
+        }
+        ArrayNode rowsNode = listNode.putArray(KEY_LIST_ROWS);
+        for (Object[] row : rows) {
+            ArrayNode rowNode = rowsNode.addArray();
+            for (Object value : row) {
+                if (value instanceof Long) {
+                    rowNode.add((Long) value);
+                } else if (value instanceof Double) {
+                    rowNode.add((Double) value);
+                } else if (value instanceof String) {
+                    rowNode.add((String) value);
+                } else {
+                    rowNode.addNull();
+                }
+            }
+        }
+
+        synchronized (this) {
+            ObjectNode listsNode = root.has(KEY_LISTS) ? (ObjectNode) root.get(KEY_LISTS) : root.putObject(KEY_LISTS);
+            boolean changed = !listNode.equals(listsNode.get(key));
+            // The list is moved last, as the most recently saved
+            listsNode.remove(key);
+            listsNode.set(key, listNode);
+            if (changed || trimLists(listsNode)) scheduleWrite();
+        }
+    }
+
+    /**
+     * Drops the least recently saved lists, above {@link #MAX_LISTS}
+     * @return Whether any list was dropped
+     */
+    private static boolean trimLists(ObjectNode listsNode) {
+        boolean trimmed = false;
+        while (listsNode.size() > MAX_LISTS) {
+            listsNode.remove(listsNode.fieldNames().next());
+            trimmed = true;
+        }
+        return trimmed;
+    }
+
+    private void scheduleWrite() {
+        if (isWriteScheduled) return;
+        isWriteScheduled = true;
+        writeExecutor.schedule(this::writeFile, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the snapshot to disk right away, after the changes being made in the background
+     */
+    @VisibleForTesting
+    public void write() {
+        try {
+            writeExecutor.submit(this::writeFile).get();
+        } catch (InterruptedException | ExecutionException e) {
+            LogUtils.LOGW(TAG, "Couldn't write snapshot", e);
+        }
+    }
+
+    private void writeFile() {
+        // Deleted since it was read
+        if (getDeleteCount(file.getBaseFile()) != deleteCount) return;
+
+        byte[] content;
+        synchronized (this) {
+            isWriteScheduled = false;
+            try {
+                content = objectMapper.writeValueAsBytes(root);
+            } catch (IOException e) {
+                LogUtils.LOGW(TAG, "Couldn't serialize snapshot", e);
+                return;
+            }
+        }
+
+        FileOutputStream outputStream = null;
+        try {
+            File directory = file.getBaseFile().getParentFile();
+            if (directory != null && !directory.exists() && !directory.mkdirs()) {
+                throw new IOException("Couldn't create " + directory);
+            }
+            outputStream = file.startWrite();
+            outputStream.write(content);
+            file.finishWrite(outputStream);
+        } catch (IOException e) {
+            LogUtils.LOGW(TAG, "Couldn't write snapshot", e);
+            if (outputStream != null) file.failWrite(outputStream);
+        }
+    }
+}
@@ -0,0 +1,686 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.host;
+
+import android.os.Handler;
+
+import org.xbmc.kore.host.actions.GetPlaylist;
+import org.xbmc.kore.jsonrpc.ApiBatch;
+import org.xbmc.kore.jsonrpc.ApiCallback;
+import org.xbmc.kore.jsonrpc.ApiList;
+import org.xbmc.kore.jsonrpc.method.Playlist;
+import org.xbmc.kore.jsonrpc.type.ListType;
+import org.xbmc.kore.jsonrpc.type.PlaylistType;
+import org.xbmc.kore.utils.LogUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Mirror of the items in Kodi's playlists, kept in sync by applying what changed instead of getting
+ * all the items of every playlist on each change.
+ * <p>
+ * Only the items of a playlist around its viewport (see {@link #setViewport(int, int, int)}) are got,
+ * in windows of {@link #WINDOW_SIZE} items, so that the cost of showing a playlist doesn't depend on
+ * its size. The items not got are null, and the ones far from the viewport are dropped.
+ * <p>
+ * Through TCP the Playlist.OnAdd, OnRemove and OnClear notifications are applied to the mirror, and
+ * only the items added near the viewport are got. Through HTTP, {@link #check()} probes the size and
+ * the first and last items got of each playlist and, only if they don't match the mirror, gets the
+ * ids of the items around the viewport to find out where the items got moved to.
+ * <p>
+ * Not thread safe. It must be used on the thread of the handler it's given, where the
+ * {@link Listener} is also called.
+ */
+public class PlaylistMirror {
+    private static final String TAG = LogUtils.makeLogTag(PlaylistMirror.class);
+
+    /**
+     * Number of items in each window got. A window is also got in advance before and after the viewport
+     */
+    static final int WINDOW_SIZE = 50;
+
+    /**
+     * Time to wait for more items being added or the viewport moving before getting the items, in ms
+     */
+    private static final int LOAD_DELAY = 100;
+
+    /**
+     * Every how many checks the ids of the items around the viewport are compared, to catch the
+     * changes that the probe doesn't see, like an item being moved
+     */
+    private static final int COMPARE_ITEMS_FREQUENCY = 8;
+
+    /**
+     * A change to a playlist: {@code removed} items at {@code position} were replaced by
+     * {@code inserted} items. If both counts are the same the items changed in place
+     */
+    public static class Change {
+        public final int position;
+        public final int removed;
+        public final int inserted;
+
+        public Change(int position, int removed, int inserted) {
+            this.position = position;
+            this.removed = removed;
+            this.inserted = inserted;
+        }
+
+        @Override
+        public String toString() {
+            return "Change at " + position + ": " + removed + " removed, " + inserted + " inserted";
+        }
+    }
+
+    /**
+     * Called with the changes to the playlists, on the handler's thread
+     */
+    public interface Listener {
+        /**
+         * All the playlists were got
+         * @param playlists Non empty playlists. The items not got are null
+         */
+        void onPlaylistsSynced(ArrayList<GetPlaylist.GetPlaylistResult> playlists);
+
+        /**
+         * Some items of a non empty playlist changed, or were got or dropped
+         * @param playlist Playlist, with a copy of the items after the change. The items not got are null
+         * @param change What changed since the playlist was last handed to the listener
+         */
+        void onPlaylistChanged(GetPlaylist.GetPlaylistResult playlist, Change change);
+
+        /**
+         * A playlist was emptied
+         * @param playlistId Id of the playlist
+         */
+        void onPlaylistCleared(int playlistId);
+
+        /**
+         * The playlists couldn't be got
+         * @param errorCode Error code
+         * @param description Error description
+         */
+        void onError(int errorCode, String description);
+    }
+
+    private static class MirroredPlaylist {
+        final int id;
+        final String type;
+        /** Items of the playlist. The ones not got are null */
+        ArrayList<ListType.ItemsAll> items = new ArrayList<>();
+        /** Items as they were last handed to the listener */
+        ArrayList<ListType.ItemsAll> published = new ArrayList<>();
+        /** Incremented on each change to the positions, to discard the responses to requests made before it */
+        int version = 0;
+        /** First and last positions shown */
+        int viewportFirst = 0;
+        int viewportLast = 0;
+        boolean loading = false;
+        boolean checking = false;
+
+        MirroredPlaylist(int id, String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        /** Start of the items to get, a window before the viewport */
+        int loadStart() {
+            return Math.max(0, (viewportFirst / WINDOW_SIZE - 1) * WINDOW_SIZE);
+        }
+
+        /** End of the items to get, a window after the viewport. Can be past the end of the playlist */
+        int loadEnd() {
+            return (viewportLast / WINDOW_SIZE + 2) * WINDOW_SIZE;
+        }
+
+        /** Start of the items kept, another window before the items to get */
+        int keepStart() {
+            return Math.max(0, loadStart() - WINDOW_SIZE);
+        }
+
+        /** End of the items kept, another window after the items to get */
+        int keepEnd() {
+            return loadEnd() + WINDOW_SIZE;
+        }
+
+        GetPlaylist.GetPlaylistResult toResult() {
+            return new GetPlaylist.GetPlaylistResult(id, type, new ArrayList<>(published));
+        }
+    }
+
+    private final HostConnection connection;
+    private final Handler handler;
+    private final Listener listener;
+
+    private final ArrayList<MirroredPlaylist> playlists = new ArrayList<>();
+    private boolean synced = false;
+    private boolean syncing = false;
+    private boolean syncAgain = false;
+    private int checkCount = 0;
+
+    /**
+     * Constructor
+     * @param connection Connection to the host
+     * @param handler Handler whose thread the mirror is used on
+     * @param listener Listener to call with the changes
+     */
+    public PlaylistMirror(HostConnection connection, Handler handler, Listener listener) {
+        this.connection = connection;
+        this.handler = handler;
+        this.listener = listener;
+    }
+
+    /**
+     * Forgets the items mirrored, as they can't be kept in sync anymore, for instance because
+     * notifications aren't received. The next check gets the playlists again
+     */
+    public void reset() {
+        synced = false;
+        syncAgain = false;
+        for (MirroredPlaylist playlist : playlists) {
+            playlist.version++;
+        }
+    }
+
+    /**
+     * Checks whether the playlists changed, getting only what changed. If the playlists weren't
+     * got yet, gets them
+     */
+    public void check() {
+        if (!synced) {
+            sync();
+            return;
+        }
+        if (syncing) return;
+
+        boolean compareItems = (++checkCount % COMPARE_ITEMS_FREQUENCY) == 0;
+        ApiBatch batch = new ApiBatch();
+        for (MirroredPlaylist playlist : playlists) {
+            // Items being got are checked with the next check
+            if (playlist.checking || playlist.loading) continue;
+
+            if (compareItems) {
+                compareItems(playlist);
+            } else {
+                new Probe(playlist).addTo(batch);
+            }
+        }
+        if (!batch.isEmpty()) connection.execute(batch, handler);
+    }
+
+    /**
+     * Sets the positions of a playlist that are shown, getting the items around them that weren't
+     * got yet and dropping the ones far from them
+     * @param playlistId Id of the playlist
+     * @param first First position shown
+     * @param last Last position shown
+     */
+    public void setViewport(int playlistId, int first, int last) {
+        MirroredPlaylist playlist = getPlaylist(playlistId);
+        if (playlist == null) return;
+
+        first = Math.max(0, first);
+        last = Math.max(first, last);
+        if (first == playlist.viewportFirst && last == playlist.viewportLast) return;
+
+        playlist.viewportFirst = first;
+        playlist.viewportLast = last;
+        if (!synced || syncing) return;
+
+        publish(playlist);
+        scheduleLoad();
+    }
+
+    /**
+     * Applies an item added to a playlist. If it's near the viewport, its properties are got after a
+     * while, together with the other items added in the meantime
+     * @param playlistId Id of the playlist
+     * @param position Position of the item in the playlist
+     */
+    public void onItemAdded(int playlistId, int position) {
+        MirroredPlaylist playlist = getPlaylist(playlistId);
+        if (!canApply(playlist, position, (playlist == null) ? -1 : playlist.items.size())) {
+            sync();
+            return;
+        }
+
+        playlist.items.add(position, null);
+        playlist.version++;
+        publish(playlist);
+        scheduleLoad();
+    }
+
+    /**
+     * Applies an item removed from a playlist
+     * @param playlistId Id of the playlist
+     * @param position Position the item had in the playlist
+     */
+    public void onItemRemoved(int playlistId, int position) {
+        MirroredPlaylist playlist = getPlaylist(playlistId);
+        if (!canApply(playlist, position, (playlist == null) ? -1 : playlist.items.size() - 1)) {
+            sync();
+            return;
+        }
+
+        playlist.items.remove(position);
+        playlist.version++;
+        publish(playlist);
+        scheduleLoad();
+    }
+
+    /**
+     * Applies a playlist being cleared
+     * @param playlistId Id of the playlist
+     */
+    public void onCleared(int playlistId) {
+        if (syncing) syncAgain = true;
+
+        MirroredPlaylist playlist = getPlaylist(playlistId);
+        if (playlist == null) {
+            listener.onPlaylistCleared(playlistId);
+            return;
+        }
+
+        playlist.items.clear();
+        playlist.version++;
+        publish(playlist);
+    }
+
+    private MirroredPlaylist getPlaylist(int playlistId) {
+        for (MirroredPlaylist playlist : playlists) {
+            if (playlist.id == playlistId) return playlist;
+        }
+        return null;
+    }
+
+    /**
+     * Whether a change to a playlist can be applied to the mirror, or the mirror has to be got again
+     */
+    private boolean canApply(MirroredPlaylist playlist, int position, int maxPosition) {
+        return synced && !syncing && playlist != null && position >= 0 && position <= maxPosition;
+    }
+
+    /**
+     * Drops the items far from the viewport and hands the playlist to the listener with what changed
+     * since it was last handed
+     */
+    private void publish(MirroredPlaylist playlist) {
+        int size = playlist.items.size();
+        for (int i = 0; i < Math.min(playlist.keepStart(), size); i++) {
+            playlist.items.set(i, null);
+        }
+        for (int i = playlist.keepEnd(); i < size; i++) {
+            playlist.items.set(i, null);
+        }
+
+        Change change = findChange(playlist.published, playlist.items);
+        if (change == null) return;
+
+        playlist.published = new ArrayList<>(playlist.items);
+        if (HostConnection.LOG_REQUESTS) LogUtils.LOGD(TAG, "Playlist " + playlist.id + ". " + change);
+        if (playlist.items.isEmpty()) {
+            listener.onPlaylistCleared(playlist.id);
+        } else {
+            listener.onPlaylistChanged(playlist.toResult(), change);
+        }
+    }
+
+    /**
+     * Gets the size of all the playlists and the items around their viewports, replacing the mirror
+     */
+    private void sync() {
+        if (syncing) {
+            syncAgain = true;
+            return;
+        }
+        syncing = true;
+        syncAgain = false;
+
+        // The playlists rarely change, so they're got from the host's metadata cache, which is
+        // invalidated when the host restarts
+        connection.getMetadataCache().execute(new Playlist.GetPlaylists(), new ApiCallback<ArrayList<PlaylistType.GetPlaylistsReturnType>>() {
+            @Override
+            public void onSuccess(ArrayList<PlaylistType.GetPlaylistsReturnType> result) {
+                updatePlaylists(result);
+                getAllPlaylists();
+            }
+
+            @Override
+            public void onError(int errorCode, String description) {
+                onSyncError(errorCode, description);
+            }
+        }, handler);
+    }
+
+    /**
+     * Updates the playlists mirrored, keeping the ones that still exist, with their viewports
+     */
+    private void updatePlaylists(List<PlaylistType.GetPlaylistsReturnType> result) {
+        ArrayList<MirroredPlaylist> updated = new ArrayList<>(result.size());
+        for (PlaylistType.GetPlaylistsReturnType returned : result) {
+            MirroredPlaylist playlist = null;
+            for (MirroredPlaylist existing : playlists) {
+                if (existing.id == returned.playlistid && Objects.equals(existing.type, returned.type)) {
+                    playlist = existing;
+                    break;
+                }
+            }
+            updated.add((playlist != null) ? playlist : new MirroredPlaylist(returned.playlistid, returned.type));
+        }
+        playlists.clear();
+        playlists.addAll(updated);
+    }
+
+    private void getAllPlaylists() {
+        final ArrayList<ApiList<ListType.ItemsAll>> results = new ArrayList<>(playlists.size());
+        ApiBatch batch = new ApiBatch();
+        for (int i = 0; i < playlists.size(); i++) {
+            final int index = i;
+            MirroredPlaylist playlist = playlists.get(i);
+            ListType.Limits limits = new ListType.Limits(playlist.loadStart(), playlist.loadEnd());
+            results.add(null);
+            batch.add(new Playlist.GetItemsWindow(playlist.id, limits, GetPlaylist.propertiesToGet),
+                      new ApiCallback<ApiList<ListType.ItemsAll>>() {
+                          @Override
+                          public void onSuccess(ApiList<ListType.ItemsAll> result) {
+                              if (!syncing) return;
+                              results.set(index, result);
+                              if (!results.contains(null)) onSynced(results);
+                          }
+
+                          @Override
+                          public void onError(int errorCode, String description) {
+                              if (syncing) onSyncError(errorCode, description);
+                          }
+                      });
+        }
+
+        if (batch.isEmpty()) {
+            onSynced(results);
+        } else {
+            connection.execute(batch, handler);
+        }
+    }
+
+    private void onSynced(List<ApiList<ListType.ItemsAll>> results) {
+        syncing = false;
+        synced = true;
+
+        ArrayList<GetPlaylist.GetPlaylistResult> nonEmptyPlaylists = new ArrayList<>();
+        for (int i = 0; i < playlists.size(); i++) {
+            MirroredPlaylist playlist = playlists.get(i);
+            ApiList<ListType.ItemsAll> result = results.get(i);
+            int start = (result.limits.start >= 0) ? result.limits.start : playlist.loadStart();
+            int size = (result.limits.total >= 0) ? result.limits.total : start + result.items.size();
+
+            playlist.items = createItems(size);
+            for (int j = 0; j < result.items.size() && start + j < size; j++) {
+                playlist.items.set(start + j, result.items.get(j));
+            }
+            playlist.version++;
+            playlist.published = new ArrayList<>(playlist.items);
+            if (size > 0) nonEmptyPlaylists.add(playlist.toResult());
+        }
+        listener.onPlaylistsSynced(nonEmptyPlaylists);
+
+        if (syncAgain) {
+            sync();
+        } else {
+            scheduleLoad();
+        }
+    }
+
+    private void onSyncError(int errorCode, String description) {
+        syncing = false;
+        syncAgain = false;
+        synced = false;
+        listener.onError(errorCode, description);
+    }
+
+    private void scheduleLoad() {
+        handler.removeCallbacks(loadRunnable);
+        handler.postDelayed(loadRunnable, LOAD_DELAY);
+    }
+
+    private final Runnable loadRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (!synced || syncing) return;
+            for (MirroredPlaylist playlist : playlists) {
+                if (!playlist.loading && !playlist.checking) loadMissingItems(playlist);
+            }
+        }
+    };
+
+    /**
+     * Gets the window around the viewport that contains all the items in it that weren't got yet
+     */
+    private void loadMissingItems(final MirroredPlaylist playlist) {
+        final int size = playlist.items.size();
+        final int loadEnd = Math.min(playlist.loadEnd(), size);
+        int start = playlist.loadStart();
+        while (start < loadEnd && playlist.items.get(start) != null) start++;
+        if (start >= loadEnd) return;
+        int end = loadEnd;
+        while (playlist.items.get(end - 1) != null) end--;
+
+        final int windowStart = start;
+        final int windowEnd = end;
+        final int version = playlist.version;
+        playlist.loading = true;
+        new Playlist.GetItemsWindow(playlist.id, new ListType.Limits(windowStart, windowEnd), GetPlaylist.propertiesToGet)
+                .execute(connection, new ApiCallback<ApiList<ListType.ItemsAll>>() {
+                    @Override
+                    public void onSuccess(ApiList<ListType.ItemsAll> result) {
+                        playlist.loading = false;
+                        if (version != playlist.version) {
+                            // The window might have moved in the meantime, get it again
+                            scheduleLoad();
+                            return;
+                        }
+                        if (result.limits.total != size || result.items.size() != windowEnd - windowStart) {
+                            LogUtils.LOGD(TAG, "Playlist " + playlist.id + " out of sync, getting it again");
+                            sync();
+                            return;
+                        }
+
+                        for (int i = windowStart; i < windowEnd; i++) {
+                            playlist.items.set(i, result.items.get(i - windowStart));
+                        }
+                        publish(playlist);
+                        // In case the viewport moved in the meantime
+                        scheduleLoad();
+                    }
+
+                    @Override
+                    public void onError(int errorCode, String description) {
+                        playlist.loading = false;
+                        synced = false;
+                        listener.onError(errorCode, description);
+                    }
+                }, handler);
+    }
+
+    /**
+     * Probe of a playlist, which compares its size and its first and last items got with the mirror.
+     * If they don't match the items are compared
+     */
+    private class Probe {
+        private final MirroredPlaylist playlist;
+        private final int size;
+        private final int version;
+        private int pendingResults = 0;
+        private boolean matches = true;
+        private boolean failed = false;
+
+        Probe(MirroredPlaylist playlist) {
+            this.playlist = playlist;
+            this.size = playlist.items.size();
+            this.version = playlist.version;
+        }
+
+        void addTo(ApiBatch batch) {
+            int first = -1, last = -1;
+            for (int i = playlist.keepStart(); i < Math.min(playlist.keepEnd(), size); i++) {
+                if (playlist.items.get(i) == null) continue;
+                if (first < 0) first = i;
+                last = i;
+            }
+
+            playlist.checking = true;
+            // If no item was got, only the size is compared
+            addItem(batch, Math.max(first, 0));
+            if (last > first) addItem(batch, last);
+        }
+
+        private void addItem(ApiBatch batch, final int position) {
+            pendingResults++;
+            batch.add(new Playlist.GetItemsWindow(playlist.id, new ListType.Limits(position, position + 1)),
+                      new ApiCallback<ApiList<ListType.ItemsAll>>() {
+                          @Override
+                          public void onSuccess(ApiList<ListType.ItemsAll> result) {
+                              if (version == playlist.version) {
+                                  ListType.ItemsAll item = (position < size) ? playlist.items.get(position) : null;
+                                  matches &= (result.limits.total == size) &&
+                                             (item == null || (result.items.size() == 1 &&
+                                                               isSameItem(result.items.get(0), item)));
+                              }
+                              onResult();
+                          }
+
+                          @Override
+                          public void onError(int errorCode, String description) {
+                              if (!failed) listener.onError(errorCode, description);
+                              failed = true;
+                              onResult();
+                          }
+                      });
+        }
+
+        private void onResult() {
+            if (--pendingResults > 0) return;
+
+            playlist.checking = false;
+            // If the mirror changed in the meantime it's more recent than the probe
+            if (failed || matches || version != playlist.version) return;
+            compareItems(playlist);
+        }
+    }
+
+    /**
+     * Gets the ids of the items around the viewport to find out where the items got are now, so that
+     * only the ones not got yet have to be got
+     */
+    private void compareItems(final MirroredPlaylist playlist) {
+        final int version = playlist.version;
+        final int start = playlist.keepStart();
+
+        playlist.checking = true;
+        new Playlist.GetItemsWindow(playlist.id, new ListType.Limits(start, playlist.keepEnd()))
+                .execute(connection, new ApiCallback<ApiList<ListType.ItemsAll>>() {
+                    @Override
+                    public void onSuccess(ApiList<ListType.ItemsAll> result) {
+                        playlist.checking = false;
+                        if (version != playlist.version) return;
+
+                        int size = (result.limits.total >= 0) ? result.limits.total : start + result.items.size();
+                        ArrayList<ListType.ItemsAll> items = placeItems(playlist.items, start, result.items, size);
+                        if (findChange(playlist.items, items) == null) return;
+
+                        playlist.items = items;
+                        playlist.version++;
+                        publish(playlist);
+                        scheduleLoad();
+                    }
+
+                    @Override
+                    public void onError(int errorCode, String description) {
+                        playlist.checking = false;
+                        listener.onError(errorCode, description);
+                    }
+                }, handler);
+    }
+
+    private static ArrayList<ListType.ItemsAll> createItems(int size) {
+        return new ArrayList<>(Collections.<ListType.ItemsAll>nCopies(size, null));
+    }
+
+    /**
+     * Creates the items of a playlist from the ids of the items in a window of it, placing there the
+     * items got before that have the same ids. The rest of the items are null
+     * @param items Items got before. The ones not got are null
+     * @param start Position in the playlist of the first id
+     * @param ids Items in the window, got without properties
+     * @param size Size of the playlist
+     * @return Items of the playlist
+     */
+    static ArrayList<ListType.ItemsAll> placeItems(List<ListType.ItemsAll> items, int start,
+                                                   List<ListType.ItemsAll> ids, int size) {
+        HashMap<String, ListType.ItemsAll> itemsByKey = new HashMap<>();
+        for (ListType.ItemsAll item : items) {
+            if (item != null) itemsByKey.put(getKey(item), item);
+        }
+
+        ArrayList<ListType.ItemsAll> result = createItems(size);
+        for (int i = 0; i < ids.size() && start + i < size; i++) {
+            result.set(start + i, itemsByKey.get(getKey(ids.get(i))));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the window that differs between two lists of items, skipping the items both have in
+     * common at the start and at the end
+     * @param before Items before
+     * @param after Items after
+     * @return Change that turns the items before into the items after, or null if they're the same
+     */
+    static Change findChange(List<ListType.ItemsAll> before, List<ListType.ItemsAll> after) {
+        int commonSize = Math.min(before.size(), after.size());
+        int prefix = 0;
+        while (prefix < commonSize && isSameItem(before.get(prefix), after.get(prefix))) {
+            prefix++;
+        }
+        if (prefix == before.size() && prefix == after.size()) return null;
+
+        int suffix = 0;
+        while (suffix < commonSize - prefix &&
+               isSameItem(before.get(before.size() - 1 - suffix), after.get(after.size() - 1 - suffix))) {
+            suffix++;
+        }
+        return new Change(prefix, before.size() - prefix - suffix, after.size() - prefix - suffix);
+    }
+
+    /**
+     * Whether two items are the same playlist entry. Only the fields returned without asking for
+     * any property are compared
+     */
+    static boolean isSameItem(ListType.ItemsAll item, ListType.ItemsAll other) {
+        if (item == other) return true;
+        if (item == null || other == null) return false;
+        return item.id == other.id &&
+               Objects.equals(item.type, other.type) &&
+               Objects.equals(item.label, other.label);
+    }
+
+    private static String getKey(ListType.ItemsAll item) {
+        return item.type + "/" + item.id + "/" + item.label;
+    }
+}
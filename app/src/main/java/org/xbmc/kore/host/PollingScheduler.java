@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.host;
+
+import org.xbmc.kore.jsonrpc.type.PlayerType;
+
+/**
+ * Decides when {@link HostConnectionObserver} checks Kodi's state again.
+ * The observer reports the results of each check, and asks for the delay until the next one.
+ * All calls are made on the observer's background thread.
+ */
+public interface PollingScheduler {
+
+    /**
+     * Reports the player state obtained in the last check
+     * @param playerState One of {@link HostConnectionObserver.PlayerEventsObserver} PLAYER_* constants
+     * @param getPropertiesResult Player properties, if something is playing or paused, null otherwise
+     */
+    void onPlayerState(int playerState, PlayerType.PropertyValue getPropertiesResult);
+
+    /**
+     * Reports that the last check succeeded
+     */
+    void onCheckSuccess();
+
+    /**
+     * Reports that the last check failed
+     */
+    void onCheckError();
+
+    /**
+     * Sets whether the app is visible to the user
+     * @param foreground True if any of the app screens is visible
+     */
+    void setForeground(boolean foreground);
+
+    /**
+     * Returns the delay until the next check
+     * @param protocol Connection protocol, {@link HostConnection#PROTOCOL_HTTP} or {@link HostConnection#PROTOCOL_TCP}.
+     *                 Through TCP player changes are notified by Kodi, so checks are only needed to
+     *                 verify the connection
+     * @return Delay in ms
+     */
+    long getNextCheckDelay(int protocol);
+}
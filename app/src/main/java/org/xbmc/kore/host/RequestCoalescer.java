@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.host;
+
+import android.os.Handler;
+import android.os.SystemClock;
+
+import org.xbmc.kore.jsonrpc.ApiCallback;
+import org.xbmc.kore.jsonrpc.ApiMethod;
+import org.xbmc.kore.jsonrpc.method.Application;
+import org.xbmc.kore.jsonrpc.method.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Shares the responses of identical read-only calls made through a {@link HostConnection}, so that
+ * Kodi gets one request when several screens and services ask the same thing at about the same time:
+ * - A call made while an identical one is waiting for its response joins it, instead of being sent;
+ * - Optionally, the response is kept for a short time, and calls made meanwhile get it right away.
+ *
+ * Only the methods set through {@link #setTtl(String, long)} are shared. Calls are identical if they
+ * have the same method name and parameters. Each caller still gets its own callback, on its own handler,
+ * but the result is the same object, so it must not be modified.
+ *
+ * Shared responses of a namespace (e.g. "Player.") are forgotten when a notification of that
+ * namespace is received, or when another method of the namespace is called, as it might change what
+ * they return.
+ */
+public class RequestCoalescer {
+
+    private static class Waiter<T> {
+        final ApiCallback<T> callback;
+        final Handler handler;
+
+        Waiter(ApiCallback<T> callback, Handler handler) {
+            this.callback = callback;
+            this.handler = handler;
+        }
+    }
+
+    /**
+     * A call waiting for its response, and the calls that joined it
+     */
+    private static class Flight {
+        final ArrayList<Waiter<?>> waiters = new ArrayList<>();
+        /** Set when the response might be outdated by the time it arrives, so it isn't kept */
+        boolean stale = false;
+    }
+
+    private static class Response {
+        final Object result;
+        final long expiresAt;
+
+        Response(Object result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Time the responses of the read-only methods asked often by several screens and services are
+     * kept. Responses are forgotten sooner when a notification or another call of the same namespace
+     * might have changed them
+     */
+    static final long DEFAULT_TTL = 1000; // ms
+
+    /** Time the response of each method shared is kept, in ms, by method name */
+    private final HashMap<String, Long> ttls = new HashMap<>();
+    private final HashMap<String, Flight> flights = new HashMap<>();
+    private final HashMap<String, Response> responses = new HashMap<>();
+
+    private long coalescedCount = 0;
+
+    /**
+     * Creates a coalescer that shares the methods asked often by several screens and services: the
+     * volume, the active players and the item being played. Player.GetProperties is only coalesced,
+     * as the playback time keeps changing
+     *
+     * @return New coalescer
+     */
+    public static RequestCoalescer createDefault() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        coalescer.setTtl(Application.GetProperties.METHOD_NAME, DEFAULT_TTL);
+        coalescer.setTtl(Player.GetActivePlayers.METHOD_NAME, DEFAULT_TTL);
+        coalescer.setTtl(Player.GetItem.METHOD_NAME, DEFAULT_TTL);
+        coalescer.setTtl(Player.GetProperties.METHOD_NAME, 0);
+        return coalescer;
+    }
+
+    /**
+     * Shares the calls of a method
+     *
+     * @param methodName Name of the method
+     * @param ttl Time its responses are kept, in ms. If 0 only calls waiting for a response are joined
+     */
+    public synchronized void setTtl(String methodName, long ttl) {
+        ttls.put(methodName, ttl);
+    }
+
+    /**
+     * Returns whether calls of a method are shared
+     *
+     * @param methodName Name of the method
+     * @return True if the method was set through {@link #setTtl(String, long)}
+     */
+    public synchronized boolean isShared(String methodName) {
+        return ttls.containsKey(methodName);
+    }
+
+    /**
+     * Starts a call of a shared method, answering it with a kept response or joining it to an
+     * identical call waiting for its response, if possible
+     *
+     * @param method Method called, which must be shared
+     * @param callback Callback of the caller
+     * @param handler Handler to call the callback on
+     * @param <T> Method return type
+     * @return Null if the call was answered or joined, otherwise the callback to send the call
+     * with, without a handler, which passes the response to all the calls that join it
+     */
+    public synchronized <T> ApiCallback<T> start(final ApiMethod<T> method, ApiCallback<T> callback, Handler handler) {
+        Long ttl = ttls.get(method.getMethodName());
+        if (ttl == null) throw new IllegalArgumentException("Method isn't shared: " + method.getMethodName());
+
+        final String key = HostMetadataCache.getKey(method);
+        Response response = responses.get(key);
+        if (response != null) {
+            if (SystemClock.elapsedRealtime() < response.expiresAt) {
+                coalescedCount++;
+                @SuppressWarnings("unchecked")
+                final T result = (T) response.result;
+                if (callback != null) postOrRunNow(handler, () -> callback.onSuccess(result));
+                return null;
+            }
+            responses.remove(key);
+        }
+
+        Flight flight = flights.get(key);
+        if (flight != null) {
+            coalescedCount++;
+            flight.waiters.add(new Waiter<>(callback, handler));
+            return null;
+        }
+
+        final Flight newFlight = new Flight();
+        newFlight.waiters.add(new Waiter<>(callback, handler));
+        flights.put(key, newFlight);
+        final long responseTtl = ttl;
+        return new ApiCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                for (Waiter<?> waiter : finish(key, newFlight, result, responseTtl)) {
+                    postSuccess(waiter, result);
+                }
+            }
+
+            @Override
+            public void onError(int errorCode, String description) {
+                for (Waiter<?> waiter : finish(key, newFlight, null, 0)) {
+                    if (waiter.callback != null)
+                        postOrRunNow(waiter.handler, () -> waiter.callback.onError(errorCode, description));
+                }
+            }
+        };
+    }
+
+    /**
+     * Forgets the shared responses of the namespace of a method that isn't shared, when it's called,
+     * as it might change what they return, e.g. Application.SetVolume and Application.GetProperties
+     *
+     * @param methodName Name of the method called
+     */
+    public void onCall(String methodName) {
+        invalidate(getNamespace(methodName));
+    }
+
+    /**
+     * Forgets the shared responses of the namespace of a notification received
+     *
+     * @param notificationName Name of the notification, e.g. "Player.OnPlay"
+     */
+    public void onNotification(String notificationName) {
+        String namespace = getNamespace(notificationName);
+        // The system is going away or coming back, so everything might have changed
+        invalidate("System.".equals(namespace) ? "" : namespace);
+    }
+
+    /**
+     * Forgets the shared responses of methods whose name starts with a prefix. Calls waiting for a
+     * response still get it, but calls made afterwards are sent again
+     *
+     * @param prefix Method name prefix, e.g. "Player.". If empty, all responses are forgotten
+     */
+    public synchronized void invalidate(String prefix) {
+        for (Iterator<Map.Entry<String, Response>> it = responses.entrySet().iterator(); it.hasNext(); ) {
+            if (it.next().getKey().startsWith(prefix)) it.remove();
+        }
+        for (Iterator<Map.Entry<String, Flight>> it = flights.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Flight> entry = it.next();
+            if (entry.getKey().startsWith(prefix)) {
+                entry.getValue().stale = true;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of calls that weren't sent, as they were answered with the response of
+     * another one
+     *
+     * @return Number of calls coalesced
+     */
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    private synchronized ArrayList<Waiter<?>> finish(String key, Flight flight, Object result, long ttl) {
+        if (flights.get(key) == flight) flights.remove(key);
+        if (result != null && ttl > 0 && !flight.stale) {
+            responses.put(key, new Response(result, SystemClock.elapsedRealtime() + ttl));
+        }
+        return flight.waiters;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void postSuccess(Waiter<T> waiter, Object result) {
+        if (waiter.callback != null) postOrRunNow(waiter.handler, () -> waiter.callback.onSuccess((T) result));
+    }
+
+    private static String getNamespace(String methodName) {
+        int dot = methodName.indexOf('.');
+        return (dot < 0) ? methodName : methodName.substring(0, dot + 1);
+    }
+
+    private static void postOrRunNow(Handler handler, Runnable r) {
+        if (handler != null) {
+            handler.post(r);
+        } else {
+            r.run();
+        }
+    }
+}
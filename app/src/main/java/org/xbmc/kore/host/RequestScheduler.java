@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.host;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the tasks of a {@link HostConnection} on a bounded number of threads, by priority lane:
+ * - {@link #LANE_INTERACTIVE}: calls the user is waiting on, like input, seek or volume changes;
+ * - {@link #LANE_FOREGROUND}: reads to show a screen;
+ * - {@link #LANE_BACKGROUND}: polling and syncing.
+ * A task runs before all the tasks of lower priority lanes waiting, and in order within its lane.
+ *
+ * Tasks can be cancelable, like periodic polls, which are outdated once the user does something:
+ * when an interactive task is queued, the cancelable tasks that haven't started are dropped and their
+ * cancel action is run instead.
+ */
+public class RequestScheduler {
+
+    public static final int LANE_INTERACTIVE = 0,
+            LANE_FOREGROUND = 1,
+            LANE_BACKGROUND = 2;
+    private static final int LANE_COUNT = 3;
+
+    private static final int KEEP_ALIVE_TIME = 30; // s
+
+    private class Task implements Runnable, Comparable<Task> {
+        final Runnable runnable;
+        final int lane;
+        final long sequence;
+        final Runnable onCancel;
+        final long queuedAt = System.nanoTime();
+
+        Task(Runnable runnable, int lane, long sequence, Runnable onCancel) {
+            this.runnable = runnable;
+            this.lane = lane;
+            this.sequence = sequence;
+            this.onCancel = onCancel;
+        }
+
+        @Override
+        public void run() {
+            stats.onStart(lane, System.nanoTime() - queuedAt);
+            runnable.run();
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (lane != other.lane) return (lane < other.lane) ? -1 : 1;
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong lastSequence = new AtomicLong(0);
+    private final Stats stats = new Stats();
+
+    /**
+     * Constructor
+     * @param name Name of the threads
+     * @param maxThreads Maximum number of tasks run at the same time
+     */
+    public RequestScheduler(final String name, int maxThreads) {
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger(0);
+
+            @Override
+            public Thread newThread(@NonNull Runnable r) {
+                return new Thread(r, name + "-" + count.incrementAndGet());
+            }
+        };
+        // Threads are only created up to the core size when the queue is unbounded, so the core
+        // size is the maximum, and idle threads time out
+        executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+                                          new PriorityBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queues a task
+     *
+     * @param task Task to run
+     * @param lane Priority lane: {@link #LANE_INTERACTIVE}, {@link #LANE_FOREGROUND} or {@link #LANE_BACKGROUND}
+     */
+    public void execute(Runnable task, int lane) {
+        execute(task, lane, null);
+    }
+
+    /**
+     * Queues a task, that is cancelled if an interactive task is queued before it starts
+     *
+     * @param task Task to run
+     * @param lane Priority lane: {@link #LANE_INTERACTIVE}, {@link #LANE_FOREGROUND} or {@link #LANE_BACKGROUND}
+     * @param onCancel Run instead of the task if it is cancelled, on the thread that queued the
+     *                 interactive task. If null the task isn't cancelable
+     */
+    public void execute(Runnable task, int lane, Runnable onCancel) {
+        if (lane < LANE_INTERACTIVE || lane >= LANE_COUNT) lane = LANE_FOREGROUND;
+
+        if (lane == LANE_INTERACTIVE) cancelWaitingTasks();
+        stats.onQueued(lane);
+        executor.execute(new Task(task, lane, lastSequence.incrementAndGet(), onCancel));
+    }
+
+    private void cancelWaitingTasks() {
+        ArrayList<Task> cancelled = new ArrayList<>();
+        for (Runnable r : executor.getQueue()) {
+            Task task = (Task) r;
+            // Only cancel the tasks that are removed here, others might be starting meanwhile
+            if (task.onCancel != null && executor.remove(task)) cancelled.add(task);
+        }
+        for (Task task : cancelled) {
+            stats.onCancelled(task.lane);
+            task.onCancel.run();
+        }
+    }
+
+    /**
+     * Returns the counters of the tasks run, to measure how long they wait to run
+     *
+     * @return Counters of this scheduler
+     */
+    public Stats getStats() {
+        return stats;
+    }
+
+    /**
+     * Counters of the tasks of each lane. Can be read from any thread
+     */
+    public static class Stats {
+        private final AtomicInteger[] queueDepth = new AtomicInteger[LANE_COUNT];
+        private final AtomicInteger[] maxQueueDepth = new AtomicInteger[LANE_COUNT];
+        private final AtomicLong[] startedCount = new AtomicLong[LANE_COUNT];
+        private final AtomicLong[] cancelledCount = new AtomicLong[LANE_COUNT];
+        private final AtomicLong[] totalWaitTime = new AtomicLong[LANE_COUNT];
+
+        Stats() {
+            for (int i = 0; i < LANE_COUNT; i++) {
+                queueDepth[i] = new AtomicInteger(0);
+                maxQueueDepth[i] = new AtomicInteger(0);
+                startedCount[i] = new AtomicLong(0);
+                cancelledCount[i] = new AtomicLong(0);
+                totalWaitTime[i] = new AtomicLong(0);
+            }
+        }
+
+        void onQueued(int lane) {
+            int depth = queueDepth[lane].incrementAndGet();
+            maxQueueDepth[lane].accumulateAndGet(depth, Math::max);
+        }
+
+        void onStart(int lane, long waitNanos) {
+            queueDepth[lane].decrementAndGet();
+            startedCount[lane].incrementAndGet();
+            totalWaitTime[lane].addAndGet(waitNanos);
+        }
+
+        void onCancelled(int lane) {
+            queueDepth[lane].decrementAndGet();
+            cancelledCount[lane].incrementAndGet();
+        }
+
+        /**
+         * @param lane Priority lane
+         * @return Number of tasks of the lane waiting to run
+         */
+        public int getQueueDepth(int lane) {
+            return queueDepth[lane].get();
+        }
+
+        /**
+         * @param lane Priority lane
+         * @return Maximum number of tasks of the lane that were waiting to run at the same time
+         */
+        public int getMaxQueueDepth(int lane) {
+            return maxQueueDepth[lane].get();
+        }
+
+        /**
+         * @param lane Priority lane
+         * @return Number of tasks of the lane cancelled before running
+         */
+        public long getCancelledCount(int lane) {
+            return cancelledCount[lane].get();
+        }
+
+        /**
+         * @param lane Priority lane
+         * @return Average time the tasks of the lane waited before running, in ms
+         */
+        public double getAverageWaitTime(int lane) {
+            long started = startedCount[lane].get();
+            return (started == 0) ? 0 : totalWaitTime[lane].get() / (started * 1000000.0);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            String[] names = {"interactive", "foreground", "background"};
+            for (int i = 0; i < LANE_COUNT; i++) {
+                if (i > 0) sb.append("; ");
+                sb.append(names[i])
+                  .append(": queued ").append(getQueueDepth(i))
+                  .append(" (max ").append(getMaxQueueDepth(i)).append(")")
+                  .append(", cancelled ").append(getCancelledCount(i))
+                  .append(", average wait ").append(String.format(Locale.US, "%.1f", getAverageWaitTime(i))).append(" ms");
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -38,7 +38,10 @@ import java.util.concurrent.ExecutionException;
 public class GetPlaylist extends HostCompositeAction<ArrayList<GetPlaylist.GetPlaylistResult>> {
     private static final String TAG = LogUtils.makeLogTag(GetPlaylist.class);
 
-    private final static String[] propertiesToGet = new String[] {
+    /**
+     * Properties got for each playlist item
+     */
+    public final static String[] propertiesToGet = new String[] {
             ListType.FieldsAll.ART,
             ListType.FieldsAll.ARTIST,
             ListType.FieldsAll.ALBUMARTIST,
@@ -58,7 +61,7 @@ public class GetPlaylist extends HostCompositeAction<ArrayList<GetPlaylist.GetPl
             ListType.FieldsAll.RUNTIME,
             };
 
-    static private HashMap<String, Integer> playlistsTypesAndIds;
+    private HashMap<String, Integer> playlistsTypesAndIds;
     private String playlistType;
     private int playlistId = -1;
 
@@ -86,8 +89,7 @@ public class GetPlaylist extends HostCompositeAction<ArrayList<GetPlaylist.GetPl
 
     @Override
     public ArrayList<GetPlaylistResult> execInBackground() throws ExecutionException, InterruptedException {
-        if (playlistsTypesAndIds == null)
-            playlistsTypesAndIds = getPlaylists(hostConnection);
+        playlistsTypesAndIds = getPlaylists(hostConnection);
 
         if (playlistType != null) {
             GetPlaylistResult getPlaylistResult = retrievePlaylistItemsForType(playlistType);
@@ -131,10 +133,14 @@ public class GetPlaylist extends HostCompositeAction<ArrayList<GetPlaylist.GetPl
         return playlists;
     }
 
+    /**
+     * Gets the playlists types and ids through the host's metadata cache, as they rarely change
+     */
     private HashMap<String, Integer> getPlaylists(HostConnection hostConnection)
             throws ExecutionException, InterruptedException {
         HashMap<String, Integer> playlistsHashMap = new HashMap<>();
-        ArrayList<PlaylistType.GetPlaylistsReturnType> playlistsReturnTypes = hostConnection.execute(new Playlist.GetPlaylists()).get();
+        ArrayList<PlaylistType.GetPlaylistsReturnType> playlistsReturnTypes =
+                hostConnection.getMetadataCache().execute(new Playlist.GetPlaylists());
         for (PlaylistType.GetPlaylistsReturnType type : playlistsReturnTypes) {
             playlistsHashMap.put(type.type, type.playlistid);
         }
@@ -161,7 +167,7 @@ public class GetPlaylist extends HostCompositeAction<ArrayList<GetPlaylist.GetPl
         final public int id;
         final public List<ListType.ItemsAll> items;
 
-        private GetPlaylistResult(int playlistId, String type, List<ListType.ItemsAll> items) {
+        public GetPlaylistResult(int playlistId, String type, List<ListType.ItemsAll> items) {
             this.id = playlistId;
             this.type = type;
             this.items = items;
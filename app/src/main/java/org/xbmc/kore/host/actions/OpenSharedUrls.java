@@ -9,6 +9,7 @@ import android.content.Context;
 import org.xbmc.kore.R;
 import org.xbmc.kore.host.HostCompositeAction;
 import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.method.Player;
 import org.xbmc.kore.jsonrpc.method.Playlist;
 import org.xbmc.kore.jsonrpc.type.PlayerType;
@@ -50,6 +51,12 @@ public class OpenSharedUrls extends HostCompositeAction<Boolean> {
         this.playlistType = playlistType;
     }
 
+    @Override
+    protected int getLane() {
+        // The user is waiting for the urls to start playing
+        return RequestScheduler.LANE_INTERACTIVE;
+    }
+
     /**
      * @return whether Kodi is currently playing something. If so, the shared URLs
      * are added to the playlist and not played immediately.
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.jsonrpc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.RequestScheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A JSON RPC batch: several {@link ApiMethod}s sent to Kodi in a single request, each one with its
+ * own {@link ApiCallback}.
+ *
+ * Execute it through {@link HostConnection#execute(ApiBatch, android.os.Handler)}. Through HTTP the
+ * whole batch is sent in one request, and the callbacks are called in the order the methods were
+ * added, after all the responses are received. Through TCP each method is sent individually, so
+ * there are no ordering guarantees between callbacks.
+ */
+public class ApiBatch {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * A method in the batch, with its callback
+     * @param <T> Method return type
+     */
+    public static class Call<T> {
+        public final ApiMethod<T> method;
+        public final ApiCallback<T> callback;
+
+        Call(ApiMethod<T> method, ApiCallback<T> callback) {
+            this.method = method;
+            this.callback = callback;
+        }
+    }
+
+    private final ArrayList<Call<?>> calls = new ArrayList<>();
+    private int lane = -1;
+    private boolean cancelable = false;
+
+    /**
+     * Adds a method to this batch
+     *
+     * @param method Method to call
+     * @param callback Callback to post the method response to. Can be null
+     * @param <T> Method return type
+     * @return This batch, to allow chaining
+     */
+    public <T> ApiBatch add(ApiMethod<T> method, ApiCallback<T> callback) {
+        calls.add(new Call<>(method, callback));
+        return this;
+    }
+
+    /**
+     * Returns the methods in this batch, in the order they were added
+     * @return Calls in this batch
+     */
+    public List<Call<?>> getCalls() {
+        return Collections.unmodifiableList(calls);
+    }
+
+    /**
+     * Sets the priority of this batch, when sent through HTTP. By default it's the highest priority
+     * of its methods, see {@link ApiMethod#setLane(int)}
+     *
+     * @param lane Priority lane, one of the lanes of {@link RequestScheduler}
+     * @return This batch, to allow chaining
+     */
+    public ApiBatch setLane(int lane) {
+        this.lane = lane;
+        return this;
+    }
+
+    /**
+     * Returns the priority lane of this batch
+     * @return Priority lane, one of the lanes of {@link RequestScheduler}
+     */
+    public int getLane() {
+        if (lane >= 0) return lane;
+        int highest = RequestScheduler.LANE_BACKGROUND;
+        for (Call<?> call : calls) {
+            highest = Math.min(highest, call.method.getLane());
+        }
+        return highest;
+    }
+
+    /**
+     * Sets whether this batch can be dropped when it's outdated, like a periodic check, which is
+     * the case when the user does something before it is sent through HTTP. If dropped, the callbacks
+     * get an {@link ApiException#API_REQUEST_CANCELLED} error
+     *
+     * @param cancelable Whether this batch can be dropped
+     * @return This batch, to allow chaining
+     */
+    public ApiBatch setCancelable(boolean cancelable) {
+        this.cancelable = cancelable;
+        return this;
+    }
+
+    public boolean isCancelable() {
+        return cancelable;
+    }
+
+    public int size() {
+        return calls.size();
+    }
+
+    public boolean isEmpty() {
+        return calls.isEmpty();
+    }
+
+    /**
+     * Returns the string json representation of this batch, a json array with each method request
+     * @return Json string representation of the batch
+     */
+    public String toJsonString() {
+        ArrayNode jsonRequest = objectMapper.createArrayNode();
+        for (Call<?> call : calls) {
+            jsonRequest.add(call.method.toJsonObject());
+        }
+        return jsonRequest.toString();
+    }
+}
@@ -84,6 +84,11 @@ public class ApiException extends Exception {
 
     public static int API_WAITING_ON_RESULT_INTERRUPTED = 104;
 
+    /**
+     * The request was dropped before being sent, as it was outdated
+     */
+    public static int API_REQUEST_CANCELLED = 105;
+
     private final int code;
 
 	/**
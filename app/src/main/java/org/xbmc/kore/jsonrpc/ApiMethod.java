@@ -18,16 +18,23 @@ package org.xbmc.kore.jsonrpc;
 
 import android.os.Handler;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.type.ApiParameter;
+import org.xbmc.kore.jsonrpc.type.ListType;
 import org.xbmc.kore.utils.LogUtils;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Abstract class base of all the JSON RPC API calls
@@ -49,10 +56,15 @@ public abstract class ApiMethod<T> {
 	public static final String METHOD_NODE = "method";
 	public static final String PARAMS_NODE = "params";
 
+	/**
+	 * Method call ids wrap around at this value, so they are always in [0, MAX_ID[
+	 */
+	public static final int MAX_ID = 10000;
+
 	/**
 	 * Id of the method call. Autoincremented for each method call
 	 */
-	private static int lastId = 0;
+	private static final AtomicInteger lastId = new AtomicInteger(0);
 	protected final int id;
 
 	protected static final ObjectMapper objectMapper = new ObjectMapper();
@@ -78,9 +90,7 @@ public abstract class ApiMethod<T> {
 		jsonRequest.put(METHOD_NODE, getMethodName());
 
 		if(sendId) {
-			synchronized (this) {
-				this.id = (++lastId % 10000);
-			}
+			this.id = lastId.updateAndGet(previousId -> (previousId + 1) % MAX_ID);
 			jsonRequest.put(ID_NODE, id);
 		}
 		else {
@@ -231,6 +241,42 @@ public abstract class ApiMethod<T> {
 	 */
 	public abstract String getMethodName();
 
+    /**
+     * Priority lane to send the method through HTTP, or -1 to use {@link #getDefaultLane()}
+     */
+    private int lane = -1;
+
+    /**
+     * Sets the priority of this method call, when sent through HTTP, instead of the default one of the method,
+     * see {@link #getDefaultLane()}
+     *
+     * @param lane Priority lane, one of the lanes of {@link RequestScheduler}
+     * @return This method, to allow chaining
+     */
+    public ApiMethod<T> setLane(int lane) {
+        this.lane = lane;
+        return this;
+    }
+
+    /**
+     * Returns the priority lane of this method call
+     * @return Priority lane, one of the lanes of {@link RequestScheduler}
+     */
+    public int getLane() {
+        return (lane >= 0) ? lane : getDefaultLane();
+    }
+
+    /**
+     * Returns the priority lane of this method when none is set. Methods are sent through
+     * {@link RequestScheduler#LANE_FOREGROUND} by default; the ones the user is waiting on, like input, player
+     * or volume changes, override this to return {@link RequestScheduler#LANE_INTERACTIVE}, which cancels the
+     * polls waiting to be sent
+     * @return Priority lane, one of the lanes of {@link RequestScheduler}
+     */
+    protected int getDefaultLane() {
+        return RequestScheduler.LANE_FOREGROUND;
+    }
+
 	/**
 	 * Constructs an object of this method's return type from a json response.
 	 * This method must be implemented by each subcall to parse the json reponse and create
@@ -257,6 +303,104 @@ public abstract class ApiMethod<T> {
 	 */
 	public abstract T resultFromJson(ObjectNode jsonObject) throws ApiException;
 
+	/**
+	 * Constructs an object of this method's return type reading directly from a streaming json
+	 * response, without first reading the whole response into a String and a json tree.
+	 * The parser is consumed up to the end of the response object. If the response contains an
+	 * error node, an {@link ApiException} is thrown with its information.
+	 *
+	 * @param parser Parser positioned before the start of the json response
+	 * @return Result object of the appropriate type for this api method
+	 */
+	public T resultFromJson(JsonParser parser) throws ApiException {
+		try {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new ApiException(ApiException.INVALID_JSON_RESPONSE_FROM_HOST,
+									   "Response isn't a json object.");
+			}
+
+			T result = null;
+			boolean hasResult = false;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String fieldName = parser.getCurrentName();
+				parser.nextToken();
+				if (RESULT_NODE.equals(fieldName)) {
+					result = resultFromJsonParser(parser);
+					hasResult = true;
+				} else if (ERROR_NODE.equals(fieldName)) {
+					ObjectNode errorResponse = objectMapper.createObjectNode();
+					errorResponse.set(ERROR_NODE, objectMapper.readTree(parser));
+					throw new ApiException(ApiException.API_ERROR, errorResponse);
+				} else {
+					parser.skipChildren();
+				}
+			}
+
+			if (!hasResult) {
+				// Something strange is going on
+				throw new ApiException(ApiException.INVALID_JSON_RESPONSE_FROM_HOST,
+									   "Result doesn't contain a result node.");
+			}
+			return result;
+		} catch (IOException e) {
+			throw new ApiException(ApiException.INVALID_JSON_RESPONSE_FROM_HOST, e);
+		}
+	}
+
+	/**
+	 * Constructs an object of this method's return type from the result node of a streaming json
+	 * response.
+	 * The default implementation reads the result node into a tree and falls back to
+	 * {@link #resultFromJson(ObjectNode)}. Methods that return large responses should override this
+	 * to build the result while reading, see {@link #listResultFromJsonParser(JsonParser, String, Function)}
+	 *
+	 * @param parser Parser positioned on the first token of the result node. On return it must be
+	 *               positioned on the last token of the result node
+	 * @return Result object of the appropriate type for this api method
+	 */
+	protected T resultFromJsonParser(JsonParser parser) throws IOException, ApiException {
+		ObjectNode jsonResponse = objectMapper.createObjectNode();
+		jsonResponse.set(RESULT_NODE, objectMapper.readTree(parser));
+		return resultFromJson(jsonResponse);
+	}
+
+	/**
+	 * Reads a list result from a streaming json response, converting each item as soon as it is
+	 * read, so that only one item is kept as a json tree at any time.
+	 *
+	 * @param parser Parser positioned on the first token of the result node
+	 * @param listNode Name of the node that contains the list of items
+	 * @param itemConverter Converts an item json node to the result item type
+	 * @param <I> Type of the items of the list
+	 * @return List of items and the limits returned
+	 */
+	protected <I> ApiList<I> listResultFromJsonParser(JsonParser parser, String listNode,
+													  Function<JsonNode, I> itemConverter) throws IOException {
+		ArrayList<I> items = new ArrayList<>();
+		ListType.LimitsReturned limits = new ListType.LimitsReturned();
+
+		if (parser.currentToken() != JsonToken.START_OBJECT) {
+			parser.skipChildren();
+			return new ApiList<>(items, limits);
+		}
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if (listNode.equals(fieldName) && token == JsonToken.START_ARRAY) {
+				while (parser.nextToken() != JsonToken.END_ARRAY) {
+					items.add(itemConverter.apply(objectMapper.readTree(parser)));
+				}
+			} else if (ListType.LimitsReturned.LIMITS.equals(fieldName)) {
+				JsonNode limitsNode = objectMapper.readTree(parser);
+				limits = new ListType.LimitsReturned(limitsNode);
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return new ApiList<>(items, limits);
+	}
+
     /**
      * Default callback for methods which the result doesnt matter
      */
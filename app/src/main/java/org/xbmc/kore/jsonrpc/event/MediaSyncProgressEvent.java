@@ -0,0 +1,30 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.jsonrpc.event;
+
+import org.xbmc.kore.service.library.SyncOrchestrator;
+
+/**
+ * Event to post on {@link org.greenrobot.eventbus.EventBus} that notifies of the progress of a sync.
+ * Posted on the sync thread whenever a sync item starts, finishes or stores more items.
+ */
+public class MediaSyncProgressEvent {
+    public final SyncOrchestrator.SyncProgress progress;
+
+    public MediaSyncProgressEvent(SyncOrchestrator.SyncProgress progress) {
+        this.progress = progress;
+    }
+}
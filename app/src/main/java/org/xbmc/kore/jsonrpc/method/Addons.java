@@ -18,6 +18,7 @@ package org.xbmc.kore.jsonrpc.method;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.ApiException;
 import org.xbmc.kore.jsonrpc.ApiMethod;
 import org.xbmc.kore.jsonrpc.type.AddonType;
@@ -54,6 +55,11 @@ public class Addons {
             return METHOD_NAME;
         }
 
+        @Override
+        protected int getDefaultLane() {
+            return RequestScheduler.LANE_INTERACTIVE;
+        }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -159,6 +165,11 @@ public class Addons {
             return METHOD_NAME;
         }
 
+        @Override
+        protected int getDefaultLane() {
+            return RequestScheduler.LANE_INTERACTIVE;
+        }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -16,6 +16,7 @@
 package org.xbmc.kore.jsonrpc.method;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.ApiException;
 import org.xbmc.kore.jsonrpc.ApiMethod;
 import org.xbmc.kore.jsonrpc.type.ApplicationType;
@@ -44,6 +45,11 @@ public class Application {
             return METHOD_NAME;
         }
 
+        @Override
+        protected int getDefaultLane() {
+            return RequestScheduler.LANE_INTERACTIVE;
+        }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -77,6 +83,9 @@ public class Application {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public Integer resultFromJson(ObjectNode jsonObject) throws ApiException {
             return JsonUtils.intFromJsonNode(jsonObject, RESULT_NODE);
@@ -100,6 +109,9 @@ public class Application {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public Boolean resultFromJson(ObjectNode jsonObject) throws ApiException {
             return JsonUtils.booleanFromJsonNode(jsonObject, RESULT_NODE);
@@ -15,6 +15,7 @@
  */
 package org.xbmc.kore.jsonrpc.method;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -26,6 +27,7 @@ import org.xbmc.kore.jsonrpc.type.AudioType;
 import org.xbmc.kore.jsonrpc.type.LibraryType;
 import org.xbmc.kore.jsonrpc.type.ListType;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -127,6 +129,12 @@ public class AudioLibrary {
             return METHOD_NAME;
         }
 
+        @Override
+        protected ApiList<AudioType.DetailsArtist> resultFromJsonParser(JsonParser parser)
+                throws IOException {
+            return listResultFromJsonParser(parser, LIST_NODE, AudioType.DetailsArtist::new);
+        }
+
         @Override
         public ApiList<AudioType.DetailsArtist> resultFromJson(ObjectNode jsonObject) throws ApiException {
             ListType.LimitsReturned limits = new ListType.LimitsReturned(jsonObject);
@@ -184,6 +192,12 @@ public class AudioLibrary {
             return METHOD_NAME;
         }
 
+        @Override
+        protected ApiList<AudioType.DetailsAlbum> resultFromJsonParser(JsonParser parser)
+                throws IOException {
+            return listResultFromJsonParser(parser, LIST_NODE, AudioType.DetailsAlbum::new);
+        }
+
         @Override
         public ApiList<AudioType.DetailsAlbum> resultFromJson(ObjectNode jsonObject)
                 throws ApiException {
@@ -228,6 +242,12 @@ public class AudioLibrary {
             return METHOD_NAME;
         }
 
+        @Override
+        protected List<LibraryType.DetailsGenre> resultFromJsonParser(JsonParser parser)
+                throws IOException {
+            return listResultFromJsonParser(parser, LIST_NODE, LibraryType.DetailsGenre::new).items;
+        }
+
         @Override
         public List<LibraryType.DetailsGenre> resultFromJson(ObjectNode jsonObject)
                 throws ApiException {
@@ -283,6 +303,12 @@ public class AudioLibrary {
             return METHOD_NAME;
         }
 
+        @Override
+        protected ApiList<AudioType.DetailsSong> resultFromJsonParser(JsonParser parser)
+                throws IOException {
+            return listResultFromJsonParser(parser, LIST_NODE, AudioType.DetailsSong::new);
+        }
+
         @Override
         public ApiList<AudioType.DetailsSong> resultFromJson(ObjectNode jsonObject)
                 throws ApiException {
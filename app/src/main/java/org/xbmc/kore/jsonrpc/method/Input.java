@@ -16,6 +16,7 @@
 package org.xbmc.kore.jsonrpc.method;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.ApiException;
 import org.xbmc.kore.jsonrpc.ApiMethod;
 
@@ -217,6 +218,9 @@ public class Input {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -238,6 +242,9 @@ public class Input {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -259,6 +266,9 @@ public class Input {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -280,6 +290,9 @@ public class Input {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -301,6 +314,9 @@ public class Input {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -322,6 +338,9 @@ public class Input {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -343,6 +362,9 @@ public class Input {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -364,6 +386,9 @@ public class Input {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -387,6 +412,9 @@ public class Input {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
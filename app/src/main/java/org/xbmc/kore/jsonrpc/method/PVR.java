@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.ApiException;
 import org.xbmc.kore.jsonrpc.ApiMethod;
 import org.xbmc.kore.jsonrpc.type.PVRType;
@@ -222,6 +223,11 @@ public class PVR {
             return METHOD_NAME;
         }
 
+        @Override
+        protected int getDefaultLane() {
+            return RequestScheduler.LANE_INTERACTIVE;
+        }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.ApiException;
 import org.xbmc.kore.jsonrpc.ApiMethod;
 import org.xbmc.kore.jsonrpc.type.ListType;
@@ -136,6 +137,9 @@ public class Player {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public Integer resultFromJson(ObjectNode jsonObject) throws ApiException {
             return JsonUtils.intFromJsonNode(jsonObject.get(RESULT_NODE), "speed");
@@ -162,6 +166,9 @@ public class Player {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public Integer resultFromJson(ObjectNode jsonObject) throws ApiException {
             return JsonUtils.intFromJsonNode(jsonObject.get(RESULT_NODE), "speed");
@@ -186,6 +193,9 @@ public class Player {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -229,6 +239,9 @@ public class Player {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -290,6 +303,9 @@ public class Player {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public PlayerType.SeekReturnType resultFromJson(ObjectNode jsonObject) throws ApiException {
             return new PlayerType.SeekReturnType(jsonObject.get(RESULT_NODE));
@@ -339,6 +355,9 @@ public class Player {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -382,6 +401,9 @@ public class Player {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -408,6 +430,9 @@ public class Player {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -444,6 +469,9 @@ public class Player {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -480,6 +508,9 @@ public class Player {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -547,6 +578,9 @@ public class Player {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -573,6 +607,9 @@ public class Player {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
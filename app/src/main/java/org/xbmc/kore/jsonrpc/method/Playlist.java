@@ -15,15 +15,19 @@
  */
 package org.xbmc.kore.jsonrpc.method;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.ApiException;
+import org.xbmc.kore.jsonrpc.ApiList;
 import org.xbmc.kore.jsonrpc.ApiMethod;
 import org.xbmc.kore.jsonrpc.type.ListType;
 import org.xbmc.kore.jsonrpc.type.PlaylistType;
 import org.xbmc.kore.jsonrpc.type.PlaylistType.GetPlaylistsReturnType;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -100,6 +104,69 @@ public class Playlist {
         }
     }
 
+    /**
+     * Get a window of the items in a playlist, together with the size of the playlist.
+     * Same method as {@link GetItems}, for when the playlist is big and only part of it is needed
+     */
+    public static final class GetItemsWindow extends ApiMethod<ApiList<ListType.ItemsAll>> {
+        public final static String METHOD_NAME = "Playlist.GetItems";
+
+        private final static String LIST_NODE = "items";
+
+        /**
+         * Get all items from playlist, with the size of the playlist
+         * @param playlistId Playlist id for which to get the items
+         * @param properties Properties to retrieve.
+         *                   See {@link ListType.FieldsAll} for a list of accepted values
+         */
+        public GetItemsWindow(int playlistId, String... properties) {
+            super();
+            addParameterToRequest("playlistid", playlistId);
+            addParameterToRequest("properties", properties);
+        }
+
+        /**
+         * Get the items from playlist in the window given by limits, with the size of the playlist
+         * @param playlistId Playlist id for which to get the items
+         * @param limits Window of the playlist to get. See {@link ListType.Limits}
+         * @param properties Properties to retrieve.
+         *                   See {@link ListType.FieldsAll} for a list of accepted values
+         */
+        public GetItemsWindow(int playlistId, ListType.Limits limits, String... properties) {
+            super();
+            addParameterToRequest("playlistid", playlistId);
+            addParameterToRequest("properties", properties);
+            addParameterToRequest("limits", limits);
+        }
+
+        @Override
+        public String getMethodName() { return METHOD_NAME; }
+
+        @Override
+        protected ApiList<ListType.ItemsAll> resultFromJsonParser(JsonParser parser) throws IOException {
+            return listResultFromJsonParser(parser, LIST_NODE, ListType.ItemsAll::new);
+        }
+
+        @Override
+        public ApiList<ListType.ItemsAll> resultFromJson(ObjectNode jsonObject) throws ApiException {
+            ListType.LimitsReturned limits = new ListType.LimitsReturned(jsonObject);
+
+            JsonNode resultNode = jsonObject.get(RESULT_NODE);
+            ArrayNode items = resultNode.has(LIST_NODE) && resultNode.get(LIST_NODE).isArray() ?
+                              (ArrayNode)resultNode.get(LIST_NODE) : null;
+            if (items == null) {
+                return new ApiList<>(new ArrayList<>(0), limits);
+            }
+            ArrayList<ListType.ItemsAll> result = new ArrayList<>(items.size());
+
+            for (JsonNode item : items) {
+                result.add(new ListType.ItemsAll(item));
+            }
+
+            return new ApiList<>(result, limits);
+        }
+    }
+
     /**
      * Clear playlist
      */
@@ -117,6 +184,9 @@ public class Playlist {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -141,6 +211,9 @@ public class Playlist {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -165,6 +238,9 @@ public class Playlist {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -188,6 +264,9 @@ public class Playlist {
         @Override
         public String getMethodName() { return METHOD_NAME; }
 
+        @Override
+        protected int getDefaultLane() { return RequestScheduler.LANE_INTERACTIVE; }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -16,6 +16,7 @@
 package org.xbmc.kore.jsonrpc.method;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.ApiException;
 import org.xbmc.kore.jsonrpc.ApiMethod;
 
@@ -42,6 +43,11 @@ public class System {
             return METHOD_NAME;
         }
 
+        @Override
+        protected int getDefaultLane() {
+            return RequestScheduler.LANE_INTERACTIVE;
+        }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -66,6 +72,11 @@ public class System {
             return METHOD_NAME;
         }
 
+        @Override
+        protected int getDefaultLane() {
+            return RequestScheduler.LANE_INTERACTIVE;
+        }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -90,6 +101,11 @@ public class System {
             return METHOD_NAME;
         }
 
+        @Override
+        protected int getDefaultLane() {
+            return RequestScheduler.LANE_INTERACTIVE;
+        }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
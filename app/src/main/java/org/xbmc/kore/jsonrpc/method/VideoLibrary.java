@@ -15,15 +15,18 @@
  */
 package org.xbmc.kore.jsonrpc.method;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.ApiException;
 import org.xbmc.kore.jsonrpc.ApiList;
 import org.xbmc.kore.jsonrpc.ApiMethod;
 import org.xbmc.kore.jsonrpc.type.ListType;
 import org.xbmc.kore.jsonrpc.type.VideoType;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -118,6 +121,12 @@ public class VideoLibrary {
             return METHOD_NAME;
         }
 
+        @Override
+        protected ApiList<VideoType.DetailsMovie> resultFromJsonParser(JsonParser parser)
+                throws IOException {
+            return listResultFromJsonParser(parser, LIST_NODE, VideoType.DetailsMovie::new);
+        }
+
         @Override
         public ApiList<VideoType.DetailsMovie> resultFromJson(ObjectNode jsonObject)
                 throws ApiException {
@@ -194,6 +203,11 @@ public class VideoLibrary {
             return METHOD_NAME;
         }
 
+        @Override
+        protected int getDefaultLane() {
+            return RequestScheduler.LANE_INTERACTIVE;
+        }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -237,6 +251,12 @@ public class VideoLibrary {
             return METHOD_NAME;
         }
 
+        @Override
+        protected ApiList<VideoType.DetailsTVShow> resultFromJsonParser(JsonParser parser)
+                throws IOException {
+            return listResultFromJsonParser(parser, LIST_NODE, VideoType.DetailsTVShow::new);
+        }
+
         @Override
         public ApiList<VideoType.DetailsTVShow> resultFromJson(ObjectNode jsonObject)
                 throws ApiException {
@@ -312,6 +332,11 @@ public class VideoLibrary {
             return METHOD_NAME;
         }
 
+        @Override
+        protected int getDefaultLane() {
+            return RequestScheduler.LANE_INTERACTIVE;
+        }
+
         @Override
         public String resultFromJson(ObjectNode jsonObject) throws ApiException {
             return jsonObject.get(RESULT_NODE).textValue();
@@ -344,6 +369,12 @@ public class VideoLibrary {
             return METHOD_NAME;
         }
 
+        @Override
+        protected List<VideoType.DetailsSeason> resultFromJsonParser(JsonParser parser)
+                throws IOException {
+            return listResultFromJsonParser(parser, LIST_NODE, VideoType.DetailsSeason::new).items;
+        }
+
         @Override
         public List<VideoType.DetailsSeason> resultFromJson(ObjectNode jsonObject)
                 throws ApiException {
@@ -405,6 +436,12 @@ public class VideoLibrary {
             return METHOD_NAME;
         }
 
+        @Override
+        protected List<VideoType.DetailsEpisode> resultFromJsonParser(JsonParser parser)
+                throws IOException {
+            return listResultFromJsonParser(parser, LIST_NODE, VideoType.DetailsEpisode::new).items;
+        }
+
         @Override
         public List<VideoType.DetailsEpisode> resultFromJson(ObjectNode jsonObject)
                 throws ApiException {
@@ -449,6 +486,12 @@ public class VideoLibrary {
             return METHOD_NAME;
         }
 
+        @Override
+        protected List<VideoType.DetailsMusicVideo> resultFromJsonParser(JsonParser parser)
+                throws IOException {
+            return listResultFromJsonParser(parser, LIST_NODE, VideoType.DetailsMusicVideo::new).items;
+        }
+
         @Override
         public List<VideoType.DetailsMusicVideo> resultFromJson(ObjectNode jsonObject)
                 throws ApiException {
@@ -15,6 +15,7 @@
  */
 package org.xbmc.kore.jsonrpc.notification;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.xbmc.kore.jsonrpc.ApiNotification;
@@ -43,15 +44,27 @@ public class Playlist {
         public String getNotificationName() { return NOTIFICATION_NAME; }
     }
 
+    /**
+     * Playlist.OnAdd notification
+     * Item has been added to the playlist
+     */
     public static class OnAdd extends ApiNotification {
         public static final String NOTIFICATION_NAME = "Playlist.OnAdd";
 
         public final int playlistId;
+        /** Position of the item in the playlist, or -1 if not sent */
+        public final int position;
+        public final int itemId;
+        public final String itemType;
 
         public OnAdd(ObjectNode node) {
             super(node);
             ObjectNode dataNode = (ObjectNode)node.get("data");
             playlistId = JsonUtils.intFromJsonNode(dataNode, "playlistid");
+            position = JsonUtils.intFromJsonNode(dataNode, "position", -1);
+            JsonNode itemNode = dataNode.get("item");
+            itemId = JsonUtils.intFromJsonNode(itemNode, "id", -1);
+            itemType = JsonUtils.stringFromJsonNode(itemNode, "type");
         }
 
         @Override
@@ -60,15 +73,22 @@ public class Playlist {
         }
     }
 
+    /**
+     * Playlist.OnRemove notification
+     * Item has been removed from the playlist
+     */
     public static class OnRemove extends ApiNotification {
         public static final String NOTIFICATION_NAME = "Playlist.OnRemove";
 
         public final int playlistId;
+        /** Position of the removed item in the playlist, or -1 if not sent */
+        public final int position;
 
         public OnRemove(ObjectNode node) {
             super(node);
             ObjectNode dataNode = (ObjectNode)node.get("data");
             playlistId = JsonUtils.intFromJsonNode(dataNode, "playlistid");
+            position = JsonUtils.intFromJsonNode(dataNode, "position", -1);
         }
 
         @Override
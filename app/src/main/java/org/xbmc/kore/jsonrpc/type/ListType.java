@@ -23,6 +23,7 @@ import androidx.annotation.Nullable;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import org.xbmc.kore.utils.JsonUtils;
@@ -307,6 +308,8 @@ public class ListType {
         public static final String LOCKED = "locked";
         public static final String STARTTIME = "starttime";
 
+        private static final ObjectMapper objectMapper = new ObjectMapper();
+
         // class members
         public final String channel;
         public final int channelnumber;
@@ -327,6 +330,124 @@ public class ListType {
             locked = JsonUtils.booleanFromJsonNode(node, LOCKED, false);
             starttime = JsonUtils.stringFromJsonNode(node, STARTTIME, null);
         }
+
+        /**
+         * Returns a node with the fields of this item, from which it can be read again. Stream details aren't
+         * included, as they are only shown in the details of each media type, which read them again
+         */
+        public JsonNode toJsonNode() {
+            final ObjectNode node = objectMapper.createObjectNode();
+            putString(node, ALBUM, album);
+            putList(node, ALBUMARTIST, albumartist);
+            putList(node, ALBUMARTISTID, albumartistid);
+            node.put(ALBUMID, albumid);
+            putString(node, ALBUMLABEL, albumlabel);
+            if (art != null) {
+                ObjectNode artNode = node.putObject(ART);
+                putString(artNode, MediaType.Artwork.BANNER, art.banner);
+                putString(artNode, MediaType.Artwork.FANART, art.fanart);
+                putString(artNode, MediaType.Artwork.POSTER, art.poster);
+                putString(artNode, MediaType.Artwork.THUMB, art.thumb);
+            }
+            putList(node, ARTIST, artist);
+            putList(node, ARTISTID, artistid);
+            if (cast != null && !cast.isEmpty()) {
+                ArrayNode castNode = node.putArray(CAST);
+                for (VideoType.Cast member : cast) {
+                    ObjectNode memberNode = castNode.addObject();
+                    putString(memberNode, VideoType.Cast.NAME, member.name);
+                    memberNode.put(VideoType.Cast.ORDER, member.order);
+                    putString(memberNode, VideoType.Cast.ROLE, member.role);
+                    putString(memberNode, VideoType.Cast.THUMBNAIL, member.thumbnail);
+                }
+            }
+            putString(node, COMMENT, comment);
+            putList(node, COUNTRY, country);
+            putString(node, DATEADDED, dateadded);
+            putString(node, DESCRIPTION, description);
+            putList(node, DIRECTOR, director);
+            node.put(DISC, disc);
+            putString(node, DISPLAYARTIST, displayartist);
+            node.put(DURATION, duration);
+            node.put(EPISODE, episode);
+            putString(node, EPISODEGUIDE, episodeguide);
+            putString(node, FANART, fanart);
+            putString(node, FILE, file);
+            putString(node, FIRSTAIRED, firstaired);
+            putList(node, GENRE, genre);
+            putList(node, GENREID, genreid);
+            node.put(ID, id);
+            putString(node, IMDBNUMBER, imdbnumber);
+            putString(node, LABEL, label);
+            putString(node, LASTPLAYED, lastplayed);
+            putString(node, LYRICS, lyrics);
+            putList(node, MOOD, mood);
+            putString(node, MPAA, mpaa);
+            putString(node, MUSICBRAINZALBUMARTISTID, musicbrainzalbumartistid);
+            putString(node, MUSICBRAINZALBUMID, musicbrainzalbumid);
+            putString(node, MUSICBRAINZARTISTID, musicbrainzartistid);
+            putString(node, MUSICBRAINZTRACKID, musicbrainztrackid);
+            putString(node, ORIGINALTITLE, originaltitle);
+            node.put(PLAYCOUNT, playcount);
+            putString(node, PLOT, plot);
+            putString(node, PLOTOUTLINE, plotoutline);
+            putString(node, PREMIERED, premiered);
+            putString(node, PRODUCTIONCODE, productioncode);
+            node.put(RATING, rating);
+            if (resume != null) {
+                node.putObject(RESUME)
+                    .put(VideoType.Resume.POSITION, resume.position)
+                    .put(VideoType.Resume.TOTAL, resume.total);
+            }
+            node.put(RUNTIME, runtime);
+            node.put(SEASON, season);
+            putString(node, SET, set);
+            node.put(SETID, setid);
+            putList(node, SHOWLINK, showlink);
+            putString(node, SHOWTITLE, showtitle);
+            putString(node, SORTTITLE, sorttitle);
+            putList(node, STUDIO, studio);
+            putList(node, STYLE, style);
+            putList(node, TAG, tag);
+            putString(node, TAGLINE, tagline);
+            putList(node, THEME, theme);
+            putString(node, THUMBNAIL, thumbnail);
+            putString(node, TITLE, title);
+            node.put(TOP250, top250);
+            node.put(TRACK, track);
+            putString(node, TRAILER, trailer);
+            node.put(TVSHOWID, tvshowid);
+            putString(node, TYPE, type);
+            putString(node, VOTES, votes);
+            node.put(WATCHEDEPISODES, watchedepisodes);
+            putList(node, WRITER, writer);
+            node.put(YEAR, year);
+
+            putString(node, CHANNEL, channel);
+            node.put(CHANNELNUMBER, channelnumber);
+            putString(node, CHANNELTYPE, channeltype);
+            putString(node, ENDTIME, endtime);
+            node.put(HIDDEN, hidden);
+            node.put(LOCKED, locked);
+            putString(node, STARTTIME, starttime);
+            return node;
+        }
+
+        private static void putString(ObjectNode node, String field, String value) {
+            if (value != null) node.put(field, value);
+        }
+
+        private static void putList(ObjectNode node, String field, List<?> values) {
+            if (values == null || values.isEmpty()) return;
+            ArrayNode array = node.putArray(field);
+            for (Object value : values) {
+                if (value instanceof Integer) {
+                    array.add((Integer) value);
+                } else {
+                    array.add(String.valueOf(value));
+                }
+            }
+        }
     }
 
     /**
@@ -356,20 +477,43 @@ public class ListType {
     }
 
     public static class LimitsReturned {
+        public static final String LIMITS = "limits";
+
         public int start = -1;
         public int end = -1;
         public int total = -1;
 
+        /**
+         * Creates an empty limits object, used when the response doesn't contain limits
+         */
+        public LimitsReturned() {
+        }
+
+        /**
+         * Creates the limits object from a method response
+         * @param jsonNode The whole response, whose result node contains the limits node
+         */
         public LimitsReturned(ObjectNode jsonNode) {
-            JsonNode resultNode = jsonNode.get("result");
-            JsonNode item = resultNode.has("limits") ? resultNode.get("limits") : null;
-            if (item == null) {
+            this(getLimitsNode(jsonNode));
+        }
+
+        /**
+         * Creates the limits object from the limits node itself. Limits not in the node are -1
+         * @param limitsNode The limits node, child of the result node. Can be null
+         */
+        public LimitsReturned(JsonNode limitsNode) {
+            if (limitsNode == null || !limitsNode.isObject()) {
                 return;
             }
 
-            start = JsonUtils.intFromJsonNode(item, "start");
-            end = JsonUtils.intFromJsonNode(item, "end");
-            total = JsonUtils.intFromJsonNode(item, "total");
+            start = JsonUtils.intFromJsonNode(limitsNode, "start", -1);
+            end = JsonUtils.intFromJsonNode(limitsNode, "end", -1);
+            total = JsonUtils.intFromJsonNode(limitsNode, "total", -1);
+        }
+
+        private static JsonNode getLimitsNode(ObjectNode jsonNode) {
+            JsonNode resultNode = jsonNode.get("result");
+            return (resultNode != null) ? resultNode.get(LIMITS) : null;
         }
 
         @NonNull
@@ -49,10 +49,20 @@ public class PlayerType {
          */
         public final String type;
 
+        private final JsonNode node;
+
         public GetActivePlayersReturnType(JsonNode node) {
+            this.node = node;
             playerid = node.has(PLAYERID) ? node.get(PLAYERID).asInt(-1) : -1;
             type = node.has(TYPE) ? node.get(TYPE).textValue() : null;
         }
+
+        /**
+         * Returns the node this result was read from, from which it can be read again
+         */
+        public JsonNode toJsonNode() {
+            return node;
+        }
     }
 
     /**
@@ -153,8 +163,10 @@ public class PlayerType {
         public final GlobalType.Time totaltime;
         public final String type;
 
+        private final JsonNode node;
 
         public PropertyValue(JsonNode node) {
+            this.node = node;
             audiostreams = node.has(AUDIOSTREAMS) ? AudioStream.getListAudioStream(node.get(AUDIOSTREAMS)) : null;
             canchangespeed = JsonUtils.booleanFromJsonNode(node, CANCHANGESPEED, false);
             canmove = JsonUtils.booleanFromJsonNode(node, CANMOVE, false);
@@ -179,6 +191,13 @@ public class PlayerType {
             totaltime = node.has(TOTALTIME) ? new GlobalType.Time(node.get(TOTALTIME)) : null;
             type = JsonUtils.stringFromJsonNode(node, TYPE, "video");
         }
+
+        /**
+         * Returns the node these properties were read from, from which they can be read again
+         */
+        public JsonNode toJsonNode() {
+            return node;
+        }
     }
 
     /**
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.provider;
+
+import android.content.ContentValues;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.HashMap;
+
+/**
+ * Inserts rows in a table of the media database through compiled INSERT statements, binding the values
+ * of each row directly.
+ * Unlike {@link SQLiteDatabase#insertOrThrow(String, String, ContentValues)}, the SQL is built and compiled
+ * once per set of columns instead of once per row, and rows don't need to be boxed in a {@link ContentValues}.
+ * <p>
+ * Instances are handed by {@link MediaProvider#bulkInsert(android.net.Uri, MediaProvider.BulkInsertRows)},
+ * which runs them in a transaction. To insert a row, select its columns with {@link #columns(String...)},
+ * bind each one by its position in those columns and call {@link #insert()}.
+ * Not thread safe.
+ */
+public class BulkInserter {
+    private final SQLiteDatabase db;
+    private final String table;
+    private final long updateTime;
+
+    private final HashMap<String, Statement> statements = new HashMap<>();
+    private Statement current;
+    private int count;
+
+    /**
+     * A compiled INSERT for a set of columns
+     */
+    private static class Statement {
+        final String[] columns;
+        final SQLiteStatement statement;
+        // Bind index of the UPDATED column, 0 if it isn't set by the statement
+        final int updatedIndex;
+
+        Statement(String[] columns, SQLiteStatement statement, int updatedIndex) {
+            this.columns = columns;
+            this.statement = statement;
+            this.updatedIndex = updatedIndex;
+        }
+    }
+
+    /**
+     * Creates a bulk inserter
+     * @param db Database, with a transaction already started
+     * @param table Table to insert in
+     * @param updateTime Value of {@link MediaContract.SyncColumns#UPDATED} for every row, or -1 if the table
+     *                   doesn't have that column
+     */
+    BulkInserter(SQLiteDatabase db, String table, long updateTime) {
+        this.db = db;
+        this.table = table;
+        this.updateTime = updateTime;
+    }
+
+    /**
+     * Selects the columns of the next rows, compiling the statement for them if this is the first time
+     * they are used
+     * @param columns Columns, in the order they'll be bound
+     * @return This inserter
+     */
+    public BulkInserter columns(String... columns) {
+        String key = String.join(",", columns);
+        current = statements.get(key);
+        if (current == null) {
+            current = compile(columns.clone());
+            statements.put(key, current);
+        }
+        return this;
+    }
+
+    private Statement compile(String[] columns) {
+        boolean setUpdated = updateTime != -1;
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append('(');
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) sql.append(',');
+            sql.append(columns[i]);
+            if (columns[i].equals(MediaContract.SyncColumns.UPDATED)) {
+                setUpdated = false;
+            }
+        }
+        int bindCount = columns.length;
+        if (setUpdated) {
+            sql.append(',').append(MediaContract.SyncColumns.UPDATED);
+            bindCount++;
+        }
+        sql.append(") VALUES (");
+        for (int i = 0; i < bindCount; i++) {
+            sql.append(i > 0 ? ",?" : "?");
+        }
+        sql.append(')');
+
+        return new Statement(columns, db.compileStatement(sql.toString()), setUpdated ? bindCount : 0);
+    }
+
+    /**
+     * Binds a value to a column of the current row
+     * @param column Position of the column in {@link #columns(String...)}
+     * @param value Value
+     * @return This inserter
+     */
+    public BulkInserter bindLong(int column, long value) {
+        current.statement.bindLong(column + 1, value);
+        return this;
+    }
+
+    /**
+     * Binds a value to a column of the current row
+     * @param column Position of the column in {@link #columns(String...)}
+     * @param value Value
+     * @return This inserter
+     */
+    public BulkInserter bindDouble(int column, double value) {
+        current.statement.bindDouble(column + 1, value);
+        return this;
+    }
+
+    /**
+     * Binds a value to a column of the current row
+     * @param column Position of the column in {@link #columns(String...)}
+     * @param value Value, can be null
+     * @return This inserter
+     */
+    public BulkInserter bindString(int column, String value) {
+        if (value == null) {
+            current.statement.bindNull(column + 1);
+        } else {
+            current.statement.bindString(column + 1, value);
+        }
+        return this;
+    }
+
+    /**
+     * Inserts the current row and clears its bindings, so that unbound columns of the next row are null
+     * @return Row id of the inserted row
+     */
+    public long insert() {
+        if (current.updatedIndex > 0) {
+            current.statement.bindLong(current.updatedIndex, updateTime);
+        }
+        long rowId = current.statement.executeInsert();
+        current.statement.clearBindings();
+        if (rowId == -1) {
+            throw new IllegalStateException("Couldn't insert row in " + table);
+        }
+        count++;
+        return rowId;
+    }
+
+    /**
+     * Inserts a row from {@link ContentValues}, reusing the statement of the previous row if it has the
+     * same columns
+     * @param values Values of the row
+     * @return Row id of the inserted row
+     */
+    public long insert(ContentValues values) {
+        if (!hasColumns(values)) {
+            columns(values.keySet().toArray(new String[0]));
+        }
+
+        String[] columns = current.columns;
+        for (int i = 0; i < columns.length; i++) {
+            Object value = values.get(columns[i]);
+            if (value == null) {
+                current.statement.bindNull(i + 1);
+            } else if (value instanceof Double || value instanceof Float) {
+                current.statement.bindDouble(i + 1, ((Number) value).doubleValue());
+            } else if (value instanceof Number) {
+                current.statement.bindLong(i + 1, ((Number) value).longValue());
+            } else if (value instanceof Boolean) {
+                current.statement.bindLong(i + 1, (Boolean) value ? 1 : 0);
+            } else if (value instanceof byte[]) {
+                current.statement.bindBlob(i + 1, (byte[]) value);
+            } else {
+                current.statement.bindString(i + 1, value.toString());
+            }
+        }
+        return insert();
+    }
+
+    private boolean hasColumns(ContentValues values) {
+        if (current == null || current.columns.length != values.size()) return false;
+        for (String column : current.columns) {
+            if (!values.containsKey(column)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return Number of rows inserted so far
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Releases the compiled statements
+     */
+    void close() {
+        for (Statement statement : statements.values()) {
+            statement.statement.close();
+        }
+        statements.clear();
+        current = null;
+    }
+}
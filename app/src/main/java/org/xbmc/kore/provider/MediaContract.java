@@ -32,6 +32,27 @@ public class MediaContract {
      */
     public static final String LIMIT_QUERY = "limit";
 
+    /**
+     * Query parameter that makes list URIs return, instead of the list, a single row with the number of items
+     * in it, in the {@link #COUNT} column. Set it to true
+     */
+    public static final String COUNT_QUERY = "count";
+    public static final String COUNT = "_count";
+
+    /**
+     * Query parameter that makes list URIs return the alphabetical section index of the list instead of the list.
+     * Sections are the first letter of the first column of the projection, which the list must be sorted by,
+     * ascending and case insensitively. A row is returned per section, in list order, with its letter in
+     * {@link #SECTION} and its number of items in {@link #COUNT}. Set it to true
+     */
+    public static final String SECTIONS_QUERY = "sections";
+    public static final String SECTION = "section";
+
+    /**
+     * Query parameter with the text to search for in search URIs. See {@link Search}
+     */
+    public static final String SEARCH_QUERY = "q";
+
     /**
      * Paths to tables
      */
@@ -50,6 +71,7 @@ public class MediaContract {
     public static final String PATH_ALBUM_ARTISTS = "album_artists";
     public static final String PATH_ALBUM_GENRES = "album_genres";
     public static final String PATH_MUSIC_VIDEOS = "music_videos";
+    public static final String PATH_SEARCH = "search";
 
     /** Last time this entry was updated or synchronized. */
     public interface SyncColumns {
@@ -119,6 +141,8 @@ public class MediaContract {
         String POSTER = "thumbnail";
         String PLAYCOUNT = "playcount";
         String TITLE = "title";
+        /** {@link #TITLE} with its sort tokens moved to the end. See {@link MediaDatabase#sortTitle(String)} */
+        String SORT_TITLE = "sort_title";
         String FILE = "file";
         String PLOT = "plot";
         String DIRECTOR = "director";
@@ -183,7 +207,7 @@ public class MediaContract {
                 DIRECTOR, RUNTIME, AUDIO_CHANNELS, AUDIO_CODEC, AUDIO_LANGUAGE,
                 SUBTITLES_LANGUAGES, VIDEO_ASPECT, VIDEO_CODEC, VIDEO_HEIGHT, VIDEO_WIDTH,
                 COUNTRIES, GENRES, IMDBNUMBER, MPAA, RATING, SET, SETID, STUDIOS, TAGLINE,
-                TOP250, TRAILER, VOTES, WRITERS, YEAR, DATEADDED
+                TOP250, TRAILER, VOTES, WRITERS, YEAR, DATEADDED, SORT_TITLE
         };
     }
 
@@ -230,6 +254,7 @@ public class MediaContract {
         String POSTER = "thumbnail";
         String PLAYCOUNT = "playcount";
         String TITLE = "title";
+        String SORT_TITLE = "sort_title";
         String DATEADDED = "dateadded";
         String LASTPLAYED = "lastplayed";
         String FILE = "file";
@@ -277,7 +302,7 @@ public class MediaContract {
         public final static String[] ALL_COLUMNS = {
                 _ID, UPDATED, HOST_ID, TVSHOWID, FANART, POSTER, PLAYCOUNT, TITLE, DATEADDED,
                 FILE, PLOT, EPISODE, IMDBNUMBER, MPAA, PREMIERED, RATING, STUDIO,
-                WATCHEDEPISODES, GENRES, VOTES
+                WATCHEDEPISODES, GENRES, VOTES, SORT_TITLE
         };
     }
 
@@ -481,6 +506,7 @@ public class MediaContract {
         String ARTISTID = "artistid";
 
         String ARTIST = "artist";
+        String SORT_ARTIST = "sort_artist";
         String DESCRIPTION = "description";
         String GENRE = "genre";
         String FANART = "fanart";
@@ -518,6 +544,7 @@ public class MediaContract {
 
         public final static String[] ALL_COLUMNS = {
                 _ID, UPDATED, HOST_ID, ARTISTID, ARTIST, DESCRIPTION, GENRE, FANART, THUMBNAIL,
+                SORT_ARTIST,
         };
     }
 
@@ -534,6 +561,7 @@ public class MediaContract {
         String DISPLAYARTIST = "displayartist";
         String RATING = "rating";
         String TITLE = "title";
+        String SORT_TITLE = "sort_title";
         String YEAR = "year";
         String ALBUMLABEL = "albumlabel";
         String DESCRIPTION = "description";
@@ -590,7 +618,7 @@ public class MediaContract {
 
         public final static String[] ALL_COLUMNS = {
                 _ID, UPDATED, HOST_ID, ALBUMID, FANART, THUMBNAIL, DISPLAYARTIST, RATING, TITLE,
-                YEAR, ALBUMLABEL, DESCRIPTION, PLAYCOUNT, GENRE
+                YEAR, ALBUMLABEL, DESCRIPTION, PLAYCOUNT, GENRE, SORT_TITLE
         };
     }
 
@@ -609,6 +637,7 @@ public class MediaContract {
         String TRACK = "track";
         String TITLE = "title";
         String DISC = "disc";
+        String SORT_TITLE = "sort_title";
     }
 
     public static class Songs implements BaseColumns, SyncColumns, SongsColumns {
@@ -654,7 +683,7 @@ public class MediaContract {
         }
 
         public final static String[] ALL_COLUMNS = {
-                _ID, UPDATED, HOST_ID, ALBUMID, SONGID, DURATION, THUMBNAIL, FILE, TRACK, TITLE, DISC
+                _ID, UPDATED, HOST_ID, ALBUMID, SONGID, DURATION, THUMBNAIL, FILE, TRACK, TITLE, DISC, SORT_TITLE
         };
     }
 
@@ -883,4 +912,89 @@ public class MediaContract {
         };
     }
 
+    /**
+     * Columns returned by the search across all types of items.
+     * See {@link Search#buildSearchAllUri(long, String)}
+     */
+    public interface SearchColumns {
+        /** Type of item, one of {@link Search#ALL_TYPES} */
+        String TYPE = "type";
+        /** Kodi id of the item, eg. {@link MoviesColumns#MOVIEID} for movies */
+        String ITEMID = "itemid";
+        /** Kodi id of the item's tv show for episodes, and of its album for songs. Null otherwise */
+        String PARENTID = "parentid";
+        String TITLE = "title";
+        /** Secondary line: year, premiere date, show title, genre or artist, depending on the type */
+        String DETAILS = "details";
+        String THUMBNAIL = "thumbnail";
+    }
+
+    /**
+     * Full text search of the local library. Matches items with words starting with each of the words
+     * searched for, in their titles, artists, albums, plots, cast and genres.
+     * Unless a sort order is given, items whose title starts with the search are returned first, then
+     * the ones with a word of the title starting with it, and then the others, each sorted by title.
+     * Search URIs of a type of item return the same columns as the corresponding list URIs, the search
+     * URI across all types returns {@link SearchColumns}.
+     */
+    public static class Search implements BaseColumns, SearchColumns {
+        public static final String CONTENT_TYPE =
+                "vnd.android.cursor.dir/vnd.org.xbmc." + PATH_SEARCH;
+
+        /**
+         * Types of items returned by the search across all types, in the order they're returned
+         */
+        public static final String[] ALL_TYPES = {
+                PATH_MOVIES, PATH_TVSHOWS, PATH_EPISODES, PATH_ARTISTS, PATH_ALBUMS, PATH_SONGS, PATH_MUSIC_VIDEOS
+        };
+
+        /**
+         * Items of each type returned by the search across all types, unless a {@link #LIMIT_QUERY} is given
+         */
+        public static final int DEFAULT_LIMIT_PER_TYPE = 5;
+
+        /**
+         * Build {@link Uri} to search all types of items in {@link #ALL_TYPES} at once.
+         * The best ranked items of each type are returned, grouped by type. The number of items
+         * of each type can be set with the {@link #LIMIT_QUERY} query parameter
+         * @param hostId Host id
+         * @param query Text to search for
+         */
+        public static Uri buildSearchAllUri(long hostId, String query) {
+            return Hosts.buildHostUri(hostId).buildUpon()
+                        .appendPath(PATH_SEARCH)
+                        .appendQueryParameter(SEARCH_QUERY, query)
+                        .build();
+        }
+
+        /**
+         * Build {@link Uri} to search a type of item
+         * @param hostId Host id
+         * @param path Type of item to search, one of {@link #PATH_MOVIES}, {@link #PATH_TVSHOWS},
+         *             {@link #PATH_EPISODES}, {@link #PATH_ARTISTS}, {@link #PATH_ALBUMS},
+         *             {@link #PATH_SONGS}, {@link #PATH_AUDIO_GENRES} or {@link #PATH_MUSIC_VIDEOS}
+         * @param query Text to search for
+         */
+        public static Uri buildSearchUri(long hostId, String path, String query) {
+            return Hosts.buildHostUri(hostId).buildUpon()
+                        .appendPath(PATH_SEARCH)
+                        .appendPath(path)
+                        .appendQueryParameter(SEARCH_QUERY, query)
+                        .build();
+        }
+
+        /** Read the type of item searched from a {@link Search} {@link Uri}. */
+        public static String getSearchPath(Uri uri) {
+            return uri.getPathSegments().get(3);
+        }
+
+        /** Read the text searched from a {@link Search} {@link Uri}. */
+        public static String getSearchQuery(Uri uri) {
+            return uri.getQueryParameter(SEARCH_QUERY);
+        }
+
+        public final static String[] ALL_COLUMNS = {
+                _ID, TYPE, ITEMID, PARENTID, TITLE, DETAILS, THUMBNAIL
+        };
+    }
 }
@@ -16,9 +16,14 @@
 package org.xbmc.kore.provider;
 
 import android.content.Context;
+import android.database.Cursor;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.provider.BaseColumns;
+import android.text.TextUtils;
+
+import androidx.annotation.VisibleForTesting;
 
 import org.xbmc.kore.host.HostInfo;
 import org.xbmc.kore.utils.LogUtils;
@@ -41,7 +46,11 @@ public class MediaDatabase extends SQLiteOpenHelper {
             DB_VERSION_PRE_LAST_PLAYED = 10,
             DB_VERSION_PER_HOST_DIRECT_SHARE_TARGET = 11,
             DB_VERSION_PRE_VOTES_ON_TV_SHOW = 12,
-            DB_VERSION = 13;
+            DB_VERSION_PRE_SEARCH_INDEX = 13,
+            DB_VERSION_PRE_JOIN_INDEXES = 14,
+            DB_VERSION_PRE_SORT_TITLES = 15,
+            DB_VERSION_PRE_SONG_SORT_TITLES = 16,
+            DB_VERSION = 17;
 
 	/**
 	 * Tables exposed
@@ -63,6 +72,11 @@ public class MediaDatabase extends SQLiteOpenHelper {
         String ALBUM_GENRES = "album_genres";
         String MUSIC_VIDEOS = "music_videos";
 
+        /**
+         * Suffix of the full text search table of each searchable table. See {@link #SEARCH_INDEXES}
+         */
+        String SEARCH_SUFFIX = "_fts";
+
         /**
          * Join to get Albums for an Artist
          */
@@ -136,10 +150,100 @@ public class MediaDatabase extends SQLiteOpenHelper {
                 "REFERENCES " + Tables.SONGS + "(" + MediaContract.Songs.SONGID + ")";
     }
 
+    /**
+     * Full text search index of a table, an FTS4 table that uses the table as its content and is kept
+     * in sync with it by triggers
+     */
+    private static class SearchIndex {
+        final String table;
+        final String[] columns;
+
+        SearchIndex(String table, String... columns) {
+            this.table = table;
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * Searchable tables and the columns indexed on each
+     */
+    private static final SearchIndex[] SEARCH_INDEXES = {
+            new SearchIndex(Tables.MOVIES,
+                            MediaContract.MoviesColumns.TITLE, MediaContract.MoviesColumns.GENRES,
+                            MediaContract.MoviesColumns.DIRECTOR, MediaContract.MoviesColumns.PLOT),
+            new SearchIndex(Tables.MOVIE_CAST, MediaContract.MovieCastColumns.NAME),
+            new SearchIndex(Tables.TVSHOWS,
+                            MediaContract.TVShowsColumns.TITLE, MediaContract.TVShowsColumns.GENRES,
+                            MediaContract.TVShowsColumns.PLOT),
+            new SearchIndex(Tables.TVSHOWS_CAST, MediaContract.TVShowCastColumns.NAME),
+            new SearchIndex(Tables.EPISODES,
+                            MediaContract.EpisodesColumns.TITLE, MediaContract.EpisodesColumns.SHOWTITLE,
+                            MediaContract.EpisodesColumns.PLOT),
+            new SearchIndex(Tables.ARTISTS,
+                            MediaContract.ArtistsColumns.ARTIST, MediaContract.ArtistsColumns.GENRE),
+            new SearchIndex(Tables.ALBUMS,
+                            MediaContract.AlbumsColumns.TITLE, MediaContract.AlbumsColumns.DISPLAYARTIST,
+                            MediaContract.AlbumsColumns.GENRE),
+            new SearchIndex(Tables.SONGS,
+                            MediaContract.SongsColumns.TITLE, MediaContract.SongsColumns.DISPLAYARTIST),
+            new SearchIndex(Tables.AUDIO_GENRES, MediaContract.AudioGenresColumns.TITLE),
+            new SearchIndex(Tables.MUSIC_VIDEOS,
+                            MediaContract.MusicVideosColumns.TITLE, MediaContract.MusicVideosColumns.ARTIST,
+                            MediaContract.MusicVideosColumns.ALBUM, MediaContract.MusicVideosColumns.GENRES,
+                            MediaContract.MusicVideosColumns.PLOT),
+    };
+
+    /**
+     * Page cache of the write connection, in KiB. The library sync writes lots of rows and updates
+     * several indexes for each one, which doesn't fit the default 2 MB
+     */
+    private static final int CACHE_SIZE_KB = 8 * 1024;
+
     public MediaDatabase(Context context) {
-		super(context, DB_NAME, null, DB_VERSION);
+		this(context, DB_NAME);
 	}
 
+    @VisibleForTesting
+    public MediaDatabase(Context context, String name) {
+        super(context, name, null, DB_VERSION);
+        // Lists are read while the library syncs, with write ahead logging readers get their own
+        // connections and don't wait for the sync transactions
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        // Rows replaced on conflict only fire the delete triggers that keep the search index in sync
+        // with recursive triggers on
+        db.execSQL("PRAGMA recursive_triggers = ON;");
+        db.execSQL("PRAGMA cache_size = -" + CACHE_SIZE_KB + ";");
+        if (db.isWriteAheadLoggingEnabled()) {
+            // A transaction committed right before a power loss can be lost, which is fine for a copy
+            // of the Kodi library, but the database can't be corrupted, and commits don't wait on fsync
+            // The framework already limits the size of the log on each connection
+            db.execSQL("PRAGMA synchronous = NORMAL;");
+        }
+    }
+
+    /**
+     * Copies the write ahead log to the database and truncates it. While syncing, SQLite checkpoints
+     * passively as the log grows, without waiting for readers, so the log can end up large. Call this
+     * once the sync finishes, so that readers don't go through it.
+     */
+    public void checkpoint() {
+        SQLiteDatabase db = getWritableDatabase();
+        if (!db.isWriteAheadLoggingEnabled()) return;
+
+        long startTime = System.currentTimeMillis();
+        // Returns busy, number of pages in the log and number of pages checkpointed
+        try (Cursor cursor = db.rawQuery("PRAGMA wal_checkpoint(TRUNCATE);", null)) {
+            if (cursor.moveToFirst()) {
+                LogUtils.LOGD(TAG, "Checkpoint finished in (ms): " + (System.currentTimeMillis() - startTime) +
+                                   ". Busy: " + cursor.getInt(0) + ", pages checkpointed: " + cursor.getInt(2));
+            }
+        }
+    }
+
 	@Override
 	public void onCreate(SQLiteDatabase db) {
 
@@ -176,6 +280,7 @@ public class MediaDatabase extends SQLiteOpenHelper {
                    MediaContract.MoviesColumns.POSTER + " TEXT, " +
                    MediaContract.MoviesColumns.PLAYCOUNT + " INTEGER, " +
                    MediaContract.MoviesColumns.TITLE + " TEXT, " +
+                   MediaContract.MoviesColumns.SORT_TITLE + " TEXT, " +
                    MediaContract.MoviesColumns.FILE + " TEXT, " +
                    MediaContract.MoviesColumns.PLOT + " TEXT, " +
                    MediaContract.MoviesColumns.DIRECTOR + " TEXT, " +
@@ -234,6 +339,7 @@ public class MediaDatabase extends SQLiteOpenHelper {
                    MediaContract.TVShowsColumns.POSTER + " TEXT, " +
                    MediaContract.TVShowsColumns.PLAYCOUNT + " INTEGER, " +
                    MediaContract.TVShowsColumns.TITLE + " TEXT, " +
+                   MediaContract.TVShowsColumns.SORT_TITLE + " TEXT, " +
                    MediaContract.TVShowsColumns.DATEADDED + " TEXT, " +
                    MediaContract.TVShowsColumns.LASTPLAYED + " TEXT, " +
                    MediaContract.TVShowsColumns.FILE + " TEXT, " +
@@ -334,6 +440,7 @@ public class MediaDatabase extends SQLiteOpenHelper {
                    MediaContract.ArtistsColumns.HOST_ID + " INTEGER NOT NULL " + References.HOST_ID + ", " +
                    MediaContract.ArtistsColumns.ARTISTID + " INTEGER NOT NULL, " +
                    MediaContract.ArtistsColumns.ARTIST + " TEXT, " +
+                   MediaContract.ArtistsColumns.SORT_ARTIST + " TEXT, " +
                    MediaContract.ArtistsColumns.DESCRIPTION + " TEXT, " +
                    MediaContract.ArtistsColumns.GENRE + " TEXT, " +
                    MediaContract.ArtistsColumns.FANART + " TEXT, " +
@@ -355,6 +462,7 @@ public class MediaDatabase extends SQLiteOpenHelper {
                    MediaContract.AlbumsColumns.DISPLAYARTIST + " TEXT, " +
                    MediaContract.AlbumsColumns.RATING + " INTEGER, " +
                    MediaContract.AlbumsColumns.TITLE + " TEXT, " +
+                   MediaContract.AlbumsColumns.SORT_TITLE + " TEXT, " +
                    MediaContract.AlbumsColumns.YEAR + " INTEGER, " +
                    MediaContract.AlbumsColumns.ALBUMLABEL + " TEXT, " +
                    MediaContract.AlbumsColumns.DESCRIPTION + " TEXT, " +
@@ -380,6 +488,7 @@ public class MediaDatabase extends SQLiteOpenHelper {
                    MediaContract.SongsColumns.TRACK + " INTEGER, " +
                    MediaContract.SongsColumns.TITLE + " TEXT, " +
                    MediaContract.SongsColumns.DISPLAYARTIST + " TEXT, " +
+                   MediaContract.SongsColumns.SORT_TITLE + " TEXT, " +
                    "UNIQUE (" +
                    MediaContract.SongsColumns.HOST_ID + ", " +
                    MediaContract.SongsColumns.ALBUMID + ", " +
@@ -463,7 +572,10 @@ public class MediaDatabase extends SQLiteOpenHelper {
         );
 
 
-        // TODO: Indices?
+        createSearchIndexes(db);
+        createJoinIndexes(db);
+        createSortIndexes(db);
+        createSongSortIndex(db);
 
         // Triggers on host delete
         db.execSQL(buildHostsDeleteTrigger(Tables.MOVIES, MediaContract.MoviesColumns.HOST_ID));
@@ -548,16 +660,51 @@ public class MediaDatabase extends SQLiteOpenHelper {
                 db.execSQL("ALTER TABLE " + Tables.EPISODES +
                            " ADD COLUMN " + MediaContract.EpisodesColumns.VOTES +
                            " TEXT;");
+            case DB_VERSION_PRE_SEARCH_INDEX:
+                createSearchIndexes(db);
+            case DB_VERSION_PRE_JOIN_INDEXES:
+                createJoinIndexes(db);
+            case DB_VERSION_PRE_SORT_TITLES:
+                addSortColumn(db, Tables.MOVIES, MediaContract.MoviesColumns.SORT_TITLE, MediaContract.MoviesColumns.TITLE);
+                addSortColumn(db, Tables.TVSHOWS, MediaContract.TVShowsColumns.SORT_TITLE, MediaContract.TVShowsColumns.TITLE);
+                addSortColumn(db, Tables.ARTISTS, MediaContract.ArtistsColumns.SORT_ARTIST, MediaContract.ArtistsColumns.ARTIST);
+                addSortColumn(db, Tables.ALBUMS, MediaContract.AlbumsColumns.SORT_TITLE, MediaContract.AlbumsColumns.TITLE);
+                createSortIndexes(db);
+            case DB_VERSION_PRE_SONG_SORT_TITLES:
+                addSortColumn(db, Tables.SONGS, MediaContract.SongsColumns.SORT_TITLE, MediaContract.SongsColumns.TITLE);
+                createSongSortIndex(db);
         }
 	}
 
     /**
      * Tokens to move from prefix to suffix when sorting titles
      *
-     * TODO: Extract from host's advancedsettings.xml - sortTokens if available via JSONAPI
+     * Kodi reads its sortTokens from advancedsettings.xml, which isn't available through JSONAPI.
+     * Sort columns are computed when syncing, so changing these needs a library sync to take effect
      */
     private static final String[] commonTokens = {"The", /* "An", "A" */};
 
+    /**
+     * Moves any sortTokens prefix of a title to its end, like {@link #sortCommonTokens(String)} does
+     * in SQL. Used to fill the sort columns of the tables, that are indexed so that lists sorted
+     * by them don't evaluate the expression for every row
+     *
+     * eg. title = "The Dog" -> "Dog, The"
+     *
+     * @param title Title
+     * @return Title to sort by
+     */
+    public static String sortTitle(String title) {
+        if (title == null) return null;
+
+        for (String token: commonTokens) {
+            if (title.regionMatches(true, 0, token + " ", 0, token.length() + 1)) {
+                return title.substring(token.length() + 1) + ", " + token;
+            }
+        }
+        return title;
+    }
+
     /**
      * Given column create SQLite column expression to convert any sortTokens prefixes to suffixes
      *
@@ -593,6 +740,153 @@ public class MediaDatabase extends SQLiteOpenHelper {
         return order.toString();
     }
 
+    /**
+     * Creates the full text search tables, the triggers that keep them in sync with their content tables,
+     * and indexes the existing rows
+     */
+    private void createSearchIndexes(SQLiteDatabase db) {
+        String tokenizer = getSearchTokenizer(db);
+
+        for (SearchIndex index : SEARCH_INDEXES) {
+            String searchTable = index.table + Tables.SEARCH_SUFFIX;
+            String columns = TextUtils.join(", ", index.columns);
+            String newValues = "new." + TextUtils.join(", new.", index.columns);
+
+            // Prefix indexes make the prefix queries used while typing as fast as full term queries
+            db.execSQL("CREATE VIRTUAL TABLE " + searchTable + " USING fts4(" + columns + ", " +
+                       "content=\"" + index.table + "\", prefix=\"2,3\", tokenize=" + tokenizer + ")");
+
+            // The index needs the old values to delete a row, so delete it before the content changes
+            String deleteFromIndex = " BEGIN DELETE FROM " + searchTable +
+                                     " WHERE docid=old." + BaseColumns._ID + "; END;";
+            String insertInIndex = " BEGIN INSERT INTO " + searchTable + "(docid, " + columns + ")" +
+                                   " VALUES(new." + BaseColumns._ID + ", " + newValues + "); END;";
+            db.execSQL("CREATE TRIGGER " + searchTable + "_bd BEFORE DELETE ON " + index.table + deleteFromIndex);
+            db.execSQL("CREATE TRIGGER " + searchTable + "_bu BEFORE UPDATE ON " + index.table + deleteFromIndex);
+            db.execSQL("CREATE TRIGGER " + searchTable + "_ai AFTER INSERT ON " + index.table + insertInIndex);
+            db.execSQL("CREATE TRIGGER " + searchTable + "_au AFTER UPDATE ON " + index.table + insertInIndex);
+
+            db.execSQL("INSERT INTO " + searchTable + "(" + searchTable + ") VALUES('rebuild')");
+        }
+    }
+
+    /**
+     * Returns the unicode61 tokenizer, which folds case and removes diacritics for every script,
+     * if this SQLite version supports it, or the simple one otherwise
+     */
+    private static String getSearchTokenizer(SQLiteDatabase db) {
+        try {
+            db.execSQL("CREATE VIRTUAL TABLE temp.tokenizer_check USING fts4(tokenize=unicode61)");
+            db.execSQL("DROP TABLE temp.tokenizer_check");
+            return "unicode61";
+        } catch (SQLException e) {
+            LogUtils.LOGW(TAG, "unicode61 tokenizer not available, using simple tokenizer for search");
+            return "simple";
+        }
+    }
+
+    /**
+     * Converts the text entered by the user in a full text search match expression, that matches
+     * items with words starting with each of the words entered
+     *
+     * eg. searchFilter = "star wa" -> "star*" "wa*"
+     *
+     * @param searchFilter Text entered by the user
+     * @return Match expression, or null if there's nothing to search for
+     */
+    public static String buildSearchMatch(String searchFilter) {
+        if (TextUtils.isEmpty(searchFilter)) return null;
+
+        StringBuilder match = new StringBuilder();
+        for (String term : searchFilter.split("[^\\p{L}\\p{N}]+")) {
+            if (term.isEmpty()) continue;
+            if (match.length() > 0) match.append(' ');
+            match.append('"').append(term).append("*\"");
+        }
+        return (match.length() > 0) ? match.toString() : null;
+    }
+
+    /**
+     * Returns a selection that filters the rows of a searchable table to the ones that match the
+     * search expression, using the table's full text search index. The selection takes the match
+     * expression returned by {@link #buildSearchMatch(String)} as argument.
+     * It qualifies the table's {@link BaseColumns#_ID}, so it can be used in joins
+     * @param table Searchable table, one of {@link Tables}
+     * @return Selection
+     */
+    public static String buildSearchSelection(String table) {
+        String searchTable = table + Tables.SEARCH_SUFFIX;
+        return table + "." + BaseColumns._ID + " IN (SELECT docid FROM " + searchTable +
+               " WHERE " + searchTable + " MATCH ?)";
+    }
+
+    /**
+     * Creates the indexes for the lookups and joins done by {@link MediaProvider} that the unique
+     * constraints of the tables don't cover
+     */
+    private void createJoinIndexes(SQLiteDatabase db) {
+        // Episodes of a tv show or of a season
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Tables.EPISODES + "_tvshow_idx ON " + Tables.EPISODES + "(" +
+                   MediaContract.EpisodesColumns.HOST_ID + ", " +
+                   MediaContract.EpisodesColumns.TVSHOWID + ", " +
+                   MediaContract.EpisodesColumns.SEASON + ")");
+        // Songs by song id, the unique constraint starts with the album id
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Tables.SONGS + "_songid_idx ON " + Tables.SONGS + "(" +
+                   MediaContract.SongsColumns.HOST_ID + ", " +
+                   MediaContract.SongsColumns.SONGID + ")");
+        // Songs of an artist
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Tables.SONG_ARTISTS + "_artistid_idx ON " + Tables.SONG_ARTISTS + "(" +
+                   MediaContract.SongArtistsColumns.HOST_ID + ", " +
+                   MediaContract.SongArtistsColumns.ARTISTID + ", " +
+                   MediaContract.SongArtistsColumns.SONGID + ")");
+        // Albums of an artist
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Tables.ALBUM_ARTISTS + "_artistid_idx ON " + Tables.ALBUM_ARTISTS + "(" +
+                   MediaContract.AlbumArtistsColumns.HOST_ID + ", " +
+                   MediaContract.AlbumArtistsColumns.ARTISTID + ", " +
+                   MediaContract.AlbumArtistsColumns.ALBUMID + ")");
+        // Albums of a genre
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Tables.ALBUM_GENRES + "_genreid_idx ON " + Tables.ALBUM_GENRES + "(" +
+                   MediaContract.AlbumGenresColumns.HOST_ID + ", " +
+                   MediaContract.AlbumGenresColumns.GENREID + ", " +
+                   MediaContract.AlbumGenresColumns.ALBUMID + ")");
+    }
+
+    /**
+     * Adds a sort column to a table, filled from the column it sorts
+     */
+    private void addSortColumn(SQLiteDatabase db, String table, String sortColumn, String column) {
+        db.execSQL("ALTER TABLE " + table + " ADD COLUMN " + sortColumn + " TEXT;");
+        db.execSQL("UPDATE " + table + " SET " + sortColumn + "=" + sortCommonTokens(column) + ";");
+    }
+
+    /**
+     * Creates the indexes that lists sorted by the sort columns are read in
+     */
+    private void createSortIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Tables.MOVIES + "_sort_idx ON " + Tables.MOVIES + "(" +
+                   MediaContract.MoviesColumns.HOST_ID + ", " +
+                   MediaContract.MoviesColumns.SORT_TITLE + " COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Tables.TVSHOWS + "_sort_idx ON " + Tables.TVSHOWS + "(" +
+                   MediaContract.TVShowsColumns.HOST_ID + ", " +
+                   MediaContract.TVShowsColumns.SORT_TITLE + " COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Tables.ARTISTS + "_sort_idx ON " + Tables.ARTISTS + "(" +
+                   MediaContract.ArtistsColumns.HOST_ID + ", " +
+                   MediaContract.ArtistsColumns.SORT_ARTIST + " COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Tables.ALBUMS + "_sort_idx ON " + Tables.ALBUMS + "(" +
+                   MediaContract.AlbumsColumns.HOST_ID + ", " +
+                   MediaContract.AlbumsColumns.SORT_TITLE + " COLLATE NOCASE)");
+    }
+
+    /**
+     * Creates the index the songs list is read in. Songs lists are read in pages that start after the
+     * sort title and id of the last song of the previous page, which is the order of this index
+     */
+    private void createSongSortIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + Tables.SONGS + "_sort_idx ON " + Tables.SONGS + "(" +
+                   MediaContract.SongsColumns.HOST_ID + ", " +
+                   MediaContract.SongsColumns.SORT_TITLE + " COLLATE NOCASE)");
+    }
+
     private void createSongArtistsTable(SQLiteDatabase db) {
         db.execSQL("CREATE TABLE " + Tables.SONG_ARTISTS + "(" +
                    BaseColumns._ID + " INTEGER PRIMARY KEY AUTOINCREMENT, " +
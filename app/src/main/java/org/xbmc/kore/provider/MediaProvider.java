@@ -20,14 +20,25 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.content.UriMatcher;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.MatrixCursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.net.Uri;
+import android.os.Bundle;
 import android.provider.BaseColumns;
+import android.util.LruCache;
+
+import androidx.annotation.VisibleForTesting;
 
 import org.xbmc.kore.utils.LogUtils;
 import org.xbmc.kore.utils.SelectionBuilder;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Provider for {@link MediaContract} data.
@@ -39,6 +50,35 @@ public class MediaProvider extends ContentProvider {
 
     private Context context;
 
+    /**
+     * Methods for {@link #call(String, String, Bundle)} that open and close a notification batch. While a
+     * batch is open, change notifications are held back and sent once per uri when a batch is closed, or
+     * when a write happens {@link #NOTIFY_BATCH_INTERVAL} ms after the last ones were sent.
+     * Batches can be nested, and each one opened must be closed.
+     */
+    public static final String METHOD_BEGIN_NOTIFY_BATCH = "begin_notify_batch",
+            METHOD_END_NOTIFY_BATCH = "end_notify_batch";
+    public static final long NOTIFY_BATCH_INTERVAL = 5000;
+
+    /**
+     * Method for {@link #call(String, String, Bundle)} that checkpoints the database, see
+     * {@link MediaDatabase#checkpoint()}
+     */
+    public static final String METHOD_CHECKPOINT = "checkpoint";
+
+    private final Object notifyLock = new Object();
+    private final LinkedHashSet<Uri> pendingNotifyUris = new LinkedHashSet<>();
+    private int openNotifyBatches = 0;
+    private long lastNotifyTime;
+
+    /**
+     * Section indexes returned by {@link MediaContract#SECTIONS_QUERY} queries, kept until the next write.
+     * Writes bump the generation, so that indexes read while they happen aren't cached
+     */
+    private static final int SECTION_INDEX_CACHE_SIZE = 32;
+    private final LruCache<String, List<Object[]>> sectionIndexCache = new LruCache<>(SECTION_INDEX_CACHE_SIZE);
+    private final AtomicInteger sectionIndexGeneration = new AtomicInteger();
+
     private static final UriMatcher sUriMatcher = buildUriMatcher();
 
     private static final int HOSTS_LIST = 100;
@@ -98,6 +138,49 @@ public class MediaProvider extends ContentProvider {
     private static final int MUSIC_VIDEOS_LIST = 1101;
     private static final int MUSIC_VIDEOS_ID = 1102;
 
+    private static final int SEARCH_ALL = 1200;
+    private static final int SEARCH_TYPE = 1201;
+
+    /**
+     * Item type that can be searched. See {@link MediaContract.Search}
+     */
+    private static class SearchType {
+        final String table;
+        final String hostIdColumn;
+        final String idColumn;
+        final String titleColumn;
+        final String contentType;
+        // Table with the cast of the items, with the same host id and id columns, searched along
+        // with them. Null if none
+        final String castTable;
+        // Columns returned as MediaContract.Search.DETAILS and PARENTID in the search across all
+        // types. Null if none
+        final String detailsColumn;
+        final String parentIdColumn;
+
+        SearchType(String table, String hostIdColumn, String idColumn, String titleColumn,
+                   String contentType, String castTable, String detailsColumn, String parentIdColumn) {
+            this.table = table;
+            this.hostIdColumn = hostIdColumn;
+            this.idColumn = idColumn;
+            this.titleColumn = table + "." + titleColumn;
+            this.contentType = contentType;
+            this.castTable = castTable;
+            this.detailsColumn = detailsColumn;
+            this.parentIdColumn = parentIdColumn;
+        }
+    }
+
+    private static final HashMap<String, SearchType> searchTypes = buildSearchTypes();
+
+    /**
+     * Internal columns of the search across all types, used to order its results
+     */
+    private static final String SEARCH_TYPE_ORDER = "type_order";
+    private static final String SEARCH_RANK = "rank";
+    /** Escape character of the LIKE patterns built from a search */
+    private static final String LIKE_ESCAPE = "\\";
+
     /**
      * Build and return a {@link UriMatcher} that catches all {@link Uri} variations supported by
      * this {@link ContentProvider}.
@@ -221,9 +304,68 @@ public class MediaProvider extends ContentProvider {
         matcher.addURI(authority, MediaContract.PATH_HOSTS + "/*/" +
                                   MediaContract.PATH_MUSIC_VIDEOS + "/*", MUSIC_VIDEOS_ID);
 
+        // Search
+        matcher.addURI(authority, MediaContract.PATH_HOSTS + "/*/" +
+                                  MediaContract.PATH_SEARCH, SEARCH_ALL);
+        matcher.addURI(authority, MediaContract.PATH_HOSTS + "/*/" +
+                                  MediaContract.PATH_SEARCH + "/*", SEARCH_TYPE);
+
         return matcher;
     }
 
+    private static HashMap<String, SearchType> buildSearchTypes() {
+        HashMap<String, SearchType> types = new HashMap<>();
+        types.put(MediaContract.PATH_MOVIES,
+                  new SearchType(MediaDatabase.Tables.MOVIES, MediaContract.Movies.HOST_ID,
+                                 MediaContract.Movies.MOVIEID, MediaContract.Movies.TITLE,
+                                 MediaContract.Movies.CONTENT_TYPE, MediaDatabase.Tables.MOVIE_CAST,
+                                 MediaContract.Movies.YEAR, null));
+        types.put(MediaContract.PATH_TVSHOWS,
+                  new SearchType(MediaDatabase.Tables.TVSHOWS, MediaContract.TVShows.HOST_ID,
+                                 MediaContract.TVShows.TVSHOWID, MediaContract.TVShows.TITLE,
+                                 MediaContract.TVShows.CONTENT_TYPE, MediaDatabase.Tables.TVSHOWS_CAST,
+                                 MediaContract.TVShows.PREMIERED, null));
+        types.put(MediaContract.PATH_EPISODES,
+                  new SearchType(MediaDatabase.Tables.EPISODES, MediaContract.Episodes.HOST_ID,
+                                 MediaContract.Episodes.EPISODEID, MediaContract.Episodes.TITLE,
+                                 MediaContract.Episodes.CONTENT_TYPE, null,
+                                 MediaContract.Episodes.SHOWTITLE, MediaContract.Episodes.TVSHOWID));
+        types.put(MediaContract.PATH_ARTISTS,
+                  new SearchType(MediaDatabase.Tables.ARTISTS, MediaContract.Artists.HOST_ID,
+                                 MediaContract.Artists.ARTISTID, MediaContract.Artists.ARTIST,
+                                 MediaContract.Artists.CONTENT_TYPE, null,
+                                 MediaContract.Artists.GENRE, null));
+        types.put(MediaContract.PATH_ALBUMS,
+                  new SearchType(MediaDatabase.Tables.ALBUMS, MediaContract.Albums.HOST_ID,
+                                 MediaContract.Albums.ALBUMID, MediaContract.Albums.TITLE,
+                                 MediaContract.Albums.CONTENT_TYPE, null,
+                                 MediaContract.Albums.DISPLAYARTIST, null));
+        types.put(MediaContract.PATH_SONGS,
+                  new SearchType(MediaDatabase.Tables.SONGS, MediaContract.Songs.HOST_ID,
+                                 MediaContract.Songs.SONGID, MediaContract.Songs.TITLE,
+                                 MediaContract.Songs.CONTENT_TYPE, null,
+                                 MediaContract.Songs.DISPLAYARTIST, MediaContract.Songs.ALBUMID));
+        types.put(MediaContract.PATH_AUDIO_GENRES,
+                  new SearchType(MediaDatabase.Tables.AUDIO_GENRES, MediaContract.AudioGenres.HOST_ID,
+                                 MediaContract.AudioGenres.GENREID, MediaContract.AudioGenres.TITLE,
+                                 MediaContract.AudioGenres.CONTENT_TYPE, null,
+                                 null, null));
+        types.put(MediaContract.PATH_MUSIC_VIDEOS,
+                  new SearchType(MediaDatabase.Tables.MUSIC_VIDEOS, MediaContract.MusicVideos.HOST_ID,
+                                 MediaContract.MusicVideos.MUSICVIDEOID, MediaContract.MusicVideos.TITLE,
+                                 MediaContract.MusicVideos.CONTENT_TYPE, null,
+                                 MediaContract.MusicVideos.ARTIST, null));
+        return types;
+    }
+
+    private static SearchType getSearchType(Uri uri) {
+        SearchType searchType = searchTypes.get(MediaContract.Search.getSearchPath(uri));
+        if (searchType == null) {
+            throw new UnsupportedOperationException("Unknown search uri: " + uri);
+        }
+        return searchType;
+    }
+
     public void setContext(Context context) {
         this.context = context;
     }
@@ -237,6 +379,70 @@ public class MediaProvider extends ContentProvider {
         return true;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public Bundle call(String method, String arg, Bundle extras) {
+        switch (method) {
+            case METHOD_BEGIN_NOTIFY_BATCH:
+                synchronized (notifyLock) {
+                    if (openNotifyBatches++ == 0) {
+                        lastNotifyTime = System.currentTimeMillis();
+                    }
+                }
+                return null;
+            case METHOD_END_NOTIFY_BATCH:
+                synchronized (notifyLock) {
+                    openNotifyBatches = Math.max(0, openNotifyBatches - 1);
+                }
+                // Send what is pending even if other batches are still open, so that the lists
+                // changed by a finished sync are refreshed right away
+                flushNotifications();
+                return null;
+            case METHOD_CHECKPOINT:
+                mOpenHelper.checkpoint();
+                return null;
+            default:
+                return super.call(method, arg, extras);
+        }
+    }
+
+    /**
+     * Notifies a change on an uri, or holds it back if a notification batch is open
+     * @param uri Changed uri
+     */
+    private void notifyChange(Uri uri) {
+        sectionIndexGeneration.incrementAndGet();
+        sectionIndexCache.evictAll();
+
+        boolean batched;
+        synchronized (notifyLock) {
+            batched = openNotifyBatches > 0;
+            if (batched) {
+                pendingNotifyUris.add(uri);
+                if (System.currentTimeMillis() - lastNotifyTime < NOTIFY_BATCH_INTERVAL) {
+                    return;
+                }
+            }
+        }
+        if (batched) {
+            flushNotifications();
+        } else {
+            context.getContentResolver().notifyChange(uri, null);
+        }
+    }
+
+    private void flushNotifications() {
+        ArrayList<Uri> uris;
+        synchronized (notifyLock) {
+            uris = new ArrayList<>(pendingNotifyUris);
+            pendingNotifyUris.clear();
+            lastNotifyTime = System.currentTimeMillis();
+        }
+        for (Uri uri : uris) {
+            context.getContentResolver().notifyChange(uri, null);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public String getType(Uri uri) {
@@ -312,6 +518,10 @@ public class MediaProvider extends ContentProvider {
                 return MediaContract.MusicVideos.CONTENT_TYPE;
             case MUSIC_VIDEOS_ID:
                 return MediaContract.MusicVideos.CONTENT_ITEM_TYPE;
+            case SEARCH_ALL:
+                return MediaContract.Search.CONTENT_TYPE;
+            case SEARCH_TYPE:
+                return getSearchType(uri).contentType;
             default:
                 throw new UnsupportedOperationException("Unknown uri: " + uri);
         }
@@ -324,19 +534,273 @@ public class MediaProvider extends ContentProvider {
         LogUtils.LOGV(TAG, "query(uri=" + uri + ", proj=" + Arrays.toString(projection) + ")");
         final SQLiteDatabase db = mOpenHelper.getReadableDatabase();
 
+        if (uri.getBooleanQueryParameter(MediaContract.SECTIONS_QUERY, false)) {
+            return querySectionIndex(db, uri, projection, selection, selectionArgs);
+        }
+        final Query query = buildQuery(uri, projection, selection, selectionArgs, sortOrder);
+        return query.builder.query(db, query.projection, query.sortOrder, query.limit);
+    }
+
+    /**
+     * Returns the section index of a list, from the cache if it wasn't written since it was last read
+     */
+    private Cursor querySectionIndex(SQLiteDatabase db, Uri uri, String[] projection, String selection,
+                                     String[] selectionArgs) {
+        final String key = uri + "|" + projection[0] + "|" + selection + "|" + Arrays.toString(selectionArgs);
+        List<Object[]> rows = sectionIndexCache.get(key);
+        if (rows == null) {
+            int generation = sectionIndexGeneration.get();
+            final Query query = buildQuery(uri, projection, selection, selectionArgs, null);
+            rows = new ArrayList<>();
+            try (Cursor cursor = query.builder.query(db, query.projection, query.sortOrder, query.limit)) {
+                while (cursor.moveToNext()) {
+                    rows.add(new Object[] {cursor.getString(0), cursor.getInt(1)});
+                }
+            }
+            if (generation == sectionIndexGeneration.get()) {
+                sectionIndexCache.put(key, rows);
+            }
+        }
+
+        MatrixCursor cursor = new MatrixCursor(new String[] {MediaContract.SECTION, MediaContract.COUNT},
+                                               rows.size());
+        for (Object[] row : rows) {
+            cursor.addRow(row);
+        }
+        return cursor;
+    }
+
+    /**
+     * Returns the plan SQLite uses for the query run by {@link #query}, one step per line, as
+     * returned by {@code EXPLAIN QUERY PLAN}
+     */
+    @VisibleForTesting
+    public List<String> explainQueryPlan(Uri uri, String[] projection, String selection, String[] selectionArgs,
+                                         String sortOrder) {
+        final SQLiteDatabase db = mOpenHelper.getReadableDatabase();
+
+        final Query query = buildQuery(uri, projection, selection, selectionArgs, sortOrder);
+        final String sql = query.builder.buildQuery(query.projection, query.sortOrder, query.limit);
+        final ArrayList<String> plan = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, query.builder.getSelectionArgs())) {
+            int detailIndex = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                plan.add(cursor.getString(detailIndex));
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Query run for a {@link Uri}
+     */
+    private static class Query {
+        final SelectionBuilder builder;
+        final String[] projection;
+        final String sortOrder;
+        final String limit;
+
+        Query(SelectionBuilder builder, String[] projection, String sortOrder, String limit) {
+            this.builder = builder;
+            this.projection = projection;
+            this.sortOrder = sortOrder;
+            this.limit = limit;
+        }
+    }
+
+    private Query buildQuery(Uri uri, String[] projection, String selection, String[] selectionArgs,
+                             String sortOrder) {
         final int match = sUriMatcher.match(uri);
-        Cursor cursor;
         switch (match) {
+            case SEARCH_ALL: {
+                return buildSearchAllQuery(uri, projection, selection, selectionArgs, sortOrder);
+            }
+            case SEARCH_TYPE: {
+                return buildSearchQuery(uri, projection, selection, selectionArgs, sortOrder);
+            }
             default: {
                 // Most cases are handled with simple SelectionBuilder
-                final SelectionBuilder builder = buildQuerySelection(uri, match);
+                final SelectionBuilder builder = buildQuerySelection(uri, match).where(selection, selectionArgs);
+                if (uri.getBooleanQueryParameter(MediaContract.COUNT_QUERY, false)) {
+                    return buildCountQuery(builder);
+                }
+                if (uri.getBooleanQueryParameter(MediaContract.SECTIONS_QUERY, false)) {
+                    return buildSectionsQuery(builder, projection[0]);
+                }
                 String limit = uri.getQueryParameter(MediaContract.LIMIT_QUERY);
 
-                cursor = builder.where(selection, selectionArgs)
-                                .query(db, projection, sortOrder, limit);
+                return new Query(builder, projection, sortOrder, limit);
             }
         }
-        return cursor;
+    }
+
+    /**
+     * Counts the rows of a list query. Lists grouped by item return a row per group, so the count is
+     * done on the query as a subquery
+     */
+    private static Query buildCountQuery(SelectionBuilder listBuilder) {
+        final String list = listBuilder.buildQuery(new String[] {"1"}, null, null);
+        final SelectionBuilder builder = new SelectionBuilder()
+                .table("(" + list + ")", listBuilder.getSelectionArgs());
+        return new Query(builder, new String[] {"COUNT(*) AS " + MediaContract.COUNT}, null, null);
+    }
+
+    /**
+     * Groups the rows of a list query by the first letter of its sort column, in a single pass.
+     * Letters are compared as the list compares its sort column, case insensitively, so that each group
+     * is a contiguous run of the list and the groups come in list order
+     */
+    private static Query buildSectionsQuery(SelectionBuilder listBuilder, String sortColumn) {
+        final String sortValue = "sort_value";
+        final String list = listBuilder.buildQuery(new String[] {sortColumn + " AS " + sortValue}, null, null);
+        final String section = "UPPER(SUBSTR(" + sortValue + ", 1, 1))";
+        final SelectionBuilder builder = new SelectionBuilder()
+                .table("(" + list + ")", listBuilder.getSelectionArgs())
+                .groupBy(MediaContract.SECTION);
+        return new Query(builder,
+                         new String[] {section + " AS " + MediaContract.SECTION, "COUNT(*) AS " + MediaContract.COUNT},
+                         MediaContract.SECTION + " COLLATE NOCASE ASC", null);
+    }
+
+    /**
+     * Searches a type of item using its full text search index. See {@link MediaContract.Search}
+     */
+    private Query buildSearchQuery(Uri uri, String[] projection, String selection, String[] selectionArgs,
+                                   String sortOrder) {
+        final SearchType searchType = getSearchType(uri);
+        final String searchQuery = MediaContract.Search.getSearchQuery(uri);
+        final SelectionBuilder builder = buildSearchSelection(searchType, MediaContract.Hosts.getHostId(uri),
+                                                              searchQuery);
+
+        if (sortOrder == null && MediaDatabase.buildSearchMatch(searchQuery) != null) {
+            sortOrder = buildSearchRank(searchType, searchQuery) + ", " +
+                        searchType.titleColumn + " COLLATE NOCASE ASC";
+        }
+
+        String limit = uri.getQueryParameter(MediaContract.LIMIT_QUERY);
+        return new Query(builder.where(selection, selectionArgs), projection, sortOrder, limit);
+    }
+
+    /**
+     * Searches all types of items in {@link MediaContract.Search#ALL_TYPES} in a single query, that
+     * returns the best ranked items of each type, grouped by type.
+     * See {@link MediaContract.Search#buildSearchAllUri(long, String)}
+     */
+    private Query buildSearchAllQuery(Uri uri, String[] projection, String selection, String[] selectionArgs,
+                                      String sortOrder) {
+        final String hostId = MediaContract.Hosts.getHostId(uri);
+        final String searchQuery = MediaContract.Search.getSearchQuery(uri);
+        final int limit = parseLimit(uri.getQueryParameter(MediaContract.LIMIT_QUERY),
+                                     MediaContract.Search.DEFAULT_LIMIT_PER_TYPE);
+
+        final StringBuilder query = new StringBuilder();
+        final ArrayList<String> args = new ArrayList<>();
+        final String[] types = MediaContract.Search.ALL_TYPES;
+        for (int i = 0; i < types.length; i++) {
+            SearchType searchType = searchTypes.get(types[i]);
+            SelectionBuilder builder = buildSearchSelection(searchType, hostId, searchQuery);
+            String rank = buildSearchRank(searchType, searchQuery);
+
+            // Each type is limited on its own, which a compound select only allows in subqueries.
+            // Ids of different tables overlap, so they're offset by the type to keep them unique
+            if (i > 0) query.append(" UNION ALL ");
+            query.append("SELECT * FROM (SELECT ")
+                 .append(searchType.table).append(".").append(BaseColumns._ID).append(" * ").append(types.length)
+                 .append(" + ").append(i).append(" AS ").append(BaseColumns._ID).append(", ")
+                 .append(DatabaseUtils.sqlEscapeString(types[i])).append(" AS ").append(MediaContract.Search.TYPE).append(", ")
+                 .append(qualifyColumn(searchType, searchType.idColumn)).append(" AS ").append(MediaContract.Search.ITEMID).append(", ")
+                 .append(qualifyColumn(searchType, searchType.parentIdColumn)).append(" AS ").append(MediaContract.Search.PARENTID).append(", ")
+                 .append(searchType.titleColumn).append(" AS ").append(MediaContract.Search.TITLE).append(", ")
+                 .append(qualifyColumn(searchType, searchType.detailsColumn)).append(" AS ").append(MediaContract.Search.DETAILS).append(", ")
+                 .append(searchType.table).append(".").append(MediaContract.Search.THUMBNAIL)
+                 .append(" AS ").append(MediaContract.Search.THUMBNAIL).append(", ")
+                 .append(i).append(" AS ").append(SEARCH_TYPE_ORDER).append(", ")
+                 .append(rank).append(" AS ").append(SEARCH_RANK)
+                 .append(" FROM ").append(searchType.table)
+                 .append(" WHERE ").append(builder.getSelection())
+                 .append(" ORDER BY ").append(SEARCH_RANK).append(", ")
+                 .append(searchType.titleColumn).append(" COLLATE NOCASE ASC")
+                 .append(" LIMIT ").append(limit)
+                 .append(")");
+            args.addAll(Arrays.asList(builder.getSelectionArgs()));
+        }
+
+        if (sortOrder == null) {
+            sortOrder = SEARCH_TYPE_ORDER + ", " + SEARCH_RANK + ", " +
+                        MediaContract.Search.TITLE + " COLLATE NOCASE ASC";
+        }
+        if (projection == null) projection = MediaContract.Search.ALL_COLUMNS;
+
+        final SelectionBuilder builder = new SelectionBuilder()
+                .table("(" + query + ")", args.toArray(new String[0]))
+                .where(selection, selectionArgs);
+        return new Query(builder, projection, sortOrder, null);
+    }
+
+    /**
+     * Returns a {@link SelectionBuilder} on the table of a searchable type, filtered to the items
+     * of the host that match the search, in their own columns or, if they have one, in their cast.
+     * An empty search matches nothing
+     */
+    private static SelectionBuilder buildSearchSelection(SearchType searchType, String hostId, String searchQuery) {
+        final String searchMatch = MediaDatabase.buildSearchMatch(searchQuery);
+
+        final SelectionBuilder builder = new SelectionBuilder()
+                .table(searchType.table)
+                .where(searchType.table + "." + searchType.hostIdColumn + "=?", hostId);
+        if (searchMatch == null) {
+            // Nothing to search for
+            builder.where("0");
+        } else if (searchType.castTable == null) {
+            builder.where(MediaDatabase.buildSearchSelection(searchType.table), searchMatch);
+        } else {
+            builder.where(MediaDatabase.buildSearchSelection(searchType.table) +
+                          " OR " + searchType.table + "." + searchType.idColumn + " IN" +
+                          " (SELECT " + searchType.idColumn + " FROM " + searchType.castTable +
+                          " WHERE " + searchType.castTable + "." + searchType.hostIdColumn + "=?" +
+                          " AND " + MediaDatabase.buildSearchSelection(searchType.castTable) + ")",
+                          searchMatch, hostId, searchMatch);
+        }
+        return builder;
+    }
+
+    /**
+     * Returns the column qualified with the search type's table, or NULL if there's no column
+     */
+    private static String qualifyColumn(SearchType searchType, String column) {
+        return (column == null) ? "NULL" : searchType.table + "." + column;
+    }
+
+    /**
+     * Returns an expression that ranks items by where the search appears in their title: 0 if the
+     * title starts with it, 1 if a word of the title does, 2 otherwise
+     */
+    private static String buildSearchRank(SearchType searchType, String searchQuery) {
+        // Wildcards in the search are matched literally
+        String query = (searchQuery == null) ? "" : searchQuery.trim()
+                .replace(LIKE_ESCAPE, LIKE_ESCAPE + LIKE_ESCAPE)
+                .replace("%", LIKE_ESCAPE + "%")
+                .replace("_", LIKE_ESCAPE + "_");
+        String escape = " ESCAPE " + DatabaseUtils.sqlEscapeString(LIKE_ESCAPE);
+        return "CASE WHEN " + searchType.titleColumn + " LIKE " + DatabaseUtils.sqlEscapeString(query + "%") + escape +
+               " THEN 0 WHEN " + searchType.titleColumn + " LIKE " + DatabaseUtils.sqlEscapeString("% " + query + "%") + escape +
+               " THEN 1 ELSE 2 END";
+    }
+
+    /**
+     * Parses the limit of a query
+     * @param limit Limit query parameter
+     * @param defaultLimit Limit returned if there's none, or it isn't a positive number
+     * @return Limit
+     */
+    private static int parseLimit(String limit, int defaultLimit) {
+        if (limit == null) return defaultLimit;
+        try {
+            int value = Integer.parseInt(limit.trim());
+            return (value > 0) ? value : defaultLimit;
+        } catch (NumberFormatException e) {
+            return defaultLimit;
+        }
     }
 
     /** {@inheritDoc} */
@@ -357,14 +821,40 @@ public class MediaProvider extends ContentProvider {
                 throw new UnsupportedOperationException("Unsuported uri: " + uri);
             }
         }
-        context.getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
 
         return insertedUri;
     }
 
+    /**
+     * Rows to insert through a {@link BulkInserter}, see {@link #bulkInsert(Uri, BulkInsertRows)}
+     */
+    public interface BulkInsertRows {
+        void insertRows(BulkInserter inserter);
+    }
+
     /** {@inheritDoc} */
     @Override
     public int bulkInsert(Uri uri, ContentValues[] values) {
+        bulkInsert(uri, inserter -> {
+            for (ContentValues value : values) {
+                inserter.insert(value);
+            }
+        });
+        return values.length;
+    }
+
+    /**
+     * Inserts rows in a table with compiled statements, in a single transaction, without requiring a
+     * {@link ContentValues} per row. The {@link MediaContract.SyncColumns#UPDATED} column of the rows is set
+     * by the inserter.
+     * If inserting a row fails the whole transaction is rolled back.
+     *
+     * @param uri Uri of the table, one of the uris accepted by {@link #bulkInsert(Uri, ContentValues[])}
+     * @param rows Rows to insert
+     * @return Number of rows inserted
+     */
+    public int bulkInsert(Uri uri, BulkInsertRows rows) {
         long startTime = System.currentTimeMillis();
         final int match = sUriMatcher.match(uri);
 
@@ -430,35 +920,38 @@ public class MediaProvider extends ContentProvider {
                 throw new UnsupportedOperationException("Unknown uri: " + uri);
             }
         }
+        long updateTime;
+        switch (match) {
+            case ALBUM_GENRES_ALL:
+            case ALBUM_ARTISTS_ALL:
+            case SONG_ARTISTS_ALL:
+                // Nothing to add to these tables
+                updateTime = -1;
+                break;
+            default:
+                updateTime = System.currentTimeMillis();
+                break;
+        }
+
         final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+        BulkInserter inserter = new BulkInserter(db, table, updateTime);
+        int inserted = 0;
         db.beginTransaction();
-
-        long updateTime = System.currentTimeMillis();
         try {
-            for (ContentValues value : values) {
-                switch (match) {
-                    case ALBUM_GENRES_ALL:
-                    case ALBUM_ARTISTS_ALL:
-                    case SONG_ARTISTS_ALL:
-                        // Nothing to add to these tables
-                        break;
-                    default:
-                        value.put(MediaContract.SyncColumns.UPDATED, updateTime);
-                        break;
-                }
-                db.insertOrThrow(table, null, value);
-            }
+            rows.insertRows(inserter);
             db.setTransactionSuccessful();
+            inserted = inserter.getCount();
         } catch (Exception e) {
             LogUtils.LOGD(TAG, "Couldn't bulk insert records. Exception: " + e.getMessage());
         } finally {
+            inserter.close();
             db.endTransaction();
         }
-        context.getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
 
         LogUtils.LOGD(TAG, "Bulk insert finished for uri (" + uri +
                 ") in (ms): " + (System.currentTimeMillis() - startTime));
-        return values.length;
+        return inserted;
     }
 
     /** {@inheritDoc} */
@@ -491,7 +984,7 @@ public class MediaProvider extends ContentProvider {
         final SelectionBuilder builder = buildQuerySelection(uri, match);
         int result = builder.where(selection, selectionArgs)
                             .update(db, values);
-        context.getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return result;
     }
 
@@ -504,7 +997,7 @@ public class MediaProvider extends ContentProvider {
         int result = builder.where(selection, selectionArgs)
                             .delete(db);
         LogUtils.LOGD(TAG, "delete(uri=" + uri + "). Rows affected: " + result);
-        context.getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return result;
     }
 
@@ -743,6 +1236,10 @@ public class MediaProvider extends ContentProvider {
                               .mapToTable(MediaContract.AlbumArtists.ARTISTID, MediaDatabase.Tables.ALBUM_ARTISTS)
                               .mapToTable(MediaContract.SongArtists.ARTISTID, MediaDatabase.Tables.SONG_ARTISTS)
                               .where(Qualified.SONG_ARTISTS_HOST_ID + "=?", hostId)
+                              // The OR over two joined tables can't use an index, so first find the
+                              // songs through the artist indexes of each table
+                              .where(Qualified.SONGS_ID + " IN (" + ARTIST_SONGS_IDS_QUERY + ")",
+                                     hostId, artistId, hostId, artistId)
                               .where(Qualified.SONG_ARTISTS_ARTISTID + "=?"
                                      + " OR " +
                                      Qualified.ALBUM_ARTISTS_ARTISTID + "=?", artistId, artistId)
@@ -806,6 +1303,23 @@ public class MediaProvider extends ContentProvider {
         }
     }
 
+    /**
+     * Ids of the songs of an artist, including the ones of its albums. Takes the host id and
+     * artist id twice as arguments
+     */
+    private static final String ARTIST_SONGS_IDS_QUERY =
+            "SELECT " + Qualified.SONGS_ID + " FROM " + MediaDatabase.Tables.SONG_ARTISTS +
+            " JOIN " + MediaDatabase.Tables.SONGS + " ON " +
+            Qualified.SONG_ARTISTS_HOST_ID + "=" + Qualified.SONGS_HOST_ID + " AND " +
+            MediaDatabase.Tables.SONG_ARTISTS + "." + MediaContract.SongArtists.SONGID + "=" + Qualified.SONGS_SONGID +
+            " WHERE " + Qualified.SONG_ARTISTS_HOST_ID + "=? AND " + Qualified.SONG_ARTISTS_ARTISTID + "=?" +
+            " UNION " +
+            "SELECT " + Qualified.SONGS_ID + " FROM " + MediaDatabase.Tables.ALBUM_ARTISTS +
+            " JOIN " + MediaDatabase.Tables.SONGS + " ON " +
+            Qualified.ALBUM_ARTISTS_HOST_ID + "=" + Qualified.SONGS_HOST_ID + " AND " +
+            Qualified.ALBUM_ARTISTS_ALBUMID + "=" + Qualified.SONGS_ALBUMID +
+            " WHERE " + Qualified.ALBUM_ARTISTS_HOST_ID + "=? AND " + Qualified.ALBUM_ARTISTS_ARTISTID + "=?";
+
     /**
      * {@link MediaContract} fields that are fully qualified with a specific
      * parent {@link MediaDatabase.Tables}. Used when needed to work around SQL ambiguity.
@@ -849,6 +1363,8 @@ public class MediaProvider extends ContentProvider {
                 MediaDatabase.Tables.SONGS + "." + MediaContract.Songs.DISPLAYARTIST;
         String SONGS_TITLE =
                 MediaDatabase.Tables.SONGS + "." + MediaContract.Songs.TITLE;
+        String SONGS_SORT_TITLE =
+                MediaDatabase.Tables.SONGS + "." + MediaContract.Songs.SORT_TITLE;
         String SONGS_ALBUMID =
                 MediaDatabase.Tables.SONGS + "." + MediaContract.Songs.ALBUMID;
         String SONG_ARTISTS_HOST_ID =
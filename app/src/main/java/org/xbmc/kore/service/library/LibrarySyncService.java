@@ -57,6 +57,14 @@ public class LibrarySyncService extends Service {
     public static final String SYNC_MOVIEID = PACKAGE_NAME + ".sync_movieid";
     public static final String SYNC_TVSHOWID = PACKAGE_NAME + ".sync_tvshowid";
 
+    /**
+     * Include a boolean extra with this identifier to delete and sync again all the items, instead of
+     * only syncing the ones that changed on Kodi since the last sync. Useful if info changed on Kodi
+     * without changing the items' date added or play count, like after refreshing the items info.
+     * Lists set it when refreshed from their menu
+     */
+    public static final String SYNC_FULL = PACKAGE_NAME + ".sync_full";
+
     /**
      * Extra used to pass parameters that will be sent back to the caller
      */
@@ -106,11 +114,12 @@ public class LibrarySyncService extends Service {
 
         // Get the request parameters that we should pass when calling back the caller
         Bundle syncItemParams = intent.getBundleExtra(SYNC_ITEM_PARAMS);
+        boolean syncFull = intent.getBooleanExtra(SYNC_FULL, false);
 
         // Sync all movies
         boolean syncAllMovies = intent.getBooleanExtra(SYNC_ALL_MOVIES, false);
         if (syncAllMovies) {
-            syncOrchestrator.addSyncItem(new SyncMovies(hostInfo.getId(), syncItemParams));
+            syncOrchestrator.addSyncItem(new SyncMovies(hostInfo.getId(), syncFull, syncItemParams));
         }
 
         // Sync a single movie
@@ -125,7 +134,7 @@ public class LibrarySyncService extends Service {
         // Sync all tvshows
         boolean syncAllTVShows = intent.getBooleanExtra(SYNC_ALL_TVSHOWS, false);
         if (syncAllTVShows) {
-            syncOrchestrator.addSyncItem(new SyncTVShows(hostInfo.getId(), syncItemParams));
+            syncOrchestrator.addSyncItem(new SyncTVShows(hostInfo.getId(), syncFull, syncItemParams));
         }
 
         // Sync a single tvshow
@@ -146,7 +155,7 @@ public class LibrarySyncService extends Service {
         // Sync all music videos
         boolean syncAllMusicVideos = intent.getBooleanExtra(SYNC_ALL_MUSIC_VIDEOS, false);
         if (syncAllMusicVideos) {
-            syncOrchestrator.addSyncItem(new SyncMusicVideos(hostInfo.getId(), syncItemParams));
+            syncOrchestrator.addSyncItem(new SyncMusicVideos(hostInfo.getId(), syncFull, syncItemParams));
         }
 
         // Start syncing
@@ -164,6 +173,10 @@ public class LibrarySyncService extends Service {
     @Override
     public void onDestroy() {
         LogUtils.LOGD(TAG, "Destroying the service.");
+        // Syncs still running won't get their callbacks once the handler thread quits
+        for (SyncOrchestrator syncOrchestrator : syncOrchestrators) {
+            callbackHandler.post(syncOrchestrator::cancelSync);
+        }
         handlerThread.quitSafely();
     }
 
@@ -181,7 +194,24 @@ public class LibrarySyncService extends Service {
     public ArrayList<SyncItem> getItemsSyncing(HostInfo hostInfo) {
         for(SyncOrchestrator orchestrator : syncOrchestrators) {
             if(orchestrator.getHostInfo().getId() == hostInfo.getId() ) {
-                return new ArrayList<>(orchestrator.getSyncItems());
+                return orchestrator.getSyncItems();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the progress of the sync for the given host. Progress updates are also posted
+     * on the event bus as {@link org.xbmc.kore.jsonrpc.event.MediaSyncProgressEvent}
+     * @param hostInfo host information for which to get the sync progress
+     * @return Progress of the sync for the given host, null if not syncing
+     */
+    public SyncOrchestrator.SyncProgress getSyncProgress(HostInfo hostInfo) {
+        for(SyncOrchestrator orchestrator : syncOrchestrators) {
+            SyncOrchestrator.SyncProgress progress = orchestrator.getSyncProgress();
+            if(orchestrator.getHostInfo().getId() == hostInfo.getId() &&
+               progress != null && progress.finishedItemCount < progress.itemCount) {
+                return progress;
             }
         }
         return null;
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.service.library;
+
+import android.os.Handler;
+
+import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.RequestScheduler;
+import org.xbmc.kore.jsonrpc.ApiCallback;
+import org.xbmc.kore.jsonrpc.ApiList;
+import org.xbmc.kore.jsonrpc.ApiMethod;
+import org.xbmc.kore.jsonrpc.type.ListType;
+
+import java.util.List;
+
+/**
+ * Syncs a paged list from Kodi, keeping several page requests outstanding.
+ *
+ * The first page is requested alone, to get the total number of items, and afterwards up to
+ * {@link SyncOrchestrator#getMaxPagesInFlight()} pages are requested at the same time. Requests are
+ * sent and their responses parsed on {@link HostConnection}'s threads, while the pages are written,
+ * one at a time, on the callback handler thread, so that network, parsing and database writes overlap.
+ * Pages may be written in any order, except for the first one, which is always written first.
+ * If Kodi doesn't return the total number of items, pages are requested one at a time, until one
+ * comes back with less than a page of items.
+ *
+ * The number of items found and written is reported to the orchestrator as the sync item's progress.
+ *
+ * All the methods are called on the callback handler thread.
+ *
+ * @param <T> Type of the items in the list
+ */
+public class PagedSync<T> {
+
+    /**
+     * Creates the request for a page
+     */
+    public interface PageRequestFactory<T> {
+        ApiMethod<ApiList<T>> createPageRequest(ListType.Limits limits);
+    }
+
+    /**
+     * Writes a page to the database
+     */
+    public interface PageWriter<T> {
+        /**
+         * @param startIdx Index of the first item of the page. 0 for the first page, written before any other
+         * @param items Page items
+         */
+        void writePage(int startIdx, List<T> items);
+    }
+
+    /**
+     * Listener for the end of the sync
+     */
+    public interface OnPagedSyncListener {
+        void onPagedSyncFinished();
+        void onPagedSyncError(int errorCode, String description);
+    }
+
+    private final String stageName;
+    private final SyncOrchestrator orchestrator;
+    private final SyncItem syncItem;
+    private final HostConnection hostConnection;
+    private final Handler callbackHandler;
+    private final int pageSize;
+    private final PageRequestFactory<T> requestFactory;
+    private final PageWriter<T> pageWriter;
+    private final OnPagedSyncListener listener;
+
+    // -1 until the first page is received, and afterwards if Kodi didn't return it
+    private int totalItems = -1;
+    private boolean firstPageReceived = false;
+    private boolean lastPageReceived = false;
+    private int nextStartIdx = 0;
+    private int pagesInFlight = 0;
+    private boolean failed = false;
+
+    // Stats
+    private long startTime, requestsTime, writeTime;
+    private int pageCount, itemCount;
+
+    /**
+     * Constructor
+     * @param stageName Name of this sync stage, used in the timing logs
+     * @param orchestrator Orchestrator, which sets the number of pages in flight and logs the timings
+     * @param syncItem Sync item that this stage belongs to
+     * @param hostConnection Host connection to use
+     * @param callbackHandler Handler on which to write the pages
+     * @param pageSize Number of items per page
+     * @param requestFactory Creates the page requests
+     * @param pageWriter Writes each page
+     * @param listener Called when finished
+     */
+    public PagedSync(String stageName,
+                     SyncOrchestrator orchestrator,
+                     SyncItem syncItem,
+                     HostConnection hostConnection,
+                     Handler callbackHandler,
+                     int pageSize,
+                     PageRequestFactory<T> requestFactory,
+                     PageWriter<T> pageWriter,
+                     OnPagedSyncListener listener) {
+        this.stageName = stageName;
+        this.orchestrator = orchestrator;
+        this.syncItem = syncItem;
+        this.hostConnection = hostConnection;
+        this.callbackHandler = callbackHandler;
+        this.pageSize = pageSize;
+        this.requestFactory = requestFactory;
+        this.pageWriter = pageWriter;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts syncing
+     */
+    public void start() {
+        startTime = System.currentTimeMillis();
+        requestPage();
+    }
+
+    private void requestPage() {
+        final int startIdx = nextStartIdx;
+        final long requestStartTime = System.currentTimeMillis();
+        nextStartIdx += pageSize;
+        pagesInFlight++;
+
+        ListType.Limits limits = new ListType.Limits(startIdx, startIdx + pageSize);
+        // Syncs run in the background, behind whatever the user is doing
+        ApiMethod<ApiList<T>> request = requestFactory.createPageRequest(limits)
+                                                      .setLane(RequestScheduler.LANE_BACKGROUND);
+        request.execute(hostConnection, new ApiCallback<ApiList<T>>() {
+            @Override
+            public void onSuccess(ApiList<T> result) {
+                pagesInFlight--;
+                if (failed) return;
+                requestsTime += System.currentTimeMillis() - requestStartTime;
+
+                int pageItems = (result != null) ? result.items.size() : 0;
+                if (!firstPageReceived) {
+                    firstPageReceived = true;
+                    if ((result != null) && (result.limits != null) && (result.limits.total >= 0)) {
+                        totalItems = result.limits.total;
+                        orchestrator.addItemsToSync(syncItem, totalItems);
+                    }
+                }
+                if (totalItems == -1) {
+                    orchestrator.addItemsToSync(syncItem, pageItems);
+                    lastPageReceived = pageItems < pageSize;
+                }
+
+                if (pageItems > 0) {
+                    long writeStartTime = System.currentTimeMillis();
+                    pageWriter.writePage(startIdx, result.items);
+                    writeTime += System.currentTimeMillis() - writeStartTime;
+                    itemCount += result.items.size();
+                    orchestrator.addItemsSynced(syncItem, result.items.size());
+                }
+                pageCount++;
+
+                requestMorePages();
+            }
+
+            @Override
+            public void onError(int errorCode, String description) {
+                pagesInFlight--;
+                if (failed) return;
+                failed = true;
+                listener.onPagedSyncError(errorCode, description);
+            }
+        }, callbackHandler);
+    }
+
+    private void requestMorePages() {
+        if (totalItems == -1) {
+            // Without the total, the next page can only be requested after the last one is checked
+            if (!lastPageReceived) requestPage();
+        } else {
+            int maxPagesInFlight = Math.max(1, orchestrator.getMaxPagesInFlight());
+            while ((pagesInFlight < maxPagesInFlight) && (nextStartIdx < totalItems)) {
+                requestPage();
+            }
+        }
+
+        if (pagesInFlight == 0) {
+            orchestrator.syncStageFinished(syncItem, stageName, System.currentTimeMillis() - startTime,
+                                           requestsTime, writeTime, pageCount, itemCount);
+            listener.onPagedSyncFinished();
+        }
+    }
+}
@@ -56,4 +56,14 @@ public abstract class SyncItem {
      * @return Sync extras passed during construction
      */
     abstract public Bundle getSyncParams();
+
+    /**
+     * Returns the group of this sync item. Items of the same group touch the same tables,
+     * so they are synced one after the other, in the order they were added, while items of
+     * different groups can be synced at the same time. By default each sync type is its own group
+     * @return Sync group
+     */
+    public String getSyncGroup() {
+        return getSyncType();
+    }
 }
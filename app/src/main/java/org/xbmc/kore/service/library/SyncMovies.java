@@ -21,9 +21,12 @@ import android.content.ContentValues;
 import android.os.Bundle;
 import android.os.Handler;
 
+import org.xbmc.kore.jsonrpc.ApiBatch;
 import org.xbmc.kore.jsonrpc.ApiCallback;
+import org.xbmc.kore.jsonrpc.ApiException;
 import org.xbmc.kore.jsonrpc.ApiList;
 import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.method.VideoLibrary;
 import org.xbmc.kore.jsonrpc.type.ListType;
 import org.xbmc.kore.jsonrpc.type.VideoType;
@@ -31,24 +34,43 @@ import org.xbmc.kore.provider.MediaContract;
 import org.xbmc.kore.utils.LogUtils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 public class SyncMovies extends SyncItem {
     public static final String TAG = LogUtils.makeLogTag(SyncMovies.class);
 
     private static final int LIMIT_SYNC_MOVIES = 300;
+    // Limits used on incremental syncs, to get the change markers and the details of changed movies
+    private static final int LIMIT_SYNC_MOVIES_CHANGES = 2000;
+    private static final int LIMIT_SYNC_MOVIES_DETAILS = 50;
+
+    private final static String[] changeMarkerProperties = {
+            VideoType.FieldsMovie.DATEADDED, VideoType.FieldsMovie.PLAYCOUNT
+    };
 
     private final int hostId;
     private final int movieId;
+    private final boolean syncFull;
     private final Bundle syncParams;
 
     /**
-     * Syncs all the movies on selected XBMC to the local database
+     * Syncs the movies that changed on selected XBMC to the local database
      * @param hostId XBMC host id
      */
     public SyncMovies(final int hostId, Bundle syncParams) {
+        this(hostId, false, syncParams);
+    }
+
+    /**
+     * Syncs all the movies on selected XBMC to the local database
+     * @param hostId XBMC host id
+     * @param syncFull Whether to delete and sync all the movies, or only the ones that changed
+     */
+    public SyncMovies(final int hostId, final boolean syncFull, Bundle syncParams) {
         this.hostId = hostId;
         this.movieId = -1;
+        this.syncFull = syncFull;
         this.syncParams = syncParams;
     }
 
@@ -59,6 +81,7 @@ public class SyncMovies extends SyncItem {
     public SyncMovies(final int hostId, final int movieId, Bundle syncParams) {
         this.hostId = hostId;
         this.movieId = movieId;
+        this.syncFull = false;
         this.syncParams = syncParams;
     }
 
@@ -75,6 +98,14 @@ public class SyncMovies extends SyncItem {
                                : LibrarySyncService.SYNC_SINGLE_MOVIE;
     }
 
+    /**
+     * Syncing all the movies and a single movie touch the same tables, so they are in the same group
+     */
+    @Override
+    public String getSyncGroup() {
+        return LibrarySyncService.SYNC_ALL_MOVIES;
+    }
+
     /** {@inheritDoc} */
     public Bundle getSyncParams() {
         return syncParams;
@@ -109,11 +140,23 @@ public class SyncMovies extends SyncItem {
         };
 
         if (movieId == -1) {
-            syncAllMovies(orchestrator, hostConnection, callbackHandler, contentResolver, properties, 0);
+            HashMap<Integer, String> localMarkers = syncFull ? null :
+                    SyncUtils.getLocalChangeMarkers(contentResolver,
+                                                    MediaContract.Movies.buildMoviesListUri(hostId),
+                                                    MediaContract.MoviesColumns.MOVIEID,
+                                                    MediaContract.MoviesColumns.DATEADDED,
+                                                    MediaContract.MoviesColumns.PLAYCOUNT);
+            if (localMarkers == null || localMarkers.isEmpty()) {
+                syncAllMovies(orchestrator, hostConnection, callbackHandler, contentResolver, properties);
+            } else {
+                syncChangedMovies(orchestrator, hostConnection, callbackHandler, contentResolver, properties,
+                                  localMarkers, new HashMap<>(), 0);
+            }
         } else {
             // Sync a specific movie
             VideoLibrary.GetMovieDetails action =
                     new VideoLibrary.GetMovieDetails(movieId, properties);
+            action.setLane(RequestScheduler.LANE_BACKGROUND);
             action.execute(hostConnection, new ApiCallback<VideoType.DetailsMovie>() {
                 @Override
                 public void onSuccess(VideoType.DetailsMovie result) {
@@ -121,73 +164,187 @@ public class SyncMovies extends SyncItem {
                     List<VideoType.DetailsMovie> movies = new ArrayList<>(1);
                     movies.add(result);
                     insertMovies(orchestrator, contentResolver, movies);
-                    orchestrator.syncItemFinished();
+                    orchestrator.syncItemFinished(SyncMovies.this);
                 }
 
                 @Override
                 public void onError(int errorCode, String description) {
                     // Ok, something bad happend, just quit
-                    orchestrator.syncItemFailed(errorCode, description);
+                    orchestrator.syncItemFailed(SyncMovies.this, errorCode, description);
                 }
             }, callbackHandler);
         }
     }
 
     /**
-     * Syncs all the movies, calling itself recursively
+     * Syncs all the movies, deleting the existing ones
      * Uses the {@link VideoLibrary.GetMovies} version with limits to make sure
-     * that Kodi doesn't blow up, and calls itself recursively until all the
-     * movies are returned
+     * that Kodi doesn't blow up, requesting several pages at a time
      */
     private void syncAllMovies(final SyncOrchestrator orchestrator,
                                final HostConnection hostConnection,
                                final Handler callbackHandler,
                                final ContentResolver contentResolver,
-                               final String[] properties,
-                               final int startIdx) {
-        // Call GetMovies with the current limits set
-        ListType.Limits limits = new ListType.Limits(startIdx, startIdx + LIMIT_SYNC_MOVIES);
-        VideoLibrary.GetMovies action = new VideoLibrary.GetMovies(limits, properties);
+                               final String[] properties) {
+        new PagedSync<VideoType.DetailsMovie>(
+                "movies", orchestrator, SyncMovies.this, hostConnection, callbackHandler, LIMIT_SYNC_MOVIES,
+                limits -> new VideoLibrary.GetMovies(limits, properties),
+                (startIdx, movies) -> {
+                    if (startIdx == 0) {
+                        // First page, delete movies from DB
+                        deleteMovies(contentResolver, hostId, -1);
+                    }
+                    insertMovies(orchestrator, contentResolver, movies);
+                },
+                new PagedSync.OnPagedSyncListener() {
+                    @Override
+                    public void onPagedSyncFinished() {
+                        orchestrator.syncItemFinished(SyncMovies.this);
+                    }
+
+                    @Override
+                    public void onPagedSyncError(int errorCode, String description) {
+                        // Ok, something bad happened, just quit
+                        orchestrator.syncItemFailed(SyncMovies.this, errorCode, description);
+                    }
+                }).start();
+    }
+
+    private static String changeMarker(VideoType.DetailsMovie movie) {
+        return SyncUtils.changeMarker(movie.dateadded, String.valueOf(movie.playcount));
+    }
+
+    /**
+     * Syncs only the movies that are new or changed on Kodi, and deletes the ones removed.
+     * Gets the change markers of all the movies, calling itself recursively, compares them with
+     * the ones stored locally, and then gets the details of the movies that changed.
+     * If most movies changed, falls back to {@link #syncAllMovies}
+     */
+    private void syncChangedMovies(final SyncOrchestrator orchestrator,
+                                   final HostConnection hostConnection,
+                                   final Handler callbackHandler,
+                                   final ContentResolver contentResolver,
+                                   final String[] properties,
+                                   final HashMap<Integer, String> localMarkers,
+                                   final HashMap<Integer, String> remoteMarkers,
+                                   final int startIdx) {
+        ListType.Limits limits = new ListType.Limits(startIdx, startIdx + LIMIT_SYNC_MOVIES_CHANGES);
+        VideoLibrary.GetMovies action = new VideoLibrary.GetMovies(limits, changeMarkerProperties);
+        action.setLane(RequestScheduler.LANE_BACKGROUND);
         action.execute(hostConnection, new ApiCallback<ApiList<VideoType.DetailsMovie>>() {
             @Override
             public void onSuccess(ApiList<VideoType.DetailsMovie> result) {
-                ListType.LimitsReturned limitsReturned = null;
-                if (result != null) {
-                    limitsReturned = result.limits;
+                for (VideoType.DetailsMovie movie : result.items) {
+                    remoteMarkers.put(movie.movieid, changeMarker(movie));
                 }
 
-                if (startIdx == 0) {
-                    // First call, delete movies from DB
-                    deleteMovies(contentResolver, hostId, -1);
-                }
-                if (result != null && !result.items.isEmpty()) {
-                    insertMovies(orchestrator, contentResolver, result.items);
+                if (SyncUtils.moreItemsAvailable(result.limits)) {
+                    syncChangedMovies(orchestrator, hostConnection, callbackHandler, contentResolver, properties,
+                                      localMarkers, remoteMarkers, startIdx + LIMIT_SYNC_MOVIES_CHANGES);
+                    return;
                 }
 
-                if (SyncUtils.moreItemsAvailable(limitsReturned)) {
-                    // Max limit returned, there may be some more movies
-                    // As we're going to recurse, these result objects can add up, so
-                    // let's help the GC and indicate that we don't need this memory
-                    // (hopefully this works)
-                    result = null;
-                    syncAllMovies(orchestrator, hostConnection, callbackHandler, contentResolver,
-                                  properties, startIdx + LIMIT_SYNC_MOVIES);
-                } else {
-                    // Less than the limit was returned so we can finish
-                    // (if it returned more there's a bug in Kodi but it
-                    // shouldn't be a problem as they got inserted in the DB)
-                    orchestrator.syncItemFinished();
+                SyncUtils.LibraryDiff diff = SyncUtils.diffLibrary(localMarkers, remoteMarkers);
+                LogUtils.LOGD(TAG, "Incremental movies sync. " + diff);
+                if (diff.isMostlyChanged()) {
+                    syncAllMovies(orchestrator, hostConnection, callbackHandler, contentResolver, properties);
+                    return;
                 }
+
+                deleteMovies(contentResolver, diff.deletedIds);
+                orchestrator.addItemsToSync(SyncMovies.this, diff.changedIds.size());
+                syncMoviesDetails(orchestrator, hostConnection, callbackHandler, contentResolver, properties,
+                                  diff.changedIds, 0);
             }
 
             @Override
             public void onError(int errorCode, String description) {
                 // Ok, something bad happened, just quit
-                orchestrator.syncItemFailed(errorCode, description);
+                orchestrator.syncItemFailed(SyncMovies.this, errorCode, description);
             }
         }, callbackHandler);
     }
 
+    /**
+     * Gets the details of the given movies in batches, calling itself recursively, and stores them
+     * replacing the existing ones
+     */
+    private void syncMoviesDetails(final SyncOrchestrator orchestrator,
+                                   final HostConnection hostConnection,
+                                   final Handler callbackHandler,
+                                   final ContentResolver contentResolver,
+                                   final String[] properties,
+                                   final List<Integer> movieIds,
+                                   final int startIdx) {
+        if (startIdx >= movieIds.size()) {
+            orchestrator.syncItemFinished(SyncMovies.this);
+            return;
+        }
+
+        final int batchSize = Math.min(LIMIT_SYNC_MOVIES_DETAILS, movieIds.size() - startIdx);
+        final List<VideoType.DetailsMovie> movies = new ArrayList<>(batchSize);
+        ApiCallback<VideoType.DetailsMovie> callback = new ApiCallback<VideoType.DetailsMovie>() {
+            private int responseCount = 0;
+            private int errorCode = -1;
+            private String errorDescription;
+
+            @Override
+            public void onSuccess(VideoType.DetailsMovie result) {
+                movies.add(result);
+                onResponse();
+            }
+
+            @Override
+            public void onError(int errorCode, String description) {
+                // Kodi returns an API error for movies removed in the meantime, just skip them
+                if (errorCode != ApiException.API_ERROR) {
+                    this.errorCode = errorCode;
+                    this.errorDescription = description;
+                }
+                onResponse();
+            }
+
+            private void onResponse() {
+                if (++responseCount < batchSize) return;
+
+                if (errorCode != -1) {
+                    orchestrator.syncItemFailed(SyncMovies.this, errorCode, errorDescription);
+                    return;
+                }
+                if (!movies.isEmpty()) {
+                    List<Integer> syncedIds = new ArrayList<>(movies.size());
+                    for (VideoType.DetailsMovie movie : movies) syncedIds.add(movie.movieid);
+                    // Movies are replaced on insert, but their cast needs to be deleted
+                    SyncUtils.deleteItems(contentResolver, MediaContract.MovieCast.CONTENT_URI,
+                                          MediaContract.MovieCastColumns.HOST_ID, hostId,
+                                          MediaContract.MovieCastColumns.MOVIEID, syncedIds);
+                    insertMovies(orchestrator, contentResolver, movies);
+                }
+                orchestrator.addItemsSynced(SyncMovies.this, batchSize);
+                syncMoviesDetails(orchestrator, hostConnection, callbackHandler, contentResolver, properties,
+                                  movieIds, startIdx + batchSize);
+            }
+        };
+
+        ApiBatch batch = new ApiBatch().setLane(RequestScheduler.LANE_BACKGROUND);
+        for (int i = startIdx; i < startIdx + batchSize; i++) {
+            batch.add(new VideoLibrary.GetMovieDetails(movieIds.get(i), properties), callback);
+        }
+        hostConnection.execute(batch, callbackHandler);
+    }
+
+    /**
+     * Deletes the given movies from the database
+     */
+    private void deleteMovies(final ContentResolver contentResolver, List<Integer> movieIds) {
+        SyncUtils.deleteItems(contentResolver, MediaContract.MovieCast.CONTENT_URI,
+                              MediaContract.MovieCastColumns.HOST_ID, hostId,
+                              MediaContract.MovieCastColumns.MOVIEID, movieIds);
+        SyncUtils.deleteItems(contentResolver, MediaContract.Movies.CONTENT_URI,
+                              MediaContract.MoviesColumns.HOST_ID, hostId,
+                              MediaContract.MoviesColumns.MOVIEID, movieIds);
+    }
+
     /**
      * Deletes one or all movies from the database (pass -1 on movieId to delete all)
      */
@@ -22,16 +22,14 @@ import android.os.Bundle;
 import android.os.Handler;
 
 import org.xbmc.kore.jsonrpc.ApiCallback;
-import org.xbmc.kore.jsonrpc.ApiList;
 import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.method.AudioLibrary;
 import org.xbmc.kore.jsonrpc.type.AudioType;
 import org.xbmc.kore.jsonrpc.type.LibraryType;
-import org.xbmc.kore.jsonrpc.type.ListType;
 import org.xbmc.kore.provider.MediaContract;
 import org.xbmc.kore.utils.LogUtils;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class SyncMusic extends SyncItem {
@@ -68,7 +66,7 @@ public class SyncMusic extends SyncItem {
                      final HostConnection hostConnection,
                      final Handler callbackHandler,
                      final ContentResolver contentResolver) {
-        chainCallSyncArtists(orchestrator, hostConnection, callbackHandler, contentResolver, 0);
+        chainCallSyncArtists(orchestrator, hostConnection, callbackHandler, contentResolver);
     }
 
     private final static String[] getArtistsProperties = {
@@ -85,56 +83,39 @@ public class SyncMusic extends SyncItem {
     };
 
     /**
-     * Gets all artists recursively and forwards the call to Genres
+     * Gets all artists, several pages at a time, and forwards the call to Genres
      * Genres->Albums->Songs
      */
     private void chainCallSyncArtists(final SyncOrchestrator orchestrator,
-                                     final HostConnection hostConnection,
-                                     final Handler callbackHandler,
-                                     final ContentResolver contentResolver,
-                                     final int startIdx) {
+                                      final HostConnection hostConnection,
+                                      final Handler callbackHandler,
+                                      final ContentResolver contentResolver) {
         final int hostId = hostConnection.getHostInfo().getId();
 
         // Artists->Genres->Albums->Songs
         // Only gets album artists (first parameter)
-        ListType.Limits limits = new ListType.Limits(startIdx, startIdx + LIMIT_SYNC_ARTISTS);
-        AudioLibrary.GetArtists action = new AudioLibrary.GetArtists(limits, true, getArtistsProperties);
-        action.execute(hostConnection, new ApiCallback<ApiList<AudioType.DetailsArtist>>() {
-            @Override
-            public void onSuccess(ApiList<AudioType.DetailsArtist> result) {
-                List<AudioType.DetailsArtist> items;
-                ListType.LimitsReturned limitsReturned;
-                if (result == null) {  // Safeguard
-                    items = new ArrayList<>(0);
-                    limitsReturned = null;
-                } else {
-                    items = result.items;
-                    limitsReturned = result.limits;
-                }
-
-                // First delete all music info
-                if (startIdx == 0) deleteMusicInfo(contentResolver, hostId);
-
-                insertArtists(hostId, items, contentResolver);
-
-                if (SyncUtils.moreItemsAvailable(limitsReturned)) {
-                    LogUtils.LOGD(TAG, "chainCallSyncArtists: More results on media center, recursing.");
-                    result = null; // Help the GC?
-                    chainCallSyncArtists(orchestrator, hostConnection, callbackHandler, contentResolver,
-                                         startIdx + LIMIT_SYNC_ARTISTS);
-                } else {
-                    // Ok, we have all the artists, proceed
-                    LogUtils.LOGD(TAG, "chainCallSyncArtists: Got all results, continuing");
-                    chainCallSyncGenres(orchestrator, hostConnection, callbackHandler, contentResolver);
-                }
-            }
-
-            @Override
-            public void onError(int errorCode, String description) {
-                // Ok, something bad happend, just quit
-                orchestrator.syncItemFailed(errorCode, description);
-            }
-        }, callbackHandler);
+        new PagedSync<AudioType.DetailsArtist>(
+                "artists", orchestrator, SyncMusic.this, hostConnection, callbackHandler, LIMIT_SYNC_ARTISTS,
+                limits -> new AudioLibrary.GetArtists(limits, true, getArtistsProperties),
+                (startIdx, items) -> {
+                    // First delete all music info
+                    if (startIdx == 0) deleteMusicInfo(contentResolver, hostId);
+                    insertArtists(hostId, items, contentResolver);
+                },
+                new PagedSync.OnPagedSyncListener() {
+                    @Override
+                    public void onPagedSyncFinished() {
+                        // Ok, we have all the artists, proceed
+                        LogUtils.LOGD(TAG, "chainCallSyncArtists: Got all results, continuing");
+                        chainCallSyncGenres(orchestrator, hostConnection, callbackHandler, contentResolver);
+                    }
+
+                    @Override
+                    public void onPagedSyncError(int errorCode, String description) {
+                        // Ok, something bad happend, just quit
+                        orchestrator.syncItemFailed(SyncMusic.this, errorCode, description);
+                    }
+                }).start();
     }
 
     private void deleteMusicInfo(final ContentResolver contentResolver,
@@ -173,19 +154,20 @@ public class SyncMusic extends SyncItem {
 
         // Genres->Albums->Songs
         AudioLibrary.GetGenres action = new AudioLibrary.GetGenres(getGenresProperties);
+        action.setLane(RequestScheduler.LANE_BACKGROUND);
         action.execute(hostConnection, new ApiCallback<List<LibraryType.DetailsGenre>>() {
             @Override
             public void onSuccess(List<LibraryType.DetailsGenre> result) {
                 if (result != null)
                     insertGenresItems(hostId, result, contentResolver);
 
-                chainCallSyncAlbums(orchestrator, hostConnection, callbackHandler, contentResolver, 0);
+                chainCallSyncAlbums(orchestrator, hostConnection, callbackHandler, contentResolver);
             }
 
             @Override
             public void onError(int errorCode, String description) {
                 // Ok, something bad happend, just quit
-                orchestrator.syncItemFailed(errorCode, description);
+                orchestrator.syncItemFailed(SyncMusic.this, errorCode, description);
             }
         }, callbackHandler);
     }
@@ -205,58 +187,33 @@ public class SyncMusic extends SyncItem {
     };
 
     /**
-     * Syncs Albums recursively and forwards calls to sync songs:
+     * Syncs Albums, several pages at a time, and forwards calls to sync songs:
      * Albums->Songs
      */
     private void chainCallSyncAlbums(final SyncOrchestrator orchestrator,
                                      final HostConnection hostConnection,
                                      final Handler callbackHandler,
-                                     final ContentResolver contentResolver,
-                                     final int startIdx) {
+                                     final ContentResolver contentResolver) {
         final int hostId = hostConnection.getHostInfo().getId();
-        final long albumSyncStartTime = System.currentTimeMillis();
         // Albums->Songs
-        ListType.Limits limits = new ListType.Limits(startIdx, startIdx + LIMIT_SYNC_ALBUMS);
-
-        AudioLibrary.GetAlbums action = new AudioLibrary.GetAlbums(limits, getAlbumsProperties);
-
-        action.execute(hostConnection, new ApiCallback<ApiList<AudioType.DetailsAlbum>>() {
-            @Override
-            public void onSuccess(ApiList<AudioType.DetailsAlbum> result) {
-                List<AudioType.DetailsAlbum> items;
-                ListType.LimitsReturned limitsReturned;
-                if (result == null) {  // Safeguard
-                    items = new ArrayList<>(0);
-                    limitsReturned = null;
-                } else {
-                    items = result.items;
-                    limitsReturned = result.limits;
-                }
-
-                // Insert the partial results
-                insertAlbumsItems(hostId, items, contentResolver);
-
-                LogUtils.LOGD(TAG, "Finished inserting artists and genres in: " +
-                                   (System.currentTimeMillis() - albumSyncStartTime));
-
-                if (SyncUtils.moreItemsAvailable(limitsReturned)) {
-                    LogUtils.LOGD(TAG, "chainCallSyncAlbums: More results on media center, recursing.");
-                    result = null; // Help the GC?
-                    chainCallSyncAlbums(orchestrator, hostConnection, callbackHandler, contentResolver,
-                                        startIdx + LIMIT_SYNC_ALBUMS);
-                } else {
-                    // Ok, we have all the albums, proceed to songs
-                    LogUtils.LOGD(TAG, "chainCallSyncAlbums: Got all results, continuing");
-                    chainCallSyncSongs(orchestrator, hostConnection, callbackHandler, contentResolver, 0);
-                }
-            }
-
-            @Override
-            public void onError(int errorCode, String description) {
-                // Ok, something bad happend, just quit
-                orchestrator.syncItemFailed(errorCode, description);
-            }
-        }, callbackHandler);
+        new PagedSync<AudioType.DetailsAlbum>(
+                "albums", orchestrator, SyncMusic.this, hostConnection, callbackHandler, LIMIT_SYNC_ALBUMS,
+                limits -> new AudioLibrary.GetAlbums(limits, getAlbumsProperties),
+                (startIdx, items) -> insertAlbumsItems(hostId, items, contentResolver),
+                new PagedSync.OnPagedSyncListener() {
+                    @Override
+                    public void onPagedSyncFinished() {
+                        // Ok, we have all the albums, proceed to songs
+                        LogUtils.LOGD(TAG, "chainCallSyncAlbums: Got all results, continuing");
+                        chainCallSyncSongs(orchestrator, hostConnection, callbackHandler, contentResolver);
+                    }
+
+                    @Override
+                    public void onPagedSyncError(int errorCode, String description) {
+                        // Ok, something bad happend, just quit
+                        orchestrator.syncItemFailed(SyncMusic.this, errorCode, description);
+                    }
+                }).start();
     }
 
     private static final String[] getSongsProperties = {
@@ -282,51 +239,31 @@ public class SyncMusic extends SyncItem {
     };
 
     /**
-     * Syncs songs and stops
+     * Syncs songs, several pages at a time, and stops
      */
     private void chainCallSyncSongs(final SyncOrchestrator orchestrator,
                                     final HostConnection hostConnection,
                                     final Handler callbackHandler,
-                                    final ContentResolver contentResolver,
-                                    final int startIdx) {
+                                    final ContentResolver contentResolver) {
         final int hostId = hostConnection.getHostInfo().getId();
         // Songs
-        ListType.Limits limits = new ListType.Limits(startIdx, startIdx + LIMIT_SYNC_SONGS);
-        AudioLibrary.GetSongs action = new AudioLibrary.GetSongs(limits, getSongsProperties);
-        action.execute(hostConnection, new ApiCallback<ApiList<AudioType.DetailsSong>>() {
-            @Override
-            public void onSuccess(ApiList<AudioType.DetailsSong> result) {
-                List<AudioType.DetailsSong> items;
-                ListType.LimitsReturned limitsReturned;
-                if (result == null) {  // Safeguard
-                    items = new ArrayList<>(0);
-                    limitsReturned = null;
-                } else {
-                    items = result.items;
-                    limitsReturned = result.limits;
-                }
-
-                // Save partial results to DB
-                insertSongsItems(hostId, items, contentResolver);
-
-                if (SyncUtils.moreItemsAvailable(limitsReturned)) {
-                    LogUtils.LOGD(TAG, "chainCallSyncSongs: More results on media center, recursing.");
-                    result = null; // Help the GC?
-                    chainCallSyncSongs(orchestrator, hostConnection, callbackHandler, contentResolver,
-                                       startIdx + LIMIT_SYNC_SONGS);
-                } else {
-                    // Ok, we have all the songs, insert them
-                    LogUtils.LOGD(TAG, "chainCallSyncSongs: Got all results, continuing");
-                    orchestrator.syncItemFinished();
-                }
-            }
-
-            @Override
-            public void onError(int errorCode, String description) {
-                // Ok, something bad happened, just quit
-                orchestrator.syncItemFailed(errorCode, description);
-            }
-        }, callbackHandler);
+        new PagedSync<AudioType.DetailsSong>(
+                "songs", orchestrator, SyncMusic.this, hostConnection, callbackHandler, LIMIT_SYNC_SONGS,
+                limits -> new AudioLibrary.GetSongs(limits, getSongsProperties),
+                (startIdx, items) -> insertSongsItems(hostId, items, contentResolver),
+                new PagedSync.OnPagedSyncListener() {
+                    @Override
+                    public void onPagedSyncFinished() {
+                        LogUtils.LOGD(TAG, "chainCallSyncSongs: Got all results, continuing");
+                        orchestrator.syncItemFinished(SyncMusic.this);
+                    }
+
+                    @Override
+                    public void onPagedSyncError(int errorCode, String description) {
+                        // Ok, something bad happened, just quit
+                        orchestrator.syncItemFailed(SyncMusic.this, errorCode, description);
+                    }
+                }).start();
     }
 
     public void insertArtists(int hostId, List<AudioType.DetailsArtist> items, ContentResolver contentResolver) {
@@ -378,40 +315,33 @@ public class SyncMusic extends SyncItem {
     }
 
     public void insertSongsItems(int hostId, List<AudioType.DetailsSong> items, ContentResolver contentResolver) {
-        ContentValues[] songValuesBatch = new ContentValues[items.size()];
-        int totalArtistsCount = 0, totalGenresCount = 0;
-        for (int i = 0; i < items.size(); i++) {
-            AudioType.DetailsSong song = items.get(i);
-            songValuesBatch[i] = SyncUtils.contentValuesFromSong(hostId, song);
-
-            totalArtistsCount += song.artistid.size();
-            totalGenresCount += song.genreid.size();
-        }
-        contentResolver.bulkInsert(MediaContract.Songs.CONTENT_URI, songValuesBatch);
+        // Songs are the bulk of the library, so bind them directly instead of building ContentValues
+        SyncUtils.bulkInsert(contentResolver, MediaContract.Songs.CONTENT_URI, inserter -> {
+            inserter.columns(SyncUtils.SONG_COLUMNS);
+            for (AudioType.DetailsSong song : items) {
+                SyncUtils.bindSong(inserter, hostId, song);
+                inserter.insert();
+            }
+        });
 
         // Iterate on each song, collect the artists and the genres and insert them
-        ContentValues[] songArtistsValuesBatch = new ContentValues[totalArtistsCount];
-        ContentValues[] songGenresValuesBatch = new ContentValues[totalGenresCount];
-        int artistCount = 0, genreCount = 0;
-        for (AudioType.DetailsSong song : items) {
-            for (int artistId : song.artistid) {
-                songArtistsValuesBatch[artistCount] = new ContentValues();
-                songArtistsValuesBatch[artistCount].put(MediaContract.SongArtists.HOST_ID, hostId);
-                songArtistsValuesBatch[artistCount].put(MediaContract.SongArtists.SONGID, song.songid);
-                songArtistsValuesBatch[artistCount].put(MediaContract.SongArtists.ARTISTID, artistId);
-                artistCount++;
+        SyncUtils.bulkInsert(contentResolver, MediaContract.SongArtists.CONTENT_URI, inserter -> {
+            inserter.columns(MediaContract.SongArtists.HOST_ID, MediaContract.SongArtists.SONGID,
+                             MediaContract.SongArtists.ARTISTID);
+            for (AudioType.DetailsSong song : items) {
+                for (int artistId : song.artistid) {
+                    inserter.bindLong(0, hostId).bindLong(1, song.songid).bindLong(2, artistId).insert();
+                }
             }
-
-             for (int genreId : song.genreid) {
-                 songGenresValuesBatch[genreCount] = new ContentValues();
-                 songGenresValuesBatch[genreCount].put(MediaContract.AlbumGenres.HOST_ID, hostId);
-                 songGenresValuesBatch[genreCount].put(MediaContract.AlbumGenres.ALBUMID, song.albumid);
-                 songGenresValuesBatch[genreCount].put(MediaContract.AlbumGenres.GENREID, genreId);
-                 genreCount++;
-             }
-        }
-
-        contentResolver.bulkInsert(MediaContract.SongArtists.CONTENT_URI, songArtistsValuesBatch);
-        contentResolver.bulkInsert(MediaContract.AlbumGenres.CONTENT_URI, songGenresValuesBatch);
+        });
+        SyncUtils.bulkInsert(contentResolver, MediaContract.AlbumGenres.CONTENT_URI, inserter -> {
+            inserter.columns(MediaContract.AlbumGenres.HOST_ID, MediaContract.AlbumGenres.ALBUMID,
+                             MediaContract.AlbumGenres.GENREID);
+            for (AudioType.DetailsSong song : items) {
+                for (int genreId : song.genreid) {
+                    inserter.bindLong(0, hostId).bindLong(1, song.albumid).bindLong(2, genreId).insert();
+                }
+            }
+        });
     }
 }
@@ -23,25 +23,39 @@ import android.os.Handler;
 
 import org.xbmc.kore.jsonrpc.ApiCallback;
 import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.method.VideoLibrary;
 import org.xbmc.kore.jsonrpc.type.VideoType;
 import org.xbmc.kore.provider.MediaContract;
 import org.xbmc.kore.utils.LogUtils;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 public class SyncMusicVideos extends SyncItem {
     public static final String TAG = LogUtils.makeLogTag(SyncMusicVideos.class);
 
     private final int hostId;
+    private final boolean syncFull;
     private final Bundle syncParams;
 
     /**
-     * Syncs all the music videos on XBMC, to the local database
+     * Syncs all the music videos on XBMC, to the local database, only deleting the ones removed
      * @param hostId XBMC host id
      */
     public SyncMusicVideos(final int hostId, Bundle syncParams) {
+        this(hostId, false, syncParams);
+    }
+
+    /**
+     * Syncs all the music videos on XBMC, to the local database
+     * @param hostId XBMC host id
+     * @param syncFull Whether to delete all music videos before inserting them, or only the ones removed
+     */
+    public SyncMusicVideos(final int hostId, final boolean syncFull, Bundle syncParams) {
         this.hostId = hostId;
+        this.syncFull = syncFull;
         this.syncParams = syncParams;
     }
 
@@ -80,20 +94,26 @@ public class SyncMusicVideos extends SyncItem {
                 //VideoType.FieldsMusicVideo.ART
         };
 
-        // Delete and sync all music videos
+        // Sync all music videos. They are replaced on insert, so only delete the ones removed, unless
+        // a full sync is requested
         VideoLibrary.GetMusicVideos action = new VideoLibrary.GetMusicVideos(properties);
+        action.setLane(RequestScheduler.LANE_BACKGROUND);
         action.execute(hostConnection, new ApiCallback<List<VideoType.DetailsMusicVideo>>() {
             @Override
             public void onSuccess(List<VideoType.DetailsMusicVideo> result) {
-                deleteMusicVideos(contentResolver, hostId);
+                if (syncFull) {
+                    deleteMusicVideos(contentResolver, hostId);
+                } else {
+                    deleteRemovedMusicVideos(contentResolver, result);
+                }
                 insertMusicVideos(result, contentResolver);
-                orchestrator.syncItemFinished();
+                orchestrator.syncItemFinished(SyncMusicVideos.this);
             }
 
             @Override
             public void onError(int errorCode, String description) {
                 // Ok, something bad happend, just quit
-                orchestrator.syncItemFailed(errorCode, description);
+                orchestrator.syncItemFailed(SyncMusicVideos.this, errorCode, description);
             }
         }, callbackHandler);
     }
@@ -105,6 +125,23 @@ public class SyncMusicVideos extends SyncItem {
                                where, new String[]{String.valueOf(hostId)});
     }
 
+    private void deleteRemovedMusicVideos(final ContentResolver contentResolver,
+                                          List<VideoType.DetailsMusicVideo> musicVideos) {
+        HashSet<Integer> remoteIds = new HashSet<>(musicVideos.size());
+        for (VideoType.DetailsMusicVideo musicVideo : musicVideos) {
+            remoteIds.add(musicVideo.musicvideoid);
+        }
+        List<Integer> removedIds = new ArrayList<>();
+        for (Integer localId : SyncUtils.getLocalChangeMarkers(contentResolver,
+                                                               MediaContract.MusicVideos.buildMusicVideosListUri(hostId),
+                                                               MediaContract.MusicVideosColumns.MUSICVIDEOID).keySet()) {
+            if (!remoteIds.contains(localId)) removedIds.add(localId);
+        }
+        SyncUtils.deleteItems(contentResolver, MediaContract.MusicVideos.CONTENT_URI,
+                              MediaContract.MusicVideosColumns.HOST_ID, hostId,
+                              MediaContract.MusicVideosColumns.MUSICVIDEOID, removedIds);
+    }
+
     public void insertMusicVideos(List<VideoType.DetailsMusicVideo> musicVideos, ContentResolver contentResolver) {
         ContentValues[] musicVideosValuesBatch = new ContentValues[musicVideos.size()];
 
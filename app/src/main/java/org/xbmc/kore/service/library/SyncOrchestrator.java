@@ -18,21 +18,49 @@ package org.xbmc.kore.service.library;
 
 import android.app.Service;
 import android.content.ContentResolver;
+import android.os.Bundle;
 import android.os.Handler;
 
 import org.greenrobot.eventbus.EventBus;
 import org.xbmc.kore.host.HostInfo;
 import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.jsonrpc.ApiException;
 import org.xbmc.kore.jsonrpc.event.MediaSyncEvent;
+import org.xbmc.kore.jsonrpc.event.MediaSyncProgressEvent;
+import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.provider.MediaProvider;
 import org.xbmc.kore.utils.LogUtils;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Syncs a list of {@link SyncItem}s.
+ *
+ * Items of different sync groups (see {@link SyncItem#getSyncGroup()}) touch different tables, so up to
+ * {@link #getMaxConcurrentSyncs()} of them are synced at the same time, while items of the same group
+ * are synced one after the other, in the order they were added.
+ * All the items post their callbacks on the same handler, so their requests overlap but their
+ * database writes don't, and all the methods called by the sync items run on that handler thread.
+ * While an item syncs, the media provider holds back its change notifications (see
+ * {@link MediaProvider#METHOD_BEGIN_NOTIFY_BATCH}), so that open lists aren't reloaded on every page written.
+ * A sync can be cancelled with {@link #cancelSync()}.
+ */
 public class SyncOrchestrator {
     public static final String TAG = LogUtils.makeLogTag(SyncOrchestrator.class);
 
+    /**
+     * Items that are queued or syncing. Read from other threads, so access is synchronized on it
+     */
     private final ArrayDeque<SyncItem> syncItems;
+    private final ArrayDeque<SyncItem> pendingSyncItems;
+    private final LinkedHashMap<SyncItem, ItemState> runningSyncItems;
     private final Service syncService;
     private final int serviceStartId;
     private HostConnection hostConnection;
@@ -40,9 +68,21 @@ public class SyncOrchestrator {
     private final Handler callbackHandler;
     private final ContentResolver contentResolver;
 
-    private SyncItem currentSyncItem;
+    /**
+     * Default number of page requests that paged syncs keep outstanding. See {@link PagedSync}
+     */
+    public static final int DEFAULT_MAX_PAGES_IN_FLIGHT = 3;
+    private int maxPagesInFlight = DEFAULT_MAX_PAGES_IN_FLIGHT;
 
-    private Iterator<SyncItem> syncItemIterator;
+    /**
+     * Default number of sync items that are synced at the same time
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_SYNCS = 2;
+    private int maxConcurrentSyncs = DEFAULT_MAX_CONCURRENT_SYNCS;
+
+    private int itemCount = 0, finishedItemCount = 0;
+    private volatile SyncProgress syncProgress;
+    private boolean isCancelled = false, isFinished = false;
 
     public interface OnSyncListener {
         void onSyncFinished(SyncOrchestrator syncOrchestrator);
@@ -50,6 +90,79 @@ public class SyncOrchestrator {
 
     private OnSyncListener listener;
 
+    /**
+     * Progress of a sync item, counted in library items (movies, songs, ...) as reported by the sync item.
+     * The number of items to sync can increase as the sync item goes through its stages.
+     */
+    public static class ItemProgress {
+        public final String syncType;
+        public final Bundle syncParams;
+        public final int itemsSynced;
+        public final int itemsToSync;
+
+        public ItemProgress(String syncType, Bundle syncParams, int itemsSynced, int itemsToSync) {
+            this.syncType = syncType;
+            this.syncParams = syncParams;
+            this.itemsSynced = itemsSynced;
+            this.itemsToSync = itemsToSync;
+        }
+
+        /**
+         * @return Fraction of the items synced, between 0 and 1
+         */
+        public float getFraction() {
+            return (itemsToSync > 0) ? Math.min(1f, (float) itemsSynced / itemsToSync) : 0f;
+        }
+    }
+
+    /**
+     * Snapshot of the progress of a sync
+     */
+    public static class SyncProgress {
+        public final int hostId;
+        /** Number of sync items of this sync, including the finished ones */
+        public final int itemCount;
+        public final int finishedItemCount;
+        /** Progress of the sync items currently syncing */
+        public final List<ItemProgress> runningItems;
+
+        public SyncProgress(int hostId, int itemCount, int finishedItemCount, List<ItemProgress> runningItems) {
+            this.hostId = hostId;
+            this.itemCount = itemCount;
+            this.finishedItemCount = finishedItemCount;
+            this.runningItems = Collections.unmodifiableList(runningItems);
+        }
+
+        /**
+         * @return Fraction of the whole sync that is done, between 0 and 1
+         */
+        public float getFraction() {
+            if (itemCount == 0) return 1f;
+            float done = finishedItemCount;
+            for (ItemProgress itemProgress : runningItems) {
+                done += itemProgress.getFraction();
+            }
+            return done / itemCount;
+        }
+
+        /**
+         * Returns the progress of the running sync item of the given type
+         * @param syncType One of the constants in {@link LibrarySyncService}
+         * @return Progress of the item, or null if no item of that type is running
+         */
+        public ItemProgress getItemProgress(String syncType) {
+            for (ItemProgress itemProgress : runningItems) {
+                if (itemProgress.syncType.equals(syncType)) return itemProgress;
+            }
+            return null;
+        }
+    }
+
+    private static class ItemState {
+        final long startTime = System.currentTimeMillis();
+        int itemsSynced = 0, itemsToSync = 0;
+    }
+
     /**
      * Constructor
      * @param syncService Service on which to call {@link LibrarySyncService#stopSelf()} when finished
@@ -64,6 +177,8 @@ public class SyncOrchestrator {
                             final ContentResolver contentResolver) {
         this.syncService = syncService;
         this.syncItems = new ArrayDeque<>();
+        this.pendingSyncItems = new ArrayDeque<>();
+        this.runningSyncItems = new LinkedHashMap<>();
         this.serviceStartId = startId;
         this.hostInfo = hostInfo;
         this.callbackHandler = callbackHandler;
@@ -79,19 +194,60 @@ public class SyncOrchestrator {
     }
 
     /**
-     * Add this item to the sync list
+     * Add this item to the sync list. Must be called before {@link #startSync()}
      * @param syncItem Sync item
      */
     public void addSyncItem(SyncItem syncItem) {
-        syncItems.add(syncItem);
+        synchronized (syncItems) {
+            syncItems.add(syncItem);
+        }
+        pendingSyncItems.add(syncItem);
+        itemCount++;
+    }
+
+    /**
+     * Returns the items that are queued or syncing. Can be called from any thread
+     * @return Copy of the list of items
+     */
+    public ArrayList<SyncItem> getSyncItems() {
+        synchronized (syncItems) {
+            return new ArrayList<>(syncItems);
+        }
+    }
+
+    /**
+     * Sets the number of page requests that paged syncs keep outstanding
+     * @param maxPagesInFlight Number of page requests, 1 to request one page at a time
+     */
+    public void setMaxPagesInFlight(int maxPagesInFlight) {
+        this.maxPagesInFlight = maxPagesInFlight;
+    }
+
+    public int getMaxPagesInFlight() {
+        return maxPagesInFlight;
+    }
+
+    /**
+     * Sets the number of sync items that are synced at the same time. Must be called before {@link #startSync()}
+     * @param maxConcurrentSyncs Number of sync items, 1 to sync one item at a time
+     */
+    public void setMaxConcurrentSyncs(int maxConcurrentSyncs) {
+        this.maxConcurrentSyncs = maxConcurrentSyncs;
+    }
+
+    public int getMaxConcurrentSyncs() {
+        return maxConcurrentSyncs;
     }
 
-    public ArrayDeque<SyncItem> getSyncItems() {
-        return syncItems;
+    /**
+     * Returns the progress of this sync. Can be called from any thread
+     * @return Progress snapshot, null if the sync hasn't started
+     */
+    public SyncProgress getSyncProgress() {
+        return syncProgress;
     }
 
     private long startTime = -1;
-    private long partialStartTime;
 
     /**
      * Starts the syncing process
@@ -100,65 +256,200 @@ public class SyncOrchestrator {
         startTime = System.currentTimeMillis();
         hostConnection = new HostConnection(hostInfo);
         hostConnection.setProtocol(HostConnection.PROTOCOL_HTTP);
-        syncItemIterator = syncItems.iterator();
-        nextSync();
+        callbackHandler.post(this::startPendingSyncItems);
     }
 
     /**
-     * Processes the next item on the sync list, or cleans up if it is finished.
+     * Starts the pending items that can be synced now, or cleans up if all are finished.
      */
-    private void nextSync() {
-        if (syncItemIterator.hasNext()) {
-            partialStartTime = System.currentTimeMillis();
-            currentSyncItem = syncItemIterator.next();
-            currentSyncItem.sync(this, hostConnection, callbackHandler, contentResolver);
-        } else {
+    private void startPendingSyncItems() {
+        if (isFinished) return;
+        if (pendingSyncItems.isEmpty() && runningSyncItems.isEmpty()) {
+            isFinished = true;
             LogUtils.LOGD(TAG, "Sync finished for all items. Total time: " +
                                (System.currentTimeMillis() - startTime));
             // No more syncs, cleanup.
             // No need to disconnect, as this is HTTP
             //hostConnection.disconnect();
+            contentResolver.call(MediaContract.BASE_CONTENT_URI, MediaProvider.METHOD_CHECKPOINT, null, null);
             if (listener != null) {
                 listener.onSyncFinished(this);
             }
             syncService.stopSelf(serviceStartId);
+            return;
+        }
+
+        HashSet<String> busySyncGroups = new HashSet<>();
+        for (SyncItem syncItem : runningSyncItems.keySet()) {
+            busySyncGroups.add(syncItem.getSyncGroup());
+        }
+
+        // Mark all of them as running before starting any, as a sync item may finish right away
+        ArrayList<SyncItem> itemsToStart = new ArrayList<>();
+        int freeSlots = Math.max(1, maxConcurrentSyncs) - runningSyncItems.size();
+        Iterator<SyncItem> iterator = pendingSyncItems.iterator();
+        while (iterator.hasNext() && itemsToStart.size() < freeSlots) {
+            SyncItem syncItem = iterator.next();
+            // Skip it if an item of the same group is running or was skipped before it
+            if (busySyncGroups.add(syncItem.getSyncGroup())) {
+                iterator.remove();
+                runningSyncItems.put(syncItem, new ItemState());
+                itemsToStart.add(syncItem);
+            }
+        }
+        if (!itemsToStart.isEmpty()) {
+            publishProgress();
+        }
+
+        for (SyncItem syncItem : itemsToStart) {
+            LogUtils.LOGD(TAG, "Starting sync for item: " + syncItem.getDescription());
+            contentResolver.call(MediaContract.BASE_CONTENT_URI, MediaProvider.METHOD_BEGIN_NOTIFY_BATCH, null, null);
+            syncItem.sync(this, hostConnection, callbackHandler, contentResolver);
         }
     }
 
     /**
-     * One of the syync items finish syncing
+     * One of the sync items finished syncing
+     * @param syncItem Sync item
      */
-    public void syncItemFinished() {
-        LogUtils.LOGD(TAG, "Sync finished for item: " + currentSyncItem.getDescription() +
-                           ". Total time: " + (System.currentTimeMillis() - partialStartTime));
+    public void syncItemFinished(SyncItem syncItem) {
+        ItemState itemState = removeRunningSyncItem(syncItem);
+        if (itemState == null) return;
+
+        LogUtils.LOGD(TAG, "Sync finished for item: " + syncItem.getDescription() +
+                           ". Total time: " + (System.currentTimeMillis() - itemState.startTime));
 
         EventBus.getDefault()
-                .post(new MediaSyncEvent(currentSyncItem.getSyncType(),
-                                         currentSyncItem.getSyncParams(),
+                .post(new MediaSyncEvent(syncItem.getSyncType(),
+                                         syncItem.getSyncParams(),
                                          MediaSyncEvent.STATUS_SUCCESS));
 
-        syncItems.remove(currentSyncItem);
-
-        nextSync();
+        startPendingSyncItems();
     }
 
     /**
-     * One of the sync items failed, stop and clean up
+     * One of the sync items failed. Keep syncing the others
+     * @param syncItem Sync item
      * @param errorCode Error code
      * @param description Description
      */
-    public void syncItemFailed(int errorCode, String description) {
+    public void syncItemFailed(SyncItem syncItem, int errorCode, String description) {
+        ItemState itemState = removeRunningSyncItem(syncItem);
+        if (itemState == null) return;
+
         LogUtils.LOGD(TAG, "A Sync item has got an error. Sync item: " +
-                           currentSyncItem.getDescription() +
+                           syncItem.getDescription() +
                            ". Error description: " + description);
         // No need to disconnect, as this is HTTP
         //hostConnection.disconnect();
+        postSyncFailed(syncItem, errorCode, description);
+        // Keep syncing till the end
+        startPendingSyncItems();
+    }
+
+    /**
+     * Cancels the sync. The pending items aren't synced, and the running ones are reported as failed with
+     * {@link ApiException#API_REQUEST_CANCELLED}, ignoring what they report afterwards.
+     * Must be called on the callback handler thread
+     */
+    public void cancelSync() {
+        if (isCancelled || isFinished) return;
+        isCancelled = true;
+        LogUtils.LOGD(TAG, "Cancelling sync of " + itemCount + " items");
+
+        String description = "Sync cancelled";
+        for (SyncItem syncItem : new ArrayList<>(runningSyncItems.keySet())) {
+            removeRunningSyncItem(syncItem);
+            postSyncFailed(syncItem, ApiException.API_REQUEST_CANCELLED, description);
+        }
+        for (SyncItem syncItem : pendingSyncItems) {
+            synchronized (syncItems) {
+                syncItems.remove(syncItem);
+            }
+            finishedItemCount++;
+            postSyncFailed(syncItem, ApiException.API_REQUEST_CANCELLED, description);
+        }
+        pendingSyncItems.clear();
+        startPendingSyncItems();
+    }
+
+    private void postSyncFailed(SyncItem syncItem, int errorCode, String description) {
         EventBus.getDefault()
-                .post(new MediaSyncEvent(currentSyncItem.getSyncType(),
-                                         currentSyncItem.getSyncParams(),
+                .post(new MediaSyncEvent(syncItem.getSyncType(),
+                                         syncItem.getSyncParams(),
                                          MediaSyncEvent.STATUS_FAIL, errorCode, description));
-        // Keep syncing till the end
-        nextSync();
-        //syncService.stopSelf(serviceStartId);
+    }
+
+    private ItemState removeRunningSyncItem(SyncItem syncItem) {
+        ItemState itemState = runningSyncItems.remove(syncItem);
+        if (itemState == null) {
+            LogUtils.LOGW(TAG, "Got a result for a sync item that isn't syncing: " + syncItem.getDescription());
+            return null;
+        }
+        synchronized (syncItems) {
+            syncItems.remove(syncItem);
+        }
+        contentResolver.call(MediaContract.BASE_CONTENT_URI, MediaProvider.METHOD_END_NOTIFY_BATCH, null, null);
+        finishedItemCount++;
+        publishProgress();
+        return itemState;
+    }
+
+    /**
+     * A sync item found more library items to sync
+     * @param syncItem Sync item
+     * @param count Number of library items found
+     */
+    public void addItemsToSync(SyncItem syncItem, int count) {
+        ItemState itemState = runningSyncItems.get(syncItem);
+        if (itemState == null) return;
+        itemState.itemsToSync += count;
+        publishProgress();
+    }
+
+    /**
+     * A sync item stored some library items
+     * @param syncItem Sync item
+     * @param count Number of library items stored
+     */
+    public void addItemsSynced(SyncItem syncItem, int count) {
+        ItemState itemState = runningSyncItems.get(syncItem);
+        if (itemState == null) return;
+        itemState.itemsSynced += count;
+        publishProgress();
+    }
+
+    private void publishProgress() {
+        ArrayList<ItemProgress> runningItems = new ArrayList<>(runningSyncItems.size());
+        for (Map.Entry<SyncItem, ItemState> entry : runningSyncItems.entrySet()) {
+            SyncItem syncItem = entry.getKey();
+            ItemState itemState = entry.getValue();
+            runningItems.add(new ItemProgress(syncItem.getSyncType(), syncItem.getSyncParams(),
+                                              itemState.itemsSynced, itemState.itemsToSync));
+        }
+        syncProgress = new SyncProgress(hostInfo.getId(), itemCount, finishedItemCount, runningItems);
+        EventBus.getDefault().post(new MediaSyncProgressEvent(syncProgress));
+    }
+
+    /**
+     * A stage of a sync item finished, log its timings
+     * @param syncItem Sync item
+     * @param stage Stage name
+     * @param totalTime Wall time of the stage
+     * @param requestsTime Sum of the time of each request, which overlap
+     * @param writeTime Time spent writing to the database
+     * @param pageCount Number of pages synced
+     * @param itemCount Number of items synced
+     */
+    public void syncStageFinished(SyncItem syncItem, String stage,
+                                  long totalTime, long requestsTime, long writeTime,
+                                  int pageCount, int itemCount) {
+        LogUtils.LOGD(TAG, "Sync finished for stage: " + stage + " of item: " + syncItem.getDescription() +
+                           ". Total time: " + totalTime +
+                           ". Requests time: " + requestsTime +
+                           ". Write time: " + writeTime +
+                           ". Pages: " + pageCount + " (" + maxPagesInFlight + " in flight)" +
+                           ". Items: " + itemCount +
+                           ". Items syncing: " + runningSyncItems.size());
     }
 }
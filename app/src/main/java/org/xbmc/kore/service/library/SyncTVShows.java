@@ -25,6 +25,7 @@ import android.os.Handler;
 import org.xbmc.kore.jsonrpc.ApiCallback;
 import org.xbmc.kore.jsonrpc.ApiList;
 import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.RequestScheduler;
 import org.xbmc.kore.jsonrpc.method.VideoLibrary;
 import org.xbmc.kore.jsonrpc.type.ListType;
 import org.xbmc.kore.jsonrpc.type.VideoType;
@@ -32,6 +33,8 @@ import org.xbmc.kore.provider.MediaContract;
 import org.xbmc.kore.utils.LogUtils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 
 public class SyncTVShows extends SyncItem {
@@ -41,15 +44,26 @@ public class SyncTVShows extends SyncItem {
 
     private final int hostId;
     private final int tvshowId;
+    private final boolean syncFull;
     private final Bundle syncParams;
 
     /**
-     * Syncs all the TVShows on selected XBMC to the local database
+     * Syncs the TVShows that changed on selected XBMC to the local database
      * @param hostId XBMC host id
      */
     public SyncTVShows(final int hostId, Bundle syncParams) {
+        this(hostId, false, syncParams);
+    }
+
+    /**
+     * Syncs all the TVShows on selected XBMC to the local database
+     * @param hostId XBMC host id
+     * @param syncFull Whether to delete and sync all the shows, or only the ones that changed
+     */
+    public SyncTVShows(final int hostId, final boolean syncFull, Bundle syncParams) {
         this.hostId = hostId;
         this.tvshowId = -1;
+        this.syncFull = syncFull;
         this.syncParams = syncParams;
     }
 
@@ -61,6 +75,7 @@ public class SyncTVShows extends SyncItem {
     public SyncTVShows(final int hostId, final int tvshowId, Bundle syncParams) {
         this.hostId = hostId;
         this.tvshowId = tvshowId;
+        this.syncFull = false;
         this.syncParams = syncParams;
     }
 
@@ -77,6 +92,14 @@ public class SyncTVShows extends SyncItem {
                                 : LibrarySyncService.SYNC_SINGLE_TVSHOW;
     }
 
+    /**
+     * Syncing all the TV shows and a single TV show touch the same tables, so they are in the same group
+     */
+    @Override
+    public String getSyncGroup() {
+        return LibrarySyncService.SYNC_ALL_TVSHOWS;
+    }
+
     /** {@inheritDoc} */
     public Bundle getSyncParams() {
         return syncParams;
@@ -111,6 +134,7 @@ public class SyncTVShows extends SyncItem {
         } else {
             VideoLibrary.GetTVShowDetails action =
                     new VideoLibrary.GetTVShowDetails(tvshowId, getTVShowsProperties);
+            action.setLane(RequestScheduler.LANE_BACKGROUND);
             action.execute(hostConnection, new ApiCallback<VideoType.DetailsTVShow>() {
                 @Override
                 public void onSuccess(VideoType.DetailsTVShow result) {
@@ -126,7 +150,7 @@ public class SyncTVShows extends SyncItem {
                 @Override
                 public void onError(int errorCode, String description) {
                     // Ok, something bad happend, just quit
-                    orchestrator.syncItemFailed(errorCode, description);
+                    orchestrator.syncItemFailed(SyncTVShows.this, errorCode, description);
                 }
             }, callbackHandler);
         }
@@ -147,6 +171,7 @@ public class SyncTVShows extends SyncItem {
         // Call GetTVShows with the current limits set
         ListType.Limits limits = new ListType.Limits(startIdx, startIdx + LIMIT_SYNC_TVSHOWS);
         VideoLibrary.GetTVShows action = new VideoLibrary.GetTVShows(limits, getTVShowsProperties);
+        action.setLane(RequestScheduler.LANE_BACKGROUND);
         action.execute(hostConnection, new ApiCallback<ApiList<VideoType.DetailsTVShow>>() {
             @Override
             public void onSuccess(ApiList<VideoType.DetailsTVShow> result) {
@@ -159,27 +184,90 @@ public class SyncTVShows extends SyncItem {
                 } else {
                     // Ok, we have all the shows, insert them
                     LogUtils.LOGD(TAG, "syncAllTVShows: Got all tv shows. Total: " + allResults.size());
-                    deleteTVShows(contentResolver, hostId, -1);
                     // Remove TV Shows that have no episodes
                     List<VideoType.DetailsTVShow> cleanedResults = new ArrayList<>(allResults.size());
                     for (VideoType.DetailsTVShow tvshow: allResults) {
                         if (tvshow.episode > 0) cleanedResults.add(tvshow);
                     }
-                    insertTVShows(cleanedResults, contentResolver);
+
+                    List<VideoType.DetailsTVShow> tvShowsToSync = syncFull ?
+                            cleanedResults : getChangedTVShows(contentResolver, cleanedResults);
+                    if (tvShowsToSync == cleanedResults) {
+                        deleteTVShows(contentResolver, hostId, -1);
+                    }
+                    insertTVShows(tvShowsToSync, contentResolver);
 
                     chainSyncSeasons(orchestrator, hostConnection, callbackHandler,
-                                     contentResolver, cleanedResults, 0);
+                                     contentResolver, tvShowsToSync, 0);
                 }
             }
 
             @Override
             public void onError(int errorCode, String description) {
                 // Ok, something bad happend, just quit
-                orchestrator.syncItemFailed(errorCode, description);
+                orchestrator.syncItemFailed(SyncTVShows.this, errorCode, description);
             }
         }, callbackHandler);
     }
 
+    private static String changeMarker(VideoType.DetailsTVShow tvShow) {
+        return SyncUtils.changeMarker(tvShow.dateadded, String.valueOf(tvShow.playcount),
+                                      String.valueOf(tvShow.episode), String.valueOf(tvShow.watchedepisodes));
+    }
+
+    /**
+     * Compares the shows on Kodi with the ones stored locally, deletes the ones removed from Kodi,
+     * and the seasons, episodes and cast of the ones that changed, so that they can be synced again.
+     * A show changes when episodes are added or watched. Unchanged shows aren't synced again.
+     * @param contentResolver Content resolver
+     * @param tvShows Shows on Kodi
+     * @return Shows that need to be synced. If there are no shows stored locally, or most of them
+     * changed, returns the same list passed, to do a full sync
+     */
+    private List<VideoType.DetailsTVShow> getChangedTVShows(final ContentResolver contentResolver,
+                                                            final List<VideoType.DetailsTVShow> tvShows) {
+        HashMap<Integer, String> localMarkers =
+                SyncUtils.getLocalChangeMarkers(contentResolver,
+                                                MediaContract.TVShows.buildTVShowsListUri(hostId),
+                                                MediaContract.TVShowsColumns.TVSHOWID,
+                                                MediaContract.TVShowsColumns.DATEADDED,
+                                                MediaContract.TVShowsColumns.PLAYCOUNT,
+                                                MediaContract.TVShowsColumns.EPISODE,
+                                                MediaContract.TVShowsColumns.WATCHEDEPISODES);
+        if (localMarkers.isEmpty()) return tvShows;
+
+        HashMap<Integer, String> remoteMarkers = new HashMap<>(tvShows.size());
+        for (VideoType.DetailsTVShow tvShow : tvShows) {
+            remoteMarkers.put(tvShow.tvshowid, changeMarker(tvShow));
+        }
+        SyncUtils.LibraryDiff diff = SyncUtils.diffLibrary(localMarkers, remoteMarkers);
+        LogUtils.LOGD(TAG, "Incremental tv shows sync. " + diff);
+        if (diff.isMostlyChanged()) return tvShows;
+
+        List<Integer> idsToDelete = new ArrayList<>(diff.deletedIds);
+        idsToDelete.addAll(diff.changedIds);
+        SyncUtils.deleteItems(contentResolver, MediaContract.Episodes.CONTENT_URI,
+                              MediaContract.EpisodesColumns.HOST_ID, hostId,
+                              MediaContract.EpisodesColumns.TVSHOWID, idsToDelete);
+        SyncUtils.deleteItems(contentResolver, MediaContract.Seasons.CONTENT_URI,
+                              MediaContract.SeasonsColumns.HOST_ID, hostId,
+                              MediaContract.SeasonsColumns.TVSHOWID, idsToDelete);
+        SyncUtils.deleteItems(contentResolver, MediaContract.TVShowCast.CONTENT_URI,
+                              MediaContract.TVShowCastColumns.HOST_ID, hostId,
+                              MediaContract.TVShowCastColumns.TVSHOWID, idsToDelete);
+        // Changed shows are replaced on insert
+        SyncUtils.deleteItems(contentResolver, MediaContract.TVShows.CONTENT_URI,
+                              MediaContract.TVShowsColumns.HOST_ID, hostId,
+                              MediaContract.TVShowsColumns.TVSHOWID, diff.deletedIds);
+
+        HashSet<Integer> changedIds = new HashSet<>(diff.changedIds);
+        List<VideoType.DetailsTVShow> changedTVShows = new ArrayList<>(changedIds.size());
+        for (VideoType.DetailsTVShow tvShow : tvShows) {
+            if (changedIds.contains(tvShow.tvshowid)) changedTVShows.add(tvShow);
+        }
+        return changedTVShows;
+    }
+
     private void deleteTVShows(final ContentResolver contentResolver,
                                int hostId, int tvshowId) {
         if (tvshowId == -1) {
@@ -222,7 +310,8 @@ public class SyncTVShows extends SyncItem {
      * itself to sync the next tvshow on the list.
      * This basically iterates through the tvshows list updating the seasons,
      * in a sequential manner (defeating the parallel nature of host calls)
-     * After processing all tvshows on the list, starts the episode syncing
+     * After processing all tvshows on the list, starts the episode syncing.
+     * Progress is reported per tvshow, once for its seasons and once for its episodes
      *
      * @param orchestrator Orchestrator to call when finished
      * @param hostConnection Host connection to use
@@ -237,16 +326,21 @@ public class SyncTVShows extends SyncItem {
                                   final ContentResolver contentResolver,
                                   final List<VideoType.DetailsTVShow> tvShows,
                                   final int position) {
+        if (position == 0) {
+            orchestrator.addItemsToSync(SyncTVShows.this, 2 * tvShows.size());
+        }
         if (position < tvShows.size()) {
             // Process this tvshow
             final VideoType.DetailsTVShow tvShow = tvShows.get(position);
 
             VideoLibrary.GetSeasons action = new VideoLibrary.GetSeasons(tvShow.tvshowid, seasonsProperties);
+            action.setLane(RequestScheduler.LANE_BACKGROUND);
             action.execute(hostConnection, new ApiCallback<List<VideoType.DetailsSeason>>() {
                 @Override
                 public void onSuccess(List<VideoType.DetailsSeason> result) {
 
                     insertSeason(tvShow.tvshowid, result, contentResolver);
+                    orchestrator.addItemsSynced(SyncTVShows.this, 1);
 
                     // Sync the next tv show
                     chainSyncSeasons(orchestrator, hostConnection, callbackHandler,
@@ -256,7 +350,7 @@ public class SyncTVShows extends SyncItem {
                 @Override
                 public void onError(int errorCode, String description) {
                     // Ok, something bad happend, just quit
-                    orchestrator.syncItemFailed(errorCode, description);
+                    orchestrator.syncItemFailed(SyncTVShows.this, errorCode, description);
                 }
             }, callbackHandler);
         } else {
@@ -312,11 +406,13 @@ public class SyncTVShows extends SyncItem {
             VideoType.DetailsTVShow tvShow = tvShows.get(position);
 
             VideoLibrary.GetEpisodes action = new VideoLibrary.GetEpisodes(tvShow.tvshowid, getEpisodesProperties);
+            action.setLane(RequestScheduler.LANE_BACKGROUND);
             action.execute(hostConnection, new ApiCallback<List<VideoType.DetailsEpisode>>() {
                 @Override
                 public void onSuccess(List<VideoType.DetailsEpisode> result) {
 
                     insertEpisodes(result, contentResolver);
+                    orchestrator.addItemsSynced(SyncTVShows.this, 1);
 
                     chainSyncEpisodes(orchestrator, hostConnection, callbackHandler,
                                       contentResolver, tvShows, position + 1);
@@ -325,13 +421,13 @@ public class SyncTVShows extends SyncItem {
                 @Override
                 public void onError(int errorCode, String description) {
                     // Ok, something bad happend, just quit
-                    orchestrator.syncItemFailed(errorCode, description);
+                    orchestrator.syncItemFailed(SyncTVShows.this, errorCode, description);
                 }
             }, callbackHandler);
         } else {
             // We're finished
             LogUtils.LOGD(TAG, "Sync tv shows finished successfully");
-            orchestrator.syncItemFinished();
+            orchestrator.syncItemFinished(SyncTVShows.this);
         }
     }
 
@@ -16,10 +16,14 @@
 package org.xbmc.kore.service.library;
 
 import android.content.ComponentName;
+import android.content.ContentProviderClient;
+import android.content.ContentResolver;
 import android.content.ContentValues;
 import android.content.Context;
 import android.content.Intent;
 import android.content.ServiceConnection;
+import android.database.Cursor;
+import android.net.Uri;
 import android.os.IBinder;
 
 import org.xbmc.kore.host.HostInfo;
@@ -27,11 +31,16 @@ import org.xbmc.kore.jsonrpc.type.ListType;
 import org.xbmc.kore.jsonrpc.type.VideoType;
 import org.xbmc.kore.jsonrpc.type.AudioType;
 import org.xbmc.kore.jsonrpc.type.LibraryType;
+import org.xbmc.kore.provider.BulkInserter;
 import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.provider.MediaDatabase;
+import org.xbmc.kore.provider.MediaProvider;
 import org.xbmc.kore.utils.Utils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Util functions for the Library Sync Service
@@ -60,6 +69,7 @@ public class SyncUtils {
         movieValues.put(MediaContract.MoviesColumns.DATEADDED, movie.dateadded);
         movieValues.put(MediaContract.MoviesColumns.LASTPLAYED, movie.lastplayed);
         movieValues.put(MediaContract.MoviesColumns.TITLE, movie.title);
+        movieValues.put(MediaContract.MoviesColumns.SORT_TITLE, MediaDatabase.sortTitle(movie.title));
         movieValues.put(MediaContract.MoviesColumns.FILE, movie.file);
         movieValues.put(MediaContract.MoviesColumns.PLOT, movie.plot);
         movieValues.put(MediaContract.MoviesColumns.DIRECTOR, Utils.listStringConcat(movie.director, LIST_DELIMITER));
@@ -156,6 +166,7 @@ public class SyncUtils {
         tvshowValues.put(MediaContract.TVShowsColumns.POSTER, tvshow.art.poster);
         tvshowValues.put(MediaContract.TVShowsColumns.PLAYCOUNT, tvshow.playcount);
         tvshowValues.put(MediaContract.TVShowsColumns.TITLE, tvshow.title);
+        tvshowValues.put(MediaContract.TVShowsColumns.SORT_TITLE, MediaDatabase.sortTitle(tvshow.title));
         tvshowValues.put(MediaContract.TVShowsColumns.DATEADDED, tvshow.dateadded);
         tvshowValues.put(MediaContract.TVShowsColumns.LASTPLAYED, tvshow.lastplayed);
         tvshowValues.put(MediaContract.TVShowsColumns.FILE, tvshow.file);
@@ -275,6 +286,7 @@ public class SyncUtils {
         castValues.put(MediaContract.ArtistsColumns.HOST_ID, hostId);
         castValues.put(MediaContract.ArtistsColumns.ARTISTID, artist.artistid);
         castValues.put(MediaContract.ArtistsColumns.ARTIST, artist.artist);
+        castValues.put(MediaContract.ArtistsColumns.SORT_ARTIST, MediaDatabase.sortTitle(artist.artist));
         castValues.put(MediaContract.ArtistsColumns.DESCRIPTION, artist.description);
         castValues.put(MediaContract.ArtistsColumns.GENRE,
                 Utils.listStringConcat(artist.genre, LIST_DELIMITER));
@@ -315,6 +327,7 @@ public class SyncUtils {
         castValues.put(MediaContract.Albums.DISPLAYARTIST, album.displayartist);
         castValues.put(MediaContract.Albums.RATING, album.rating);
         castValues.put(MediaContract.Albums.TITLE, album.title);
+        castValues.put(MediaContract.Albums.SORT_TITLE, MediaDatabase.sortTitle(album.title));
         castValues.put(MediaContract.Albums.YEAR, album.year);
         castValues.put(MediaContract.Albums.ALBUMLABEL, album.albumlabel);
         castValues.put(MediaContract.Albums.DESCRIPTION, album.description);
@@ -340,12 +353,62 @@ public class SyncUtils {
         songValues.put(MediaContract.Songs.FILE, song.file);
         songValues.put(MediaContract.Songs.TRACK, song.track);
         songValues.put(MediaContract.Songs.TITLE, song.title);
+        songValues.put(MediaContract.Songs.SORT_TITLE, MediaDatabase.sortTitle(song.title));
         songValues.put(MediaContract.Songs.DISPLAYARTIST, song.displayartist);
         songValues.put(MediaContract.Songs.DISC, song.disc);
 
         return songValues;
     }
 
+    /**
+     * Columns bound by {@link #bindSong(BulkInserter, int, AudioType.DetailsSong)}, in order
+     */
+    public static final String[] SONG_COLUMNS = {
+            MediaContract.Songs.HOST_ID, MediaContract.Songs.ALBUMID, MediaContract.Songs.SONGID,
+            MediaContract.Songs.DURATION, MediaContract.Songs.THUMBNAIL, MediaContract.Songs.FILE,
+            MediaContract.Songs.TRACK, MediaContract.Songs.TITLE, MediaContract.Songs.DISPLAYARTIST,
+            MediaContract.Songs.DISC, MediaContract.Songs.SORT_TITLE
+    };
+
+    /**
+     * Binds the same values as {@link #contentValuesFromSong(int, AudioType.DetailsSong)} to a
+     * {@link BulkInserter} whose columns are {@link #SONG_COLUMNS}
+     * @param inserter Inserter
+     * @param hostId Host id for the song
+     * @param song {@link AudioType.DetailsSong}
+     */
+    public static void bindSong(BulkInserter inserter, int hostId, AudioType.DetailsSong song) {
+        inserter.bindLong(0, hostId)
+                .bindLong(1, song.albumid)
+                .bindLong(2, song.songid)
+                .bindLong(3, song.duration)
+                .bindString(4, song.thumbnail)
+                .bindString(5, song.file)
+                .bindLong(6, song.track)
+                .bindString(7, song.title)
+                .bindString(8, song.displayartist)
+                .bindLong(9, song.disc)
+                .bindString(10, MediaDatabase.sortTitle(song.title));
+    }
+
+    /**
+     * Inserts rows in the media provider through {@link MediaProvider#bulkInsert(Uri, MediaProvider.BulkInsertRows)},
+     * which binds them directly to compiled statements instead of going through a {@link ContentValues} per row.
+     * The media provider isn't exported and runs in the app process, so it can be called directly.
+     * @param contentResolver Content resolver
+     * @param uri Uri of the table to insert in
+     * @param rows Rows to insert
+     * @return Number of rows inserted
+     */
+    public static int bulkInsert(ContentResolver contentResolver, Uri uri, MediaProvider.BulkInsertRows rows) {
+        try (ContentProviderClient client = contentResolver.acquireContentProviderClient(uri)) {
+            if (client == null) {
+                throw new IllegalArgumentException("No provider for uri: " + uri);
+            }
+            return ((MediaProvider) client.getLocalContentProvider()).bulkInsert(uri, rows);
+        }
+    }
+
     /**
      * Returns {@link android.content.ContentValues} from a {@link VideoType.DetailsMusicVideo} music video
      * @param hostId Host id
@@ -494,4 +557,137 @@ public class SyncUtils {
         }
         return false;
     }
+
+    /**
+     * Max number of ids in a single delete, to stay below SQLite's limit of variables in a statement
+     */
+    private static final int DELETE_IDS_CHUNK_SIZE = 500;
+
+    /**
+     * Builds the change marker of an item, used in incremental syncs to check if an item changed
+     * on Kodi since the last sync. The values should be the same both when built from the host
+     * results and from the database columns
+     * @param values Values that change when the item is changed on Kodi
+     * @return Change marker
+     */
+    public static String changeMarker(String... values) {
+        StringBuilder marker = new StringBuilder();
+        for (String value : values) {
+            marker.append(value).append('|');
+        }
+        return marker.toString();
+    }
+
+    /**
+     * Returns the change markers of the items stored locally, indexed by their Kodi id
+     * @param contentResolver Content resolver
+     * @param listUri Uri of the items list for the host
+     * @param idColumn Column with the Kodi id
+     * @param markerColumns Columns used to build the change marker, in the same order as the values
+     *                      passed to {@link #changeMarker(String...)} when building it from the host results
+     * @return Change markers indexed by the item id
+     */
+    public static HashMap<Integer, String> getLocalChangeMarkers(ContentResolver contentResolver, Uri listUri,
+                                                                 String idColumn, String... markerColumns) {
+        String[] projection = new String[markerColumns.length + 1];
+        projection[0] = idColumn;
+        System.arraycopy(markerColumns, 0, projection, 1, markerColumns.length);
+
+        HashMap<Integer, String> markers = new HashMap<>();
+        Cursor cursor = contentResolver.query(listUri, projection, null, null, null);
+        if (cursor == null) return markers;
+        try {
+            String[] values = new String[markerColumns.length];
+            while (cursor.moveToNext()) {
+                for (int i = 0; i < markerColumns.length; i++) {
+                    values[i] = cursor.getString(i + 1);
+                }
+                markers.put(cursor.getInt(0), changeMarker(values));
+            }
+        } finally {
+            cursor.close();
+        }
+        return markers;
+    }
+
+    /**
+     * Differences between the items stored locally and the ones on Kodi
+     */
+    public static class LibraryDiff {
+        /**
+         * Ids of the items that are new or changed on Kodi
+         */
+        public final List<Integer> changedIds = new ArrayList<>();
+        /**
+         * Ids of the items that no longer exist on Kodi
+         */
+        public final List<Integer> deletedIds = new ArrayList<>();
+        public final int remoteCount;
+
+        LibraryDiff(int remoteCount) {
+            this.remoteCount = remoteCount;
+        }
+
+        /**
+         * Returns whether most of the items changed, in which case a full sync, which gets the
+         * items details in pages, is faster than getting each changed item
+         * @return Whether a full sync should be done
+         */
+        public boolean isMostlyChanged() {
+            return changedIds.size() > remoteCount / 2;
+        }
+
+        @Override
+        public String toString() {
+            return "Items on host: " + remoteCount + ", new or changed: " + changedIds.size() +
+                   ", deleted: " + deletedIds.size();
+        }
+    }
+
+    /**
+     * Compares the change markers of the items stored locally with the ones on Kodi
+     * @param localMarkers Change markers of the local items
+     * @param remoteMarkers Change markers of the items on Kodi
+     * @return Differences found
+     */
+    public static LibraryDiff diffLibrary(Map<Integer, String> localMarkers, Map<Integer, String> remoteMarkers) {
+        LibraryDiff diff = new LibraryDiff(remoteMarkers.size());
+        for (Map.Entry<Integer, String> remote : remoteMarkers.entrySet()) {
+            if (!remote.getValue().equals(localMarkers.get(remote.getKey())))
+                diff.changedIds.add(remote.getKey());
+        }
+        for (Integer localId : localMarkers.keySet()) {
+            if (!remoteMarkers.containsKey(localId))
+                diff.deletedIds.add(localId);
+        }
+        return diff;
+    }
+
+    /**
+     * Deletes the items of a host with the given ids
+     * @param contentResolver Content resolver
+     * @param uri Uri of the table, which should accept a selection on delete
+     * @param hostIdColumn Column with the host id
+     * @param hostId Host id
+     * @param idColumn Column with the Kodi id of the items
+     * @param ids Ids of the items to delete
+     */
+    public static void deleteItems(ContentResolver contentResolver, Uri uri,
+                                   String hostIdColumn, int hostId,
+                                   String idColumn, List<Integer> ids) {
+        for (int start = 0; start < ids.size(); start += DELETE_IDS_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(start, Math.min(start + DELETE_IDS_CHUNK_SIZE, ids.size()));
+            StringBuilder where = new StringBuilder()
+                    .append(hostIdColumn).append("=? AND ")
+                    .append(idColumn).append(" IN (");
+            String[] whereArgs = new String[chunk.size() + 1];
+            whereArgs[0] = String.valueOf(hostId);
+            for (int i = 0; i < chunk.size(); i++) {
+                where.append((i == 0) ? "?" : ",?");
+                whereArgs[i + 1] = String.valueOf(chunk.get(i));
+            }
+            where.append(")");
+            contentResolver.delete(uri, where.toString(), whereArgs);
+        }
+    }
 }
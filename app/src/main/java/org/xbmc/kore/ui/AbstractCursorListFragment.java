@@ -42,6 +42,7 @@ import org.xbmc.kore.R;
 import org.xbmc.kore.host.HostConnectionObserver;
 import org.xbmc.kore.host.HostInfo;
 import org.xbmc.kore.host.HostManager;
+import org.xbmc.kore.host.HostSnapshot;
 import org.xbmc.kore.jsonrpc.ApiException;
 import org.xbmc.kore.jsonrpc.event.MediaSyncEvent;
 import org.xbmc.kore.service.library.LibrarySyncService;
@@ -50,6 +51,8 @@ import org.xbmc.kore.service.library.SyncUtils;
 import org.xbmc.kore.utils.LogUtils;
 import org.xbmc.kore.utils.UIUtils;
 
+import java.util.Arrays;
+
 public abstract class AbstractCursorListFragment
 		extends AbstractListFragment
 		implements LoaderManager.LoaderCallbacks<Cursor>,
@@ -73,7 +76,15 @@ public abstract class AbstractCursorListFragment
 
 	private SearchView searchView;
 
-	abstract protected CursorLoader createCursorLoader();
+	// First rows of the list from the host snapshot, shown until the loader finishes
+	private Cursor snapshotCursor;
+	private boolean isListLoaded = false;
+
+	/**
+	 * Should return the loader of the list, usually a {@link CursorLoader}, or a {@link PagedCursorLoader}
+	 * for lists that can be too large to read at once
+	 */
+	abstract protected Loader<Cursor> createCursorLoader();
 	abstract protected RecyclerViewCursorAdapter createCursorAdapter();
 
 	@Override
@@ -94,9 +105,63 @@ public abstract class AbstractCursorListFragment
 			restartLoader();
 		} else {
 			LoaderManager.getInstance(this).initLoader(LOADER, null, this);
+			if (savedInstanceState == null) showSnapshot();
+		}
+	}
+
+	@Override
+	public void onDestroyView() {
+		super.onDestroyView();
+		isListLoaded = false;
+		closeSnapshotCursor();
+	}
+
+	/**
+	 * Shows the first rows of the list saved in the host snapshot, if the same query was saved, until the list
+	 * is loaded
+	 */
+	private void showSnapshot() {
+		HostSnapshot snapshot = HostManager.getInstance(requireContext()).getHostSnapshot();
+		String key = getSnapshotKey(LoaderManager.getInstance(this).getLoader(LOADER));
+		if (snapshot == null || key == null) return;
+
+		snapshot.runWhenRead(() -> {
+			// The list may have been loaded, or the view destroyed, while the snapshot was being read
+			if (isListLoaded || getView() == null || snapshotCursor != null) return;
+
+			snapshotCursor = snapshot.getList(key);
+			if (snapshotCursor != null) {
+				((RecyclerViewCursorAdapter) getAdapter()).swapCursor(snapshotCursor);
+			}
+		});
+	}
+
+	private void closeSnapshotCursor() {
+		if (snapshotCursor != null) {
+			snapshotCursor.close();
+			snapshotCursor = null;
 		}
 	}
 
+	/**
+	 * Returns the key that identifies the query of a loader in the host snapshot
+	 * @return Key, or null if the list isn't kept in the snapshot
+	 */
+	private String getSnapshotKey(Loader<Cursor> loader) {
+		// Searches aren't kept
+		if (!TextUtils.isEmpty(searchFilter)) return null;
+
+		if (loader instanceof CursorLoader) {
+			CursorLoader cursorLoader = (CursorLoader) loader;
+			return cursorLoader.getUri() + "|" + Arrays.toString(cursorLoader.getProjection()) + "|" +
+				   cursorLoader.getSelection() + "|" + Arrays.toString(cursorLoader.getSelectionArgs()) + "|" +
+				   cursorLoader.getSortOrder();
+		} else if (loader instanceof PagedCursorLoader) {
+			return ((PagedCursorLoader) loader).getQueryKey();
+		}
+		return null;
+	}
+
 	@Override
 	public void onStart() {
 		super.onStart();
@@ -143,7 +208,9 @@ public abstract class AbstractCursorListFragment
 	public boolean onOptionsItemSelected(MenuItem item) {
 		int itemId = item.getItemId();
 		if (itemId == R.id.action_refresh) {
-			onRefresh();
+			// Refreshing from the menu syncs all the items again, to also get the info that changed on Kodi
+			// without changing the items' date added or play count
+			startSync(true);
 		}
 		return super.onOptionsItemSelected(item);
 	}
@@ -226,9 +293,18 @@ public abstract class AbstractCursorListFragment
 
 	@Override
     public void onRefresh() {
+		startSync(false);
+	}
+
+	/**
+	 * Starts syncing the list
+	 * @param syncFull Whether to sync all the items again, or only the ones that changed
+	 */
+	private void startSync(boolean syncFull) {
 		binding.swipeRefreshLayout.setRefreshing(true);
 		Intent syncIntent = new Intent(this.getActivity(), LibrarySyncService.class);
         syncIntent.putExtra(getListSyncType(), true);
+        syncIntent.putExtra(LibrarySyncService.SYNC_FULL, syncFull);
 
         String syncID = getSyncID();
         int itemId = getSyncItemID();
@@ -287,6 +363,13 @@ public abstract class AbstractCursorListFragment
 	@Override
 	public void onLoadFinished(@NonNull Loader<Cursor> cursorLoader, Cursor cursor) {
 		((RecyclerViewCursorAdapter) getAdapter()).swapCursor(cursor);
+		isListLoaded = true;
+		closeSnapshotCursor();
+		HostSnapshot snapshot = HostManager.getInstance(requireContext()).getHostSnapshot();
+		String snapshotKey = getSnapshotKey(cursorLoader);
+		if (cursor != null && snapshot != null && snapshotKey != null) {
+			snapshot.putList(snapshotKey, cursor);
+		}
 		if (TextUtils.isEmpty(searchFilter)) {
 			// To prevent the empty text from appearing on the first load, only set it now
 			setupEmptyView(getEmptyResultsTitle(),
@@ -301,6 +384,8 @@ public abstract class AbstractCursorListFragment
 	@Override
 	public void onLoaderReset(@NonNull Loader<Cursor> cursorLoader) {
 		((RecyclerViewCursorAdapter) getAdapter()).swapCursor(null);
+		isListLoaded = false;
+		closeSnapshotCursor();
 	}
 
 	/**
@@ -25,6 +25,7 @@ import androidx.preference.PreferenceManager;
 import com.google.android.material.color.DynamicColors;
 
 import org.xbmc.kore.Settings;
+import org.xbmc.kore.host.HostManager;
 import org.xbmc.kore.utils.UIUtils;
 import org.xbmc.kore.utils.Utils;
 
@@ -64,4 +65,16 @@ public abstract class BaseActivity extends AppCompatActivity {
         UIUtils.tintSystemBars(this);
         super.onCreate(savedInstanceState);
     }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        HostManager.getInstance(this).onActivityStarted();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        HostManager.getInstance(this).onActivityStopped();
+    }
 }
@@ -0,0 +1,506 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.ui;
+
+import android.content.ContentResolver;
+import android.database.AbstractCursor;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+import android.util.LruCache;
+
+import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.utils.LogUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Cursor over a {@link org.xbmc.kore.provider.MediaProvider} list that reads it in pages and only keeps a few
+ * of them in memory, so that its memory use doesn't depend on the size of the list.
+ * <p>
+ * The list is sorted by a text column and the row id. Each page is read by keyset, starting right after the
+ * sort value and id of the last row of the previous page, which the sort index finds directly instead of
+ * skipping the rows before it as an OFFSET does. When jumping to a page whose previous page hasn't been read,
+ * as fast scroll does, the page is read from the closest known key before it, either the end of a page that
+ * has been read or the start of the page's section in the list's {@link SectionIndex}, skipping the rows in
+ * between.
+ * The pages next to the one of the current position are read in the background, so that scrolling rarely
+ * waits for a query. Once an {@link OnPageReadListener} is set, moving to a row of a page that isn't in
+ * memory on the main thread doesn't wait for it either: the page is read in the background, its rows are
+ * empty until then, and the listener is notified when it's read so that they're shown again.
+ */
+public class PagedCursor extends AbstractCursor {
+    private static final String TAG = LogUtils.makeLogTag(PagedCursor.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Pages kept in memory, the least recently used ones are discarded first
+     */
+    private static final int MAX_PAGES = 8;
+
+    private final ContentResolver contentResolver;
+    private final Uri uri;
+    private final String selection;
+    private final String[] selectionArgs;
+    private final String sortColumn, idColumn;
+    private final String[] queryProjection;
+    private final int pageSize;
+    private final int count;
+    private final String[] columnNames;
+    private final SectionIndex sectionIndex;
+
+    private final LruCache<Integer, Page> pages = new LruCache<>(MAX_PAGES);
+    private final ConcurrentHashMap<Integer, Future<Page>> loadingPages = new ConcurrentHashMap<>();
+    /**
+     * Sort key of the last row of each page read so far, from which the next page can be read. Guarded by itself
+     */
+    private final TreeMap<Integer, Key> pageEndKeys = new TreeMap<>();
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor();
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private OnPageReadListener onPageReadListener;
+    /**
+     * Pages whose rows were returned empty while they were being read. Only used on the main thread
+     */
+    private final Set<Integer> waitingPages = new HashSet<>();
+
+    private Page currentPage;
+    private int currentRow;
+    private volatile int currentPageIndex;
+
+    /**
+     * Listener of the pages read in the background
+     */
+    public interface OnPageReadListener {
+        /**
+         * Called on the main thread when a page whose rows were returned empty has been read
+         * @param start Position of the first row of the page
+         * @param count Rows in the page
+         */
+        void onPageRead(int start, int count);
+    }
+
+    private static class Key {
+        final String sortValue;
+        final long id;
+
+        Key(String sortValue, long id) {
+            this.sortValue = sortValue;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Rows of a page, with the values of each column in a row, as read from the cursor
+     */
+    private static class Page {
+        final Object[] values;
+        final int rowCount, columnCount;
+
+        /**
+         * Empty page, whose rows return null for every column
+         */
+        Page() {
+            rowCount = columnCount = 0;
+            values = new Object[0];
+        }
+
+        Page(Cursor cursor) {
+            rowCount = cursor.getCount();
+            columnCount = cursor.getColumnCount();
+            values = new Object[rowCount * columnCount];
+            int i = 0;
+            while (cursor.moveToNext()) {
+                for (int column = 0; column < columnCount; column++, i++) {
+                    switch (cursor.getType(column)) {
+                        case Cursor.FIELD_TYPE_INTEGER:
+                            values[i] = cursor.getLong(column);
+                            break;
+                        case Cursor.FIELD_TYPE_FLOAT:
+                            values[i] = cursor.getDouble(column);
+                            break;
+                        case Cursor.FIELD_TYPE_STRING:
+                            values[i] = cursor.getString(column);
+                            break;
+                        case Cursor.FIELD_TYPE_BLOB:
+                            values[i] = cursor.getBlob(column);
+                            break;
+                        default:
+                            values[i] = null;
+                    }
+                }
+            }
+        }
+
+        Object get(int row, int column) {
+            return (row < rowCount) ? values[row * columnCount + column] : null;
+        }
+    }
+
+    private static final Page EMPTY_PAGE = new Page();
+
+    /**
+     * Creates the cursor, counting the rows of the list and reading its first page. Runs queries, so don't
+     * call it on the main thread
+     * @param contentResolver Content resolver
+     * @param uri List uri
+     * @param projection Columns to return, as in {@link ContentResolver#query}
+     * @param selection Selection, as in {@link ContentResolver#query}
+     * @param selectionArgs Selection arguments, as in {@link ContentResolver#query}
+     * @param sortColumn Text column the list is sorted by, case insensitive. Should be indexed
+     * @param idColumn Row id column, which breaks ties between rows with the same sort value
+     * @param pageSize Rows per page
+     * @param sectionIndex Section index of the list, from which pages far from the ones read are read. Can be null
+     */
+    public PagedCursor(ContentResolver contentResolver, Uri uri, String[] projection,
+                       String selection, String[] selectionArgs,
+                       String sortColumn, String idColumn, int pageSize, SectionIndex sectionIndex) {
+        this.contentResolver = contentResolver;
+        this.uri = uri;
+        this.selection = selection;
+        this.selectionArgs = (selectionArgs != null) ? selectionArgs : new String[0];
+        this.sortColumn = sortColumn;
+        this.idColumn = idColumn;
+        this.pageSize = pageSize;
+        this.sectionIndex = sectionIndex;
+
+        // The sort key is read after the requested columns
+        queryProjection = Arrays.copyOf(projection, projection.length + 2);
+        queryProjection[projection.length] = sortColumn;
+        queryProjection[projection.length + 1] = idColumn;
+
+        count = countRows();
+        try (Cursor cursor = queryPage(null, 0)) {
+            columnNames = Arrays.copyOf(cursor.getColumnNames(), projection.length);
+            storePage(0, cursor);
+        }
+    }
+
+    private int countRows() {
+        Uri countUri = uri.buildUpon()
+                          .appendQueryParameter(MediaContract.COUNT_QUERY, "true")
+                          .build();
+        try (Cursor cursor = contentResolver.query(countUri, null, selection, selectionArgs, null)) {
+            return (cursor != null && cursor.moveToFirst()) ? cursor.getInt(0) : 0;
+        }
+    }
+
+    /**
+     * Queries a page
+     * @param after Key of the row the page starts after, null to start at the beginning of the list
+     * @param skip Rows to skip after that one
+     */
+    private Cursor queryPage(Key after, int skip) {
+        String pageSelection = selection;
+        String[] pageSelectionArgs = selectionArgs;
+        if (after != null) {
+            String keySelection;
+            String[] keyArgs;
+            if (after.sortValue == null) {
+                // Null values are sorted first
+                keySelection = "(" + sortColumn + " IS NULL AND " + idColumn + ">?) OR " + sortColumn + " IS NOT NULL";
+                keyArgs = new String[] {String.valueOf(after.id)};
+            } else {
+                // The first condition is the one the sort index is searched with
+                keySelection = sortColumn + " COLLATE NOCASE >=? AND (" +
+                               sortColumn + " COLLATE NOCASE >? OR " + idColumn + ">?)";
+                keyArgs = new String[] {after.sortValue, after.sortValue, String.valueOf(after.id)};
+            }
+            pageSelection = TextUtils.isEmpty(selection) ?
+                            keySelection : "(" + selection + ") AND (" + keySelection + ")";
+            pageSelectionArgs = Arrays.copyOf(selectionArgs, selectionArgs.length + keyArgs.length);
+            System.arraycopy(keyArgs, 0, pageSelectionArgs, selectionArgs.length, keyArgs.length);
+        }
+
+        Uri pageUri = uri.buildUpon()
+                         .appendQueryParameter(MediaContract.LIMIT_QUERY,
+                                               (skip > 0) ? skip + "," + pageSize : String.valueOf(pageSize))
+                         .build();
+        Cursor cursor = contentResolver.query(pageUri, queryProjection, pageSelection, pageSelectionArgs,
+                                              sortColumn + " COLLATE NOCASE ASC, " + idColumn + " ASC");
+        if (cursor == null) {
+            throw new IllegalStateException("Couldn't read page of " + uri);
+        }
+        return cursor;
+    }
+
+    private Page storePage(int index, Cursor cursor) {
+        Page page = new Page(cursor);
+        if (page.rowCount > 0) {
+            int last = page.rowCount - 1;
+            Object sortValue = page.get(last, columnNames.length);
+            Object id = page.get(last, columnNames.length + 1);
+            synchronized (pageEndKeys) {
+                pageEndKeys.put(index, new Key((sortValue != null) ? sortValue.toString() : null,
+                                               (id != null) ? ((Number) id).longValue() : 0));
+            }
+        }
+        pages.put(index, page);
+        return page;
+    }
+
+    private Page readPage(int index) {
+        long startTime = System.currentTimeMillis();
+        Key after = null;
+        int skip = index * pageSize;
+        synchronized (pageEndKeys) {
+            Map.Entry<Integer, Key> previous = pageEndKeys.floorEntry(index - 1);
+            if (previous != null) {
+                after = previous.getValue();
+                skip = (index - previous.getKey() - 1) * pageSize;
+            }
+        }
+        if (sectionIndex != null) {
+            int section = sectionIndex.getSectionForPosition(index * pageSize);
+            if (section >= 0) {
+                String letter = sectionIndex.getSection(section);
+                int sectionSkip = index * pageSize - sectionIndex.getSectionStart(section);
+                // Only ASCII letters compare the same way in the sort and the section index
+                if (sectionSkip < skip && letter.length() == 1 && letter.charAt(0) < 128) {
+                    // The section starts at its letter, before any row with it, as any id is greater
+                    after = new Key(letter, Long.MIN_VALUE);
+                    skip = sectionSkip;
+                }
+            }
+        }
+
+        try (Cursor cursor = queryPage(after, skip)) {
+            Page page = storePage(index, cursor);
+            LogUtils.LOGV(TAG, "Read page " + index + " of " + uri + ", skipping " + skip + " rows, in (ms): " +
+                               (System.currentTimeMillis() - startTime));
+            return page;
+        } finally {
+            loadingPages.remove(index);
+        }
+    }
+
+    /**
+     * Returns a page, reading it if it isn't in memory, or waiting for it if it's being read in the background
+     */
+    private Page getPage(int index) {
+        while (true) {
+            Page page = pages.get(index);
+            if (page != null) return page;
+
+            FutureTask<Page> task = new FutureTask<>(() -> readPage(index));
+            Future<Page> loading = loadingPages.putIfAbsent(index, task);
+            if (loading == null) {
+                task.run();
+                loading = task;
+            }
+            try {
+                page = loading.get();
+            } catch (InterruptedException | ExecutionException | CancellationException e) {
+                throw new IllegalStateException("Couldn't read page " + index + " of " + uri, e);
+            }
+            // Pages read in the background are skipped if they're no longer needed when their turn comes
+            if (page != null) return page;
+        }
+    }
+
+    /**
+     * Reads a page in the background, if it isn't in memory or being read already
+     */
+    private void readPageInBackground(int index) {
+        if (index < 0 || index * pageSize >= count || pages.get(index) != null || prefetchExecutor.isShutdown()) {
+            return;
+        }
+
+        FutureTask<Page> task = new FutureTask<>(() -> {
+            try {
+                // While fast scrolling, the pages passed by are requested and can be skipped
+                if (Math.abs(index - currentPageIndex) > 1) {
+                    loadingPages.remove(index);
+                    return null;
+                }
+                return readPage(index);
+            } finally {
+                mainHandler.post(() -> notifyPageRead(index));
+            }
+        });
+        if (loadingPages.putIfAbsent(index, task) == null) {
+            prefetchExecutor.execute(task);
+        }
+    }
+
+    /**
+     * Notifies the listener that a page whose rows were returned empty has been read. If it was skipped, the
+     * listener shows its empty rows again, which requests it again if they are still visible
+     */
+    private void notifyPageRead(int index) {
+        if (waitingPages.remove(index) && onPageReadListener != null && !isClosed()) {
+            int start = index * pageSize;
+            onPageReadListener.onPageRead(start, Math.min(pageSize, count - start));
+        }
+    }
+
+    /**
+     * Sets the listener notified when a page is read in the background, after moving to one of its rows on the
+     * main thread returned an empty row. Without one, moving to a row waits for its page to be read.
+     * Call it on the main thread
+     * @param listener Listener, or null to remove it
+     */
+    public void setOnPageReadListener(OnPageReadListener listener) {
+        onPageReadListener = listener;
+        if (listener == null) waitingPages.clear();
+    }
+
+    /**
+     * Returns whether the values of the current row have been read. When moving to a row on the main thread
+     * returns an empty row, as its page is still being read, all its values are null until the
+     * {@link OnPageReadListener} is notified, so it should be shown as loading
+     * @return Whether the current row has its values
+     */
+    public boolean isRowLoaded() {
+        return currentPage != null && currentPage != EMPTY_PAGE;
+    }
+
+    @Override
+    public boolean onMove(int oldPosition, int newPosition) {
+        int index = newPosition / pageSize;
+        currentPageIndex = index;
+        currentRow = newPosition % pageSize;
+        currentPage = pages.get(index);
+        if (currentPage == null) {
+            if (onPageReadListener != null && Looper.myLooper() == Looper.getMainLooper()) {
+                waitingPages.add(index);
+                readPageInBackground(index);
+                currentPage = EMPTY_PAGE;
+            } else {
+                currentPage = getPage(index);
+            }
+        }
+
+        readPageInBackground(index + 1);
+        readPageInBackground(index - 1);
+        return true;
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    private Object get(int column) {
+        if (column < 0 || column >= columnNames.length) {
+            throw new IllegalArgumentException("Invalid column " + column);
+        }
+        if (currentPage == null) {
+            throw new IllegalStateException("Cursor isn't on a row");
+        }
+        return currentPage.get(currentRow, column);
+    }
+
+    @Override
+    public int getType(int column) {
+        Object value = get(column);
+        if (value == null) return FIELD_TYPE_NULL;
+        if (value instanceof Long) return FIELD_TYPE_INTEGER;
+        if (value instanceof Double) return FIELD_TYPE_FLOAT;
+        if (value instanceof byte[]) return FIELD_TYPE_BLOB;
+        return FIELD_TYPE_STRING;
+    }
+
+    @Override
+    public String getString(int column) {
+        Object value = get(column);
+        return (value != null) ? value.toString() : null;
+    }
+
+    @Override
+    public byte[] getBlob(int column) {
+        Object value = get(column);
+        return (value instanceof byte[]) ? (byte[]) value : null;
+    }
+
+    @Override
+    public long getLong(int column) {
+        Object value = get(column);
+        if (value instanceof Number) return ((Number) value).longValue();
+        if (value instanceof String) {
+            try {
+                return Long.parseLong((String) value);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public double getDouble(int column) {
+        Object value = get(column);
+        if (value instanceof Number) return ((Number) value).doubleValue();
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int getInt(int column) {
+        return (int) getLong(column);
+    }
+
+    @Override
+    public short getShort(int column) {
+        return (short) getLong(column);
+    }
+
+    @Override
+    public float getFloat(int column) {
+        return (float) getDouble(column);
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        return get(column) == null;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        prefetchExecutor.shutdownNow();
+        // Pages that won't be read anymore
+        for (Future<Page> loading : loadingPages.values()) {
+            loading.cancel(false);
+        }
+        pages.evictAll();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.ui;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+
+import androidx.loader.content.AsyncTaskLoader;
+
+import java.util.Arrays;
+
+/**
+ * Loader of a {@link PagedCursor}, used in place of a {@link androidx.loader.content.CursorLoader} for lists
+ * that can be too large to read at once.
+ * The cursor carries the {@link SectionIndex} of the list, as the list is sorted alphabetically, and reads
+ * the pages it jumps to from the start of their section.
+ * As the cursor keeps reading pages after it's loaded, it's reloaded when the content of its notification uri
+ * changes, so that its pages don't mix rows from before and after the change.
+ */
+public class PagedCursorLoader extends AsyncTaskLoader<Cursor> {
+    private final ForceLoadContentObserver observer = new ForceLoadContentObserver();
+
+    private final Uri uri;
+    private final String[] projection;
+    private final String selection;
+    private final String[] selectionArgs;
+    private final String sortColumn, idColumn;
+    private final Uri notificationUri;
+
+    private Cursor cursor;
+
+    /**
+     * Constructor. See {@link PagedCursor#PagedCursor} for the parameters
+     * @param notificationUri Uri whose changes, or those of its descendants, reload the cursor
+     */
+    public PagedCursorLoader(Context context, Uri uri, String[] projection, String selection, String[] selectionArgs,
+                             String sortColumn, String idColumn, Uri notificationUri) {
+        super(context);
+        this.uri = uri;
+        this.projection = projection;
+        this.selection = selection;
+        this.selectionArgs = selectionArgs;
+        this.sortColumn = sortColumn;
+        this.idColumn = idColumn;
+        this.notificationUri = notificationUri;
+    }
+
+    /**
+     * Returns a key that identifies the query of this loader
+     */
+    public String getQueryKey() {
+        return uri + "|" + Arrays.toString(projection) + "|" + selection + "|" + Arrays.toString(selectionArgs) + "|" +
+               sortColumn + "|" + idColumn;
+    }
+
+    @Override
+    public Cursor loadInBackground() {
+        SectionIndex sectionIndex = SectionIndex.query(getContext().getContentResolver(), uri, sortColumn,
+                                                       selection, selectionArgs);
+        PagedCursor cursor = new PagedCursor(getContext().getContentResolver(), uri, projection,
+                                             selection, selectionArgs, sortColumn, idColumn,
+                                             PagedCursor.DEFAULT_PAGE_SIZE, sectionIndex);
+        if (sectionIndex != null) sectionIndex.attachTo(cursor);
+        cursor.setNotificationUri(getContext().getContentResolver(), notificationUri);
+        cursor.registerContentObserver(observer);
+        return cursor;
+    }
+
+    @Override
+    public void deliverResult(Cursor cursor) {
+        if (isReset()) {
+            if (cursor != null) cursor.close();
+            return;
+        }
+        Cursor oldCursor = this.cursor;
+        this.cursor = cursor;
+
+        if (isStarted()) {
+            super.deliverResult(cursor);
+        }
+
+        if (oldCursor != null && oldCursor != cursor && !oldCursor.isClosed()) {
+            oldCursor.close();
+        }
+    }
+
+    @Override
+    protected void onStartLoading() {
+        if (cursor != null) {
+            deliverResult(cursor);
+        }
+        if (takeContentChanged() || cursor == null) {
+            forceLoad();
+        }
+    }
+
+    @Override
+    protected void onStopLoading() {
+        cancelLoad();
+    }
+
+    @Override
+    public void onCanceled(Cursor cursor) {
+        if (cursor != null && !cursor.isClosed()) {
+            cursor.close();
+        }
+    }
+
+    @Override
+    protected void onReset() {
+        super.onReset();
+        onStopLoading();
+
+        if (cursor != null && !cursor.isClosed()) {
+            cursor.close();
+        }
+        cursor = null;
+    }
+}
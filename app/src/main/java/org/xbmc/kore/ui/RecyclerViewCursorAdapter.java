@@ -17,6 +17,7 @@
 package org.xbmc.kore.ui;
 
 import android.database.Cursor;
+import android.text.TextUtils;
 import android.view.View;
 
 import androidx.annotation.NonNull;
@@ -33,6 +34,7 @@ abstract public class RecyclerViewCursorAdapter
     protected boolean dataValid;
     private int rowIDColumn;
     protected Cursor cursor;
+    private SectionIndex sectionIndex;
 
     // Section types
     public static final int SECTION_TYPE_ALPHANUMERIC = 0,
@@ -72,11 +74,18 @@ abstract public class RecyclerViewCursorAdapter
         return cursor.getLong(rowIDColumn);
     }
 
+    /**
+     * Returns the section of a position for the fast scroller. Uses the cursor's {@link SectionIndex} if it
+     * has one, otherwise moves the cursor to the position and reads its section column
+     */
     @NonNull
     public String getSectionName(int position) {
         if (!dataValid) {
             throw new IllegalStateException("Cursor is in an invalid state.");
         }
+        if (sectionIndex != null) {
+            return sectionIndex.getSectionName(position);
+        }
         if (!cursor.moveToPosition(position)) {
             throw new IllegalStateException("Could not move cursor to position " + position);
         }
@@ -88,11 +97,15 @@ abstract public class RecyclerViewCursorAdapter
             sectionName = String.format(Locale.getDefault(), "%02d", cursor.getInt(sectionColumnIdx) % 100);
         } else if (sectionType == SECTION_TYPE_DATE_STRING) {
             String dateStr = cursor.getString(sectionColumnIdx);
-            if (dateStr.length() >= 4) {
+            // Null on the rows of a PagedCursor whose page is still being read
+            if (dateStr != null && dateStr.length() >= 4) {
                 sectionName = dateStr.substring(2, 4);
             }
         } else {
-            sectionName = cursor.getString(sectionColumnIdx).substring(0, 1).toUpperCase(Locale.getDefault());
+            String name = cursor.getString(sectionColumnIdx);
+            if (!TextUtils.isEmpty(name)) {
+                sectionName = name.substring(0, 1).toUpperCase(Locale.getDefault());
+            }
         }
 
         return sectionName;
@@ -115,15 +128,24 @@ abstract public class RecyclerViewCursorAdapter
             return;
         }
 
+        if (cursor instanceof PagedCursor) {
+            ((PagedCursor) cursor).setOnPageReadListener(null);
+        }
         if (newCursor != null) {
             cursor = newCursor;
             rowIDColumn = cursor.getColumnIndexOrThrow("_id");
+            sectionIndex = SectionIndex.from(cursor);
+            // Rows of pages that weren't read yet are bound empty, and bound again once they're read
+            if (cursor instanceof PagedCursor) {
+                ((PagedCursor) cursor).setOnPageReadListener(this::notifyItemRangeChanged);
+            }
             dataValid = true;
             notifyDataSetChanged();
         } else {
             notifyItemRangeRemoved(0, getItemCount());
             cursor = null;
             rowIDColumn = -1;
+            sectionIndex = null;
             dataValid = false;
         }
     }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.ui;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+
+import org.xbmc.kore.provider.MediaContract;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Alphabetical section index of a list, with the letter of each section and the position of its first item,
+ * as returned by the list's {@link MediaContract#SECTIONS_QUERY}.
+ * It's carried in the extras of the list's cursor, so that the fast scroller can get the section of any
+ * position without moving the cursor.
+ */
+public class SectionIndex {
+    private static final String EXTRA_SECTIONS = "org.xbmc.kore.ui.SectionIndex.sections",
+            EXTRA_STARTS = "org.xbmc.kore.ui.SectionIndex.starts";
+
+    private final String[] sections;
+    private final int[] starts;
+
+    private SectionIndex(String[] sections, int[] starts) {
+        this.sections = sections;
+        this.starts = starts;
+    }
+
+    /**
+     * Queries the section index of a list
+     * @param listUri Uri of the list
+     * @param sortColumn Column the list is sorted by, ascending and case insensitively
+     * @param selection Selection of the list
+     * @param selectionArgs Selection arguments of the list
+     * @return Section index, or null if it couldn't be read
+     */
+    public static SectionIndex query(ContentResolver contentResolver, Uri listUri, String sortColumn,
+                                     String selection, String[] selectionArgs) {
+        Uri uri = listUri.buildUpon()
+                         .appendQueryParameter(MediaContract.SECTIONS_QUERY, "true")
+                         .build();
+        try (Cursor cursor = contentResolver.query(uri, new String[] {sortColumn}, selection, selectionArgs, null)) {
+            if (cursor == null) return null;
+
+            String[] sections = new String[cursor.getCount()];
+            int[] starts = new int[cursor.getCount()];
+            int sectionColumn = cursor.getColumnIndexOrThrow(MediaContract.SECTION),
+                    countColumn = cursor.getColumnIndexOrThrow(MediaContract.COUNT);
+            int start = 0;
+            while (cursor.moveToNext()) {
+                String section = cursor.getString(sectionColumn);
+                sections[cursor.getPosition()] = (section == null) ? "" : section.toUpperCase(Locale.getDefault());
+                starts[cursor.getPosition()] = start;
+                start += cursor.getInt(countColumn);
+            }
+            return new SectionIndex(sections, starts);
+        }
+    }
+
+    /**
+     * Returns the section index carried by a cursor
+     * @return Section index, or null if the cursor doesn't have one
+     */
+    public static SectionIndex from(Cursor cursor) {
+        Bundle extras = cursor.getExtras();
+        if (extras == null) return null;
+        String[] sections = extras.getStringArray(EXTRA_SECTIONS);
+        int[] starts = extras.getIntArray(EXTRA_STARTS);
+        return (sections == null || starts == null) ? null : new SectionIndex(sections, starts);
+    }
+
+    /**
+     * Stores this index in the extras of the list's cursor
+     */
+    public void attachTo(Cursor cursor) {
+        Bundle extras = new Bundle();
+        extras.putStringArray(EXTRA_SECTIONS, sections);
+        extras.putIntArray(EXTRA_STARTS, starts);
+        cursor.setExtras(extras);
+    }
+
+    /**
+     * Returns the section a position of the list is in
+     */
+    @NonNull
+    public String getSectionName(int position) {
+        int section = getSectionForPosition(position);
+        return (section < 0) ? "" : sections[section];
+    }
+
+    /**
+     * Returns the index of the section a position of the list is in, or -1 if there's none
+     */
+    public int getSectionForPosition(int position) {
+        int section = Arrays.binarySearch(starts, position);
+        return (section < 0) ? -section - 2 : section;
+    }
+
+    /**
+     * Returns the letter of a section, upper case, or an empty string for the rows without a sort value
+     */
+    @NonNull
+    public String getSection(int section) {
+        return sections[section];
+    }
+
+    /**
+     * Returns the position of the first item of a section
+     */
+    public int getSectionStart(int section) {
+        return starts[section];
+    }
+
+    public int getSectionCount() {
+        return sections.length;
+    }
+}
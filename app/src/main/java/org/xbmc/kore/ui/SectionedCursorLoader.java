@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.xbmc.kore.ui;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+
+import androidx.loader.content.CursorLoader;
+
+/**
+ * {@link CursorLoader} that also loads the {@link SectionIndex} of the list, and attaches it to the cursor
+ */
+public class SectionedCursorLoader extends CursorLoader {
+    private final String sectionColumn;
+
+    /**
+     * Constructor. See {@link CursorLoader#CursorLoader(Context, Uri, String[], String, String[], String)}
+     * @param sectionColumn Column the list is sorted by, ascending and case insensitively, or null if the list
+     *                      isn't sorted alphabetically and has no section index
+     */
+    public SectionedCursorLoader(Context context, Uri uri, String[] projection, String selection,
+                                 String[] selectionArgs, String sortOrder, String sectionColumn) {
+        super(context, uri, projection, selection, selectionArgs, sortOrder);
+        this.sectionColumn = sectionColumn;
+    }
+
+    @Override
+    public Cursor loadInBackground() {
+        Cursor cursor = super.loadInBackground();
+        if (cursor != null && sectionColumn != null) {
+            SectionIndex sectionIndex = SectionIndex.query(getContext().getContentResolver(), getUri(),
+                                                           sectionColumn, getSelection(), getSelectionArgs());
+            if (sectionIndex != null) sectionIndex.attachTo(cursor);
+        }
+        return cursor;
+    }
+}
@@ -124,12 +124,16 @@ public class AddonListFragment extends AbstractListFragment {
     public void onConnectionStatusSuccess() {
         boolean refresh = (lastConnectionStatusResult != CONNECTION_SUCCESS);
         super.onConnectionStatusSuccess();
-        if (refresh || hasNavigatedToDetail) onRefresh();
+        if (refresh) onRefresh();
+        else if (hasNavigatedToDetail) getAddonsAndSetup();
     }
 
     @Override
     public void onRefresh () {
-        if (HostManager.getInstance(requireContext()).getHostInfo() != null) {
+        HostManager hostManager = HostManager.getInstance(requireContext());
+        if (hostManager.getHostInfo() != null) {
+            // Refreshing gets the addons again, in case they were installed or enabled meanwhile
+            hostManager.getConnection().getMetadataCache().invalidate(Addons.GetAddons.METHOD_NAME);
             getAddonsAndSetup();
         } else {
             hideRefreshAnimation();
@@ -188,25 +192,29 @@ public class AddonListFragment extends AbstractListFragment {
                 //AddonType.Fields.DEPENDENCIES, AddonType.Fields.BROKEN, AddonType.Fields.EXTRAINFO,
                 AddonType.Fields.RATING, AddonType.Fields.ENABLED
         };
+        // The addons are got from the host's metadata cache, as they are the same each time the list is shown.
+        // The cached list is shared, so it's sorted on a copy
         Addons.GetAddons action = new Addons.GetAddons(properties);
-        action.execute(HostManager.getInstance(requireContext()).getConnection(),
-                       new ApiCallback<List<AddonType.Details>>() {
+        HostManager.getInstance(requireContext()).getConnection().getMetadataCache().execute(
+                action,
+                new ApiCallback<List<AddonType.Details>>() {
                 @SuppressLint("NotifyDataSetChanged")
                 @Override
                 public void onSuccess(List<AddonType.Details> result) {
                     if (!isResumed()) return;
 
+                    String regex = "\\[.*?\\]";
                     for (AddonType.Details addon : result) {
-                        String regex = "\\[.*?\\]";
                         addon.name = addon.name.replaceAll(regex, "");
                         addon.description = addon.description.replaceAll(regex, "");
                         addon.summary = addon.summary.replaceAll(regex, "");
                         addon.author = addon.author.replaceAll(regex, "");
                     }
-                    Collections.sort(result, new AddonNameComparator());
+                    List<AddonType.Details> addons = new ArrayList<>(result);
+                    Collections.sort(addons, new AddonNameComparator());
 
                     adapter.clear();
-                    for (AddonType.Details addon : result) {
+                    for (AddonType.Details addon : addons) {
                         if (isAddonSupported(addon) && (!hideDisabledAddons || addon.enabled)) {
                             adapter.add(addon);
                         }
@@ -22,7 +22,6 @@ import android.database.Cursor;
 import android.net.Uri;
 import android.os.Bundle;
 import android.provider.BaseColumns;
-import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.MenuInflater;
@@ -49,6 +48,7 @@ import org.xbmc.kore.service.library.LibrarySyncService;
 import org.xbmc.kore.ui.AbstractCursorListFragment;
 import org.xbmc.kore.ui.AbstractInfoFragment;
 import org.xbmc.kore.ui.RecyclerViewCursorAdapter;
+import org.xbmc.kore.ui.SectionedCursorLoader;
 import org.xbmc.kore.utils.LogUtils;
 import org.xbmc.kore.utils.MediaPlayerUtils;
 import org.xbmc.kore.utils.UIUtils;
@@ -200,28 +200,33 @@ public class AlbumListFragment extends AbstractCursorListFragment {
 
         String selection = null;
         String[] selectionArgs = null;
-        String searchFilter = getSearchFilter();
-        if (!TextUtils.isEmpty(searchFilter)) {
-            selection = MediaContract.Albums.TITLE + " LIKE ?";
-            selectionArgs = new String[] {"%" + searchFilter + "%"};
+        String searchMatch = MediaDatabase.buildSearchMatch(getSearchFilter());
+        if (searchMatch != null) {
+            selection = MediaDatabase.buildSearchSelection(MediaDatabase.Tables.ALBUMS);
+            selectionArgs = new String[] {searchMatch};
         }
 
         SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(requireContext());
 
-        String sortOrderStr;
+        String sortOrderStr, sectionColumn;
         int sortOrder = preferences.getInt(Settings.KEY_PREF_ALBUMS_SORT_ORDER, Settings.DEFAULT_PREF_ALBUMS_SORT_ORDER);
         if (sortOrder == Settings.SORT_BY_ARTIST) {
             sortOrderStr = AlbumListQuery.SORT_BY_ARTIST;
+            sectionColumn = MediaDatabase.sortCommonTokens(MediaContract.Albums.DISPLAYARTIST);
         } else if (sortOrder == Settings.SORT_BY_ARTIST_YEAR) {
             sortOrderStr = AlbumListQuery.SORT_BY_ARTIST_YEAR;
+            sectionColumn = MediaDatabase.sortCommonTokens(MediaContract.Albums.DISPLAYARTIST);
         } else if (sortOrder == Settings.SORT_BY_YEAR) {
             sortOrderStr = AlbumListQuery.SORT_BY_YEAR;
+            sectionColumn = null;
         } else {
             sortOrderStr = AlbumListQuery.SORT_BY_ALBUM;
+            sectionColumn = MediaContract.Albums.SORT_TITLE;
         }
 
-        return new CursorLoader(requireContext(), uri,
-                                AlbumListQuery.PROJECTION, selection, selectionArgs, sortOrderStr);
+        return new SectionedCursorLoader(requireContext(), uri,
+                                         AlbumListQuery.PROJECTION, selection, selectionArgs, sortOrderStr,
+                                         sectionColumn);
     }
 
     /**
@@ -239,12 +244,12 @@ public class AlbumListFragment extends AbstractCursorListFragment {
                 MediaContract.Albums.RATING,
                 };
 
-        String SORT_BY_ALBUM = MediaDatabase.sortCommonTokens(MediaContract.Albums.TITLE) + " COLLATE NOCASE ASC";
+        String SORT_BY_ALBUM = MediaContract.Albums.SORT_TITLE + " COLLATE NOCASE ASC";
         String SORT_BY_ARTIST = MediaDatabase.sortCommonTokens(MediaContract.Albums.DISPLAYARTIST) + " COLLATE NOCASE ASC";
         String SORT_BY_ARTIST_YEAR = MediaDatabase.sortCommonTokens(MediaContract.Albums.DISPLAYARTIST)
                                      + " COLLATE NOCASE ASC, " + MediaContract.Albums.YEAR + " ASC";
         String SORT_BY_YEAR = MediaContract.Albums.YEAR + " ASC, "
-                + MediaDatabase.sortCommonTokens(MediaContract.Albums.TITLE) + " COLLATE NOCASE ASC";
+                + MediaContract.Albums.SORT_TITLE + " COLLATE NOCASE ASC";
 
         int ID = 0;
         int ALBUMID = 1;
@@ -20,7 +20,6 @@ import android.content.res.Resources;
 import android.database.Cursor;
 import android.net.Uri;
 import android.provider.BaseColumns;
-import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -42,6 +41,7 @@ import org.xbmc.kore.service.library.LibrarySyncService;
 import org.xbmc.kore.ui.AbstractCursorListFragment;
 import org.xbmc.kore.ui.AbstractInfoFragment;
 import org.xbmc.kore.ui.RecyclerViewCursorAdapter;
+import org.xbmc.kore.ui.SectionedCursorLoader;
 import org.xbmc.kore.utils.LogUtils;
 import org.xbmc.kore.utils.MediaPlayerUtils;
 import org.xbmc.kore.utils.UIUtils;
@@ -104,14 +104,15 @@ public class ArtistListFragment extends AbstractCursorListFragment {
 
         String selection = null;
         String[] selectionArgs = null;
-        String searchFilter = getSearchFilter();
-        if (!TextUtils.isEmpty(searchFilter)) {
-            selection = MediaContract.ArtistsColumns.ARTIST + " LIKE ?";
-            selectionArgs = new String[] {"%" + searchFilter + "%"};
+        String searchMatch = MediaDatabase.buildSearchMatch(getSearchFilter());
+        if (searchMatch != null) {
+            selection = MediaDatabase.buildSearchSelection(MediaDatabase.Tables.ARTISTS);
+            selectionArgs = new String[] {searchMatch};
         }
 
-        return new CursorLoader(requireContext(), uri,
-                ArtistListQuery.PROJECTION, selection, selectionArgs, ArtistListQuery.SORT);
+        return new SectionedCursorLoader(requireContext(), uri,
+                ArtistListQuery.PROJECTION, selection, selectionArgs, ArtistListQuery.SORT,
+                MediaContract.Artists.SORT_ARTIST);
     }
 
     /**
@@ -128,7 +129,7 @@ public class ArtistListFragment extends AbstractCursorListFragment {
                 MediaContract.Artists.FANART
         };
 
-        String SORT = MediaDatabase.sortCommonTokens(MediaContract.Artists.ARTIST) + " COLLATE NOCASE ASC";
+        String SORT = MediaContract.Artists.SORT_ARTIST + " COLLATE NOCASE ASC";
 
         int ID = 0;
         int ARTISTID = 1;
@@ -20,7 +20,6 @@ import android.content.res.Resources;
 import android.database.Cursor;
 import android.net.Uri;
 import android.provider.BaseColumns;
-import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -36,6 +35,7 @@ import org.xbmc.kore.host.HostInfo;
 import org.xbmc.kore.host.HostManager;
 import org.xbmc.kore.jsonrpc.type.PlaylistType;
 import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.provider.MediaDatabase;
 import org.xbmc.kore.service.library.LibrarySyncService;
 import org.xbmc.kore.ui.AbstractCursorListFragment;
 import org.xbmc.kore.ui.RecyclerViewCursorAdapter;
@@ -83,10 +83,10 @@ public class AudioGenresListFragment extends AbstractCursorListFragment {
 
         String selection = null;
         String[] selectionArgs = null;
-        String searchFilter = getSearchFilter();
-        if (!TextUtils.isEmpty(searchFilter)) {
-            selection = MediaContract.AudioGenres.TITLE + " LIKE ?";
-            selectionArgs = new String[] {"%" + searchFilter + "%"};
+        String searchMatch = MediaDatabase.buildSearchMatch(getSearchFilter());
+        if (searchMatch != null) {
+            selection = MediaDatabase.buildSearchSelection(MediaDatabase.Tables.AUDIO_GENRES);
+            selectionArgs = new String[] {searchMatch};
         }
 
         return new CursorLoader(requireContext(), uri,
@@ -20,7 +20,6 @@ import android.content.res.Resources;
 import android.database.Cursor;
 import android.net.Uri;
 import android.provider.BaseColumns;
-import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -99,10 +98,10 @@ public class MusicVideoListFragment extends AbstractCursorListFragment {
 
         String selection = null;
         String[] selectionArgs = null;
-        String searchFilter = getSearchFilter();
-        if (!TextUtils.isEmpty(searchFilter)) {
-            selection = MediaContract.MusicVideosColumns.TITLE + " LIKE ?";
-            selectionArgs = new String[] {"%" + searchFilter + "%"};
+        String searchMatch = MediaDatabase.buildSearchMatch(getSearchFilter());
+        if (searchMatch != null) {
+            selection = MediaDatabase.buildSearchSelection(MediaDatabase.Tables.MUSIC_VIDEOS);
+            selectionArgs = new String[] {searchMatch};
         }
 
         return new CursorLoader(requireContext(), uri,
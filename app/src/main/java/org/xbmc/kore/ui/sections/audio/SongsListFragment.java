@@ -38,6 +38,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.widget.SearchView;
 import androidx.loader.content.CursorLoader;
+import androidx.loader.content.Loader;
 
 import org.xbmc.kore.R;
 import org.xbmc.kore.host.HostInfo;
@@ -48,6 +49,8 @@ import org.xbmc.kore.provider.MediaDatabase;
 import org.xbmc.kore.provider.MediaProvider;
 import org.xbmc.kore.service.library.LibrarySyncService;
 import org.xbmc.kore.ui.AbstractCursorListFragment;
+import org.xbmc.kore.ui.PagedCursor;
+import org.xbmc.kore.ui.PagedCursorLoader;
 import org.xbmc.kore.ui.RecyclerViewCursorAdapter;
 import org.xbmc.kore.utils.FileDownloadHelper;
 import org.xbmc.kore.utils.LogUtils;
@@ -117,7 +120,7 @@ public class SongsListFragment extends AbstractCursorListFragment {
     }
 
     @Override
-    protected CursorLoader createCursorLoader() {
+    protected Loader<Cursor> createCursorLoader() {
         Uri uri;
         HostInfo hostInfo = HostManager.getInstance(requireContext()).getHostInfo();
         int hostId = hostInfo != null ? hostInfo.getId() : -1;
@@ -132,18 +135,21 @@ public class SongsListFragment extends AbstractCursorListFragment {
 
         String selection = null;
         String[] selectionArgs = null;
-        String searchFilter = getSearchFilter();
-        if (!TextUtils.isEmpty(searchFilter)) {
-            selection = MediaDatabase.Tables.SONGS + "." + MediaContract.Songs.TITLE + " LIKE ?";
-            selectionArgs = new String[] {"%" + searchFilter + "%"};
+        String searchMatch = MediaDatabase.buildSearchMatch(getSearchFilter());
+        if (searchMatch != null) {
+            selection = MediaDatabase.buildSearchSelection(MediaDatabase.Tables.SONGS);
+            selectionArgs = new String[] {searchMatch};
         }
 
         if (albumId != -1) {
             return new CursorLoader(requireContext(), uri,
                                     AlbumSongsListQuery.PROJECTION, selection, selectionArgs, AlbumSongsListQuery.SORT);
         } else {
-            return new CursorLoader(requireContext(), uri,
-                                    SongsListQuery.PROJECTION, selection, selectionArgs, SongsListQuery.SORT);
+            // Song lists can have tens of thousands of songs, read them in pages
+            return new PagedCursorLoader(requireContext(), uri,
+                                         SongsListQuery.PROJECTION, selection, selectionArgs,
+                                         MediaProvider.Qualified.SONGS_SORT_TITLE, MediaProvider.Qualified.SONGS_ID,
+                                         MediaContract.Songs.CONTENT_URI);
         }
     }
 
@@ -198,8 +204,6 @@ public class SongsListFragment extends AbstractCursorListFragment {
                 MediaProvider.Qualified.ALBUMS_THUMBNAIL
         };
 
-        String SORT = MediaDatabase.sortCommonTokens(MediaProvider.Qualified.SONGS_TITLE) + " COLLATE NOCASE ASC";
-
         int ID = 0;
         int TITLE = 1;
         int TRACK = 2;
@@ -302,6 +306,8 @@ public class SongsListFragment extends AbstractCursorListFragment {
         ImageView contextMenu;
 
         FileDownloadHelper.SongInfo songInfo;
+        /** False while the row is a placeholder, whose page of the list is still being read */
+        boolean loaded;
 
         ViewHolder(View itemView, View.OnClickListener contextMenuClickListener) {
             super(itemView);
@@ -318,6 +324,11 @@ public class SongsListFragment extends AbstractCursorListFragment {
 
         @Override
         public void bindView(Cursor cursor) {
+            loaded = !(cursor instanceof PagedCursor) || ((PagedCursor) cursor).isRowLoaded();
+            // Placeholders can't be played or queued, as they don't have a song yet
+            itemView.setEnabled(loaded);
+            contextMenu.setVisibility(loaded ? View.VISIBLE : View.INVISIBLE);
+
             songInfo.songId = cursor.getInt(SongsListQuery.SONGID);
             songInfo.title = cursor.getString(SongsListQuery.TITLE);
             songInfo.fileName = cursor.getString(SongsListQuery.FILE);
@@ -345,6 +356,14 @@ public class SongsListFragment extends AbstractCursorListFragment {
         @Override
         public void bindView(Cursor cursor) {
             super.bindView(cursor);
+            if (!loaded) {
+                titleView.setText(R.string.loading);
+                artistView.setText(null);
+                detailsView.setText(null);
+                hostManager.getPicasso().cancelRequest(art);
+                art.setImageDrawable(null);
+                return;
+            }
 
             String title = cursor.getString(SongsListQuery.TITLE);
             titleView.setText(title);
@@ -396,6 +415,7 @@ public class SongsListFragment extends AbstractCursorListFragment {
 
     private void showPopupMenu(View v) {
         final ViewHolder viewHolder = (ViewHolder) v.getTag();
+        if (!viewHolder.loaded) return;
 
         final PlaylistType.Item playListItem = new PlaylistType.Item();
         playListItem.songid = viewHolder.songInfo.songId;
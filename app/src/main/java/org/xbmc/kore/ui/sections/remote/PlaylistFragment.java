@@ -46,6 +46,7 @@ import org.xbmc.kore.host.HostConnectionObserver.PlayerEventsObserver;
 import org.xbmc.kore.host.HostConnectionObserver.PlaylistEventsObserver;
 import org.xbmc.kore.host.HostInfo;
 import org.xbmc.kore.host.HostManager;
+import org.xbmc.kore.host.PlaylistMirror;
 import org.xbmc.kore.host.actions.GetPlaylist;
 import org.xbmc.kore.jsonrpc.ApiCallback;
 import org.xbmc.kore.jsonrpc.ApiMethod;
@@ -96,6 +97,7 @@ public class PlaylistFragment extends Fragment
      * Last call results
      */
     private ListType.ItemsAll lastGetItemResult = null;
+    private PlayerType.PropertyValue lastGetPropertiesResult = null;
     private PlayerType.GetActivePlayersReturnType lastGetActivePlayerResult;
     private final HashMap<String, PlaylistHolder> playlists = new HashMap<>();
 
@@ -186,9 +188,27 @@ public class PlaylistFragment extends Fragment
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        callbackHandler.removeCallbacks(reportViewportRunnable);
         binding = null;
     }
 
+    /**
+     * Tells the host connection observer which items of the playlist shown are on screen, so that
+     * only the items around them are got
+     */
+    private final Runnable reportViewportRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (binding == null) return;
+
+            PlaylistHolder holder = playlists.get(binding.playlistsBar.getSelectedPlaylistType());
+            if (holder == null) return;
+            hostConnectionObserver.setPlaylistViewport(holder.getPlaylistId(),
+                                                       binding.playlist.getFirstVisiblePosition(),
+                                                       binding.playlist.getLastVisiblePosition());
+        }
+    };
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         int itemId = item.getItemId();
@@ -204,34 +224,6 @@ public class PlaylistFragment extends Fragment
         return super.onOptionsItemSelected(item);
     }
 
-    private boolean refreshingPlaylist;
-    private void refreshPlaylist(GetPlaylist getPlaylist) {
-        if (refreshingPlaylist)
-            return;
-
-        refreshingPlaylist = true;
-        getPlaylist.execute(hostManager.getConnection(),
-                new ApiCallback<ArrayList<GetPlaylist.GetPlaylistResult>>() {
-                    @Override
-                    public void onSuccess(ArrayList<GetPlaylist.GetPlaylistResult> result) {
-                        refreshingPlaylist = false;
-
-                        if(!isAdded())
-                            return;
-
-                        updatePlaylists(result);
-                        displayPlaylist();
-                    }
-
-                    @Override
-                    public void onError(int errorCode, String description) {
-                        refreshingPlaylist = false;
-
-                        onPlayerConnectionError(errorCode, description);
-                    }
-                }, callbackHandler);
-    }
-
     /**
      * Default callback for methods that don't return anything
      */
@@ -239,8 +231,9 @@ public class PlaylistFragment extends Fragment
 
     @Override
     public void onPlayerPropertyChanged(org.xbmc.kore.jsonrpc.notification.Player.NotificationsData notificationsData) {
+        // Kodi doesn't notify the items moved when shuffling
         if (notificationsData.property.shuffled != null)
-            refreshPlaylist(new GetPlaylist(lastGetActivePlayerResult.type));
+            hostConnectionObserver.refreshPlaylists();
     }
 
     /**
@@ -253,6 +246,7 @@ public class PlaylistFragment extends Fragment
         playerState = PLAYER_STATE.PLAYING;
 
         lastGetItemResult = getItemResult;
+        lastGetPropertiesResult = getPropertiesResult;
         lastGetActivePlayerResult = getActivePlayerResult;
 
         if (!userSelectedTab) {
@@ -278,6 +272,7 @@ public class PlaylistFragment extends Fragment
         playerState = PLAYER_STATE.PAUSED;
 
         lastGetItemResult = getItemResult;
+        lastGetPropertiesResult = getPropertiesResult;
         lastGetActivePlayerResult = getActivePlayerResult;
 
         if (!userSelectedTab) {
@@ -375,6 +370,26 @@ public class PlaylistFragment extends Fragment
         displayPlaylist();
     }
 
+    @Override
+    public void onPlaylistItemsChanged(GetPlaylist.GetPlaylistResult playlist, PlaylistMirror.Change change) {
+        PlaylistHolder playlistHolder = playlists.get(playlist.type);
+        if (playlistHolder == null) {
+            ArrayList<GetPlaylist.GetPlaylistResult> changedPlaylists = new ArrayList<>(1);
+            changedPlaylists.add(playlist);
+            onPlaylistsAvailable(changedPlaylists);
+            return;
+        }
+        playlistHolder.setPlaylist(playlist);
+
+        // Other playlists are shown when selected. If the user is dragging a list item it's updated
+        // when the drag ends
+        if (!playlist.type.equals(binding.playlistsBar.getSelectedPlaylistType()) ||
+            binding.playlist.isItemBeingDragged())
+            return;
+
+        playListAdapter.updatePlaylistItems(playlist.items, change);
+    }
+
     @Override
     public void onPlaylistError(int errorCode, String description) {
         onPlayerConnectionError(errorCode, description);
@@ -438,7 +453,18 @@ public class PlaylistFragment extends Fragment
             return;
 
         List<ListType.ItemsAll> playlistItems = holder.getPlaylistResult.items;
+        // Only the items around the ones shown are got, so the position is used when it's known
+        int position = (lastGetPropertiesResult != null) ? lastGetPropertiesResult.position : -1;
+        if (position >= 0 && position < playlistItems.size()) {
+            if (!binding.playlist.isItemBeingDragged()) {
+                binding.playlist.setSelection(position);
+            }
+            binding.playlist.setItemChecked(position, true);
+            return;
+        }
+
         for (int i = 0; i < playlistItems.size(); i++) {
+            if (playlistItems.get(i) == null) continue;
             if ((playlistItems.get(i).id == lastGetItemResult.id) &&
                 (playlistItems.get(i).type.equals(lastGetItemResult.type))) {
 
@@ -541,6 +567,39 @@ public class PlaylistFragment extends Fragment
             notifyDataSetChanged();
         }
 
+        /**
+         * Sets the items after a range of them changed, updating only the rows affected.
+         * If the number of items is the same, only the rows on screen in the range are bound again,
+         * otherwise the list is laid out keeping the rows on screen where they are
+         *
+         * @param playlistItems Items after the change
+         * @param change Range of items that changed
+         */
+        public void updatePlaylistItems(List<ListType.ItemsAll> playlistItems, PlaylistMirror.Change change) {
+            this.playlistItems = playlistItems;
+
+            DynamicListView listView = binding.playlist;
+            int firstVisible = listView.getFirstVisiblePosition();
+            if (change.removed == change.inserted) {
+                int lastChanged = Math.min(listView.getLastVisiblePosition(), change.position + change.inserted - 1);
+                for (int position = Math.max(firstVisible, change.position); position <= lastChanged; position++) {
+                    View row = listView.getChildAt(position - firstVisible);
+                    if (row != null) getView(position, row, listView);
+                }
+                return;
+            }
+
+            View firstRow = listView.getChildAt(0);
+            int top = (firstRow == null) ? 0 : firstRow.getTop();
+            notifyDataSetChanged();
+            if (change.position < firstVisible) {
+                // Rows were added or removed above the ones on screen
+                int first = (firstVisible >= change.position + change.removed) ?
+                            firstVisible - change.removed + change.inserted : change.position;
+                listView.setSelectionFromTop(first, top);
+            }
+        }
+
         @Override
         public int getCount() {
             if (playlistItems == null) {
@@ -561,10 +620,12 @@ public class PlaylistFragment extends Fragment
 
         @Override
         public long getItemId(int position) {
-            if (position < 0 || position >= playlistItems.size()) {
+            if (playlistItems == null || position < 0 || position >= playlistItems.size()) {
                 return -1;
             }
-            return playlistItems.get(position).id;
+            // Items that haven't loaded yet have no id, and can't be dragged
+            ListType.ItemsAll item = playlistItems.get(position);
+            return (item == null) ? -1 : item.id;
         }
 
         @Override
@@ -583,6 +644,13 @@ public class PlaylistFragment extends Fragment
         public void onSwapFinished(final int originalPosition, final int finalPosition) {
             final HostConnection hostConnection = hostManager.getConnection();
 
+            if (playlistItems.get(finalPosition) == null) {
+                // Not got yet, so it can't be inserted
+                rollbackSwappedItems(originalPosition, finalPosition);
+                notifyDataSetChanged();
+                return;
+            }
+
             if (lastGetItemResult != null &&
                 playlistItems.get(finalPosition).id == lastGetItemResult.id) {
                 UIUtils.showSnackbar(PlaylistFragment.this.getView(), R.string.cannot_move_playing_item);
@@ -648,8 +716,24 @@ public class PlaylistFragment extends Fragment
                 viewHolder = (ViewHolder) convertView.getTag();
             }
 
+            // Let the items around the ones shown be got
+            callbackHandler.removeCallbacks(reportViewportRunnable);
+            callbackHandler.post(reportViewportRunnable);
+
             final ListType.ItemsAll item = this.getItem(position);
-            if (item == null) return null;
+            viewHolder.position = position;
+            if (item == null) {
+                // Not got yet
+                String loading = getString(R.string.loading);
+                viewHolder.title.setText(loading);
+                viewHolder.details.setText(null);
+                viewHolder.duration.setText(null);
+                viewHolder.container.setBackground(null);
+                viewHolder.contextMenu.setVisibility(View.INVISIBLE);
+                UIUtils.loadImageWithCharacterAvatar(getActivity(), hostManager, null, loading,
+                                                     viewHolder.art, artWidth, artHeight);
+                return convertView;
+            }
 
             // Differentiate between media
             String title, details, artUrl;
@@ -698,7 +782,6 @@ public class PlaylistFragment extends Fragment
             viewHolder.title.setText(UIUtils.applyMarkup(getContext(), title));
             viewHolder.details.setText(details);
             viewHolder.duration.setText((duration > 0) ? UIUtils.formatTime(duration) : "");
-            viewHolder.position = position;
 
             if (position == binding.playlist.getCheckedItemPosition()) {
                 viewHolder.container.setBackground(backgroundDrawable);
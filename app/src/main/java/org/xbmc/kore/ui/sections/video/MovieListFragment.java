@@ -40,11 +40,11 @@ import org.xbmc.kore.Settings;
 import org.xbmc.kore.host.HostInfo;
 import org.xbmc.kore.host.HostManager;
 import org.xbmc.kore.provider.MediaContract;
-import org.xbmc.kore.provider.MediaDatabase;
 import org.xbmc.kore.service.library.LibrarySyncService;
 import org.xbmc.kore.ui.AbstractCursorListFragment;
 import org.xbmc.kore.ui.AbstractFragment;
 import org.xbmc.kore.ui.RecyclerViewCursorAdapter;
+import org.xbmc.kore.ui.SectionedCursorLoader;
 import org.xbmc.kore.ui.views.RatingBar;
 import org.xbmc.kore.utils.LogUtils;
 import org.xbmc.kore.utils.UIUtils;
@@ -90,15 +90,14 @@ public class MovieListFragment extends AbstractCursorListFragment {
     @Override
     protected CursorLoader createCursorLoader() {
         HostInfo hostInfo = HostManager.getInstance(requireContext()).getHostInfo();
-        Uri uri = MediaContract.Movies.buildMoviesListUri(hostInfo != null? hostInfo.getId() : -1);
+        int hostId = hostInfo != null? hostInfo.getId() : -1;
+        // Searches also match the movies' cast
+        String searchFilter = getSearchFilter();
+        Uri uri = TextUtils.isEmpty(searchFilter) ?
+                  MediaContract.Movies.buildMoviesListUri(hostId) :
+                  MediaContract.Search.buildSearchUri(hostId, MediaContract.PATH_MOVIES, searchFilter);
 
         StringBuilder selection = new StringBuilder();
-        String[] selectionArgs = null;
-        String searchFilter = getSearchFilter();
-        if (!TextUtils.isEmpty(searchFilter)) {
-            selection.append(MediaContract.MoviesColumns.TITLE + " LIKE ?");
-            selectionArgs = new String[] {"%" + searchFilter + "%"};
-        }
 
         SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(requireContext());
         if (preferences.getBoolean(Settings.KEY_PREF_MOVIES_FILTER_HIDE_WATCHED, Settings.DEFAULT_PREF_MOVIES_FILTER_HIDE_WATCHED)) {
@@ -111,7 +110,7 @@ public class MovieListFragment extends AbstractCursorListFragment {
         showWatchedStatus = preferences.getBoolean(Settings.KEY_PREF_MOVIES_SHOW_WATCHED_STATUS, Settings.DEFAULT_PREF_MOVIES_SHOW_WATCHED_STATUS);
         showRating = preferences.getBoolean(Settings.KEY_PREF_MOVIES_SHOW_RATING, Settings.DEFAULT_PREF_MOVIES_SHOW_RATING);
 
-        String sortOrderStr;
+        String sortOrderStr, sectionColumn = null;
         int sortOrder = preferences.getInt(Settings.KEY_PREF_MOVIES_SORT_ORDER, Settings.DEFAULT_PREF_MOVIES_SORT_ORDER);
         if (sortOrder == Settings.SORT_BY_DATE_ADDED) {
             sortOrderStr = MovieListQuery.SORT_BY_DATE_ADDED;
@@ -127,13 +126,17 @@ public class MovieListFragment extends AbstractCursorListFragment {
             // Sort by name
             if (preferences.getBoolean(Settings.KEY_PREF_MOVIES_IGNORE_PREFIXES, Settings.DEFAULT_PREF_MOVIES_IGNORE_PREFIXES)) {
                 sortOrderStr = MovieListQuery.SORT_BY_NAME_IGNORE_ARTICLES;
+                sectionColumn = MediaContract.Movies.SORT_TITLE;
             } else {
                 sortOrderStr = MovieListQuery.SORT_BY_NAME;
+                sectionColumn = MediaContract.Movies.TITLE;
             }
         }
 
-        return new CursorLoader(requireContext(), uri,
-                                MovieListQuery.PROJECTION, selection.toString(), selectionArgs, sortOrderStr);
+        // Searches are sorted by rank, so they don't have sections
+        return new SectionedCursorLoader(requireContext(), uri,
+                                         MovieListQuery.PROJECTION, selection.toString(), null, sortOrderStr,
+                                         TextUtils.isEmpty(searchFilter) ? sectionColumn : null);
     }
 
     @Override
@@ -301,7 +304,7 @@ public class MovieListFragment extends AbstractCursorListFragment {
         String SORT_BY_DATE_ADDED = MediaContract.Movies.DATEADDED + " DESC";
         String SORT_BY_LAST_PLAYED = MediaContract.Movies.LASTPLAYED + " DESC";
         String SORT_BY_LENGTH = MediaContract.Movies.RUNTIME + " DESC";
-        String SORT_BY_NAME_IGNORE_ARTICLES = MediaDatabase.sortCommonTokens(MediaContract.Movies.TITLE) + " COLLATE NOCASE ASC";
+        String SORT_BY_NAME_IGNORE_ARTICLES = MediaContract.Movies.SORT_TITLE + " COLLATE NOCASE ASC";
 
         int ID = 0;
         int MOVIEID = 1;
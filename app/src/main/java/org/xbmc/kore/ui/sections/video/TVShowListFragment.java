@@ -45,12 +45,12 @@ import org.xbmc.kore.Settings;
 import org.xbmc.kore.host.HostInfo;
 import org.xbmc.kore.host.HostManager;
 import org.xbmc.kore.provider.MediaContract;
-import org.xbmc.kore.provider.MediaDatabase;
 import org.xbmc.kore.service.library.LibrarySyncService;
 import org.xbmc.kore.ui.AbstractCursorListFragment;
 import org.xbmc.kore.ui.AbstractFragment;
 import org.xbmc.kore.ui.AbstractInfoFragment;
 import org.xbmc.kore.ui.RecyclerViewCursorAdapter;
+import org.xbmc.kore.ui.SectionedCursorLoader;
 import org.xbmc.kore.utils.LogUtils;
 import org.xbmc.kore.utils.UIUtils;
 
@@ -92,15 +92,14 @@ public class TVShowListFragment extends AbstractCursorListFragment {
     @Override
     protected CursorLoader createCursorLoader() {
         HostInfo hostInfo = HostManager.getInstance(requireContext()).getHostInfo();
-        Uri uri = MediaContract.TVShows.buildTVShowsListUri(hostInfo != null ? hostInfo.getId() : -1);
+        int hostId = hostInfo != null ? hostInfo.getId() : -1;
+        // Searches also match the shows' cast
+        String searchFilter = getSearchFilter();
+        Uri uri = TextUtils.isEmpty(searchFilter) ?
+                  MediaContract.TVShows.buildTVShowsListUri(hostId) :
+                  MediaContract.Search.buildSearchUri(hostId, MediaContract.PATH_TVSHOWS, searchFilter);
 
         StringBuilder selection = new StringBuilder();
-        String[] selectionArgs = null;
-        String searchFilter = getSearchFilter();
-        if (!TextUtils.isEmpty(searchFilter)) {
-            selection.append(MediaContract.TVShowsColumns.TITLE + " LIKE ?");
-            selectionArgs = new String[] {"%" + searchFilter + "%"};
-        }
 
         // Filters
         SharedPreferences preferences = PreferenceManager.getDefaultSharedPreferences(requireContext());
@@ -114,7 +113,7 @@ public class TVShowListFragment extends AbstractCursorListFragment {
 
         showWatchedStatus = preferences.getBoolean(Settings.KEY_PREF_TVSHOWS_SHOW_WATCHED_STATUS, Settings.DEFAULT_PREF_TVSHOWS_SHOW_WATCHED_STATUS);
 
-        String sortOrderStr;
+        String sortOrderStr, sectionColumn = null;
         int sortOrder = preferences.getInt(Settings.KEY_PREF_TVSHOWS_SORT_ORDER, Settings.DEFAULT_PREF_TVSHOWS_SORT_ORDER);
         if (sortOrder == Settings.SORT_BY_DATE_ADDED) {
             sortOrderStr = TVShowListQuery.SORT_BY_DATE_ADDED;
@@ -128,15 +127,18 @@ public class TVShowListFragment extends AbstractCursorListFragment {
             // Sort by name
             if (preferences.getBoolean(Settings.KEY_PREF_TVSHOWS_IGNORE_PREFIXES, Settings.DEFAULT_PREF_TVSHOWS_IGNORE_PREFIXES)) {
                 sortOrderStr = TVShowListQuery.SORT_BY_NAME_IGNORE_ARTICLES;
+                sectionColumn = MediaContract.TVShows.SORT_TITLE;
             } else {
                 sortOrderStr = TVShowListQuery.SORT_BY_NAME;
+                sectionColumn = MediaContract.TVShows.TITLE;
             }
         }
 
 
-        return new CursorLoader(requireContext(), uri,
-                                TVShowListQuery.PROJECTION, selection.toString(),
-                                selectionArgs, sortOrderStr);
+        // Searches are sorted by rank, so they don't have sections
+        return new SectionedCursorLoader(requireContext(), uri,
+                                         TVShowListQuery.PROJECTION, selection.toString(),
+                                         null, sortOrderStr, TextUtils.isEmpty(searchFilter) ? sectionColumn : null);
     }
 
     @Override
@@ -287,7 +289,7 @@ public class TVShowListFragment extends AbstractCursorListFragment {
         String SORT_BY_RATING = MediaContract.TVShows.RATING + " DESC";
         String SORT_BY_DATE_ADDED = MediaContract.TVShows.DATEADDED + " DESC";
         String SORT_BY_LAST_PLAYED = MediaContract.TVShows.LASTPLAYED + " DESC";
-        String SORT_BY_NAME_IGNORE_ARTICLES = MediaDatabase.sortCommonTokens(MediaContract.TVShows.TITLE) + " COLLATE NOCASE ASC";
+        String SORT_BY_NAME_IGNORE_ARTICLES = MediaContract.TVShows.SORT_TITLE + " COLLATE NOCASE ASC";
 
         int ID = 0;
         int TVSHOWID = 1;
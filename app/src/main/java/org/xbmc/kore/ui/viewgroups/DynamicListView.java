@@ -197,6 +197,10 @@ public class DynamicListView extends ListView {
                     if (!itemDraggingEnabled)
                         return false;
 
+                    // Rows whose item isn't loaded yet can't be moved
+                    if (getAdapter().getItem(position) == null)
+                        return false;
+
                     mTotalOffset = 0;
 
                     mOriginalPosition = position;
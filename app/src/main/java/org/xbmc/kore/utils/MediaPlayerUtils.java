@@ -89,7 +89,7 @@ public class MediaPlayerUtils {
 
         final HostManager hostManager = HostManager.getInstance(fragment.requireContext());
 
-        getPlaylists.execute(hostManager.getConnection(), new ApiCallback<ArrayList<PlaylistType.GetPlaylistsReturnType>>() {
+        hostManager.getConnection().getMetadataCache().execute(getPlaylists, new ApiCallback<ArrayList<PlaylistType.GetPlaylistsReturnType>>() {
             @Override
             public void onSuccess(ArrayList<PlaylistType.GetPlaylistsReturnType> result) {
                 if (!fragment.isResumed()) return;
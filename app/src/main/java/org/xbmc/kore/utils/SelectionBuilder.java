@@ -25,6 +25,7 @@ package org.xbmc.kore.utils;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteQueryBuilder;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
@@ -44,6 +45,7 @@ public class SelectionBuilder {
     private static final String TAG = LogUtils.makeLogTag(SelectionBuilder.class);
 
     private String mTable = null;
+    private final ArrayList<String> mTableArgs = new ArrayList<>();
     private final Map<String, String> mProjectionMap = new HashMap<>();
     private final StringBuilder mSelection = new StringBuilder();
     private final ArrayList<String> mSelectionArgs = new ArrayList<>();
@@ -53,6 +55,7 @@ public class SelectionBuilder {
      */
     public SelectionBuilder reset() {
         mTable = null;
+        mTableArgs.clear();
         mSelection.setLength(0);
         mSelectionArgs.clear();
         return this;
@@ -104,6 +107,17 @@ public class SelectionBuilder {
         return this;
     }
 
+    /**
+     * Set the table to a subquery with arguments, which come before the selection arguments
+     * in {@link #getSelectionArgs()}
+     */
+    public SelectionBuilder table(String table, String... tableArgs) {
+        mTable = table;
+        mTableArgs.clear();
+        Collections.addAll(mTableArgs, tableArgs);
+        return this;
+    }
+
     private void assertTable() {
         if (mTable == null) {
             throw new IllegalStateException("Table not specified");
@@ -135,7 +149,12 @@ public class SelectionBuilder {
      * @see #getSelection()
      */
     public String[] getSelectionArgs() {
-        return mSelectionArgs.toArray(new String[mSelectionArgs.size()]);
+        if (mTableArgs.isEmpty()) {
+            return mSelectionArgs.toArray(new String[mSelectionArgs.size()]);
+        }
+        ArrayList<String> args = new ArrayList<>(mTableArgs);
+        args.addAll(mSelectionArgs);
+        return args.toArray(new String[args.size()]);
     }
 
     private void mapColumns(String[] columns) {
@@ -179,6 +198,17 @@ public class SelectionBuilder {
                 orderBy, limit);
     }
 
+    /**
+     * Return the SQL of the query that {@link #query(SQLiteDatabase, String[], String, String)}
+     * executes, to be run with {@link #getSelectionArgs()}.
+     */
+    public String buildQuery(String[] columns, String orderBy, String limit) {
+        assertTable();
+        if (columns != null) mapColumns(columns);
+        return SQLiteQueryBuilder.buildQueryString(false, mTable, columns, getSelection(),
+                mGroupBy.toString(), null, orderBy, limit);
+    }
+
     /**
      * Execute update using the current internal state as {@code WHERE} clause.
      */
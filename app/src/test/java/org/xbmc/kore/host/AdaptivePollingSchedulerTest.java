@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.host;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowSystemClock;
+import org.xbmc.kore.host.HostConnectionObserver.PlayerEventsObserver;
+import org.xbmc.kore.jsonrpc.type.PlayerType;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the check intervals of {@link AdaptivePollingScheduler}. Robolectric's {@link android.os.SystemClock}
+ * only advances when told to, so the predicted playback time is exact
+ */
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class AdaptivePollingSchedulerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void playerStateTest() {
+        AdaptivePollingScheduler scheduler = new AdaptivePollingScheduler();
+
+        scheduler.onPlayerState(PlayerEventsObserver.PLAYER_IS_STOPPED, null);
+        assertWithJitter(5000, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+        scheduler.onPlayerState(PlayerEventsObserver.PLAYER_IS_PLAYING, createProperties(1, 10, 3600));
+        assertWithJitter(2000, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+        assertEquals(5000, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_TCP));
+
+        scheduler.setForeground(false);
+        assertWithJitter(10000, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+        assertEquals(30000, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_TCP));
+        scheduler.onPlayerState(PlayerEventsObserver.PLAYER_IS_PAUSED, createProperties(0, 10, 3600));
+        assertWithJitter(30000, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+    }
+
+    @Test
+    public void errorBackoffTest() {
+        AdaptivePollingScheduler scheduler = new AdaptivePollingScheduler();
+        scheduler.onPlayerState(PlayerEventsObserver.PLAYER_IS_PLAYING, createProperties(1, 10, 3600));
+
+        long expected = 2000;
+        for (int i = 0; i < 10; i++) {
+            scheduler.onCheckError();
+            assertWithJitter(expected, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+            // Through TCP too, as the connection is failing
+            assertWithJitter(expected, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_TCP));
+            expected = Math.min(expected * 2, 60000);
+        }
+
+        scheduler.onCheckSuccess();
+        assertWithJitter(2000, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+        scheduler.onCheckError();
+        scheduler.onPlayerState(PlayerEventsObserver.PLAYER_IS_STOPPED, null);
+        assertWithJitter(5000, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+    }
+
+    @Test
+    public void itemEndTest() {
+        AdaptivePollingScheduler scheduler = new AdaptivePollingScheduler();
+
+        // 1s left, checks 500ms after it ends, without jitter
+        scheduler.onPlayerState(PlayerEventsObserver.PLAYER_IS_PLAYING, createProperties(1, 59, 60));
+        assertEquals(1500, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+        ShadowSystemClock.advanceBy(Duration.ofMillis(400));
+        assertEquals(1100, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+
+        // Faster playback ends sooner
+        scheduler.onPlayerState(PlayerEventsObserver.PLAYER_IS_PLAYING, createProperties(2, 58, 60));
+        assertEquals(1500, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+
+        // In the background the end is further ahead of the interval
+        scheduler.setForeground(false);
+        scheduler.onPlayerState(PlayerEventsObserver.PLAYER_IS_PLAYING, createProperties(1, 52, 60));
+        assertEquals(8500, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+
+        // Past the predicted end, until the next item is picked up
+        ShadowSystemClock.advanceBy(Duration.ofMillis(9000));
+        assertEquals(500, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+
+        // Not while paused, or after an error, when the progress isn't known
+        scheduler.setForeground(true);
+        scheduler.onPlayerState(PlayerEventsObserver.PLAYER_IS_PAUSED, createProperties(0, 59, 60));
+        assertWithJitter(5000, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+        scheduler.onPlayerState(PlayerEventsObserver.PLAYER_IS_PLAYING, createProperties(1, 59, 60));
+        scheduler.onCheckError();
+        scheduler.onCheckSuccess();
+        assertWithJitter(2000, scheduler.getNextCheckDelay(HostConnection.PROTOCOL_HTTP));
+    }
+
+    private static void assertWithJitter(long expected, long delay) {
+        assertTrue("Delay " + delay + ", expected " + expected,
+                   delay >= expected * 0.8 && delay <= expected * 1.2);
+    }
+
+    private PlayerType.PropertyValue createProperties(int speed, int seconds, int totalSeconds) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put(PlayerType.PropertyName.SPEED, speed);
+        node.putObject(PlayerType.PropertyName.TIME)
+            .put("minutes", seconds / 60)
+            .put("seconds", seconds % 60);
+        node.putObject(PlayerType.PropertyName.TOTALTIME)
+            .put("minutes", totalSeconds / 60)
+            .put("seconds", totalSeconds % 60);
+        return new PlayerType.PropertyValue(node);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.host;
+
+import android.os.Looper;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.jsonrpc.type.PlayerType;
+import org.xbmc.kore.testutils.tcpserver.MockHttpServer;
+import org.xbmc.kore.testutils.tcpserver.MockTcpServer;
+import org.xbmc.kore.testutils.tcpserver.handlers.ApplicationHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.JSONConnectionHandlerManager;
+import org.xbmc.kore.testutils.tcpserver.handlers.JSONRPCHandler;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Tests the threads {@link HostConnectionObserver} works on: checks run on its checker thread, and
+ * observers are called on the main thread
+ */
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class HostConnectionObserverTest {
+    private static final long TIMEOUT_MS = 10000;
+
+    private MockTcpServer server;
+    private MockHttpServer httpServer;
+    private HostConnection hostConnection;
+    private HostConnectionObserver observer;
+
+    @Before
+    public void setUp() throws Exception {
+        JSONConnectionHandlerManager manager = new JSONConnectionHandlerManager();
+        manager.addHandler(new JSONRPCHandler());
+        manager.addHandler(new ApplicationHandler());
+        server = new MockTcpServer(manager);
+        server.start();
+        httpServer = new MockHttpServer(manager);
+        httpServer.start();
+
+        HostInfo hostInfo = new HostInfo("TESTHOST", server.getHostName(), HostConnection.PROTOCOL_HTTP,
+                                         httpServer.getListeningPort(), server.getPort(), null, null, true,
+                                         HostInfo.DEFAULT_EVENT_SERVER_PORT, false, false);
+        hostConnection = new HostConnection(hostInfo);
+        observer = new HostConnectionObserver(hostConnection);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        observer.stopObserving();
+        hostConnection.disconnect();
+        httpServer.stop();
+        server.shutdown();
+    }
+
+    @Test
+    public void threadsTest() throws Exception {
+        Thread mainThread = Looper.getMainLooper().getThread();
+        RecordingPollingScheduler pollingScheduler = new RecordingPollingScheduler();
+        observer.setPollingScheduler(pollingScheduler);
+
+        final Set<Thread> observerThreads = Collections.synchronizedSet(new HashSet<>());
+        final CountDownLatch volumeLatch = new CountDownLatch(1), connectionLatch = new CountDownLatch(1);
+        observer.registerApplicationObserver((volume, muted) -> {
+            observerThreads.add(Thread.currentThread());
+            volumeLatch.countDown();
+        });
+        observer.registerConnectionStatusObserver(new HostConnectionObserver.ConnectionStatusObserver() {
+            @Override
+            public void onConnectionStatusNoResultsYet() {
+                observerThreads.add(Thread.currentThread());
+            }
+
+            @Override
+            public void onConnectionStatusSuccess() {
+                observerThreads.add(Thread.currentThread());
+                connectionLatch.countDown();
+            }
+
+            @Override
+            public void onConnectionStatusError(int errorCode, String description) {
+                observerThreads.add(Thread.currentThread());
+            }
+        });
+
+        // Several checks, which are only notified once the main looper runs
+        long timeout = System.currentTimeMillis() + TIMEOUT_MS;
+        while ((volumeLatch.getCount() > 0 || connectionLatch.getCount() > 0 || pollingScheduler.checks.get() < 3) &&
+               System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+        assertEquals(0, volumeLatch.getCount());
+        assertEquals(0, connectionLatch.getCount());
+        assertTrue(pollingScheduler.checks.get() >= 3);
+
+        assertEquals(Collections.singleton(mainThread), observerThreads);
+        assertEquals(1, pollingScheduler.threads.size());
+        Thread checkerThread = pollingScheduler.threads.iterator().next();
+        assertFalse(checkerThread == mainThread);
+        assertEquals("HostConnectionObserver", checkerThread.getName());
+    }
+
+    /**
+     * Polling scheduler that checks often and records the threads it's called on
+     */
+    private static class RecordingPollingScheduler implements PollingScheduler {
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+        final AtomicInteger checks = new AtomicInteger();
+
+        @Override
+        public void onPlayerState(int playerState, PlayerType.PropertyValue getPropertiesResult) {
+            threads.add(Thread.currentThread());
+        }
+
+        @Override
+        public void onCheckSuccess() {
+            threads.add(Thread.currentThread());
+        }
+
+        @Override
+        public void onCheckError() {
+            threads.add(Thread.currentThread());
+        }
+
+        @Override
+        public void setForeground(boolean foreground) {
+            threads.add(Thread.currentThread());
+        }
+
+        @Override
+        public long getNextCheckDelay(int protocol) {
+            threads.add(Thread.currentThread());
+            checks.incrementAndGet();
+            return 50;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.host;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.jsonrpc.ApiCallback;
+import org.xbmc.kore.jsonrpc.ApiException;
+import org.xbmc.kore.jsonrpc.ApiFuture;
+import org.xbmc.kore.jsonrpc.method.JSONRPC;
+import org.xbmc.kore.testutils.tcpserver.MockTcpServer;
+import org.xbmc.kore.testutils.tcpserver.NetworkConditions;
+import org.xbmc.kore.testutils.tcpserver.handlers.JSONConnectionHandlerManager;
+import org.xbmc.kore.testutils.tcpserver.handlers.JSONRPCHandler;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the handling of TCP calls: the table of calls waiting for a response, timeouts and reconnections
+ */
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class HostConnectionTest {
+    private static final long TIMEOUT_S = 10;
+
+    private MockTcpServer server;
+    private HostConnection hostConnection;
+
+    @Before
+    public void setUp() throws Exception {
+        JSONConnectionHandlerManager manager = new JSONConnectionHandlerManager();
+        manager.addHandler(new JSONRPCHandler());
+        server = new MockTcpServer(manager);
+        server.start();
+
+        HostInfo hostInfo = new HostInfo("TESTHOST", server.getHostName(), HostConnection.PROTOCOL_TCP,
+                                         HostInfo.DEFAULT_HTTP_PORT, server.getPort(), null, null, true,
+                                         HostInfo.DEFAULT_EVENT_SERVER_PORT, false, false);
+        hostConnection = new HostConnection(hostInfo);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        hostConnection.disconnect();
+        server.shutdown();
+    }
+
+    @Test
+    public void pingTest() throws Exception {
+        assertEquals("pong", ping().get(TIMEOUT_S, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void sameIdTest() throws Exception {
+        server.setNetworkConditions(new NetworkConditions().setLatency(500, 0));
+        JSONRPC.Ping ping = new JSONRPC.Ping();
+        ApiFuture<String> first = new ApiFuture<>();
+        ApiFuture<String> second = new ApiFuture<>();
+        hostConnection.execute(ping, futureCallback(first), null);
+        hostConnection.execute(ping, futureCallback(second), null);
+
+        assertErrorCode(ApiException.API_METHOD_WITH_SAME_ID_ALREADY_EXECUTING, second);
+        assertEquals("pong", first.get(TIMEOUT_S, TimeUnit.SECONDS));
+        // Once answered, the id is free again
+        assertEquals("pong", execute(ping).get(TIMEOUT_S, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void updateClientCallbackTest() throws Exception {
+        server.setNetworkConditions(new NetworkConditions().setLatency(500, 0));
+        JSONRPC.Ping ping = new JSONRPC.Ping();
+        ApiFuture<String> first = new ApiFuture<>();
+        ApiFuture<String> updated = new ApiFuture<>();
+        hostConnection.execute(ping, futureCallback(first), null);
+
+        assertTrue(hostConnection.updateClientCallback(ping.getId(), futureCallback(updated), null));
+        assertEquals("pong", updated.get(TIMEOUT_S, TimeUnit.SECONDS));
+        assertFalse(first.isDone());
+        assertFalse(hostConnection.updateClientCallback(ping.getId(), futureCallback(first), null));
+    }
+
+    @Test
+    public void timeoutTest() throws Exception {
+        hostConnection.setTcpCallTimeout(200);
+        server.setNetworkConditions(new NetworkConditions().setLatency(5000, 0));
+
+        assertErrorCode(ApiException.API_WAITING_ON_RESULT_TIMEDOUT, ping());
+    }
+
+    @Test
+    public void disconnectTest() throws Exception {
+        server.setNetworkConditions(new NetworkConditions().setLatency(1000, 0));
+        ApiFuture<String> pending = ping();
+        ApiFuture<String> queued = ping();
+        hostConnection.disconnect();
+
+        // Calls without handler are failed before disconnect returns
+        assertTrue(pending.isDone());
+        assertTrue(queued.isDone());
+        assertErrorCode(ApiException.API_REQUEST_CANCELLED, pending);
+        assertErrorCode(ApiException.API_REQUEST_CANCELLED, queued);
+    }
+
+    @Test
+    public void reconnectTest() throws Exception {
+        assertEquals("pong", ping().get(TIMEOUT_S, TimeUnit.SECONDS));
+        hostConnection.disconnect();
+
+        // Closing the previous connection doesn't fail calls made through the new one
+        server.setNetworkConditions(new NetworkConditions().setLatency(200, 0));
+        ApiFuture<String> afterDisconnect = ping();
+        assertEquals("pong", afterDisconnect.get(TIMEOUT_S, TimeUnit.SECONDS));
+        assertEquals("pong", ping().get(TIMEOUT_S, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void connectionClosedByHostTest() throws Exception {
+        assertEquals("pong", ping().get(TIMEOUT_S, TimeUnit.SECONDS));
+
+        server.setNetworkConditions(new NetworkConditions().setFaults(0, 1));
+        assertErrorCode(ApiException.IO_EXCEPTION_WHILE_READING_RESPONSE, ping());
+
+        server.setNetworkConditions(new NetworkConditions());
+        assertEquals("pong", ping().get(TIMEOUT_S, TimeUnit.SECONDS));
+    }
+
+    private ApiFuture<String> ping() {
+        return execute(new JSONRPC.Ping());
+    }
+
+    private ApiFuture<String> execute(JSONRPC.Ping ping) {
+        ApiFuture<String> future = new ApiFuture<>();
+        hostConnection.execute(ping, futureCallback(future), null);
+        return future;
+    }
+
+    private static void assertErrorCode(int errorCode, ApiFuture<String> future) throws Exception {
+        try {
+            future.get(TIMEOUT_S, TimeUnit.SECONDS);
+            fail("Call didn't fail");
+        } catch (ExecutionException e) {
+            assertEquals(errorCode, ((ApiException) e.getCause()).getCode());
+        }
+    }
+
+    private static <T> ApiCallback<T> futureCallback(final ApiFuture<T> future) {
+        return new ApiCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onError(int errorCode, String description) {
+                future.completeExceptionally(new ApiException(errorCode, description));
+            }
+        };
+    }
+}
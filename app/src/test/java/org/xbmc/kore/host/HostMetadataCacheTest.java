@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.host;
+
+import android.os.Handler;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.jsonrpc.ApiCallback;
+import org.xbmc.kore.jsonrpc.ApiMethod;
+import org.xbmc.kore.jsonrpc.method.Addons;
+import org.xbmc.kore.jsonrpc.method.Playlist;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class HostMetadataCacheTest {
+
+    /**
+     * Connection that doesn't connect, answering each call with a new object and counting the calls
+     */
+    private static class CountingHostConnection extends HostConnection {
+        int calls = 0;
+
+        CountingHostConnection() {
+            super(new HostInfo("TESTHOST", "localhost", HostConnection.PROTOCOL_HTTP,
+                               HostInfo.DEFAULT_HTTP_PORT, HostInfo.DEFAULT_TCP_PORT, null, null, false,
+                               HostInfo.DEFAULT_EVENT_SERVER_PORT, false, false));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> void execute(ApiMethod<T> method, ApiCallback<T> callback, Handler handler) {
+            calls++;
+            callback.onSuccess((T) new ArrayList<>());
+        }
+    }
+
+    private CountingHostConnection connection;
+    private final ArrayList<Object> results = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        connection = new CountingHostConnection();
+        results.clear();
+    }
+
+    @Test
+    public void cachedResultTest() {
+        HostMetadataCache cache = new HostMetadataCache(connection);
+        get(cache, new Playlist.GetPlaylists());
+        get(cache, new Playlist.GetPlaylists());
+
+        assertEquals(1, connection.calls);
+        assertSame(results.get(0), results.get(1));
+    }
+
+    @Test
+    public void resultsByParametersTest() {
+        HostMetadataCache cache = new HostMetadataCache(connection);
+        get(cache, new Addons.GetAddons(true));
+        get(cache, new Addons.GetAddons(false));
+        get(cache, new Addons.GetAddons(true));
+
+        assertEquals(2, connection.calls);
+        assertNotEquals(HostMetadataCache.getKey(new Addons.GetAddons(true)),
+                        HostMetadataCache.getKey(new Addons.GetAddons(false)));
+        assertSame(results.get(0), results.get(2));
+    }
+
+    @Test
+    public void invalidateTest() {
+        HostMetadataCache cache = new HostMetadataCache(connection);
+        get(cache, new Addons.GetAddons(true));
+        get(cache, new Addons.GetAddons(false));
+        get(cache, new Playlist.GetPlaylists());
+
+        cache.invalidate(Addons.GetAddons.METHOD_NAME);
+        assertNull(cache.get(new Addons.GetAddons(true)));
+        assertNull(cache.get(new Addons.GetAddons(false)));
+        assertSame(results.get(2), cache.get(new Playlist.GetPlaylists()));
+
+        cache.invalidateAll();
+        assertNull(cache.get(new Playlist.GetPlaylists()));
+    }
+
+    @Test
+    public void expiredResultTest() {
+        HostMetadataCache cache = new HostMetadataCache(connection, 0);
+        get(cache, new Playlist.GetPlaylists());
+        get(cache, new Playlist.GetPlaylists());
+
+        assertEquals(2, connection.calls);
+        assertNull(cache.get(new Playlist.GetPlaylists()));
+    }
+
+    private <T> void get(HostMetadataCache cache, ApiMethod<T> method) {
+        cache.execute(method, new ApiCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                results.add(result);
+            }
+
+            @Override
+            public void onError(int errorCode, String description) {
+                throw new AssertionError(description);
+            }
+        }, null);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.host;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.host.HostConnectionObserver.PlayerEventsObserver;
+import org.xbmc.kore.host.actions.GetPlaylist;
+import org.xbmc.kore.jsonrpc.type.ListType;
+import org.xbmc.kore.jsonrpc.type.PlayerType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class HostSnapshotTest {
+    private static final int HOST_ID = 1;
+
+    private final Context context = ApplicationProvider.getApplicationContext();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void emptySnapshotTest() throws Exception {
+        HostSnapshot snapshot = read(1000);
+        assertEquals(PlayerEventsObserver.PLAYER_NO_RESULT, snapshot.getPlayerState());
+        assertNull(snapshot.getPlayerItem());
+        assertNull(snapshot.getPlaylists());
+        assertNull(snapshot.getList("list"));
+    }
+
+    @Test
+    public void playerStateTest() throws Exception {
+        ObjectNode activePlayer = objectMapper.createObjectNode();
+        activePlayer.put("playerid", 0);
+        activePlayer.put("type", PlayerType.GetActivePlayersReturnType.AUDIO);
+        ObjectNode properties = objectMapper.createObjectNode();
+        properties.put("speed", 1);
+        properties.put("position", 3);
+
+        HostSnapshot snapshot = read(HOST_ID);
+        snapshot.setPlayerPlaying(PlayerEventsObserver.PLAYER_IS_PLAYING,
+                                  new PlayerType.GetActivePlayersReturnType(activePlayer),
+                                  new PlayerType.PropertyValue(properties),
+                                  createItem(7));
+        snapshot.write();
+
+        HostSnapshot read = read(HOST_ID);
+        assertEquals(PlayerEventsObserver.PLAYER_IS_PLAYING, read.getPlayerState());
+        assertEquals(PlayerType.GetActivePlayersReturnType.AUDIO, read.getActivePlayer().type);
+        assertEquals(1, read.getPlayerProperties().speed);
+        assertEquals(3, read.getPlayerProperties().position);
+        assertEquals(7, read.getPlayerItem().id);
+        assertEquals("Item 7", read.getPlayerItem().label);
+        // Items are saved from their fields
+        ListType.ItemsAll item = read.getPlayerItem();
+        assertEquals(ListType.ItemsAll.TYPE_SONG, item.type);
+        assertEquals(Collections.singletonList("Artist 7"), item.artist);
+        assertEquals(Collections.singletonList(70), item.artistid);
+        assertEquals("image://thumb/7", item.art.thumb);
+        assertEquals("Actor 7", item.cast.get(0).name);
+        assertEquals(1, item.cast.get(0).order);
+        assertEquals(30.5, item.resume.position, 0);
+        assertEquals(7.5, item.rating, 0);
+        assertEquals(-1, item.albumid);
+
+        read.setPlayerStopped();
+        read.write();
+        read = read(HOST_ID);
+        assertEquals(PlayerEventsObserver.PLAYER_IS_STOPPED, read.getPlayerState());
+        assertNull(read.getActivePlayer());
+        assertNull(read.getPlayerItem());
+    }
+
+    @Test
+    public void playlistsTest() throws Exception {
+        List<ListType.ItemsAll> items = new ArrayList<>();
+        for (int i = 0; i < HostSnapshot.MAX_PLAYLIST_ITEMS + 10; i++) {
+            items.add(createItem(i));
+        }
+        List<GetPlaylist.GetPlaylistResult> playlists = new ArrayList<>();
+        playlists.add(new GetPlaylist.GetPlaylistResult(0, "audio", items));
+        playlists.add(new GetPlaylist.GetPlaylistResult(1, "video", Collections.emptyList()));
+
+        HostSnapshot snapshot = read(HOST_ID);
+        snapshot.setPlaylists(playlists);
+        snapshot.write();
+
+        List<GetPlaylist.GetPlaylistResult> read = read(HOST_ID).getPlaylists();
+        assertNotNull(read);
+        assertEquals(2, read.size());
+        assertEquals(0, read.get(0).id);
+        assertEquals("audio", read.get(0).type);
+        assertEquals(HostSnapshot.MAX_PLAYLIST_ITEMS, read.get(0).items.size());
+        for (int i = 0; i < HostSnapshot.MAX_PLAYLIST_ITEMS; i++) {
+            assertEquals(i, read.get(0).items.get(i).id);
+        }
+        assertEquals(1, read.get(1).id);
+        assertEquals(0, read.get(1).items.size());
+    }
+
+    @Test
+    public void listTest() throws Exception {
+        MatrixCursor cursor = new MatrixCursor(new String[] {"_id", "title", "rating", "thumbnail"});
+        for (int i = 0; i < HostSnapshot.MAX_LIST_ROWS + 10; i++) {
+            cursor.addRow(new Object[] {i, "Title " + i, i / 2.0, null});
+        }
+        cursor.moveToPosition(5);
+
+        HostSnapshot snapshot = read(HOST_ID);
+        snapshot.putList("list", cursor);
+        assertEquals(5, cursor.getPosition());
+        snapshot.write();
+
+        try (Cursor read = read(HOST_ID).getList("list")) {
+            assertNotNull(read);
+            assertEquals(HostSnapshot.MAX_LIST_ROWS, read.getCount());
+            assertEquals(4, read.getColumnCount());
+            while (read.moveToNext()) {
+                int i = read.getPosition();
+                assertEquals(i, read.getInt(0));
+                assertEquals("Title " + i, read.getString(1));
+                assertEquals(i / 2.0, read.getDouble(2), 0);
+                assertEquals(Cursor.FIELD_TYPE_NULL, read.getType(3));
+            }
+        }
+    }
+
+    @Test
+    public void listsLimitTest() throws Exception {
+        MatrixCursor cursor = new MatrixCursor(new String[] {"_id"});
+        cursor.addRow(new Object[] {1});
+
+        HostSnapshot snapshot = read(HOST_ID);
+        for (int i = 0; i < HostSnapshot.MAX_LISTS + 5; i++) {
+            snapshot.putList("list " + i, cursor);
+        }
+        // Saving it again makes it the most recently saved
+        snapshot.putList("list 0", cursor);
+        snapshot.write();
+
+        HostSnapshot read = read(HOST_ID);
+        assertNotNull(read.getList("list 0"));
+        for (int i = 1; i <= 5; i++) {
+            assertNull(read.getList("list " + i));
+        }
+        for (int i = 6; i < HostSnapshot.MAX_LISTS + 5; i++) {
+            assertNotNull(read.getList("list " + i));
+        }
+    }
+
+    @Test
+    public void deleteTest() throws Exception {
+        HostSnapshot snapshot = read(HOST_ID);
+        snapshot.setPlaylists(Collections.singletonList(
+                new GetPlaylist.GetPlaylistResult(0, "audio", Collections.singletonList(createItem(1)))));
+        snapshot.write();
+
+        // Changes to a snapshot read before the delete aren't written
+        snapshot.setPlayerStopped();
+        HostSnapshot.delete(context, HOST_ID);
+        snapshot.write();
+        HostSnapshot read = read(HOST_ID);
+        assertNull(read.getPlaylists());
+        assertEquals(PlayerEventsObserver.PLAYER_NO_RESULT, read.getPlayerState());
+
+        // The ones read after it are
+        read.setPlayerStopped();
+        read.write();
+        assertEquals(PlayerEventsObserver.PLAYER_IS_STOPPED, read(HOST_ID).getPlayerState());
+    }
+
+    @Test
+    public void changesBeforeReadTest() throws Exception {
+        HostSnapshot snapshot = read(HOST_ID);
+        snapshot.setPlaylists(Collections.singletonList(
+                new GetPlaylist.GetPlaylistResult(0, "audio", Collections.singletonList(createItem(1)))));
+        snapshot.setPlayerStopped();
+        snapshot.write();
+
+        // Changed while it's being read, the changes are kept over the saved state
+        HostSnapshot read = HostSnapshot.read(context, HOST_ID);
+        read.setPlaylists(Collections.singletonList(
+                new GetPlaylist.GetPlaylistResult(1, "video", Collections.singletonList(createItem(2)))));
+        read.awaitRead();
+        assertEquals(PlayerEventsObserver.PLAYER_IS_STOPPED, read.getPlayerState());
+        List<GetPlaylist.GetPlaylistResult> playlists = read.getPlaylists();
+        assertNotNull(playlists);
+        assertEquals(1, playlists.size());
+        assertEquals(1, playlists.get(0).id);
+        assertEquals(2, playlists.get(0).items.get(0).id);
+    }
+
+    private HostSnapshot read(int hostId) throws InterruptedException {
+        HostSnapshot snapshot = HostSnapshot.read(context, hostId);
+        snapshot.awaitRead();
+        return snapshot;
+    }
+
+    private ListType.ItemsAll createItem(int id) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", id);
+        node.put("label", "Item " + id);
+        node.put("type", ListType.ItemsAll.TYPE_SONG);
+        node.putArray("artist").add("Artist " + id);
+        node.putArray("artistid").add(id * 10);
+        node.putObject("art").put("thumb", "image://thumb/" + id);
+        node.putArray("cast").addObject().put("name", "Actor " + id).put("order", 1);
+        node.putObject("resume").put("position", 30.5).put("total", 120);
+        node.put("rating", 7.5);
+        return new ListType.ItemsAll(node);
+    }
+}
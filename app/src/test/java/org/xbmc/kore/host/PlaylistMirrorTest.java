@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.host;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.jsonrpc.type.ListType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class PlaylistMirrorTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void sameItemsTest() {
+        assertNull(PlaylistMirror.findChange(createItems(0, 5), createItems(0, 5)));
+        assertNull(PlaylistMirror.findChange(createItems(0, 0), createItems(0, 0)));
+    }
+
+    @Test
+    public void itemsAppendedTest() {
+        PlaylistMirror.Change change = PlaylistMirror.findChange(createItems(0, 5000), createItems(0, 5003));
+        assertChange(5000, 0, 3, change);
+    }
+
+    @Test
+    public void itemsRemovedFromStartTest() {
+        PlaylistMirror.Change change = PlaylistMirror.findChange(createItems(0, 5000), createItems(2, 5000));
+        assertChange(0, 2, 0, change);
+    }
+
+    @Test
+    public void itemReplacedTest() {
+        List<ListType.ItemsAll> after = createItems(0, 10);
+        after.set(4, createItem(100));
+        assertChange(4, 1, 1, PlaylistMirror.findChange(createItems(0, 10), after));
+    }
+
+    @Test
+    public void itemMovedTest() {
+        List<ListType.ItemsAll> after = createItems(0, 10);
+        after.add(7, after.remove(2));
+        assertChange(2, 6, 6, PlaylistMirror.findChange(createItems(0, 10), after));
+    }
+
+    @Test
+    public void repeatedItemsTest() {
+        // The common start and end can't overlap, even if the items repeat
+        List<ListType.ItemsAll> before = new ArrayList<>();
+        List<ListType.ItemsAll> after = new ArrayList<>();
+        for (int i = 0; i < 3; i++) before.add(createItem(1));
+        for (int i = 0; i < 5; i++) after.add(createItem(1));
+        assertChange(3, 0, 2, PlaylistMirror.findChange(before, after));
+        assertChange(3, 2, 0, PlaylistMirror.findChange(after, before));
+    }
+
+    @Test
+    public void itemsNotGotTest() {
+        List<ListType.ItemsAll> before = new ArrayList<>(Collections.<ListType.ItemsAll>nCopies(100, null));
+        List<ListType.ItemsAll> after = new ArrayList<>(Collections.<ListType.ItemsAll>nCopies(100, null));
+        assertNull(PlaylistMirror.findChange(before, after));
+
+        after.set(60, createItem(60));
+        after.set(61, createItem(61));
+        assertChange(60, 2, 2, PlaylistMirror.findChange(before, after));
+    }
+
+    @Test
+    public void placeItemsTest() {
+        // Items 10 to 19 were got, and then the first two items were removed
+        List<ListType.ItemsAll> items = new ArrayList<>(Collections.<ListType.ItemsAll>nCopies(30, null));
+        for (int id = 10; id < 20; id++) {
+            items.set(id, createItem(id));
+        }
+        List<ListType.ItemsAll> ids = createItems(7, 25);
+
+        List<ListType.ItemsAll> placed = PlaylistMirror.placeItems(items, 5, ids, 28);
+        assertEquals(28, placed.size());
+        for (int i = 0; i < placed.size(); i++) {
+            int id = i + 2;
+            if (id >= 10 && id < 20) {
+                assertSame(items.get(id), placed.get(i));
+            } else {
+                assertNull(placed.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void sameItemTest() {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", 1);
+        node.put("label", "Item 1");
+        node.put("type", ListType.ItemsAll.TYPE_SONG);
+        node.put("title", "Title");
+        // Items got with properties are the same as the ones got without them
+        assertTrue(PlaylistMirror.isSameItem(createItem(1), new ListType.ItemsAll(node)));
+
+        node.put("type", ListType.ItemsAll.TYPE_MOVIE);
+        assertFalse(PlaylistMirror.isSameItem(createItem(1), new ListType.ItemsAll(node)));
+        assertFalse(PlaylistMirror.isSameItem(createItem(1), null));
+    }
+
+    private void assertChange(int position, int removed, int inserted, PlaylistMirror.Change change) {
+        assertEquals(position, change.position);
+        assertEquals(removed, change.removed);
+        assertEquals(inserted, change.inserted);
+    }
+
+    private List<ListType.ItemsAll> createItems(int firstId, int lastId) {
+        List<ListType.ItemsAll> items = new ArrayList<>();
+        for (int id = firstId; id < lastId; id++) {
+            items.add(createItem(id));
+        }
+        return items;
+    }
+
+    private ListType.ItemsAll createItem(int id) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", id);
+        node.put("label", "Item " + id);
+        node.put("type", ListType.ItemsAll.TYPE_SONG);
+        return new ListType.ItemsAll(node);
+    }
+}
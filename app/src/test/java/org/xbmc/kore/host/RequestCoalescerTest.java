@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.host;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.jsonrpc.ApiCallback;
+import org.xbmc.kore.jsonrpc.method.Application;
+import org.xbmc.kore.jsonrpc.method.Player;
+import org.xbmc.kore.jsonrpc.type.ApplicationType;
+import org.xbmc.kore.jsonrpc.type.PlayerType;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class RequestCoalescerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RequestCoalescer coalescer;
+    private final ArrayList<Object> results = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        coalescer = new RequestCoalescer();
+        coalescer.setTtl(Application.GetProperties.METHOD_NAME, 60000);
+        coalescer.setTtl(Player.GetProperties.METHOD_NAME, 0);
+        results.clear();
+    }
+
+    @Test
+    public void inFlightCallsJoinedTest() {
+        ApiCallback<ApplicationType.PropertyValue> sent = start(getVolume());
+        assertNotNull(sent);
+        assertNull(start(getVolume()));
+        assertNull(start(getVolume()));
+
+        ApplicationType.PropertyValue value = createValue();
+        sent.onSuccess(value);
+        assertEquals(3, results.size());
+        for (Object result : results) assertSame(value, result);
+        assertEquals(2, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void differentParametersNotJoinedTest() {
+        assertNotNull(start(getVolume()));
+        assertNotNull(start(new Application.GetProperties(Application.GetProperties.MUTED)));
+    }
+
+    @Test
+    public void responseKeptTest() {
+        ApplicationType.PropertyValue value = createValue();
+        start(getVolume()).onSuccess(value);
+
+        assertNull(start(getVolume()));
+        assertEquals(2, results.size());
+        assertSame(value, results.get(1));
+    }
+
+    @Test
+    public void responseNotKeptWithoutTtlTest() {
+        Player.GetProperties getProperties = new Player.GetProperties(0, PlayerType.PropertyName.TIME);
+        ApiCallback<PlayerType.PropertyValue> sent = coalescer.start(getProperties, null, null);
+        assertNull(coalescer.start(new Player.GetProperties(0, PlayerType.PropertyName.TIME), null, null));
+        sent.onSuccess(null);
+
+        assertNotNull(coalescer.start(new Player.GetProperties(0, PlayerType.PropertyName.TIME), null, null));
+    }
+
+    @Test
+    public void errorPassedToAllTest() {
+        ApiCallback<ApplicationType.PropertyValue> sent = start(getVolume());
+        start(getVolume());
+        sent.onError(1, "error");
+
+        assertEquals(2, results.size());
+        assertEquals("error", results.get(0));
+        // Errors aren't kept
+        assertNotNull(start(getVolume()));
+    }
+
+    @Test
+    public void invalidatedByCallTest() {
+        start(getVolume()).onSuccess(createValue());
+        coalescer.onCall(Application.SetVolume.METHOD_NAME);
+        assertNotNull(start(getVolume()));
+    }
+
+    @Test
+    public void invalidatedByNotificationTest() {
+        start(getVolume()).onSuccess(createValue());
+        coalescer.onNotification("Player.OnPlay");
+        assertNull(start(getVolume()));
+
+        coalescer.onNotification("Application.OnVolumeChanged");
+        assertNotNull(start(getVolume()));
+    }
+
+    @Test
+    public void staleResponseNotKeptTest() {
+        ApiCallback<ApplicationType.PropertyValue> sent = start(getVolume());
+        coalescer.onNotification("System.OnRestart");
+        // Calls made after the notification aren't joined to the call made before it
+        ApiCallback<ApplicationType.PropertyValue> sentAgain = start(getVolume());
+        assertNotNull(sentAgain);
+
+        sent.onSuccess(createValue());
+        assertNotNull(start(getVolume()));
+    }
+
+    private ApplicationType.PropertyValue createValue() {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put(ApplicationType.PropertyValue.VOLUME, 50);
+        node.set(ApplicationType.PropertyValue.VERSION, objectMapper.createObjectNode());
+        return new ApplicationType.PropertyValue(node);
+    }
+
+    private Application.GetProperties getVolume() {
+        return new Application.GetProperties(Application.GetProperties.VOLUME);
+    }
+
+    private ApiCallback<ApplicationType.PropertyValue> start(Application.GetProperties method) {
+        return coalescer.start(method, new ApiCallback<ApplicationType.PropertyValue>() {
+            @Override
+            public void onSuccess(ApplicationType.PropertyValue result) {
+                results.add(result);
+            }
+
+            @Override
+            public void onError(int errorCode, String description) {
+                results.add(description);
+            }
+        }, null);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.host;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class RequestSchedulerTest {
+    private RequestScheduler scheduler;
+    private final List<String> run = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch blocked = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws InterruptedException {
+        scheduler = new RequestScheduler("test", 1);
+        // Keep the only thread busy, so that the following tasks wait
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.execute(() -> {
+            started.countDown();
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {}
+        }, RequestScheduler.LANE_BACKGROUND);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void tasksRunByLaneTest() throws InterruptedException {
+        scheduler.execute(() -> run.add("background 1"), RequestScheduler.LANE_BACKGROUND);
+        scheduler.execute(() -> run.add("foreground"), RequestScheduler.LANE_FOREGROUND);
+        scheduler.execute(() -> run.add("background 2"), RequestScheduler.LANE_BACKGROUND);
+        scheduler.execute(() -> run.add("interactive"), RequestScheduler.LANE_INTERACTIVE);
+
+        assertEquals(1, scheduler.getStats().getQueueDepth(RequestScheduler.LANE_FOREGROUND));
+        assertEquals(2, scheduler.getStats().getQueueDepth(RequestScheduler.LANE_BACKGROUND));
+
+        awaitAll();
+        assertEquals(Arrays.asList("interactive", "foreground", "background 1", "background 2"), run);
+        assertEquals(0, scheduler.getStats().getQueueDepth(RequestScheduler.LANE_BACKGROUND));
+        assertEquals(2, scheduler.getStats().getMaxQueueDepth(RequestScheduler.LANE_BACKGROUND));
+    }
+
+    @Test
+    public void waitingTasksCancelledTest() throws InterruptedException {
+        scheduler.execute(() -> run.add("poll"), RequestScheduler.LANE_BACKGROUND, () -> run.add("poll cancelled"));
+        scheduler.execute(() -> run.add("sync"), RequestScheduler.LANE_BACKGROUND);
+        scheduler.execute(() -> run.add("foreground"), RequestScheduler.LANE_FOREGROUND);
+        assertTrue(run.isEmpty());
+
+        scheduler.execute(() -> run.add("interactive"), RequestScheduler.LANE_INTERACTIVE);
+        assertEquals(Collections.singletonList("poll cancelled"), run);
+
+        awaitAll();
+        assertEquals(Arrays.asList("poll cancelled", "interactive", "foreground", "sync"), run);
+        assertEquals(1, scheduler.getStats().getCancelledCount(RequestScheduler.LANE_BACKGROUND));
+    }
+
+    private void awaitAll() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.execute(done::countDown, RequestScheduler.LANE_BACKGROUND);
+        blocked.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+}
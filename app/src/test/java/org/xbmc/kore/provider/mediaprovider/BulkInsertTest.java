@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.provider.mediaprovider;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.provider.MediaDatabase;
+import org.xbmc.kore.provider.MediaProvider;
+import org.xbmc.kore.service.library.SyncUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that inserting songs through the compiled statement path of
+ * {@link MediaProvider#bulkInsert(android.net.Uri, ContentValues[])}, fed either with {@link ContentValues} or
+ * with rows bound directly as the library sync does, inserts the same rows as
+ * {@link SQLiteDatabase#insertOrThrow(String, String, ContentValues)} per row.
+ */
+public class BulkInsertTest extends AbstractTestClass {
+    private static final int ROWS = 50;
+    private static final int FIRST_SONGID = 1000000;
+
+    private MediaProvider provider;
+    private SQLiteDatabase db;
+    private ContentValues[] rows;
+
+    @Before
+    public void setUpRows() {
+        provider = (MediaProvider) client.getLocalContentProvider();
+        db = new MediaDatabase(ApplicationProvider.getApplicationContext()).getWritableDatabase();
+
+        rows = new ContentValues[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = new ContentValues();
+            rows[i].put(MediaContract.Songs.HOST_ID, hostInfo.getId());
+            rows[i].put(MediaContract.Songs.ALBUMID, 10000 + i / 10);
+            rows[i].put(MediaContract.Songs.SONGID, FIRST_SONGID + i);
+            rows[i].put(MediaContract.Songs.DURATION, 180 + i % 120);
+            rows[i].put(MediaContract.Songs.THUMBNAIL, "image://thumb/" + i);
+            rows[i].put(MediaContract.Songs.FILE, "/music/album " + i / 10 + "/track " + i % 10 + ".flac");
+            rows[i].put(MediaContract.Songs.TRACK, i % 10 + 1);
+            rows[i].put(MediaContract.Songs.TITLE, "Song " + i);
+            rows[i].put(MediaContract.Songs.DISPLAYARTIST, "Artist " + i / 100);
+            rows[i].put(MediaContract.Songs.DISC, 1);
+            rows[i].put(MediaContract.Songs.SORT_TITLE, "Song " + i);
+        }
+    }
+
+    @After
+    public void closeDatabase() {
+        db.close();
+    }
+
+    @Test
+    public void insertOrThrowTest() {
+        long updateTime = System.currentTimeMillis();
+        db.beginTransaction();
+        try {
+            for (ContentValues value : rows) {
+                value.put(MediaContract.SyncColumns.UPDATED, updateTime);
+                db.insertOrThrow(MediaDatabase.Tables.SONGS, null, value);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        assertInsertedSongs();
+    }
+
+    @Test
+    public void bulkInsertContentValuesTest() {
+        assertEquals(ROWS, provider.bulkInsert(MediaContract.Songs.CONTENT_URI, rows));
+        assertInsertedSongs();
+    }
+
+    @Test
+    public void bulkInsertBoundRowsTest() {
+        provider.bulkInsert(MediaContract.Songs.CONTENT_URI, inserter -> {
+            inserter.columns(SyncUtils.SONG_COLUMNS);
+            for (int i = 0; i < ROWS; i++) {
+                inserter.bindLong(0, hostInfo.getId())
+                        .bindLong(1, 10000 + i / 10)
+                        .bindLong(2, FIRST_SONGID + i)
+                        .bindLong(3, 180 + i % 120)
+                        .bindString(4, "image://thumb/" + i)
+                        .bindString(5, "/music/album " + i / 10 + "/track " + i % 10 + ".flac")
+                        .bindLong(6, i % 10 + 1)
+                        .bindString(7, "Song " + i)
+                        .bindString(8, "Artist " + i / 100)
+                        .bindLong(9, 1)
+                        .bindString(10, "Song " + i)
+                        .insert();
+            }
+        });
+        assertInsertedSongs();
+    }
+
+    private void assertInsertedSongs() {
+        assertEquals(ROWS, DatabaseUtils.queryNumEntries(db, MediaDatabase.Tables.SONGS,
+                                                         MediaContract.Songs.SONGID + ">=" + FIRST_SONGID));
+        try (Cursor cursor = db.query(MediaDatabase.Tables.SONGS,
+                                      new String[] {MediaContract.Songs.TITLE, MediaContract.Songs.FILE,
+                                                    MediaContract.SyncColumns.UPDATED},
+                                      MediaContract.Songs.SONGID + "=" + (FIRST_SONGID + ROWS - 1),
+                                      null, null, null, null)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals("Song " + (ROWS - 1), cursor.getString(0));
+            assertEquals("/music/album 4/track 9.flac", cursor.getString(1));
+            assertTrue(cursor.getLong(2) > 0);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.provider.mediaprovider;
+
+import android.content.ContentResolver;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Test;
+import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.service.library.SyncUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LibraryDiffTest extends AbstractTestClass {
+    private final ContentResolver contentResolver = ApplicationProvider.getApplicationContext().getContentResolver();
+
+    private HashMap<Integer, String> getMovieMarkers() {
+        return SyncUtils.getLocalChangeMarkers(contentResolver,
+                                               MediaContract.Movies.buildMoviesListUri(hostInfo.getId()),
+                                               MediaContract.MoviesColumns.MOVIEID,
+                                               MediaContract.MoviesColumns.DATEADDED,
+                                               MediaContract.MoviesColumns.PLAYCOUNT);
+    }
+
+    @Test
+    public void unchangedLibraryTest() {
+        HashMap<Integer, String> localMarkers = getMovieMarkers();
+        assertFalse(localMarkers.isEmpty());
+
+        SyncUtils.LibraryDiff diff = SyncUtils.diffLibrary(localMarkers, new HashMap<>(localMarkers));
+
+        assertTrue(diff.changedIds.isEmpty());
+        assertTrue(diff.deletedIds.isEmpty());
+        assertFalse(diff.isMostlyChanged());
+    }
+
+    @Test
+    public void changedLibraryTest() {
+        HashMap<Integer, String> localMarkers = getMovieMarkers();
+        HashMap<Integer, String> remoteMarkers = new HashMap<>(localMarkers);
+        Iterator<Integer> ids = localMarkers.keySet().iterator();
+        int deletedId = ids.next();
+        int changedId = ids.next();
+        int newId = 100000;
+        remoteMarkers.remove(deletedId);
+        remoteMarkers.put(changedId, SyncUtils.changeMarker("2026-01-01 00:00:00", "1"));
+        remoteMarkers.put(newId, SyncUtils.changeMarker("2026-01-01 00:00:00", "0"));
+
+        SyncUtils.LibraryDiff diff = SyncUtils.diffLibrary(localMarkers, remoteMarkers);
+
+        assertEquals(2, diff.changedIds.size());
+        assertTrue(diff.changedIds.contains(changedId));
+        assertTrue(diff.changedIds.contains(newId));
+        assertEquals(1, diff.deletedIds.size());
+        assertTrue(diff.deletedIds.contains(deletedId));
+    }
+
+    @Test
+    public void deleteItemsTest() {
+        HashMap<Integer, String> localMarkers = getMovieMarkers();
+        List<Integer> idsToDelete = new ArrayList<>(localMarkers.keySet()).subList(0, 2);
+
+        SyncUtils.deleteItems(contentResolver, MediaContract.Movies.CONTENT_URI,
+                              MediaContract.MoviesColumns.HOST_ID, hostInfo.getId(),
+                              MediaContract.MoviesColumns.MOVIEID, idsToDelete);
+
+        HashMap<Integer, String> remainingMarkers = getMovieMarkers();
+        assertEquals(localMarkers.size() - 2, remainingMarkers.size());
+        for (Integer id : idsToDelete) {
+            assertFalse(remainingMarkers.containsKey(id));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.provider.mediaprovider;
+
+import android.content.ContentValues;
+import android.net.Uri;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Test;
+import org.robolectric.shadows.ShadowContentResolver;
+import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.provider.MediaProvider;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.robolectric.Shadows.shadowOf;
+
+public class NotifyBatchTest extends AbstractTestClass {
+    @Test
+    public void notificationsHeldBackWhileBatchIsOpenTest() throws Exception {
+        ShadowContentResolver shadowContentResolver =
+                shadowOf(ApplicationProvider.getApplicationContext().getContentResolver());
+
+        // The test database fill notified already
+        int initialCount = countNotifications(shadowContentResolver, MediaContract.SongArtists.CONTENT_URI);
+
+        client.call(MediaProvider.METHOD_BEGIN_NOTIFY_BATCH, null, null);
+        for (int i = 0; i < 3; i++) {
+            client.bulkInsert(MediaContract.SongArtists.CONTENT_URI, new ContentValues[] {songArtist(i)});
+        }
+        assertEquals("notifications while batching", initialCount,
+                     countNotifications(shadowContentResolver, MediaContract.SongArtists.CONTENT_URI));
+
+        client.call(MediaProvider.METHOD_END_NOTIFY_BATCH, null, null);
+        assertEquals("notifications after batch", initialCount + 1,
+                     countNotifications(shadowContentResolver, MediaContract.SongArtists.CONTENT_URI));
+
+        client.bulkInsert(MediaContract.SongArtists.CONTENT_URI, new ContentValues[] {songArtist(3)});
+        assertEquals("notifications without batch", initialCount + 2,
+                     countNotifications(shadowContentResolver, MediaContract.SongArtists.CONTENT_URI));
+    }
+
+    private ContentValues songArtist(int i) {
+        ContentValues values = new ContentValues();
+        values.put(MediaContract.SongArtists.HOST_ID, hostInfo.getId());
+        values.put(MediaContract.SongArtists.SONGID, 1000000 + i);
+        values.put(MediaContract.SongArtists.ARTISTID, TestValues.Artist.artistId);
+        return values;
+    }
+
+    private static int countNotifications(ShadowContentResolver shadowContentResolver, Uri uri) {
+        List<ShadowContentResolver.NotifiedUri> notifiedUris = shadowContentResolver.getNotifiedUris();
+        int count = 0;
+        for (ShadowContentResolver.NotifiedUri notifiedUri : notifiedUris) {
+            if (notifiedUri.uri.equals(uri)) count++;
+        }
+        return count;
+    }
+}
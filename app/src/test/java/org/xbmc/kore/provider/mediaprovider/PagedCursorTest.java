@@ -0,0 +1,212 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.provider.mediaprovider;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.provider.MediaDatabase;
+import org.xbmc.kore.provider.MediaProvider;
+import org.xbmc.kore.ui.PagedCursor;
+import org.xbmc.kore.ui.SectionIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+public class PagedCursorTest extends AbstractTestClass {
+    private static final int SEEDED_SONGS = 1000;
+    private static final int PAGE_SIZE = 37;
+    private static final String[] WORDS = {"song ", "Song ", "anthem ", "Ballad ", "_intro "};
+    private static final String[] PROJECTION = {
+            MediaProvider.Qualified.SONGS_ID, MediaProvider.Qualified.SONGS_TITLE
+    };
+
+    private Uri uri;
+    private List<Long> expectedIds;
+
+    @Before
+    public void seedSongs() throws Exception {
+        ContentValues[] songs = new ContentValues[SEEDED_SONGS];
+        ContentValues[] songArtists = new ContentValues[SEEDED_SONGS];
+        for (int i = 0; i < SEEDED_SONGS; i++) {
+            // Repeated titles, different case, articles and first letters, so that rows share sort values and
+            // are in several sections
+            String title = ((i % 3 == 0) ? "The " : "") + WORDS[i % WORDS.length] + (i % 50);
+            songs[i] = new ContentValues();
+            songs[i].put(MediaContract.Songs.HOST_ID, hostInfo.getId());
+            songs[i].put(MediaContract.Songs.ALBUMID, TestValues.Album.albumId);
+            songs[i].put(MediaContract.Songs.DISC, 1);
+            songs[i].put(MediaContract.Songs.SONGID, 1000000 + i);
+            songs[i].put(MediaContract.Songs.TITLE, title);
+            songs[i].put(MediaContract.Songs.SORT_TITLE, MediaDatabase.sortTitle(title));
+
+            songArtists[i] = new ContentValues();
+            songArtists[i].put(MediaContract.SongArtists.HOST_ID, hostInfo.getId());
+            songArtists[i].put(MediaContract.SongArtists.SONGID, 1000000 + i);
+            songArtists[i].put(MediaContract.SongArtists.ARTISTID, TestValues.Artist.artistId);
+        }
+        client.bulkInsert(MediaContract.Songs.CONTENT_URI, songs);
+        client.bulkInsert(MediaContract.SongArtists.CONTENT_URI, songArtists);
+
+        uri = MediaContract.Songs.buildSongsListUri(hostInfo.getId());
+        expectedIds = new ArrayList<>();
+        Cursor cursor = client.query(uri, PROJECTION, null, null,
+                                     MediaProvider.Qualified.SONGS_SORT_TITLE + " COLLATE NOCASE ASC, " +
+                                     MediaProvider.Qualified.SONGS_ID + " ASC");
+        assertNotNull(cursor);
+        while (cursor.moveToNext()) {
+            expectedIds.add(cursor.getLong(0));
+        }
+        cursor.close();
+    }
+
+    @Test
+    public void countQueryTest() throws Exception {
+        Uri countUri = uri.buildUpon().appendQueryParameter(MediaContract.COUNT_QUERY, "true").build();
+
+        Cursor cursor = client.query(countUri, null, null, null, null);
+
+        assertNotNull(cursor);
+        assertTrue(cursor.moveToFirst());
+        assertEquals(expectedIds.size(), cursor.getInt(cursor.getColumnIndex(MediaContract.COUNT)));
+    }
+
+    @Test
+    public void readForwardTest() {
+        PagedCursor cursor = createCursor(null);
+
+        assertEquals(expectedIds.size(), cursor.getCount());
+        int idColumn = cursor.getColumnIndexOrThrow("_id");
+        for (int position = 0; position < expectedIds.size(); position++) {
+            assertTrue(cursor.moveToPosition(position));
+            assertEquals("id at " + position, (long) expectedIds.get(position), cursor.getLong(idColumn));
+        }
+        cursor.close();
+    }
+
+    @Test
+    public void readBackwardsAndJumpingTest() {
+        PagedCursor cursor = createCursor(null);
+        int idColumn = cursor.getColumnIndexOrThrow("_id");
+
+        for (int position = expectedIds.size() - 1; position >= 0; position--) {
+            assertTrue(cursor.moveToPosition(position));
+            assertEquals("id at " + position, (long) expectedIds.get(position), cursor.getLong(idColumn));
+        }
+
+        List<Integer> positions = new ArrayList<>();
+        for (int position = 0; position < expectedIds.size(); position++) {
+            positions.add(position);
+        }
+        Collections.shuffle(positions, new Random(13));
+        cursor.close();
+
+        cursor = createCursor(null);
+        for (int position : positions) {
+            assertTrue(cursor.moveToPosition(position));
+            assertEquals("id at " + position, (long) expectedIds.get(position), cursor.getLong(idColumn));
+        }
+        cursor.close();
+    }
+
+    @Test
+    public void jumpingWithSectionIndexTest() {
+        SectionIndex sectionIndex = SectionIndex.query(ApplicationProvider.getApplicationContext().getContentResolver(),
+                                                       uri, MediaProvider.Qualified.SONGS_SORT_TITLE, null, null);
+        assertNotNull(sectionIndex);
+        assertEquals(4, sectionIndex.getSectionCount());
+
+        PagedCursor cursor = createCursor(sectionIndex);
+        int idColumn = cursor.getColumnIndexOrThrow("_id");
+        List<Integer> positions = new ArrayList<>();
+        for (int position = 0; position < expectedIds.size(); position++) {
+            positions.add(position);
+        }
+        Collections.shuffle(positions, new Random(17));
+        for (int position : positions) {
+            assertTrue(cursor.moveToPosition(position));
+            assertEquals("id at " + position, (long) expectedIds.get(position), cursor.getLong(idColumn));
+        }
+        cursor.close();
+    }
+
+    @Test
+    public void readInBackgroundTest() throws Exception {
+        PagedCursor cursor = createCursor(null);
+        int idColumn = cursor.getColumnIndexOrThrow("_id");
+        List<Integer> readPages = new ArrayList<>();
+        cursor.setOnPageReadListener((start, count) -> readPages.add(start));
+
+        // Far from the first page, so it isn't in memory and is read in the background
+        int position = PAGE_SIZE * 10 + 3;
+        assertTrue(cursor.moveToPosition(position));
+        assertFalse(cursor.isRowLoaded());
+        assertNull(cursor.getString(idColumn));
+
+        long timeout = System.currentTimeMillis() + 5000;
+        while (readPages.isEmpty() && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+        assertEquals(1, readPages.size());
+        assertEquals(PAGE_SIZE * 10, (int) readPages.get(0));
+        assertTrue(cursor.moveToPosition(position));
+        assertTrue(cursor.isRowLoaded());
+        assertEquals((long) expectedIds.get(position), cursor.getLong(idColumn));
+        cursor.close();
+    }
+
+    @Test
+    public void searchSelectionTest() {
+        PagedCursor cursor = new PagedCursor(ApplicationProvider.getApplicationContext().getContentResolver(),
+                                             uri, PROJECTION,
+                                             MediaDatabase.buildSearchSelection(MediaDatabase.Tables.SONGS),
+                                             new String[] {MediaDatabase.buildSearchMatch("song 4")},
+                                             MediaProvider.Qualified.SONGS_SORT_TITLE, MediaProvider.Qualified.SONGS_ID,
+                                             PAGE_SIZE, null);
+
+        assertTrue("cursor size ", cursor.getCount() > PAGE_SIZE);
+        int titleColumn = cursor.getColumnIndexOrThrow(MediaContract.Songs.TITLE);
+        while (cursor.moveToNext()) {
+            assertTrue(cursor.getString(titleColumn).toLowerCase().contains("song 4"));
+        }
+        cursor.close();
+    }
+
+    private PagedCursor createCursor(SectionIndex sectionIndex) {
+        return new PagedCursor(ApplicationProvider.getApplicationContext().getContentResolver(),
+                               uri, PROJECTION, null, null,
+                               MediaProvider.Qualified.SONGS_SORT_TITLE, MediaProvider.Qualified.SONGS_ID,
+                               PAGE_SIZE, sectionIndex);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.provider.mediaprovider;
+
+import android.content.ContentValues;
+import android.net.Uri;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.provider.MediaDatabase;
+import org.xbmc.kore.provider.MediaProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the queries of every host {@link Uri} of {@link MediaProvider} use indexes instead of
+ * scanning the whole table, on a database seeded with a large music library
+ */
+public class QueryPlanTest extends AbstractTestClass {
+    private static final int SEEDED_SONGS = 100000;
+
+    // "SCAN songs" or, on older SQLite versions, "SCAN TABLE songs". Virtual tables and subqueries are
+    // reported with other names
+    private static final Pattern SCAN_PATTERN = Pattern.compile("^SCAN (?:TABLE )?(\\w+)");
+
+    private static final HashSet<String> TABLES = new HashSet<>(Arrays.asList(
+            MediaDatabase.Tables.MOVIES, MediaDatabase.Tables.MOVIE_CAST,
+            MediaDatabase.Tables.TVSHOWS, MediaDatabase.Tables.TVSHOWS_CAST,
+            MediaDatabase.Tables.SEASONS, MediaDatabase.Tables.EPISODES,
+            MediaDatabase.Tables.ARTISTS, MediaDatabase.Tables.ALBUMS, MediaDatabase.Tables.SONGS,
+            MediaDatabase.Tables.SONG_ARTISTS, MediaDatabase.Tables.AUDIO_GENRES,
+            MediaDatabase.Tables.ALBUM_ARTISTS, MediaDatabase.Tables.ALBUM_GENRES,
+            MediaDatabase.Tables.MUSIC_VIDEOS));
+
+    private MediaProvider provider;
+
+    @Before
+    public void seedDatabase() throws Exception {
+        provider = (MediaProvider) client.getLocalContentProvider();
+
+        ContentValues[] songs = new ContentValues[SEEDED_SONGS];
+        ContentValues[] songArtists = new ContentValues[SEEDED_SONGS];
+        for (int i = 0; i < SEEDED_SONGS; i++) {
+            int songId = 1000000 + i;
+            songs[i] = new ContentValues();
+            songs[i].put(MediaContract.Songs.HOST_ID, hostInfo.getId());
+            songs[i].put(MediaContract.Songs.ALBUMID, 10000 + i / 10);
+            songs[i].put(MediaContract.Songs.DISC, 1);
+            songs[i].put(MediaContract.Songs.SONGID, songId);
+            songs[i].put(MediaContract.Songs.TITLE, "Song " + i);
+
+            songArtists[i] = new ContentValues();
+            songArtists[i].put(MediaContract.SongArtists.HOST_ID, hostInfo.getId());
+            songArtists[i].put(MediaContract.SongArtists.SONGID, songId);
+            songArtists[i].put(MediaContract.SongArtists.ARTISTID, 10000 + i / 100);
+        }
+        client.bulkInsert(MediaContract.Songs.CONTENT_URI, songs);
+        client.bulkInsert(MediaContract.SongArtists.CONTENT_URI, songArtists);
+    }
+
+    @Test
+    public void hostUrisDontScanTablesTest() {
+        long hostId = hostInfo.getId();
+        Uri[] uris = {
+                MediaContract.Movies.buildMoviesListUri(hostId),
+                MediaContract.Movies.buildMovieUri(hostId, 1),
+                MediaContract.MovieCast.buildMovieCastListUri(hostId, 1),
+                MediaContract.TVShows.buildTVShowsListUri(hostId),
+                MediaContract.TVShows.buildTVShowUri(hostId, 1),
+                MediaContract.TVShowCast.buildTVShowCastListUri(hostId, 1),
+                MediaContract.Seasons.buildTVShowSeasonsListUri(hostId, 1),
+                MediaContract.Seasons.buildTVShowSeasonUri(hostId, 1, 1),
+                MediaContract.Episodes.buildTVShowEpisodesListUri(hostId, 1),
+                MediaContract.Episodes.buildTVShowSeasonEpisodesListUri(hostId, 1, 1),
+                MediaContract.Episodes.buildTVShowEpisodeUri(hostId, 1, 1),
+                MediaContract.Episodes.buildTVShowSeasonEpisodeUri(hostId, 1, 1, 1),
+                MediaContract.Artists.buildArtistsListUri(hostId),
+                MediaContract.Artists.buildArtistUri(hostId, TestValues.Artist.artistId),
+                MediaContract.Albums.buildAlbumsListUri(hostId),
+                MediaContract.Albums.buildAlbumUri(hostId, TestValues.Album.albumId),
+                MediaContract.Albums.buildAlbumArtistsListUri(hostId, TestValues.Album.albumId),
+                MediaContract.Albums.buildAlbumGenresListUri(hostId, TestValues.Album.albumId),
+                MediaContract.AlbumArtists.buildAlbumsForArtistListUri(hostId, TestValues.Artist.artistId),
+                MediaContract.AlbumGenres.buildAlbumsForGenreListUri(hostId, 13),
+                MediaContract.Songs.buildSongsListUri(hostId),
+                MediaContract.Songs.buildAlbumSongsListUri(hostId, TestValues.Album.albumId),
+                MediaContract.Songs.buildArtistSongsListUri(hostId, TestValues.Artist.artistId),
+                MediaContract.Songs.buildSongUri(hostId, TestValues.Album.albumId, 1),
+                MediaContract.AudioGenres.buildAudioGenresListUri(hostId),
+                MediaContract.AudioGenres.buildAudioGenreUri(hostId, 13),
+                MediaContract.MusicVideos.buildMusicVideosListUri(hostId),
+                MediaContract.MusicVideos.buildMusicVideoUri(hostId, 1),
+                MediaContract.Search.buildSearchUri(hostId, MediaContract.PATH_MOVIES, "star"),
+                MediaContract.Search.buildSearchUri(hostId, MediaContract.PATH_SONGS, "song"),
+                MediaContract.Search.buildSearchAllUri(hostId, "song"),
+        };
+
+        List<String> failures = new ArrayList<>();
+        for (Uri uri : uris) {
+            List<String> plan = provider.explainQueryPlan(uri, null, null, null, null);
+            for (String step : plan) {
+                Matcher matcher = SCAN_PATTERN.matcher(step);
+                if (matcher.find() && TABLES.contains(matcher.group(1))) {
+                    failures.add(uri + ": " + plan);
+                    break;
+                }
+            }
+        }
+
+        assertTrue("Queries scanning tables:\n" + String.join("\n", failures), failures.isEmpty());
+    }
+
+    @Test
+    public void listsSortedByTitleUseIndexOrderTest() {
+        long hostId = hostInfo.getId();
+        Object[][] sortedUris = {
+                {MediaContract.Movies.buildMoviesListUri(hostId), MediaContract.Movies.SORT_TITLE},
+                {MediaContract.TVShows.buildTVShowsListUri(hostId), MediaContract.TVShows.SORT_TITLE},
+                {MediaContract.Artists.buildArtistsListUri(hostId), MediaContract.Artists.SORT_ARTIST},
+                {MediaContract.Albums.buildAlbumsListUri(hostId), MediaContract.Albums.SORT_TITLE},
+        };
+
+        List<String> failures = new ArrayList<>();
+        for (Object[] sortedUri : sortedUris) {
+            Uri uri = (Uri) sortedUri[0];
+            String sortOrder = sortedUri[1] + " COLLATE NOCASE ASC";
+            List<String> plan = provider.explainQueryPlan(uri, null, null, null, sortOrder);
+            for (String step : plan) {
+                if (step.contains("TEMP B-TREE")) {
+                    failures.add(uri + ": " + plan);
+                    break;
+                }
+            }
+        }
+
+        assertTrue("Lists sorted without an index:\n" + String.join("\n", failures), failures.isEmpty());
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.provider.mediaprovider;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.net.Uri;
+
+import org.junit.Test;
+import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.provider.MediaDatabase;
+import org.xbmc.kore.testutils.TestUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SearchTest extends AbstractTestClass {
+    @Test
+    public void buildSearchMatchTest() {
+        assertEquals("\"star*\" \"wa*\"", MediaDatabase.buildSearchMatch("star wa"));
+        assertEquals("\"bernstein*\" \"charles*\"", MediaDatabase.buildSearchMatch(" Bernstein, Charles "));
+        assertNull(MediaDatabase.buildSearchMatch(""));
+        assertNull(MediaDatabase.buildSearchMatch(" \"*- "));
+    }
+
+    @Test
+    public void searchAlbumsTest() throws Exception {
+        Uri uri = MediaContract.Search.buildSearchUri(hostInfo.getId(), MediaContract.PATH_ALBUMS, "entit");
+
+        Cursor cursor = client.query(uri, TestValues.Album.PROJECTION, null, null, null);
+
+        assertNotNull(cursor);
+        assertTrue("cursor size ", cursor.getCount() > 0);
+        cursor.moveToFirst();
+        TestValues.Album.test(cursor);
+    }
+
+    @Test
+    public void searchArtistsMatchesAllWordsTest() throws Exception {
+        Uri uri = MediaContract.Search.buildSearchUri(hostInfo.getId(), MediaContract.PATH_ARTISTS, "charl bern");
+
+        Cursor cursor = client.query(uri, TestValues.Artist.PROJECTION, null, null, null);
+
+        assertNotNull(cursor);
+        assertEquals("cursor size ", 1, cursor.getCount());
+        cursor.moveToFirst();
+        TestValues.Artist.test(cursor);
+    }
+
+    @Test
+    public void searchWithoutTermsTest() throws Exception {
+        Uri uri = MediaContract.Search.buildSearchUri(hostInfo.getId(), MediaContract.PATH_ALBUMS, " - ");
+
+        Cursor cursor = client.query(uri, TestValues.Album.PROJECTION, null, null, null);
+
+        assertNotNull(cursor);
+        assertEquals("cursor size ", 0, cursor.getCount());
+    }
+
+    @Test
+    public void searchIndexFollowsUpdatesTest() throws Exception {
+        Uri searchUri = MediaContract.Search.buildSearchUri(hostInfo.getId(), MediaContract.PATH_ARTISTS, "kore");
+        Uri artistUri = MediaContract.Artists.buildArtistUri(hostInfo.getId(), TestValues.Artist.artistId);
+
+        ContentValues values = new ContentValues();
+        values.put(MediaContract.ArtistsColumns.ARTIST, "Kore Test Artist");
+        client.update(artistUri, values, null, null);
+
+        Cursor cursor = client.query(searchUri, TestValues.Artist.PROJECTION, null, null, null);
+        assertNotNull(cursor);
+        assertEquals("cursor size ", 1, cursor.getCount());
+        TestUtils.testCursorContainsNumbers(cursor, cursor.getColumnIndex(MediaContract.ArtistsColumns.ARTISTID),
+                                            TestValues.Artist.artistId);
+
+        client.delete(artistUri, null, null);
+
+        cursor = client.query(searchUri, TestValues.Artist.PROJECTION, null, null, null);
+        assertNotNull(cursor);
+        assertEquals("cursor size ", 0, cursor.getCount());
+    }
+
+    @Test
+    public void searchAllTypesTest() throws Exception {
+        Uri uri = MediaContract.Search.buildSearchAllUri(hostInfo.getId(), "bernstein");
+
+        Cursor cursor = client.query(uri, null, null, null, null);
+
+        assertNotNull(cursor);
+        assertTrue("cursor size ", cursor.getCount() > 0);
+        int typeIndex = cursor.getColumnIndex(MediaContract.Search.TYPE);
+        int itemIdIndex = cursor.getColumnIndex(MediaContract.Search.ITEMID);
+        boolean artistFound = false;
+        int lastTypeOrder = -1;
+        while (cursor.moveToNext()) {
+            String type = cursor.getString(typeIndex);
+            int typeOrder = Arrays.asList(MediaContract.Search.ALL_TYPES).indexOf(type);
+            assertTrue("results grouped by type ", typeOrder >= lastTypeOrder);
+            lastTypeOrder = typeOrder;
+            if (type.equals(MediaContract.PATH_ARTISTS) && cursor.getInt(itemIdIndex) == TestValues.Artist.artistId) {
+                artistFound = true;
+            }
+        }
+        assertTrue("artist found ", artistFound);
+    }
+
+    @Test
+    public void searchAllTypesLimitTest() throws Exception {
+        Uri uri = MediaContract.Search.buildSearchAllUri(hostInfo.getId(), "the")
+                                      .buildUpon()
+                                      .appendQueryParameter(MediaContract.LIMIT_QUERY, "1")
+                                      .build();
+
+        Cursor cursor = client.query(uri, null, null, null, null);
+
+        assertNotNull(cursor);
+        assertTrue("cursor size ", cursor.getCount() <= MediaContract.Search.ALL_TYPES.length);
+        HashSet<String> types = new HashSet<>();
+        while (cursor.moveToNext()) {
+            assertTrue("one item per type ", types.add(cursor.getString(cursor.getColumnIndex(MediaContract.Search.TYPE))));
+        }
+    }
+
+    @Test
+    public void searchAllTypesInvalidLimitTest() throws Exception {
+        Uri uri = MediaContract.Search.buildSearchAllUri(hostInfo.getId(), "bernstein")
+                                      .buildUpon()
+                                      .appendQueryParameter(MediaContract.LIMIT_QUERY, "ten")
+                                      .build();
+
+        // The default limit is used instead
+        Cursor cursor = client.query(uri, null, null, null, null);
+
+        assertNotNull(cursor);
+        assertTrue("cursor size ", cursor.getCount() > 0);
+    }
+
+    @Test
+    public void searchAllTypesWildcardsTest() throws Exception {
+        Uri uri = MediaContract.Search.buildSearchAllUri(hostInfo.getId(), "bern_ %\\");
+
+        Cursor cursor = client.query(uri, null, null, null, null);
+
+        // Wildcards and the escape character are matched literally when ranking, so the query is valid
+        assertNotNull(cursor);
+        cursor.getCount();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.provider.mediaprovider;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.net.Uri;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Test;
+import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.provider.MediaDatabase;
+import org.xbmc.kore.provider.MediaProvider;
+import org.xbmc.kore.ui.SectionIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class SectionIndexTest extends AbstractTestClass {
+    private final ContentResolver contentResolver = ApplicationProvider.getApplicationContext().getContentResolver();
+
+    @Test
+    public void songsSectionsTest() throws Exception {
+        Uri uri = MediaContract.Songs.buildSongsListUri(hostInfo.getId());
+        assertSections(uri, MediaProvider.Qualified.SONGS_SORT_TITLE, null, null);
+    }
+
+    @Test
+    public void artistsSectionsTest() throws Exception {
+        Uri uri = MediaContract.Artists.buildArtistsListUri(hostInfo.getId());
+        assertSections(uri, MediaContract.Artists.SORT_ARTIST, null, null);
+    }
+
+    @Test
+    public void searchSectionsTest() throws Exception {
+        Uri uri = MediaContract.Albums.buildAlbumsListUri(hostInfo.getId());
+        assertSections(uri, MediaContract.Albums.SORT_TITLE,
+                       MediaDatabase.buildSearchSelection(MediaDatabase.Tables.ALBUMS),
+                       new String[] {MediaDatabase.buildSearchMatch("best")});
+    }
+
+    @Test
+    public void sectionsUpdatedOnWriteTest() throws Exception {
+        Uri uri = MediaContract.Songs.buildSongsListUri(hostInfo.getId());
+        SectionIndex before = SectionIndex.query(contentResolver, uri, MediaProvider.Qualified.SONGS_SORT_TITLE,
+                                                 null, null);
+        assertNotNull(before);
+
+        // A title that sorts before any other, in a section of its own
+        ContentValues song = new ContentValues();
+        song.put(MediaContract.Songs.HOST_ID, hostInfo.getId());
+        song.put(MediaContract.Songs.ALBUMID, TestValues.Album.albumId);
+        song.put(MediaContract.Songs.SONGID, 1000000);
+        song.put(MediaContract.Songs.TITLE, "!!!");
+        song.put(MediaContract.Songs.SORT_TITLE, "!!!");
+        client.insert(MediaContract.Songs.CONTENT_URI, song);
+        ContentValues songArtist = new ContentValues();
+        songArtist.put(MediaContract.SongArtists.HOST_ID, hostInfo.getId());
+        songArtist.put(MediaContract.SongArtists.SONGID, 1000000);
+        songArtist.put(MediaContract.SongArtists.ARTISTID, TestValues.Artist.artistId);
+        client.insert(MediaContract.SongArtists.CONTENT_URI, songArtist);
+
+        SectionIndex after = SectionIndex.query(contentResolver, uri, MediaProvider.Qualified.SONGS_SORT_TITLE,
+                                                null, null);
+        assertNotNull(after);
+        assertEquals(before.getSectionCount() + 1, after.getSectionCount());
+        assertEquals("!", after.getSectionName(0));
+        assertSections(uri, MediaProvider.Qualified.SONGS_SORT_TITLE, null, null);
+    }
+
+    /**
+     * Checks the section index of a list against the sections read from every item of the list
+     */
+    private void assertSections(Uri uri, String sortColumn, String selection, String[] selectionArgs) throws Exception {
+        List<String> expected = new ArrayList<>();
+        int expectedSectionCount = 0;
+        try (Cursor cursor = client.query(uri, new String[] {sortColumn}, selection, selectionArgs,
+                                          sortColumn + " COLLATE NOCASE ASC")) {
+            assertNotNull(cursor);
+            while (cursor.moveToNext()) {
+                String sortValue = cursor.getString(0);
+                String section = (sortValue == null || sortValue.isEmpty()) ? "" :
+                                 sortValue.substring(0, 1).toUpperCase(Locale.getDefault());
+                if (expected.isEmpty() || !expected.get(expected.size() - 1).equals(section)) {
+                    expectedSectionCount++;
+                }
+                expected.add(section);
+            }
+        }
+        assertTrue("list is empty", expected.size() > 0);
+
+        // Read twice, the second time from the provider's cache
+        for (int i = 0; i < 2; i++) {
+            SectionIndex sectionIndex = SectionIndex.query(contentResolver, uri, sortColumn, selection, selectionArgs);
+            assertNotNull(sectionIndex);
+            assertEquals(expectedSectionCount, sectionIndex.getSectionCount());
+            for (int position = 0; position < expected.size(); position++) {
+                assertEquals("section at " + position, expected.get(position), sectionIndex.getSectionName(position));
+            }
+        }
+    }
+}
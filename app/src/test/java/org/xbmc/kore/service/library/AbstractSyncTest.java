@@ -0,0 +1,200 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.service.library;
+
+import android.annotation.SuppressLint;
+import android.content.ContentResolver;
+import android.content.pm.ProviderInfo;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.HostInfo;
+import org.xbmc.kore.provider.MediaProvider;
+import org.xbmc.kore.testutils.Database;
+import org.xbmc.kore.testutils.tcpserver.MockHttpServer;
+import org.xbmc.kore.testutils.tcpserver.handlers.JSONConnectionHandlerManager;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.JsonResponse;
+import org.xbmc.kore.testutils.tcpserver.handlers.SyntheticLibrary;
+import org.xbmc.kore.testutils.tcpserver.handlers.VideoLibraryHandler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Runs sync items against the synthetic library of the mock Kodi server, through HTTP, storing the items
+ * in the media provider
+ */
+@SuppressLint("IgnoreWithoutReason")
+@RunWith(AndroidJUnit4.class)
+@Ignore
+@Config(sdk = 28)
+public class AbstractSyncTest {
+    private static final String AUTHORITY = "org.xbmc.kore.provider";
+    private static final long TIMEOUT_MS = 10000;
+
+    /**
+     * Video library handler that counts the calls of each method
+     */
+    private static class CountingVideoLibraryHandler extends VideoLibraryHandler {
+        final HashMap<String, Integer> calls = new HashMap<>();
+
+        CountingVideoLibraryHandler(SyntheticLibrary library) {
+            super(library);
+        }
+
+        @Override
+        public ArrayList<JsonResponse> getResponse(String method, ObjectNode jsonRequest) {
+            synchronized (calls) {
+                Integer count = calls.get(method);
+                calls.put(method, (count == null) ? 1 : count + 1);
+            }
+            return super.getResponse(method, jsonRequest);
+        }
+    }
+
+    /**
+     * Orchestrator that records the end of the sync items run by the test
+     */
+    private class TestSyncOrchestrator extends SyncOrchestrator {
+        TestSyncOrchestrator() {
+            super(null, 0, hostInfo, new Handler(Looper.getMainLooper()), contentResolver);
+        }
+
+        @Override
+        public void syncItemFinished(SyncItem syncItem) {
+            finished = true;
+        }
+
+        @Override
+        public void syncItemFailed(SyncItem syncItem, int errorCode, String description) {
+            AbstractSyncTest.this.errorCode = errorCode;
+            finished = true;
+        }
+    }
+
+    protected SyntheticLibrary library;
+    protected HostInfo hostInfo;
+    protected ContentResolver contentResolver;
+
+    private MockHttpServer httpServer;
+    private CountingVideoLibraryHandler videoLibraryHandler;
+    private HostConnection hostConnection;
+    private boolean finished;
+    private int errorCode;
+
+    @Before
+    public void setUp() throws Exception {
+        contentResolver = ApplicationProvider.getApplicationContext().getContentResolver();
+        ProviderInfo info = new ProviderInfo();
+        info.authority = AUTHORITY;
+        Robolectric.buildContentProvider(MediaProvider.class).create(info);
+
+        library = new SyntheticLibrary(ApplicationProvider.getApplicationContext());
+        videoLibraryHandler = new CountingVideoLibraryHandler(library);
+        JSONConnectionHandlerManager manager = new JSONConnectionHandlerManager();
+        manager.addHandler(videoLibraryHandler);
+        httpServer = new MockHttpServer(manager);
+        httpServer.start();
+
+        hostInfo = Database.addHost(ApplicationProvider.getApplicationContext(), "127.0.0.1",
+                                    HostConnection.PROTOCOL_HTTP, httpServer.getListeningPort(),
+                                    HostInfo.DEFAULT_TCP_PORT, false, HostInfo.DEFAULT_KODI_VERSION_MAJOR);
+        hostConnection = new HostConnection(hostInfo);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        hostConnection.disconnect();
+        httpServer.stop();
+    }
+
+    /**
+     * Runs a sync item until it finishes, checking that it succeeded
+     */
+    protected void sync(SyncItem syncItem) throws InterruptedException {
+        synchronized (videoLibraryHandler.calls) {
+            videoLibraryHandler.calls.clear();
+        }
+        finished = false;
+        errorCode = 0;
+
+        syncItem.sync(new TestSyncOrchestrator(), hostConnection, new Handler(Looper.getMainLooper()),
+                      contentResolver);
+        long endTime = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!finished && System.currentTimeMillis() < endTime) {
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(10);
+        }
+
+        assertTrue("Sync didn't finish", finished);
+        assertEquals(0, errorCode);
+    }
+
+    /**
+     * Returns the number of calls of a method made by the last sync
+     */
+    protected int getCalls(String method) {
+        synchronized (videoLibraryHandler.calls) {
+            Integer count = videoLibraryHandler.calls.get(method);
+            return (count == null) ? 0 : count;
+        }
+    }
+
+    protected int count(Uri uri) {
+        try (Cursor cursor = contentResolver.query(uri, null, null, null, null)) {
+            return (cursor == null) ? 0 : cursor.getCount();
+        }
+    }
+
+    /**
+     * Returns an integer column of the single item of an uri
+     */
+    protected int getInt(Uri uri, String column) {
+        try (Cursor cursor = contentResolver.query(uri, new String[] {column}, null, null, null)) {
+            assertTrue(cursor != null && cursor.moveToFirst());
+            return cursor.getInt(0);
+        }
+    }
+
+    /**
+     * Returns a string column of the single item of an uri
+     */
+    protected String getString(Uri uri, String column) {
+        try (Cursor cursor = contentResolver.query(uri, new String[] {column}, null, null, null)) {
+            assertTrue(cursor != null && cursor.moveToFirst());
+            return cursor.getString(0);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.service.library;
+
+import android.content.ContentResolver;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.HostInfo;
+import org.xbmc.kore.jsonrpc.ApiCallback;
+import org.xbmc.kore.jsonrpc.ApiList;
+import org.xbmc.kore.jsonrpc.ApiMethod;
+import org.xbmc.kore.jsonrpc.type.ListType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class PagedSyncTest {
+    private static final int PAGE_SIZE = 10;
+
+    /**
+     * Request of a page, answered by the test
+     */
+    private static class GetPage extends ApiMethod<ApiList<Integer>> {
+        final ListType.Limits limits;
+        ApiCallback<ApiList<Integer>> callback;
+
+        GetPage(ListType.Limits limits) {
+            this.limits = limits;
+        }
+
+        @Override
+        public String getMethodName() {
+            return "Test.GetPage";
+        }
+
+        @Override
+        public ApiList<Integer> resultFromJson(ObjectNode jsonObject) {
+            return null;
+        }
+    }
+
+    /**
+     * Connection that doesn't connect, keeping the page requests until the test answers them
+     */
+    private static class PendingHostConnection extends HostConnection {
+        final ArrayList<GetPage> requests = new ArrayList<>();
+
+        PendingHostConnection() {
+            super(new HostInfo("TESTHOST", "localhost", HostConnection.PROTOCOL_HTTP,
+                               HostInfo.DEFAULT_HTTP_PORT, HostInfo.DEFAULT_TCP_PORT, null, null, false,
+                               HostInfo.DEFAULT_EVENT_SERVER_PORT, false, false));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> void execute(ApiMethod<T> method, ApiCallback<T> callback, Handler handler) {
+            GetPage request = (GetPage) method;
+            request.callback = (ApiCallback<ApiList<Integer>>) (ApiCallback<?>) callback;
+            requests.add(request);
+        }
+    }
+
+    private static class TestSyncItem extends SyncItem {
+        @Override
+        public void sync(SyncOrchestrator orchestrator, HostConnection hostConnection,
+                         Handler callbackHandler, ContentResolver contentResolver) {
+        }
+
+        @Override
+        public String getDescription() {
+            return "Test";
+        }
+
+        @Override
+        public String getSyncType() {
+            return "Test";
+        }
+
+        @Override
+        public Bundle getSyncParams() {
+            return null;
+        }
+    }
+
+    private PendingHostConnection connection;
+    private SyncOrchestrator orchestrator;
+    private final ArrayList<Integer> writtenPages = new ArrayList<>();
+    private final ArrayList<Integer> writtenItems = new ArrayList<>();
+    private boolean finished;
+    private int errorCode;
+
+    @Before
+    public void setUp() {
+        connection = new PendingHostConnection();
+        orchestrator = new SyncOrchestrator(null, 0, connection.getHostInfo(),
+                                            new Handler(Looper.getMainLooper()), null);
+        orchestrator.setMaxPagesInFlight(3);
+        writtenPages.clear();
+        writtenItems.clear();
+        finished = false;
+        errorCode = 0;
+    }
+
+    @Test
+    public void pagesOutOfOrderTest() {
+        createPagedSync().start();
+        assertEquals(1, connection.requests.size());
+
+        answer(0, 35);
+        // The first page tells the total, so the remaining ones are requested together
+        assertEquals(4, connection.requests.size());
+        answer(3, 35);
+        answer(1, 35);
+        assertFalse(finished);
+        answer(2, 35);
+
+        assertTrue(finished);
+        assertEquals(4, connection.requests.size());
+        assertEquals(0, (int) writtenPages.get(0));
+        assertEquals(35, writtenItems.size());
+        for (int i = 0; i < 35; i++) {
+            assertTrue(writtenItems.contains(i));
+        }
+    }
+
+    @Test
+    public void maxPagesInFlightTest() {
+        orchestrator.setMaxPagesInFlight(2);
+        createPagedSync().start();
+
+        answer(0, 50);
+        assertEquals(3, connection.requests.size());
+        answer(2, 50);
+        assertEquals(4, connection.requests.size());
+        answer(1, 50);
+        answer(4, 50);
+        answer(3, 50);
+
+        assertTrue(finished);
+        assertEquals(5, connection.requests.size());
+        assertEquals(50, writtenItems.size());
+    }
+
+    @Test
+    public void unknownTotalTest() {
+        createPagedSync().start();
+
+        // Without the total, pages are requested one at a time until one isn't full
+        answerWithoutTotal(0, 25, null);
+        assertEquals(2, connection.requests.size());
+        answerWithoutTotal(1, 25, null);
+        assertEquals(3, connection.requests.size());
+        assertFalse(finished);
+        answerWithoutTotal(2, 25, null);
+
+        assertTrue(finished);
+        assertEquals(3, connection.requests.size());
+        assertEquals(25, writtenItems.size());
+    }
+
+    @Test
+    public void unknownTotalFullLastPageTest() {
+        createPagedSync().start();
+
+        // Limits without the total behave as no limits
+        answerWithoutTotal(0, 20, new ListType.LimitsReturned());
+        answerWithoutTotal(1, 20, new ListType.LimitsReturned());
+        // Only an empty page tells that there are no more items
+        assertEquals(3, connection.requests.size());
+        answerWithoutTotal(2, 20, new ListType.LimitsReturned());
+
+        assertTrue(finished);
+        assertEquals(20, writtenItems.size());
+    }
+
+    @Test
+    public void emptyListTest() {
+        createPagedSync().start();
+        answer(0, 0);
+
+        assertTrue(finished);
+        assertEquals(1, connection.requests.size());
+        assertTrue(writtenPages.isEmpty());
+    }
+
+    @Test
+    public void errorTest() {
+        createPagedSync().start();
+        answer(0, 35);
+        connection.requests.get(1).callback.onError(500, "Error");
+        answer(2, 35);
+        answer(3, 35);
+
+        assertFalse(finished);
+        assertEquals(500, errorCode);
+        assertEquals(4, connection.requests.size());
+    }
+
+    private PagedSync<Integer> createPagedSync() {
+        return new PagedSync<>("Test", orchestrator, new TestSyncItem(), connection, null, PAGE_SIZE,
+                               GetPage::new,
+                               (startIdx, items) -> {
+                                   writtenPages.add(startIdx);
+                                   writtenItems.addAll(items);
+                               },
+                               new PagedSync.OnPagedSyncListener() {
+                                   @Override
+                                   public void onPagedSyncFinished() {
+                                       finished = true;
+                                   }
+
+                                   @Override
+                                   public void onPagedSyncError(int code, String description) {
+                                       errorCode = code;
+                                   }
+                               });
+    }
+
+    /**
+     * Answers a request with its page of a list of items numbered from 0
+     */
+    private void answer(int request, int total) {
+        GetPage page = connection.requests.get(request);
+        ListType.LimitsReturned limits = new ListType.LimitsReturned();
+        limits.start = page.limits.start;
+        limits.end = Math.min(page.limits.end, total);
+        limits.total = total;
+        page.callback.onSuccess(new ApiList<>(createItems(page.limits, total), limits));
+    }
+
+    /**
+     * Answers a request with its page, with limits that don't have the total
+     */
+    private void answerWithoutTotal(int request, int total, ListType.LimitsReturned limits) {
+        GetPage page = connection.requests.get(request);
+        page.callback.onSuccess(new ApiList<>(createItems(page.limits, total), limits));
+    }
+
+    private static List<Integer> createItems(ListType.Limits limits, int total) {
+        ArrayList<Integer> items = new ArrayList<>();
+        for (int i = limits.start; i < Math.min(limits.end, total); i++) {
+            items.add(i);
+        }
+        return items;
+    }
+}
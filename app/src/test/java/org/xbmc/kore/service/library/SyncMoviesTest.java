@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.service.library;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.jsonrpc.method.VideoLibrary;
+import org.xbmc.kore.provider.MediaContract;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class SyncMoviesTest extends AbstractSyncTest {
+    private static final int MOVIES = 20;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        library.setMovies(MOVIES);
+        sync(new SyncMovies(hostInfo.getId(), null));
+        assertEquals(MOVIES, count(MediaContract.Movies.buildMoviesListUri(hostInfo.getId())));
+    }
+
+    @Test
+    public void unchangedMoviesTest() throws Exception {
+        sync(new SyncMovies(hostInfo.getId(), null));
+
+        assertEquals(MOVIES, count(MediaContract.Movies.buildMoviesListUri(hostInfo.getId())));
+        assertEquals(1, getCalls(VideoLibrary.GetMovies.METHOD_NAME));
+        assertEquals(0, getCalls(VideoLibrary.GetMovieDetails.METHOD_NAME));
+    }
+
+    @Test
+    public void changedMovieTest() throws Exception {
+        library.setItemField("movieid", 3, "playcount", 2);
+        sync(new SyncMovies(hostInfo.getId(), null));
+
+        assertEquals(MOVIES, count(MediaContract.Movies.buildMoviesListUri(hostInfo.getId())));
+        assertEquals(2, getInt(MediaContract.Movies.buildMovieUri(hostInfo.getId(), 3),
+                               MediaContract.MoviesColumns.PLAYCOUNT));
+        assertEquals(1, getCalls(VideoLibrary.GetMovieDetails.METHOD_NAME));
+    }
+
+    @Test
+    public void addedMoviesTest() throws Exception {
+        library.setMovies(MOVIES + 2);
+        sync(new SyncMovies(hostInfo.getId(), null));
+
+        assertEquals(MOVIES + 2, count(MediaContract.Movies.buildMoviesListUri(hostInfo.getId())));
+        assertEquals("Movie " + (MOVIES + 2),
+                     getString(MediaContract.Movies.buildMovieUri(hostInfo.getId(), MOVIES + 2),
+                               MediaContract.MoviesColumns.TITLE));
+        assertEquals(2, getCalls(VideoLibrary.GetMovieDetails.METHOD_NAME));
+    }
+
+    @Test
+    public void removedMoviesTest() throws Exception {
+        library.setMovies(MOVIES - 2);
+        sync(new SyncMovies(hostInfo.getId(), null));
+
+        assertEquals(MOVIES - 2, count(MediaContract.Movies.buildMoviesListUri(hostInfo.getId())));
+        assertEquals(0, count(MediaContract.Movies.buildMovieUri(hostInfo.getId(), MOVIES)));
+        assertEquals(0, getCalls(VideoLibrary.GetMovieDetails.METHOD_NAME));
+    }
+
+    @Test
+    public void fullSyncTest() throws Exception {
+        // Info refreshed on Kodi doesn't change the date added or play count
+        library.setItemField("movieid", 3, "title", "Refreshed");
+        sync(new SyncMovies(hostInfo.getId(), null));
+        assertEquals("Movie 3", getString(MediaContract.Movies.buildMovieUri(hostInfo.getId(), 3),
+                                          MediaContract.MoviesColumns.TITLE));
+
+        sync(new SyncMovies(hostInfo.getId(), true, null));
+        assertEquals(MOVIES, count(MediaContract.Movies.buildMoviesListUri(hostInfo.getId())));
+        assertEquals("Refreshed", getString(MediaContract.Movies.buildMovieUri(hostInfo.getId(), 3),
+                                            MediaContract.MoviesColumns.TITLE));
+    }
+}
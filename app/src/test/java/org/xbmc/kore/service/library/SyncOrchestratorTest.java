@@ -0,0 +1,230 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.service.library;
+
+import android.content.ContentResolver;
+import android.content.pm.ProviderInfo;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.greenrobot.eventbus.EventBus;
+import org.greenrobot.eventbus.Subscribe;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.HostInfo;
+import org.xbmc.kore.jsonrpc.ApiException;
+import org.xbmc.kore.jsonrpc.event.MediaSyncEvent;
+import org.xbmc.kore.provider.MediaProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Tests how {@link SyncOrchestrator} runs its sync items, with items that finish when the test tells them to
+ */
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class SyncOrchestratorTest {
+    private static final String AUTHORITY = "org.xbmc.kore.provider";
+
+    /**
+     * Sync item that records when it's started, and is finished by the test
+     */
+    private class TestSyncItem extends SyncItem {
+        private final String syncType, syncGroup;
+
+        TestSyncItem(String syncType, String syncGroup) {
+            this.syncType = syncType;
+            this.syncGroup = syncGroup;
+        }
+
+        @Override
+        public void sync(SyncOrchestrator orchestrator, HostConnection hostConnection,
+                         Handler callbackHandler, ContentResolver contentResolver) {
+            started.add(this);
+        }
+
+        @Override
+        public String getDescription() {
+            return syncType + " of " + syncGroup;
+        }
+
+        @Override
+        public String getSyncType() {
+            return syncType;
+        }
+
+        @Override
+        public Bundle getSyncParams() {
+            return null;
+        }
+
+        @Override
+        public String getSyncGroup() {
+            return syncGroup;
+        }
+    }
+
+    private final List<SyncItem> started = new ArrayList<>();
+    private final List<MediaSyncEvent> events = new ArrayList<>();
+    private int finishedCount;
+    private SyncOrchestrator orchestrator;
+
+    @Before
+    public void setUp() {
+        ContentResolver contentResolver = ApplicationProvider.getApplicationContext().getContentResolver();
+        ProviderInfo info = new ProviderInfo();
+        info.authority = AUTHORITY;
+        Robolectric.buildContentProvider(MediaProvider.class).create(info);
+
+        HostInfo hostInfo = new HostInfo("TESTHOST", "127.0.0.1", HostConnection.PROTOCOL_HTTP,
+                                         HostInfo.DEFAULT_HTTP_PORT, HostInfo.DEFAULT_TCP_PORT, null, null, true,
+                                         HostInfo.DEFAULT_EVENT_SERVER_PORT, false, false);
+        LibrarySyncService service = Robolectric.buildService(LibrarySyncService.class).create().get();
+        orchestrator = new SyncOrchestrator(service, 1, hostInfo, new Handler(Looper.getMainLooper()), contentResolver);
+        orchestrator.setListener(o -> finishedCount++);
+        EventBus.getDefault().register(this);
+    }
+
+    @After
+    public void tearDown() {
+        EventBus.getDefault().unregister(this);
+    }
+
+    @Subscribe
+    public void onEvent(MediaSyncEvent event) {
+        events.add(event);
+    }
+
+    @Test
+    public void concurrentSyncGroupsTest() {
+        TestSyncItem movies = new TestSyncItem(LibrarySyncService.SYNC_ALL_MOVIES, "video"),
+                movie = new TestSyncItem(LibrarySyncService.SYNC_SINGLE_MOVIE, "video"),
+                tvShows = new TestSyncItem(LibrarySyncService.SYNC_ALL_TVSHOWS, "tvshows"),
+                music = new TestSyncItem(LibrarySyncService.SYNC_ALL_MUSIC, "music");
+        start(2, movies, movie, tvShows, music);
+
+        // The second video item waits for the first one, even with a free slot
+        assertEquals(Arrays.asList(movies, tvShows), started);
+        assertEquals(2, orchestrator.getSyncProgress().runningItems.size());
+        orchestrator.syncItemFinished(tvShows);
+        assertEquals(Arrays.asList(movies, tvShows, music), started);
+        orchestrator.syncItemFinished(music);
+        assertEquals(3, started.size());
+        orchestrator.syncItemFinished(movies);
+        assertEquals(Arrays.asList(movies, tvShows, music, movie), started);
+        assertEquals(0, finishedCount);
+
+        orchestrator.syncItemFinished(movie);
+        assertEquals(1, finishedCount);
+        assertEquals(4, events.size());
+        for (MediaSyncEvent event : events) {
+            assertEquals(MediaSyncEvent.STATUS_SUCCESS, event.status);
+        }
+        assertEquals(4, orchestrator.getSyncProgress().finishedItemCount);
+        assertTrue(orchestrator.getSyncItems().isEmpty());
+    }
+
+    @Test
+    public void errorTest() {
+        TestSyncItem movies = new TestSyncItem(LibrarySyncService.SYNC_ALL_MOVIES, "video"),
+                tvShows = new TestSyncItem(LibrarySyncService.SYNC_ALL_TVSHOWS, "tvshows");
+        start(1, movies, tvShows);
+
+        // The error is reported in the item's event, and the other items are still synced
+        orchestrator.syncItemFailed(movies, ApiException.IO_EXCEPTION_WHILE_CONNECTING, "Couldn't connect");
+        assertEquals(1, events.size());
+        assertEquals(LibrarySyncService.SYNC_ALL_MOVIES, events.get(0).syncType);
+        assertEquals(MediaSyncEvent.STATUS_FAIL, events.get(0).status);
+        assertEquals(ApiException.IO_EXCEPTION_WHILE_CONNECTING, events.get(0).errorCode);
+        assertEquals("Couldn't connect", events.get(0).errorMessage);
+        assertEquals(Arrays.asList(movies, tvShows), started);
+
+        // Results of an item that already failed are ignored
+        orchestrator.syncItemFinished(movies);
+        assertEquals(1, events.size());
+
+        orchestrator.syncItemFinished(tvShows);
+        assertEquals(2, events.size());
+        assertEquals(MediaSyncEvent.STATUS_SUCCESS, events.get(1).status);
+        assertEquals(1, finishedCount);
+    }
+
+    @Test
+    public void cancelTest() {
+        TestSyncItem movies = new TestSyncItem(LibrarySyncService.SYNC_ALL_MOVIES, "video"),
+                tvShows = new TestSyncItem(LibrarySyncService.SYNC_ALL_TVSHOWS, "tvshows"),
+                music = new TestSyncItem(LibrarySyncService.SYNC_ALL_MUSIC, "music");
+        start(2, movies, tvShows, music);
+        orchestrator.syncItemFinished(tvShows);
+        assertEquals(Arrays.asList(movies, tvShows, music), started);
+
+        orchestrator.cancelSync();
+        assertEquals(1, finishedCount);
+        assertEquals(3, events.size());
+        for (MediaSyncEvent event : events.subList(1, 3)) {
+            assertEquals(MediaSyncEvent.STATUS_FAIL, event.status);
+            assertEquals(ApiException.API_REQUEST_CANCELLED, event.errorCode);
+        }
+        assertTrue(orchestrator.getSyncItems().isEmpty());
+
+        // The items cancelled are ignored when they finish, and the sync isn't finished again
+        orchestrator.syncItemFinished(movies);
+        orchestrator.cancelSync();
+        assertEquals(3, events.size());
+        assertEquals(1, finishedCount);
+    }
+
+    @Test
+    public void cancelPendingTest() {
+        TestSyncItem movies = new TestSyncItem(LibrarySyncService.SYNC_ALL_MOVIES, "video"),
+                movie = new TestSyncItem(LibrarySyncService.SYNC_SINGLE_MOVIE, "video");
+        start(2, movies, movie);
+
+        // The pending item is never started
+        orchestrator.cancelSync();
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(Arrays.asList(movies), started);
+        assertEquals(2, events.size());
+        assertEquals(LibrarySyncService.SYNC_SINGLE_MOVIE, events.get(1).syncType);
+        assertEquals(ApiException.API_REQUEST_CANCELLED, events.get(1).errorCode);
+        assertEquals(1, finishedCount);
+    }
+
+    private void start(int maxConcurrentSyncs, SyncItem... syncItems) {
+        orchestrator.setMaxConcurrentSyncs(maxConcurrentSyncs);
+        for (SyncItem syncItem : syncItems) {
+            orchestrator.addSyncItem(syncItem);
+        }
+        orchestrator.startSync();
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.service.library;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.jsonrpc.method.VideoLibrary;
+import org.xbmc.kore.provider.MediaContract;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class SyncTVShowsTest extends AbstractSyncTest {
+    private static final int TVSHOWS = 6, SEASONS_PER_SHOW = 2, EPISODES_PER_SEASON = 3;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        library.setTVShows(TVSHOWS, SEASONS_PER_SHOW, EPISODES_PER_SEASON);
+        sync(new SyncTVShows(hostInfo.getId(), null));
+        assertEquals(TVSHOWS, count(MediaContract.TVShows.buildTVShowsListUri(hostInfo.getId())));
+        assertTVShowSynced(TVSHOWS);
+    }
+
+    @Test
+    public void unchangedTVShowsTest() throws Exception {
+        sync(new SyncTVShows(hostInfo.getId(), null));
+
+        assertEquals(TVSHOWS, count(MediaContract.TVShows.buildTVShowsListUri(hostInfo.getId())));
+        for (int tvShowId = 1; tvShowId <= TVSHOWS; tvShowId++) {
+            assertTVShowSynced(tvShowId);
+        }
+        assertEquals(0, getCalls(VideoLibrary.GetSeasons.METHOD_NAME));
+        assertEquals(0, getCalls(VideoLibrary.GetEpisodes.METHOD_NAME));
+    }
+
+    @Test
+    public void changedTVShowTest() throws Exception {
+        library.setItemField("tvshowid", 2, "watchedepisodes", 4);
+        sync(new SyncTVShows(hostInfo.getId(), null));
+
+        assertEquals(TVSHOWS, count(MediaContract.TVShows.buildTVShowsListUri(hostInfo.getId())));
+        assertEquals(4, getInt(MediaContract.TVShows.buildTVShowUri(hostInfo.getId(), 2),
+                               MediaContract.TVShowsColumns.WATCHEDEPISODES));
+        assertTVShowSynced(2);
+        assertEquals(1, getCalls(VideoLibrary.GetSeasons.METHOD_NAME));
+        assertEquals(1, getCalls(VideoLibrary.GetEpisodes.METHOD_NAME));
+    }
+
+    @Test
+    public void removedTVShowTest() throws Exception {
+        library.setTVShows(TVSHOWS - 1, SEASONS_PER_SHOW, EPISODES_PER_SEASON);
+        sync(new SyncTVShows(hostInfo.getId(), null));
+
+        assertEquals(TVSHOWS - 1, count(MediaContract.TVShows.buildTVShowsListUri(hostInfo.getId())));
+        assertEquals(0, count(MediaContract.Seasons.buildTVShowSeasonsListUri(hostInfo.getId(), TVSHOWS)));
+        assertEquals(0, count(MediaContract.Episodes.buildTVShowEpisodesListUri(hostInfo.getId(), TVSHOWS)));
+        assertEquals(0, getCalls(VideoLibrary.GetSeasons.METHOD_NAME));
+    }
+
+    @Test
+    public void fullSyncTest() throws Exception {
+        // Info refreshed on Kodi doesn't change the show change marker
+        library.setItemField("tvshowid", 2, "title", "Refreshed");
+        sync(new SyncTVShows(hostInfo.getId(), null));
+        assertEquals("TV Show 2", getString(MediaContract.TVShows.buildTVShowUri(hostInfo.getId(), 2),
+                                            MediaContract.TVShowsColumns.TITLE));
+
+        sync(new SyncTVShows(hostInfo.getId(), true, null));
+        assertEquals(TVSHOWS, count(MediaContract.TVShows.buildTVShowsListUri(hostInfo.getId())));
+        assertEquals("Refreshed", getString(MediaContract.TVShows.buildTVShowUri(hostInfo.getId(), 2),
+                                            MediaContract.TVShowsColumns.TITLE));
+        assertTVShowSynced(2);
+    }
+
+    private void assertTVShowSynced(int tvShowId) {
+        assertEquals(SEASONS_PER_SHOW,
+                     count(MediaContract.Seasons.buildTVShowSeasonsListUri(hostInfo.getId(), tvShowId)));
+        assertEquals(SEASONS_PER_SHOW * EPISODES_PER_SEASON,
+                     count(MediaContract.Episodes.buildTVShowEpisodesListUri(hostInfo.getId(), tvShowId)));
+    }
+}
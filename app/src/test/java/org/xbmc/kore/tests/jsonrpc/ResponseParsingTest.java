@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.tests.jsonrpc;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.jsonrpc.ApiException;
+import org.xbmc.kore.jsonrpc.ApiList;
+import org.xbmc.kore.jsonrpc.ApiMethod;
+import org.xbmc.kore.jsonrpc.method.AudioLibrary;
+import org.xbmc.kore.jsonrpc.method.VideoLibrary;
+import org.xbmc.kore.jsonrpc.type.AudioType;
+import org.xbmc.kore.jsonrpc.type.ListType;
+import org.xbmc.kore.jsonrpc.type.VideoType;
+import org.xbmc.kore.testutils.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the streaming response parsing ({@link ApiMethod#resultFromJson(JsonParser)}) produces the
+ * same results as the tree based one (read to String, parse to {@link ObjectNode}, convert) on large
+ * captured library responses.
+ */
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class ResponseParsingTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void getSongs() throws Exception {
+        byte[] response = readAsset("AudioLibrary.GetSongs.json");
+        AudioLibrary.GetSongs method = new AudioLibrary.GetSongs();
+
+        ApiList<AudioType.DetailsSong> fromTree = method.resultFromJson(parseTree(response));
+        ApiList<AudioType.DetailsSong> fromStream = method.resultFromJson(createParser(response));
+
+        assertEquals(fromTree.items.size(), fromStream.items.size());
+        assertLimitsEqual(fromTree.limits, fromStream.limits);
+        for (int i = 0; i < fromTree.items.size(); i++) {
+            assertEquals(fromTree.items.get(i).songid, fromStream.items.get(i).songid);
+            assertEquals(fromTree.items.get(i).title, fromStream.items.get(i).title);
+        }
+    }
+
+    @Test
+    public void getMovies() throws Exception {
+        byte[] response = readAsset("Video.Details.Movie.json");
+        VideoLibrary.GetMovies method = new VideoLibrary.GetMovies();
+
+        ApiList<VideoType.DetailsMovie> fromTree = method.resultFromJson(parseTree(response));
+        ApiList<VideoType.DetailsMovie> fromStream = method.resultFromJson(createParser(response));
+
+        assertEquals(fromTree.items.size(), fromStream.items.size());
+        assertLimitsEqual(fromTree.limits, fromStream.limits);
+        for (int i = 0; i < fromTree.items.size(); i++) {
+            assertEquals(fromTree.items.get(i).movieid, fromStream.items.get(i).movieid);
+            assertEquals(fromTree.items.get(i).cast.size(), fromStream.items.get(i).cast.size());
+        }
+    }
+
+    @Test
+    public void limitsFromResponseAndNode() throws Exception {
+        String[] limits = {
+                "{\"start\":0,\"end\":10,\"total\":25}",
+                "{\"start\":5,\"end\":10}",
+                "{}"
+        };
+        for (String limit : limits) {
+            ObjectNode response = (ObjectNode) objectMapper.readTree(
+                    "{\"id\":1,\"jsonrpc\":\"2.0\",\"result\":{\"limits\":" + limit + "}}");
+            assertLimitsEqual(new ListType.LimitsReturned(response),
+                              new ListType.LimitsReturned(response.get("result").get(ListType.LimitsReturned.LIMITS)));
+        }
+
+        ListType.LimitsReturned partial = new ListType.LimitsReturned(objectMapper.readTree("{\"start\":5,\"end\":10}"));
+        assertEquals(-1, partial.total);
+
+        // Without limits, both are unknown
+        ObjectNode noLimits = (ObjectNode) objectMapper.readTree("{\"id\":1,\"jsonrpc\":\"2.0\",\"result\":{}}");
+        assertLimitsEqual(new ListType.LimitsReturned(), new ListType.LimitsReturned(noLimits));
+    }
+
+    @Test
+    public void errorResponse() throws Exception {
+        byte[] response = ("{\"id\":1,\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32601,\"message\":\"Method not found.\"}}")
+                .getBytes(StandardCharsets.UTF_8);
+        try {
+            new AudioLibrary.GetSongs().resultFromJson(objectMapper.getFactory().createParser(response));
+        } catch (ApiException e) {
+            assertEquals(ApiException.API_ERROR, e.getCode());
+            assertEquals("Method not found.", e.getMessage());
+            return;
+        }
+        throw new AssertionError("Error response didn't throw an ApiException");
+    }
+
+    private static void assertLimitsEqual(ListType.LimitsReturned expected, ListType.LimitsReturned actual) {
+        assertEquals(expected.start, actual.start);
+        assertEquals(expected.end, actual.end);
+        assertEquals(expected.total, actual.total);
+    }
+
+    private ObjectNode parseTree(byte[] response) throws IOException {
+        return (ObjectNode) objectMapper.readTree(new String(response, StandardCharsets.UTF_8));
+    }
+
+    private JsonParser createParser(byte[] response) throws IOException {
+        return objectMapper.getFactory().createParser(new ByteArrayInputStream(response));
+    }
+
+    private static byte[] readAsset(String filename) throws IOException {
+        Context context = ApplicationProvider.getApplicationContext();
+        return FileUtils.readFile(context, filename).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.tests.jsonrpc.method;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.HostInfo;
+import org.xbmc.kore.jsonrpc.ApiBatch;
+import org.xbmc.kore.jsonrpc.ApiCallback;
+import org.xbmc.kore.jsonrpc.ApiException;
+import org.xbmc.kore.jsonrpc.ApiFuture;
+import org.xbmc.kore.jsonrpc.ApiList;
+import org.xbmc.kore.jsonrpc.method.Application;
+import org.xbmc.kore.jsonrpc.method.AudioLibrary;
+import org.xbmc.kore.jsonrpc.method.VideoLibrary;
+import org.xbmc.kore.jsonrpc.type.ApplicationType;
+import org.xbmc.kore.jsonrpc.type.AudioType;
+import org.xbmc.kore.jsonrpc.type.ListType;
+import org.xbmc.kore.jsonrpc.type.VideoType;
+import org.xbmc.kore.testutils.tcpserver.MockHttpServer;
+import org.xbmc.kore.testutils.tcpserver.MockTcpServer;
+import org.xbmc.kore.testutils.tcpserver.NetworkConditions;
+import org.xbmc.kore.testutils.tcpserver.handlers.ApplicationHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.AudioLibraryHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.JSONConnectionHandlerManager;
+import org.xbmc.kore.testutils.tcpserver.handlers.SyntheticLibrary;
+import org.xbmc.kore.testutils.tcpserver.handlers.VideoLibraryHandler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the library methods against the synthetic library of the mock Kodi server, through HTTP and TCP
+ */
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 28)
+public class LibraryTest {
+    private static final long TIMEOUT_S = 10;
+
+    private MockTcpServer server;
+    private MockHttpServer httpServer;
+    private SyntheticLibrary library;
+    private BatchHandlerManager manager;
+    private HostConnection hostConnection;
+
+    @Before
+    public void setup() throws Exception {
+        library = new SyntheticLibrary(ApplicationProvider.getApplicationContext());
+        library.setMovies(120)
+               .setMusic(2, 2, 5, 3);
+
+        manager = new BatchHandlerManager();
+        manager.addHandler(new VideoLibraryHandler(library));
+        manager.addHandler(new AudioLibraryHandler(library));
+        manager.addHandler(new ApplicationHandler());
+
+        server = new MockTcpServer(manager);
+        server.start();
+        httpServer = new MockHttpServer(manager);
+        httpServer.start();
+
+        HostInfo hostInfo = new HostInfo("TESTHOST", server.getHostName(), HostConnection.PROTOCOL_HTTP,
+                                         httpServer.getListeningPort(), server.getPort(), null, null, true,
+                                         HostInfo.DEFAULT_EVENT_SERVER_PORT,
+                                         false, false);
+        hostConnection = new HostConnection(hostInfo);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        hostConnection.disconnect();
+        httpServer.stop();
+        server.shutdown();
+    }
+
+    @Test
+    public void getMoviesPageTest() throws Exception {
+        ApiList<VideoType.DetailsMovie> movies =
+                hostConnection.execute(new VideoLibrary.GetMovies(new ListType.Limits(100, 200),
+                                                                  VideoType.FieldsMovie.TITLE))
+                              .get(TIMEOUT_S, TimeUnit.SECONDS);
+
+        assertEquals(20, movies.items.size());
+        assertEquals(100, movies.limits.start);
+        assertEquals(120, movies.limits.end);
+        assertEquals(120, movies.limits.total);
+        assertEquals(101, movies.items.get(0).movieid);
+        assertEquals("Movie 101", movies.items.get(0).title);
+    }
+
+    @Test
+    public void getSongsThroughTcpTest() throws Exception {
+        hostConnection.setProtocol(HostConnection.PROTOCOL_TCP);
+        ApiList<AudioType.DetailsSong> songs =
+                hostConnection.execute(new AudioLibrary.GetSongs(new ListType.Limits(0, 100),
+                                                                 AudioType.DetailsSong.ALBUMID,
+                                                                 AudioType.DetailsSong.ALBUMARTISTID))
+                              .get(TIMEOUT_S, TimeUnit.SECONDS);
+
+        assertEquals(library.getSongCount(), songs.items.size());
+        assertEquals(20, songs.limits.total);
+        // Songs of the last album, of the second artist
+        AudioType.DetailsSong song = songs.items.get(19);
+        assertEquals(20, song.songid);
+        assertEquals(4, song.albumid);
+        assertEquals(2, (int) song.albumartistid.get(0));
+    }
+
+    @Test
+    public void batchTest() throws Exception {
+        final ApiFuture<VideoType.DetailsMovie> movie = new ApiFuture<>();
+        final ApiFuture<VideoType.DetailsMovie> missingMovie = new ApiFuture<>();
+        ApiBatch batch = new ApiBatch()
+                .add(new VideoLibrary.GetMovieDetails(7, VideoType.FieldsMovie.TITLE), futureCallback(movie))
+                .add(new VideoLibrary.GetMovieDetails(1000, VideoType.FieldsMovie.TITLE), futureCallback(missingMovie));
+        hostConnection.execute(batch, null);
+
+        assertEquals(7, movie.get(TIMEOUT_S, TimeUnit.SECONDS).movieid);
+        try {
+            missingMovie.get(TIMEOUT_S, TimeUnit.SECONDS);
+            fail("Details of a movie not in the library");
+        } catch (ExecutionException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void batchMixedResultsTest() throws Exception {
+        // Through HTTP the callbacks are called in the order the methods were added
+        List<String> expected = Arrays.asList("movie 7", "error " + ApiException.API_ERROR, "5 movies", "movie 9");
+        assertEquals(expected, executeMixedBatch());
+
+        // Through TCP each method is sent on its own, and their callbacks can be called in any order
+        hostConnection.setProtocol(HostConnection.PROTOCOL_TCP);
+        List<String> events = executeMixedBatch();
+        Collections.sort(events);
+        List<String> sortedExpected = new ArrayList<>(expected);
+        Collections.sort(sortedExpected);
+        assertEquals(sortedExpected, events);
+    }
+
+    @Test
+    public void batchResponsesOutOfOrderTest() throws Exception {
+        manager.reverseBatches = true;
+        List<String> events = executeMoviesBatch(1, 2, 3, 4, 5);
+
+        // Each response reaches the callback of its method, in the order they were added
+        assertEquals(Arrays.asList("movie 1", "movie 2", "movie 3", "movie 4", "movie 5"), events);
+    }
+
+    @Test
+    public void batchMissingResponseTest() throws Exception {
+        manager.droppedMovieId = 3;
+        List<String> events = executeMoviesBatch(1, 2, 3, 4, 5);
+
+        assertEquals(Arrays.asList("movie 1", "movie 2", "error " + ApiException.INVALID_JSON_RESPONSE_FROM_HOST,
+                                   "movie 4", "movie 5"), events);
+    }
+
+    @Test
+    public void batchCoalescedTest() throws Exception {
+        ApplicationType.PropertyValue volume =
+                hostConnection.execute(new Application.GetProperties(Application.GetProperties.VOLUME))
+                              .get(TIMEOUT_S, TimeUnit.SECONDS);
+
+        // The volume was just read, so only the movie is sent, and the volume read is answered with it
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(2);
+        ApiBatch batch = new ApiBatch()
+                .add(new Application.GetProperties(Application.GetProperties.VOLUME),
+                     recordingCallback(events, latch, result -> (result == volume) ? "same volume" : "new volume"))
+                .add(new VideoLibrary.GetMovieDetails(7, VideoType.FieldsMovie.TITLE),
+                     recordingCallback(events, latch, movie -> "movie " + movie.movieid));
+        hostConnection.execute(batch, null);
+        assertTrue(latch.await(TIMEOUT_S, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("same volume", "movie 7"), events);
+        assertEquals(Collections.singletonList(VideoLibrary.GetMovieDetails.METHOD_NAME), manager.batchMethods);
+
+        // Setting the volume in a batch forgets the volume read, so it's sent again
+        manager.batchMethods.clear();
+        events.clear();
+        latch = new CountDownLatch(2);
+        batch = new ApiBatch()
+                .add(new Application.SetVolume(10), recordingCallback(events, latch, result -> "volume set"))
+                .add(new Application.GetProperties(Application.GetProperties.VOLUME),
+                     recordingCallback(events, latch, result -> "volume " + result.volume));
+        hostConnection.execute(batch, null);
+        assertTrue(latch.await(TIMEOUT_S, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("volume set", "volume 10"), events);
+        assertEquals(Arrays.asList(Application.SetVolume.METHOD_NAME, Application.GetProperties.METHOD_NAME),
+                     manager.batchMethods);
+    }
+
+    /**
+     * Executes a batch with methods that succeed and fail
+     * @return What each callback got, in the order they were called
+     */
+    private List<String> executeMixedBatch() throws InterruptedException {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(4);
+        ApiBatch batch = new ApiBatch()
+                .add(new VideoLibrary.GetMovieDetails(7, VideoType.FieldsMovie.TITLE),
+                     recordingCallback(events, latch, movie -> "movie " + movie.movieid))
+                .add(new VideoLibrary.GetMovieDetails(1000, VideoType.FieldsMovie.TITLE),
+                     recordingCallback(events, latch, movie -> "movie " + movie.movieid))
+                .add(new VideoLibrary.GetMovies(new ListType.Limits(0, 5)),
+                     recordingCallback(events, latch, movies -> movies.items.size() + " movies"))
+                .add(new VideoLibrary.GetMovieDetails(9, VideoType.FieldsMovie.TITLE),
+                     recordingCallback(events, latch, movie -> "movie " + movie.movieid));
+        hostConnection.execute(batch, null);
+
+        assertTrue(latch.await(TIMEOUT_S, TimeUnit.SECONDS));
+        return new ArrayList<>(events);
+    }
+
+    /**
+     * Executes a batch with the details of movies, through HTTP
+     * @return What each callback got, in the order they were called
+     */
+    private List<String> executeMoviesBatch(int... movieIds) throws InterruptedException {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(movieIds.length);
+        ApiBatch batch = new ApiBatch();
+        for (int movieId : movieIds) {
+            batch.add(new VideoLibrary.GetMovieDetails(movieId, VideoType.FieldsMovie.TITLE),
+                      recordingCallback(events, latch, movie -> "movie " + movie.movieid));
+        }
+        hostConnection.execute(batch, null);
+
+        assertTrue(latch.await(TIMEOUT_S, TimeUnit.SECONDS));
+        return new ArrayList<>(events);
+    }
+
+    @Test
+    public void errorFaultTest() throws Exception {
+        httpServer.setNetworkConditions(new NetworkConditions().setFaults(1, 0));
+        try {
+            hostConnection.execute(new VideoLibrary.GetMovies(new ListType.Limits(0, 10)))
+                          .get(TIMEOUT_S, TimeUnit.SECONDS);
+            fail("Error not injected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().getMessage().contains("Internal error"));
+        }
+    }
+
+    private static <T> ApiCallback<T> recordingCallback(final List<String> events, final CountDownLatch latch,
+                                                        final Function<T, String> describe) {
+        return new ApiCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                events.add(describe.apply(result));
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(int errorCode, String description) {
+                events.add("error " + errorCode);
+                latch.countDown();
+            }
+        };
+    }
+
+    private static <T> ApiCallback<T> futureCallback(final ApiFuture<T> future) {
+        return new ApiCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onError(int errorCode, String description) {
+                future.completeExceptionally(new Exception(description));
+            }
+        };
+    }
+
+    /**
+     * Answers HTTP batches with the responses reversed, if set, and without the response to the details of
+     * a movie, if set
+     */
+    private static class BatchHandlerManager extends JSONConnectionHandlerManager {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        volatile boolean reverseBatches = false;
+        volatile int droppedMovieId = -1;
+        /** Methods requested in HTTP batches, in order */
+        final List<String> batchMethods = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String processHttpRequest(String request) {
+            String response = super.processHttpRequest(request);
+            if (response == null) return null;
+            try {
+                JsonNode jsonRequest = objectMapper.readTree(request);
+                JsonNode jsonResponse = objectMapper.readTree(response);
+                if (jsonRequest.isArray()) {
+                    for (JsonNode methodRequest : jsonRequest) batchMethods.add(methodRequest.path("method").asText());
+                }
+                if (!jsonRequest.isArray() || !jsonResponse.isArray()) return response;
+
+                int droppedId = -1;
+                for (JsonNode methodRequest : jsonRequest) {
+                    if (droppedMovieId >= 0 && methodRequest.path("params").path("movieid").asInt() == droppedMovieId) {
+                        droppedId = methodRequest.path("id").asInt();
+                    }
+                }
+                ArrayNode responses = objectMapper.createArrayNode();
+                for (JsonNode methodResponse : jsonResponse) {
+                    if (methodResponse.path("id").asInt() == droppedId) continue;
+                    if (reverseBatches) {
+                        responses.insert(0, methodResponse);
+                    } else {
+                        responses.add(methodResponse);
+                    }
+                }
+                return responses.toString();
+            } catch (IOException e) {
+                return response;
+            }
+        }
+    }
+}
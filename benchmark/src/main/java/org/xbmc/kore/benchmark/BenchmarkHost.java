@@ -0,0 +1,221 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.benchmark;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+
+import androidx.preference.PreferenceManager;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.host.HostInfo;
+import org.xbmc.kore.host.HostManager;
+import org.xbmc.kore.jsonrpc.ApiException;
+import org.xbmc.kore.jsonrpc.type.AudioType;
+import org.xbmc.kore.jsonrpc.type.VideoType;
+import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.service.library.SyncMusic;
+import org.xbmc.kore.service.library.SyncUtils;
+import org.xbmc.kore.testutils.Database;
+import org.xbmc.kore.testutils.FileUtils;
+import org.xbmc.kore.testutils.tcpserver.MockHttpServer;
+import org.xbmc.kore.testutils.tcpserver.MockTcpServer;
+import org.xbmc.kore.testutils.tcpserver.NetworkConditions;
+import org.xbmc.kore.testutils.tcpserver.handlers.AddonsHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.ApplicationHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.AudioLibraryHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.FilesHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.InputHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.JSONConnectionHandlerManager;
+import org.xbmc.kore.testutils.tcpserver.handlers.JSONRPCHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.PVRHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.PlayerHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.PlaylistHandler;
+import org.xbmc.kore.testutils.tcpserver.handlers.SyntheticLibrary;
+import org.xbmc.kore.testutils.tcpserver.handlers.VideoLibraryHandler;
+import org.xbmc.kore.ui.generic.NavigationDrawerFragment;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Host the benchmarks run against: a mock Kodi server, answering both through TCP and HTTP, and the host for it,
+ * which is made the current one.
+ * The mock server serves a {@link SyntheticLibrary}, whose size can be set before syncing it. The library of the
+ * host can also be filled directly with the fixtures, copied as many times as needed to get a large library.
+ */
+public class BenchmarkHost {
+    // Added to the ids of each copy of the fixtures, larger than any id in them
+    private static final int COPY_ID_OFFSET = 100000;
+
+    private final Context context;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private MockTcpServer server;
+    private MockHttpServer httpServer;
+    private final NetworkConditions networkConditions = new NetworkConditions();
+    private SyntheticLibrary library;
+    private PlayerHandler playerHandler;
+    private PlaylistHandler playlistHandler;
+    private HostInfo hostInfo;
+
+    public BenchmarkHost(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * Starts the mock Kodi server and switches to a new host for it
+     * @return Host added
+     */
+    public HostInfo start() throws IOException {
+        library = new SyntheticLibrary(context);
+        playerHandler = new PlayerHandler();
+        playlistHandler = new PlaylistHandler();
+        JSONConnectionHandlerManager manager = new JSONConnectionHandlerManager();
+        manager.addHandler(playerHandler);
+        manager.addHandler(new ApplicationHandler());
+        manager.addHandler(new InputHandler());
+        manager.addHandler(new AddonsHandler());
+        manager.addHandler(playlistHandler);
+        manager.addHandler(new JSONRPCHandler());
+        manager.addHandler(new VideoLibraryHandler(library));
+        manager.addHandler(new AudioLibraryHandler(library));
+        manager.addHandler(new FilesHandler(library));
+        manager.addHandler(new PVRHandler(library));
+        server = new MockTcpServer(manager);
+        server.setNetworkConditions(networkConditions);
+        server.start();
+        httpServer = new MockHttpServer(manager);
+        httpServer.setNetworkConditions(networkConditions);
+        httpServer.start();
+
+        hostInfo = Database.addHost(context, server.getHostName(), HostConnection.PROTOCOL_TCP,
+                                    httpServer.getListeningPort(), server.getPort(), false,
+                                    HostInfo.DEFAULT_KODI_VERSION_MAJOR);
+        // Keep the drawer from opening when an activity starts
+        PreferenceManager.getDefaultSharedPreferences(context)
+                         .edit()
+                         .putBoolean(NavigationDrawerFragment.PREF_USER_LEARNED_DRAWER, true)
+                         .commit();
+        InstrumentationRegistry.getInstrumentation()
+                               .runOnMainSync(() -> HostManager.getInstance(context).switchHost(hostInfo));
+        return hostInfo;
+    }
+
+    /**
+     * Deletes the host, with its library, and stops the mock Kodi server
+     */
+    public void stop() throws IOException {
+        if (hostInfo != null) {
+            final int hostId = hostInfo.getId();
+            InstrumentationRegistry.getInstrumentation()
+                                   .runOnMainSync(() -> HostManager.getInstance(context).deleteHost(hostId));
+            hostInfo = null;
+        }
+        if (server != null) {
+            server.shutdown();
+            server = null;
+        }
+        if (httpServer != null) {
+            httpServer.stop();
+            httpServer = null;
+        }
+    }
+
+    public HostInfo getHostInfo() {
+        return hostInfo;
+    }
+
+    /**
+     * Returns the library served by the mock Kodi server
+     */
+    public SyntheticLibrary getLibrary() {
+        return library;
+    }
+
+    /**
+     * Returns the network conditions of the mock Kodi server, through TCP and HTTP
+     */
+    public NetworkConditions getNetworkConditions() {
+        return networkConditions;
+    }
+
+    public PlayerHandler getPlayerHandler() {
+        return playerHandler;
+    }
+
+    public PlaylistHandler getPlaylistHandler() {
+        return playlistHandler;
+    }
+
+    /**
+     * Fills the library of the host with the fixtures, and then adds copies of the fixture movies and songs,
+     * with new ids, until there are at least the given number of each
+     * @param movieCount Minimum number of movies
+     * @param songCount Minimum number of songs
+     */
+    public void fillLibrary(int movieCount, int songCount) throws ApiException, IOException {
+        ContentResolver contentResolver = context.getContentResolver();
+        Database.fill(hostInfo, context, contentResolver);
+        int hostId = hostInfo.getId();
+
+        JsonNode movies = readFixture("Video.Details.Movie.json").path("movies");
+        for (int copy = 1; copy * movies.size() < movieCount; copy++) {
+            ContentValues[] movieValues = new ContentValues[movies.size()];
+            for (int i = 0; i < movies.size(); i++) {
+                ObjectNode movie = copyItem(movies.get(i), "movieid", copy);
+                movieValues[i] = SyncUtils.contentValuesFromMovie(hostId, new VideoType.DetailsMovie(movie));
+            }
+            contentResolver.bulkInsert(MediaContract.Movies.CONTENT_URI, movieValues);
+        }
+
+        SyncMusic syncMusic = new SyncMusic(null);
+        JsonNode songs = readFixture("AudioLibrary.GetSongs.json").path("songs");
+        for (int copy = 1; copy * songs.size() < songCount; copy++) {
+            List<AudioType.DetailsSong> songItems = new ArrayList<>(songs.size());
+            for (JsonNode song : songs) {
+                songItems.add(new AudioType.DetailsSong(copyItem(song, "songid", copy)));
+            }
+            syncMusic.insertSongsItems(hostId, songItems, contentResolver);
+        }
+    }
+
+    /**
+     * Reads the result of a fixture response
+     * @param fileName Name of the fixture
+     * @return Result node
+     */
+    public JsonNode readFixture(String fileName) throws IOException {
+        return objectMapper.readTree(FileUtils.readFile(context, fileName)).path("result");
+    }
+
+    /**
+     * Copies an item of a fixture, giving it a new id and title
+     */
+    static ObjectNode copyItem(JsonNode item, String idField, int copy) {
+        ObjectNode itemCopy = item.deepCopy();
+        itemCopy.put(idField, item.path(idField).asInt() + copy * COPY_ID_OFFSET);
+        itemCopy.put("title", item.path("title").asText() + " " + copy);
+        return itemCopy;
+    }
+}
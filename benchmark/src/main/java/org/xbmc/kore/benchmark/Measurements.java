@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.benchmark;
+
+import android.app.Instrumentation;
+import android.os.Bundle;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures the runs of a benchmark scenario: the time each one took and the bytes allocated while it ran.
+ * Allocations are counted for the whole process, so they include those of any other thread running at the
+ * same time, such as the loaders of a list.
+ * Call {@link #start()} and {@link #stop()} around each run, and {@link #report()} after the last one.
+ */
+public class Measurements {
+    private static final String TAG = Measurements.class.getSimpleName();
+    private static final int REPORT_STATUS_CODE = 2;
+
+    private final String name;
+    private final List<Long> timesMs = new ArrayList<>(), allocatedKb = new ArrayList<>();
+    private final List<Long> frameTimesMs = new ArrayList<>(), requestTimesMs = new ArrayList<>();
+
+    private long startTime, startAllocated;
+
+    /**
+     * @param name Name of the scenario, used in the reports
+     */
+    public Measurements(String name) {
+        this.name = name;
+    }
+
+    public void start() {
+        startAllocated = getBytesAllocated();
+        startTime = SystemClock.elapsedRealtime();
+    }
+
+    public void stop() {
+        timesMs.add(SystemClock.elapsedRealtime() - startTime);
+        allocatedKb.add((getBytesAllocated() - startAllocated) / 1024);
+    }
+
+    /**
+     * Adds the durations of the frames drawn during a run
+     * @param durationsMs Frame durations, in milliseconds
+     */
+    public void addFrameTimes(List<Long> durationsMs) {
+        frameTimesMs.addAll(durationsMs);
+    }
+
+    /**
+     * Adds the durations of the requests to Kodi made during a run
+     * @param durationsMs Request durations, from sending each one until its response is read, in milliseconds
+     */
+    public synchronized void addRequestTimes(List<Long> durationsMs) {
+        requestTimesMs.addAll(durationsMs);
+    }
+
+    /**
+     * Logs the distribution of the measurements, and reports them as instrumentation status
+     */
+    public void report() {
+        Bundle status = new Bundle();
+        StringBuilder summary = new StringBuilder(name);
+        summarize(summary, status, "time", "ms", timesMs);
+        summarize(summary, status, "allocated", "KB", allocatedKb);
+        if (!frameTimesMs.isEmpty()) {
+            summarize(summary, status, "frame", "ms", frameTimesMs);
+            int jankyFrames = 0;
+            for (long frameTime : frameTimesMs) {
+                if (frameTime > 16) jankyFrames++;
+            }
+            summary.append("\n  janky frames: ").append(jankyFrames).append(" of ").append(frameTimesMs.size());
+            status.putInt(name + "_janky_frames", jankyFrames);
+        }
+        summarize(summary, status, "request", "ms", requestTimesMs);
+
+        Log.i(TAG, summary.toString());
+        status.putString(Instrumentation.REPORT_KEY_STREAMRESULT, summary.append("\n").toString());
+        InstrumentationRegistry.getInstrumentation().sendStatus(REPORT_STATUS_CODE, status);
+    }
+
+    private void summarize(StringBuilder summary, Bundle status, String metric, String unit, List<Long> values) {
+        if (values.isEmpty()) return;
+
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        long total = 0;
+        for (long value : sorted) total += value;
+        long median = sorted.get(sorted.size() / 2),
+                p90 = sorted.get((int) (sorted.size() * 0.9)),
+                max = sorted.get(sorted.size() - 1);
+
+        summary.append(String.format(Locale.US, "\n  %s: runs %d, mean %d %s, p50 %d %s, p90 %d %s, max %d %s",
+                                     metric, sorted.size(), total / sorted.size(), unit,
+                                     median, unit, p90, unit, max, unit));
+        status.putLong(name + "_" + metric + "_median", median);
+        status.putLong(name + "_" + metric + "_p90", p90);
+    }
+
+    private static long getBytesAllocated() {
+        String bytesAllocated = Debug.getRuntimeStat("art.gc.bytes-allocated");
+        try {
+            return (bytesAllocated == null) ? 0 : Long.parseLong(bytesAllocated);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.benchmark;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.xbmc.kore.jsonrpc.ApiList;
+import org.xbmc.kore.jsonrpc.ApiMethod;
+import org.xbmc.kore.jsonrpc.method.AudioLibrary;
+import org.xbmc.kore.jsonrpc.method.VideoLibrary;
+import org.xbmc.kore.testutils.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures parsing large library responses, built from the fixtures with their items copied, in both ways
+ * {@link org.xbmc.kore.host.HostConnection} can read them: streaming, with
+ * {@link ApiMethod#resultFromJson(JsonParser)}, as HTTP responses are read, and reading the whole response
+ * into a String and a json tree first, with {@link ApiMethod#resultFromJson(String)}.
+ * The results of both are checked to be the same by ResponseParsingTest, in the app's unit tests.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ParsingBenchmark {
+    private static final int SONG_COUNT = 20000;
+    private static final int MOVIE_COUNT = 5000;
+    private static final int RUNS = 10;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void parseSongs() throws Exception {
+        byte[] response = buildResponse("AudioLibrary.GetSongs.json", "songs", "songid", SONG_COUNT);
+        AudioLibrary.GetSongs method = new AudioLibrary.GetSongs();
+
+        Measurements tree = new Measurements("parse_songs_tree"),
+                stream = new Measurements("parse_songs_stream");
+        for (int run = 0; run < RUNS; run++) {
+            assertEquals(SONG_COUNT, parseTree(method, response, tree).items.size());
+            assertEquals(SONG_COUNT, parseStream(method, response, stream).items.size());
+        }
+        tree.report();
+        stream.report();
+    }
+
+    @Test
+    public void parseMovies() throws Exception {
+        byte[] response = buildResponse("Video.Details.Movie.json", "movies", "movieid", MOVIE_COUNT);
+        VideoLibrary.GetMovies method = new VideoLibrary.GetMovies();
+
+        Measurements tree = new Measurements("parse_movies_tree"),
+                stream = new Measurements("parse_movies_stream");
+        for (int run = 0; run < RUNS; run++) {
+            assertEquals(MOVIE_COUNT, parseTree(method, response, tree).items.size());
+            assertEquals(MOVIE_COUNT, parseStream(method, response, stream).items.size());
+        }
+        tree.report();
+        stream.report();
+    }
+
+    /**
+     * Parses a response as HostConnection used to, reading it into a String and then a json tree
+     */
+    private static <T> ApiList<T> parseTree(ApiMethod<ApiList<T>> method, byte[] response,
+                                            Measurements measurements) throws Exception {
+        measurements.start();
+        ApiList<T> result = method.resultFromJson(new String(response, StandardCharsets.UTF_8));
+        measurements.stop();
+        return result;
+    }
+
+    /**
+     * Parses a response as HostConnection reads HTTP responses, from the stream of its body
+     */
+    private <T> ApiList<T> parseStream(ApiMethod<ApiList<T>> method, byte[] response,
+                                       Measurements measurements) throws Exception {
+        measurements.start();
+        ApiList<T> result;
+        try (JsonParser parser = objectMapper.getFactory().createParser(new ByteArrayInputStream(response))) {
+            result = method.resultFromJson(parser);
+        }
+        measurements.stop();
+        return result;
+    }
+
+    /**
+     * Builds the response to a list request, with the items of a fixture copied until there are the given number
+     * @param fileName Name of the fixture
+     * @param field Field of the result with the items
+     * @param idField Id field of the items
+     * @param count Number of items in the response
+     * @return Response, encoded as it's read from the network
+     */
+    private byte[] buildResponse(String fileName, String field, String idField, int count) throws Exception {
+        JsonNode fixtureItems = objectMapper.readTree(FileUtils.readFile(context, fileName))
+                                            .path("result").path(field);
+        ObjectNode result = objectMapper.createObjectNode();
+        ArrayNode items = result.putArray(field);
+        for (int copy = 0; items.size() < count; copy++) {
+            for (JsonNode item : fixtureItems) {
+                if (items.size() == count) break;
+                items.add((copy == 0) ? item : BenchmarkHost.copyItem(item, idField, copy));
+            }
+        }
+        result.putObject("limits")
+              .put("start", 0)
+              .put("end", count)
+              .put("total", count);
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("id", 1);
+        response.put("jsonrpc", "2.0");
+        response.set("result", result);
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.benchmark;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Context;
+import android.content.Intent;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.FrameMetrics;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.Window;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.xbmc.kore.ui.AbstractTabsFragment;
+import org.xbmc.kore.ui.sections.audio.MusicActivity;
+import org.xbmc.kore.ui.sections.audio.MusicListFragment;
+import org.xbmc.kore.ui.sections.video.MoviesActivity;
+import org.xbmc.kore.ui.viewgroups.GridRecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures scrolling the movies and the songs lists over a large library. Each run scrolls the list down
+ * by the same distance on every frame, and measures the time it took, the bytes allocated, and the duration
+ * of each frame drawn.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScrollBenchmark {
+    private static final int MOVIE_COUNT = 5000;
+    private static final int SONG_COUNT = 20000;
+
+    private static final int RUNS = 5;
+    private static final int SCROLL_FRAMES = 300;
+    private static final int SCROLL_DP_PER_FRAME = 40;
+    private static final long TIMEOUT_MS = 30000;
+
+    // Position of the songs tab in MusicListFragment, and preference from which the tab shown is restored
+    private static final int SONGS_TAB = 3;
+    private static final String PREFERENCE_LAST_TAB = "lastTab_" + MusicListFragment.class.getName();
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+    private final Context context = instrumentation.getTargetContext();
+    private BenchmarkHost host;
+    private HandlerThread frameMetricsThread;
+
+    @Before
+    public void setUp() throws Exception {
+        host = new BenchmarkHost(context);
+        host.start();
+        host.fillLibrary(MOVIE_COUNT, SONG_COUNT);
+
+        frameMetricsThread = new HandlerThread("FrameMetrics");
+        frameMetricsThread.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        frameMetricsThread.quit();
+        host.stop();
+    }
+
+    @Test
+    public void scrollMovies() throws Exception {
+        measureScroll("scroll_movies", new Intent(context, MoviesActivity.class), MOVIE_COUNT);
+    }
+
+    @Test
+    public void scrollSongs() throws Exception {
+        context.getSharedPreferences(AbstractTabsFragment.PREFERENCES_NAME, Context.MODE_PRIVATE)
+               .edit()
+               .putInt(PREFERENCE_LAST_TAB, SONGS_TAB)
+               .commit();
+        measureScroll("scroll_songs", new Intent(context, MusicActivity.class), SONG_COUNT);
+    }
+
+    private void measureScroll(String name, Intent intent, int itemCount) throws Exception {
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        Activity activity = instrumentation.startActivitySync(intent);
+        RecyclerView list = waitForList(activity, itemCount);
+        int scrollPx = (int) (SCROLL_DP_PER_FRAME * context.getResources().getDisplayMetrics().density);
+
+        Measurements measurements = new Measurements(name);
+        for (int run = 0; run < RUNS; run++) {
+            instrumentation.runOnMainSync(() -> list.scrollToPosition(0));
+            instrumentation.waitForIdleSync();
+
+            final List<Long> frameTimes = new ArrayList<>();
+            Window.OnFrameMetricsAvailableListener frameMetricsListener = (window, frameMetrics, dropCount) -> {
+                synchronized (frameTimes) {
+                    frameTimes.add(TimeUnit.NANOSECONDS.toMillis(frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION)));
+                }
+            };
+            instrumentation.runOnMainSync(() -> activity.getWindow().addOnFrameMetricsAvailableListener(
+                    frameMetricsListener, new Handler(frameMetricsThread.getLooper())));
+
+            measurements.start();
+            scroll(list, scrollPx);
+            measurements.stop();
+
+            // Frame metrics are reported after the frames are drawn
+            instrumentation.waitForIdleSync();
+            SystemClock.sleep(500);
+            instrumentation.runOnMainSync(() -> activity.getWindow().removeOnFrameMetricsAvailableListener(
+                    frameMetricsListener));
+            synchronized (frameTimes) {
+                measurements.addFrameTimes(frameTimes);
+            }
+        }
+        measurements.report();
+
+        instrumentation.runOnMainSync(activity::finish);
+        instrumentation.waitForIdleSync();
+    }
+
+    /**
+     * Scrolls the list down on each of the next {@link #SCROLL_FRAMES} frames
+     */
+    private void scroll(final RecyclerView list, final int scrollPx) throws InterruptedException {
+        final CountDownLatch scrolled = new CountDownLatch(1);
+        instrumentation.runOnMainSync(() -> Choreographer.getInstance().postFrameCallback(new Choreographer.FrameCallback() {
+            private int frames = 0;
+
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                list.scrollBy(0, scrollPx);
+                if (++frames < SCROLL_FRAMES) {
+                    Choreographer.getInstance().postFrameCallback(this);
+                } else {
+                    scrolled.countDown();
+                }
+            }
+        }));
+        assertTrue("Scroll didn't finish", scrolled.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Waits until the list shown in the activity has loaded its items
+     * @param itemCount Minimum number of items the list has once loaded
+     * @return List
+     */
+    private RecyclerView waitForList(Activity activity, int itemCount) {
+        long deadline = SystemClock.elapsedRealtime() + TIMEOUT_MS;
+        final RecyclerView[] list = new RecyclerView[1];
+        while (SystemClock.elapsedRealtime() < deadline) {
+            instrumentation.runOnMainSync(() -> {
+                list[0] = findShownList(activity.getWindow().getDecorView());
+                if ((list[0] != null) &&
+                    ((list[0].getAdapter() == null) || (list[0].getAdapter().getItemCount() < itemCount))) {
+                    list[0] = null;
+                }
+            });
+            if (list[0] != null) return list[0];
+            SystemClock.sleep(100);
+        }
+        throw new AssertionError("List with " + itemCount + " items not shown");
+    }
+
+    /**
+     * Finds the media list shown on screen. Tabs not shown also have their lists in the view hierarchy
+     */
+    private static RecyclerView findShownList(View view) {
+        if ((view instanceof GridRecyclerView) && view.isShown() && view.getGlobalVisibleRect(new Rect())) {
+            return (RecyclerView) view;
+        }
+        if (view instanceof ViewGroup) {
+            ViewGroup viewGroup = (ViewGroup) view;
+            for (int i = 0; i < viewGroup.getChildCount(); i++) {
+                RecyclerView list = findShownList(viewGroup.getChildAt(i));
+                if (list != null) return list;
+            }
+        }
+        return null;
+    }
+}
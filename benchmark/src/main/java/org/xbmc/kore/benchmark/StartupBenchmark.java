@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.benchmark;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Context;
+import android.content.Intent;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.xbmc.kore.testutils.tcpserver.handlers.jsonrpc.response.methods.Playlist;
+import org.xbmc.kore.ui.sections.remote.RemoteActivity;
+
+import static org.xbmc.kore.testutils.TestUtils.createMusicItem;
+
+/**
+ * Measures the start of {@link RemoteActivity}, with something playing on the host, from the start
+ * request until its first frame is drawn and the main thread is idle.
+ * The activity is started anew on each run, but in the same process, so it measures the start of the
+ * activity, not of the process.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+    private static final int RUNS = 15;
+
+    private final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+    private final Context context = instrumentation.getTargetContext();
+    private BenchmarkHost host;
+
+    @Before
+    public void setUp() throws Exception {
+        host = new BenchmarkHost(context);
+        host.start();
+        host.getPlaylistHandler().addItemToPlaylist(Playlist.playlistID.AUDIO, createMusicItem(0, 0), false);
+        host.getPlayerHandler().setPlaylists(host.getPlaylistHandler().getPlaylists());
+        host.getPlayerHandler().startPlay(Playlist.playlistID.AUDIO, 0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        host.stop();
+    }
+
+    @Test
+    public void remoteActivityStart() {
+        Measurements measurements = new Measurements("remote_activity_start");
+        // The first start loads the classes and resources used, as a previous use of the app would have
+        startAndFinish(null);
+        for (int run = 0; run < RUNS; run++) {
+            startAndFinish(measurements);
+        }
+        measurements.report();
+    }
+
+    private void startAndFinish(Measurements measurements) {
+        Intent intent = new Intent(context, RemoteActivity.class)
+                .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+
+        if (measurements != null) measurements.start();
+        Activity activity = instrumentation.startActivitySync(intent);
+        instrumentation.waitForIdleSync();
+        if (measurements != null) measurements.stop();
+
+        instrumentation.runOnMainSync(activity::finish);
+        instrumentation.waitForIdleSync();
+    }
+}
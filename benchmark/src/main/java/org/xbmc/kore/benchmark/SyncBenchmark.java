@@ -0,0 +1,365 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.benchmark;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.Intent;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.greenrobot.eventbus.EventBus;
+import org.greenrobot.eventbus.Subscribe;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.xbmc.kore.jsonrpc.event.MediaSyncEvent;
+import org.xbmc.kore.jsonrpc.method.AudioLibrary;
+import org.xbmc.kore.jsonrpc.type.AudioType;
+import org.xbmc.kore.jsonrpc.type.LibraryType;
+import org.xbmc.kore.jsonrpc.type.ListType;
+import org.xbmc.kore.provider.BulkInserter;
+import org.xbmc.kore.provider.MediaContract;
+import org.xbmc.kore.provider.MediaDatabase;
+import org.xbmc.kore.service.library.LibrarySyncService;
+import org.xbmc.kore.service.library.SyncMusic;
+import org.xbmc.kore.service.library.SyncUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures syncing a library.
+ * {@link #syncMusic()} parses the responses of each page of artists, genres, albums and songs, in the page
+ * sizes the sync requests them, and writes them to the database, as {@link SyncMusic} does. The responses
+ * are built from the fixtures before the runs, with the songs copied to get a large library, so this
+ * measures the work done on the device and not the time waiting for Kodi.
+ * {@link #insertSongs()} writes the same pages of songs to the database in the two ways the provider has had:
+ * a {@link ContentValues} per song inserted with {@link SQLiteDatabase#insertOrThrow(String, String, ContentValues)},
+ * and rows bound directly to the compiled statement of a {@link BulkInserter}, as the sync does.
+ * The other scenarios run the {@link LibrarySyncService} against the synthetic library of the mock Kodi
+ * server, through HTTP as always, with the latency of a local network.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SyncBenchmark {
+    private static final int SONG_COUNT = 20000;
+    private static final int MOVIE_COUNT = 5000;
+    private static final int RUNS = 5;
+    private static final long SYNC_TIMEOUT_S = 600;
+
+    // Latency of each request to the mock Kodi server
+    private static final long LATENCY_MS = 5, JITTER_MS = 5;
+
+    // Same page sizes as SyncMusic
+    private static final int PAGE_SIZE_ARTISTS = 300;
+    private static final int PAGE_SIZE_ALBUMS = 300;
+    private static final int PAGE_SIZE_SONGS = 600;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private final ContentResolver contentResolver = context.getContentResolver();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BenchmarkHost host;
+
+    @Before
+    public void setUp() throws Exception {
+        host = new BenchmarkHost(context);
+        host.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        host.stop();
+    }
+
+    @Test
+    public void syncMusic() throws Exception {
+        List<String> artistPages = buildPages(host.readFixture("AudioLibrary.GetArtists.json").path("artists"),
+                                              "artists", PAGE_SIZE_ARTISTS);
+        String genresResponse = buildResponse(host.readFixture("AudioLibrary.GetGenres.json"));
+        List<String> albumPages = buildPages(host.readFixture("AudioLibrary.GetAlbums.json").path("albums"),
+                                             "albums", PAGE_SIZE_ALBUMS);
+        ArrayNode songs = buildSongs();
+        List<String> songPages = buildPages(songs, "songs", PAGE_SIZE_SONGS);
+
+        int hostId = host.getHostInfo().getId();
+        SyncMusic syncMusic = new SyncMusic(null);
+        Measurements measurements = new Measurements("sync_music");
+        for (int run = 0; run < RUNS; run++) {
+            deleteMusic(hostId);
+
+            measurements.start();
+            for (int page = 0; page < artistPages.size(); page++) {
+                ListType.Limits limits = new ListType.Limits(page * PAGE_SIZE_ARTISTS, (page + 1) * PAGE_SIZE_ARTISTS);
+                List<AudioType.DetailsArtist> artists =
+                        new AudioLibrary.GetArtists(limits, true).resultFromJson(artistPages.get(page)).items;
+                syncMusic.insertArtists(hostId, artists, contentResolver);
+            }
+            List<LibraryType.DetailsGenre> genres = new AudioLibrary.GetGenres().resultFromJson(genresResponse);
+            syncMusic.insertGenresItems(hostId, genres, contentResolver);
+            for (int page = 0; page < albumPages.size(); page++) {
+                ListType.Limits limits = new ListType.Limits(page * PAGE_SIZE_ALBUMS, (page + 1) * PAGE_SIZE_ALBUMS);
+                List<AudioType.DetailsAlbum> albums =
+                        new AudioLibrary.GetAlbums(limits).resultFromJson(albumPages.get(page)).items;
+                syncMusic.insertAlbumsItems(hostId, albums, contentResolver);
+            }
+            for (int page = 0; page < songPages.size(); page++) {
+                ListType.Limits limits = new ListType.Limits(page * PAGE_SIZE_SONGS, (page + 1) * PAGE_SIZE_SONGS);
+                List<AudioType.DetailsSong> pageSongs =
+                        new AudioLibrary.GetSongs(limits).resultFromJson(songPages.get(page)).items;
+                syncMusic.insertSongsItems(hostId, pageSongs, contentResolver);
+            }
+            measurements.stop();
+
+            assertEquals(songs.size(), countSongs(hostId));
+        }
+        measurements.report();
+    }
+
+    @Test
+    public void insertSongs() throws Exception {
+        List<List<AudioType.DetailsSong>> songPages = new ArrayList<>();
+        for (String page : buildPages(buildSongs(), "songs", PAGE_SIZE_SONGS)) {
+            songPages.add(new AudioLibrary.GetSongs().resultFromJson(page).items);
+        }
+        int hostId = host.getHostInfo().getId();
+
+        Measurements insertOrThrow = new Measurements("insert_songs_content_values"),
+                bulkInserter = new Measurements("insert_songs_bulk_inserter");
+        MediaDatabase mediaDatabase = new MediaDatabase(context);
+        try {
+            SQLiteDatabase db = mediaDatabase.getWritableDatabase();
+            for (int run = 0; run < RUNS; run++) {
+                deleteMusic(hostId);
+                insertOrThrow.start();
+                for (List<AudioType.DetailsSong> page : songPages) {
+                    insertSongsContentValues(db, hostId, page);
+                }
+                insertOrThrow.stop();
+                assertEquals(SONG_COUNT, countSongs(hostId));
+
+                deleteMusic(hostId);
+                bulkInserter.start();
+                for (List<AudioType.DetailsSong> page : songPages) {
+                    SyncUtils.bulkInsert(contentResolver, MediaContract.Songs.CONTENT_URI, inserter -> {
+                        inserter.columns(SyncUtils.SONG_COLUMNS);
+                        for (AudioType.DetailsSong song : page) {
+                            SyncUtils.bindSong(inserter, hostId, song);
+                            inserter.insert();
+                        }
+                    });
+                }
+                bulkInserter.stop();
+                assertEquals(SONG_COUNT, countSongs(hostId));
+            }
+        } finally {
+            mediaDatabase.close();
+        }
+        insertOrThrow.report();
+        bulkInserter.report();
+    }
+
+    /**
+     * Inserts a page of songs as the provider did before {@link BulkInserter}: a {@link ContentValues} per song,
+     * each inserted with {@link SQLiteDatabase#insertOrThrow(String, String, ContentValues)} in one transaction
+     */
+    private static void insertSongsContentValues(SQLiteDatabase db, int hostId, List<AudioType.DetailsSong> songs) {
+        ContentValues[] songValues = new ContentValues[songs.size()];
+        for (int i = 0; i < songs.size(); i++) {
+            songValues[i] = SyncUtils.contentValuesFromSong(hostId, songs.get(i));
+        }
+
+        long updateTime = System.currentTimeMillis();
+        db.beginTransaction();
+        try {
+            for (ContentValues values : songValues) {
+                values.put(MediaContract.SyncColumns.UPDATED, updateTime);
+                db.insertOrThrow(MediaDatabase.Tables.SONGS, null, values);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Test
+    public void syncMusicFromHost() throws Exception {
+        // 1000 artists with 2 albums of 10 songs each
+        host.getLibrary().setMusic(1000, 2, 10, 50);
+        host.getNetworkConditions().setLatency(LATENCY_MS, JITTER_MS);
+        int hostId = host.getHostInfo().getId();
+
+        Measurements measurements = new Measurements("sync_music_from_host");
+        for (int run = 0; run < RUNS; run++) {
+            deleteMusic(hostId);
+
+            measurements.start();
+            sync(LibrarySyncService.SYNC_ALL_MUSIC);
+            measurements.stop();
+
+            assertEquals(host.getLibrary().getSongCount(), countSongs(hostId));
+        }
+        measurements.report();
+    }
+
+    @Test
+    public void syncMoviesFromHost() throws Exception {
+        host.getLibrary().setMovies(MOVIE_COUNT);
+        host.getNetworkConditions().setLatency(LATENCY_MS, JITTER_MS);
+        int hostId = host.getHostInfo().getId();
+
+        Measurements measurements = new Measurements("sync_movies_from_host");
+        for (int run = 0; run < RUNS; run++) {
+            contentResolver.delete(MediaContract.Movies.CONTENT_URI, MediaContract.Movies.HOST_ID + "=?",
+                                   new String[] {String.valueOf(hostId)});
+
+            measurements.start();
+            sync(LibrarySyncService.SYNC_ALL_MOVIES);
+            measurements.stop();
+
+            try (Cursor cursor = contentResolver.query(MediaContract.Movies.buildMoviesListUri(hostId),
+                    new String[] {MediaContract.Movies.MOVIEID}, null, null, null)) {
+                assertNotNull(cursor);
+                assertEquals(MOVIE_COUNT, cursor.getCount());
+            }
+        }
+        measurements.report();
+    }
+
+    /**
+     * Starts a sync of the current host, and waits for it to finish
+     * @param syncType Sync to start, one of the constants in {@link LibrarySyncService}
+     */
+    private void sync(String syncType) throws InterruptedException {
+        SyncListener listener = new SyncListener(syncType);
+        EventBus.getDefault().register(listener);
+        try {
+            Intent syncIntent = new Intent(context, LibrarySyncService.class);
+            syncIntent.putExtra(syncType, true);
+            context.startService(syncIntent);
+
+            assertTrue("sync timed out", listener.done.await(SYNC_TIMEOUT_S, TimeUnit.SECONDS));
+            assertEquals("sync failed: " + listener.event.errorMessage,
+                         MediaSyncEvent.STATUS_SUCCESS, listener.event.status);
+        } finally {
+            EventBus.getDefault().unregister(listener);
+        }
+    }
+
+    public static class SyncListener {
+        private final String syncType;
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile MediaSyncEvent event;
+
+        SyncListener(String syncType) {
+            this.syncType = syncType;
+        }
+
+        @Subscribe
+        public void onEvent(MediaSyncEvent event) {
+            if (!syncType.equals(event.syncType)) return;
+            this.event = event;
+            done.countDown();
+        }
+    }
+
+    /**
+     * Builds the responses to the page requests of a list
+     * @param items All the items of the list
+     * @param field Field of the result with the items
+     * @param pageSize Number of items per page
+     * @return Responses of each page
+     */
+    private List<String> buildPages(JsonNode items, String field, int pageSize) throws Exception {
+        List<String> pages = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += pageSize) {
+            int end = Math.min(start + pageSize, items.size());
+            ObjectNode result = objectMapper.createObjectNode();
+            ArrayNode pageItems = result.putArray(field);
+            for (int i = start; i < end; i++) {
+                pageItems.add(items.get(i));
+            }
+            result.putObject("limits")
+                  .put("start", start)
+                  .put("end", end)
+                  .put("total", items.size());
+            pages.add(buildResponse(result));
+        }
+        return pages;
+    }
+
+    /**
+     * Builds a list of {@link #SONG_COUNT} songs, copying the fixture songs with new ids
+     */
+    private ArrayNode buildSongs() throws Exception {
+        JsonNode fixtureSongs = host.readFixture("AudioLibrary.GetSongs.json").path("songs");
+        ArrayNode songs = objectMapper.createArrayNode();
+        for (int copy = 0; songs.size() < SONG_COUNT; copy++) {
+            for (JsonNode song : fixtureSongs) {
+                if (songs.size() == SONG_COUNT) break;
+                songs.add((copy == 0) ? song : BenchmarkHost.copyItem(song, "songid", copy));
+            }
+        }
+        return songs;
+    }
+
+    private String buildResponse(JsonNode result) throws Exception {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("id", 1);
+        response.put("jsonrpc", "2.0");
+        response.set("result", result);
+        return objectMapper.writeValueAsString(response);
+    }
+
+    /**
+     * Deletes the music library of the host, as the sync does before writing the first page
+     */
+    private void deleteMusic(int hostId) {
+        String where = MediaContract.Artists.HOST_ID + "=?";
+        String[] whereArgs = {String.valueOf(hostId)};
+        contentResolver.delete(MediaContract.AlbumArtists.CONTENT_URI, where, whereArgs);
+        contentResolver.delete(MediaContract.AlbumGenres.CONTENT_URI, where, whereArgs);
+        contentResolver.delete(MediaContract.SongArtists.CONTENT_URI, where, whereArgs);
+        contentResolver.delete(MediaContract.Songs.CONTENT_URI, where, whereArgs);
+        contentResolver.delete(MediaContract.AudioGenres.CONTENT_URI, where, whereArgs);
+        contentResolver.delete(MediaContract.Albums.CONTENT_URI, where, whereArgs);
+        contentResolver.delete(MediaContract.Artists.CONTENT_URI, where, whereArgs);
+    }
+
+    private int countSongs(int hostId) {
+        try (Cursor cursor = contentResolver.query(MediaContract.Songs.CONTENT_URI,
+                new String[] {MediaContract.Songs.SONGID}, MediaContract.Songs.HOST_ID + "=?",
+                new String[] {String.valueOf(hostId)}, null)) {
+            return (cursor == null) ? 0 : cursor.getCount();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 XBMC Foundation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.xbmc.kore.benchmark;
+
+import android.content.Context;
+import android.os.SystemClock;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.xbmc.kore.host.HostConnection;
+import org.xbmc.kore.jsonrpc.ApiList;
+import org.xbmc.kore.jsonrpc.method.VideoLibrary;
+import org.xbmc.kore.jsonrpc.type.ListType;
+import org.xbmc.kore.jsonrpc.type.VideoType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the transports to Kodi under load: hundreds of clients, each with its own {@link HostConnection},
+ * reading pages of movies from the mock Kodi server at the same time, through HTTP and through TCP.
+ * Reports the time each run took and the duration of each request.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TransportBenchmark {
+    private static final int CLIENTS = 200;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int PAGE_SIZE = 50;
+    private static final int RUNS = 3;
+    private static final long LATENCY_MS = 5, JITTER_MS = 5;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private BenchmarkHost host;
+
+    @Before
+    public void setUp() throws Exception {
+        host = new BenchmarkHost(context);
+        host.start();
+        host.getLibrary().setMovies(PAGE_SIZE * REQUESTS_PER_CLIENT);
+        host.getNetworkConditions().setLatency(LATENCY_MS, JITTER_MS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        host.stop();
+    }
+
+    @Test
+    public void concurrentClientsHttp() throws Exception {
+        runClients("transport_http", HostConnection.PROTOCOL_HTTP);
+    }
+
+    @Test
+    public void concurrentClientsTcp() throws Exception {
+        runClients("transport_tcp", HostConnection.PROTOCOL_TCP);
+    }
+
+    private void runClients(String name, int protocol) throws Exception {
+        Measurements measurements = new Measurements(name);
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            for (int run = 0; run < RUNS; run++) {
+                List<HostConnection> connections = new ArrayList<>(CLIENTS);
+                for (int i = 0; i < CLIENTS; i++) {
+                    HostConnection connection = new HostConnection(host.getHostInfo());
+                    connection.setProtocol(protocol);
+                    connections.add(connection);
+                }
+
+                measurements.start();
+                List<Future<List<Long>>> clients = new ArrayList<>(CLIENTS);
+                for (HostConnection connection : connections) {
+                    clients.add(executor.submit(() -> readMovies(connection)));
+                }
+                for (Future<List<Long>> client : clients) {
+                    measurements.addRequestTimes(client.get());
+                }
+                measurements.stop();
+
+                for (HostConnection connection : connections) {
+                    connection.disconnect();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        measurements.report();
+    }
+
+    /**
+     * Reads all the movies of the library, a page at a time
+     * @return Duration of each request, in milliseconds
+     */
+    private List<Long> readMovies(HostConnection connection) throws Exception {
+        List<Long> requestTimes = new ArrayList<>(REQUESTS_PER_CLIENT);
+        for (int page = 0; page < REQUESTS_PER_CLIENT; page++) {
+            ListType.Limits limits = new ListType.Limits(page * PAGE_SIZE, (page + 1) * PAGE_SIZE);
+            long startTime = SystemClock.elapsedRealtime();
+            ApiList<VideoType.DetailsMovie> movies =
+                    connection.execute(new VideoLibrary.GetMovies(limits, VideoType.FieldsMovie.TITLE)).get();
+            requestTimes.add(SystemClock.elapsedRealtime() - startTime);
+            assertEquals(PAGE_SIZE, movies.items.size());
+        }
+        return requestTimes;
+    }
+}